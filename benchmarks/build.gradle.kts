@@ -0,0 +1,36 @@
+import com.github.vlsi.gradle.properties.dsl.props
+
+plugins {
+    `java-library`
+    id("me.champeau.jmh")
+}
+
+dependencies {
+    jmhImplementation(projects.darklafCore)
+    // DarkSVGIcon exposes types of these libraries, which the icon benchmarks compile against.
+    jmhImplementation(libs.svgSalamander)
+    jmhImplementation(libs.visualPaddings)
+}
+
+// Run a subset of the benchmarks using e.g. ./gradlew :darklaf-benchmarks:jmh -PjmhInclude=Antialiasing
+val jmhInclude by props("")
+
+jmh {
+    jmhVersion.set(libs.versions.jmh.get())
+    jvmArgsAppend.add("-Djava.awt.headless=true")
+    // Report allocation rates alongside the timings.
+    profilers.add("gc")
+    if (jmhInclude.isNotEmpty()) {
+        includes.add(jmhInclude)
+    }
+}
+
+// Make sure the benchmarks keep compiling even though they aren't run as part of the build.
+tasks.check {
+    dependsOn(tasks.named("compileJmhJava"))
+}
+
+// Benchmarks aren't part of the distribution.
+tasks.withType<AbstractPublishToMaven>().configureEach {
+    enabled = false
+}
@@ -0,0 +1,112 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.benchmarks;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.FilteredImageSource;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.weisj.darklaf.graphics.AntialiasingImageFilter;
+import com.github.weisj.darklaf.graphics.AntialiasingRasterFilter;
+
+/**
+ * Compares the {@link AntialiasingImageFilter} with the {@link AntialiasingRasterFilter} on a line of
+ * text painted with sub-pixel antialiasing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("deprecation")
+public class AntialiasingFilterBenchmark {
+
+    private static final Color FOREGROUND = new Color(187, 187, 187);
+    private static final Color BACKGROUND = Color.BLACK;
+
+    @Param({"false", "true"})
+    private boolean blendWithDestination;
+
+    private BufferedImage text;
+    private BufferedImage destination;
+    private BufferedImage target;
+    private BufferedImage imageFilterTarget;
+
+    @Setup
+    public void setup() {
+        text = new BufferedImage(240, 20, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = text.createGraphics();
+        g.setColor(BACKGROUND);
+        g.fillRect(0, 0, text.getWidth(), text.getHeight());
+        g.setColor(FOREGROUND);
+        g.setFont(new Font(Font.DIALOG, Font.PLAIN, 13));
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_LCD_HRGB);
+        g.drawString("The quick brown fox jumps over the lazy dog", 2, 15);
+        g.dispose();
+
+        destination = new BufferedImage(400, 200, BufferedImage.TYPE_INT_ARGB);
+        Random random = new Random(0);
+        for (int y = 0; y < destination.getHeight(); y++) {
+            for (int x = 0; x < destination.getWidth(); x++) {
+                destination.setRGB(x, y, 0xFF000000 | random.nextInt(0xFFFFFF));
+            }
+        }
+        target = new BufferedImage(text.getWidth(), text.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        imageFilterTarget = new BufferedImage(text.getWidth(), text.getHeight(), BufferedImage.TYPE_INT_ARGB);
+    }
+
+    private BufferedImage getDestination() {
+        return blendWithDestination ? destination : null;
+    }
+
+    @Benchmark
+    public BufferedImage imageFilter() {
+        Image filtered = Toolkit.getDefaultToolkit().createImage(new FilteredImageSource(text.getSource(),
+                new AntialiasingImageFilter(getDestination(), 20, 40, FOREGROUND, BACKGROUND)));
+        // The filtered image is only produced once it is painted.
+        Graphics2D g = imageFilterTarget.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.drawImage(filtered, 0, 0, null);
+        g.dispose();
+        return imageFilterTarget;
+    }
+
+    @Benchmark
+    public BufferedImage rasterFilter() {
+        return new AntialiasingRasterFilter(FOREGROUND, BACKGROUND).filter(text, getDestination(), 20, 40, target);
+    }
+}
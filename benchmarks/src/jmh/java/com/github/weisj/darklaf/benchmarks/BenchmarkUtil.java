@@ -0,0 +1,55 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.benchmarks;
+
+import javax.swing.*;
+
+import com.github.weisj.darklaf.LafManager;
+import com.github.weisj.darklaf.theme.DarculaTheme;
+import com.github.weisj.darklaf.theme.Theme;
+
+final class BenchmarkUtil {
+
+    private BenchmarkUtil() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    static Theme findTheme(final String prefix) {
+        for (Theme theme : LafManager.getRegisteredThemes()) {
+            if (theme.getPrefix().equals(prefix)) return theme;
+        }
+        throw new IllegalArgumentException("No theme with prefix '" + prefix + "' is registered.");
+    }
+
+    static void installLaf() {
+        if (!LafManager.isInstalled()) LafManager.install(new DarculaTheme());
+    }
+
+    /**
+     * Sizes the component to its preferred size and lays it out. The component is never shown, hence it
+     * can be painted from the benchmark thread.
+     */
+    static void layout(final JComponent c) {
+        c.setSize(c.getPreferredSize());
+        c.doLayout();
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.benchmarks;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableModel;
+import javax.swing.tree.DefaultMutableTreeNode;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.weisj.darklaf.ui.list.DarkListUI;
+
+/**
+ * Measures painting the visible part of a tree, table and list with large models into an offscreen
+ * image. The painted area is located in the middle of the component, as it would be if the component
+ * were scrolled. Lists with fewer rows than fit into the visible area fill the remaining space with empty
+ * rows. The wide table has a million rows whose heights are set through {@link JTable#setRowHeight(int, int)}
+ * if the row height is variable.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComponentPaintBenchmark {
+
+    private static final int VIEW_WIDTH = 800;
+    private static final int VIEW_HEIGHT = 600;
+    private static final int CHILDREN_PER_NODE = 100;
+    private static final int TABLE_COLUMNS = 8;
+    private static final int WIDE_TABLE_COLUMNS = 250;
+    private static final int WIDE_TABLE_ROWS = 1000000;
+    private static final int SCROLL_STEP = 37;
+
+    private final BufferedImage image = new BufferedImage(VIEW_WIDTH, VIEW_HEIGHT, BufferedImage.TYPE_INT_RGB);
+
+    @State(Scope.Thread)
+    public static class TreeState {
+
+        @Param({"1000", "100000"})
+        private int rowCount;
+
+        private JTree tree;
+
+        @Setup
+        public void setup() {
+            BenchmarkUtil.installLaf();
+            DefaultMutableTreeNode root = new DefaultMutableTreeNode("Root");
+            DefaultMutableTreeNode parent = null;
+            for (int i = 0; i < rowCount; i++) {
+                if (i % CHILDREN_PER_NODE == 0) {
+                    parent = new DefaultMutableTreeNode("Node " + i);
+                    root.add(parent);
+                } else {
+                    parent.add(new DefaultMutableTreeNode("Leaf " + i));
+                }
+            }
+            tree = new JTree(root);
+            for (int i = tree.getRowCount() - 1; i >= 0; i--) {
+                tree.expandRow(i);
+            }
+            BenchmarkUtil.layout(tree);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class TableState {
+
+        @Param({"1000", "100000"})
+        private int rowCount;
+
+        private JTable table;
+
+        @Setup
+        public void setup() {
+            BenchmarkUtil.installLaf();
+            DefaultTableModel model = new DefaultTableModel(rowCount, TABLE_COLUMNS);
+            for (int row = 0; row < rowCount; row++) {
+                for (int column = 0; column < TABLE_COLUMNS; column++) {
+                    model.setValueAt("Cell " + row + ":" + column, row, column);
+                }
+            }
+            table = new JTable(model);
+            table.setSize(VIEW_WIDTH, table.getPreferredSize().height);
+            table.doLayout();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class WideTableState {
+
+        @Param({"false", "true"})
+        private boolean variableRowHeight;
+
+        private JTable table;
+        private int scrollPosition;
+
+        @Setup
+        public void setup() {
+            BenchmarkUtil.installLaf();
+            table = new JTable(new AbstractTableModel() {
+                @Override
+                public int getRowCount() {
+                    return WIDE_TABLE_ROWS;
+                }
+
+                @Override
+                public int getColumnCount() {
+                    return WIDE_TABLE_COLUMNS;
+                }
+
+                @Override
+                public Object getValueAt(final int rowIndex, final int columnIndex) {
+                    return columnIndex % 10 == 0 ? "Row " + rowIndex : null;
+                }
+            });
+            table.setAutoResizeMode(JTable.AUTO_RESIZE_OFF);
+            table.setShowGrid(true);
+            for (int column = 0; column < WIDE_TABLE_COLUMNS; column++) {
+                table.getColumnModel().getColumn(column).setPreferredWidth(20 + 5 * (column % 3));
+            }
+            if (variableRowHeight) {
+                for (int row = 0; row < table.getRowCount(); row += 3) {
+                    table.setRowHeight(row, 2 * table.getRowHeight());
+                }
+            }
+            table.setSize(table.getPreferredSize());
+            table.doLayout();
+        }
+
+        private int nextScrollPosition() {
+            scrollPosition = (scrollPosition + SCROLL_STEP) % (table.getHeight() - VIEW_HEIGHT);
+            return scrollPosition;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ListState {
+
+        @Param({"10", "1000", "100000"})
+        private int rowCount;
+
+        private JList<String> list;
+
+        @Setup
+        public void setup() {
+            BenchmarkUtil.installLaf();
+            DefaultListModel<String> model = new DefaultListModel<>();
+            for (int i = 0; i < rowCount; i++) {
+                model.addElement("Item " + i);
+            }
+            list = new JList<>(model);
+            BenchmarkUtil.layout(list);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ScrollingListState {
+
+        @Param({"false", "true"})
+        private boolean alternateRowColor;
+
+        private JList<String> list;
+        private int scrollPosition;
+
+        @Setup
+        public void setup() {
+            BenchmarkUtil.installLaf();
+            DefaultListModel<String> model = new DefaultListModel<>();
+            for (int i = 0; i < 100000; i++) {
+                model.addElement("Item " + i);
+            }
+            list = new JList<>(model);
+            list.putClientProperty(DarkListUI.KEY_ALTERNATE_ROW_COLOR, alternateRowColor);
+            for (int i = 0; i < model.getSize(); i += 50) {
+                list.addSelectionInterval(i, i + 4);
+            }
+            BenchmarkUtil.layout(list);
+        }
+
+        private int nextScrollPosition() {
+            scrollPosition = (scrollPosition + SCROLL_STEP) % (list.getHeight() - VIEW_HEIGHT);
+            return scrollPosition;
+        }
+    }
+
+    private Graphics2D createViewGraphics(final JComponent c) {
+        Graphics2D g = image.createGraphics();
+        int y = Math.max(0, (c.getHeight() - VIEW_HEIGHT) / 2);
+        g.translate(0, -y);
+        g.clipRect(0, y, VIEW_WIDTH, VIEW_HEIGHT);
+        return g;
+    }
+
+    @Benchmark
+    public BufferedImage paintTree(final TreeState state) {
+        Graphics2D g = createViewGraphics(state.tree);
+        state.tree.getUI().paint(g, state.tree);
+        g.dispose();
+        return image;
+    }
+
+    @Benchmark
+    public BufferedImage paintTable(final TableState state) {
+        Graphics2D g = createViewGraphics(state.table);
+        state.table.getUI().paint(g, state.table);
+        g.dispose();
+        return image;
+    }
+
+    @Benchmark
+    public BufferedImage scrollWideTable(final WideTableState state) {
+        Graphics2D g = image.createGraphics();
+        int y = state.nextScrollPosition();
+        g.translate(0, -y);
+        g.clipRect(0, y, VIEW_WIDTH, VIEW_HEIGHT);
+        state.table.getUI().paint(g, state.table);
+        g.dispose();
+        return image;
+    }
+
+    @Benchmark
+    public BufferedImage paintList(final ListState state) {
+        Graphics2D g = createViewGraphics(state.list);
+        state.list.getUI().paint(g, state.list);
+        g.dispose();
+        return image;
+    }
+
+    @Benchmark
+    public BufferedImage scrollList(final ScrollingListState state) {
+        Graphics2D g = image.createGraphics();
+        int y = state.nextScrollPosition();
+        g.translate(0, -y);
+        g.clipRect(0, y, VIEW_WIDTH, VIEW_HEIGHT);
+        state.list.getUI().paint(g, state.list);
+        g.dispose();
+        return image;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.benchmarks;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.*;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.weisj.darklaf.DarkLaf;
+import com.github.weisj.darklaf.properties.PropertyLoader;
+import com.github.weisj.darklaf.properties.icons.IconResolver;
+import com.github.weisj.darklaf.properties.parser.Parser;
+import com.github.weisj.darklaf.ui.util.DarkUIUtil;
+
+/**
+ * Measures parsing each of the property files of the laf. References are resolved against the defaults
+ * of the installed theme. Each file is measured with both the step-wise and the single pass parser.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyLoaderBenchmark {
+
+    @Param({"globals", "platform/linux", "ui/borders", "ui/button", "ui/cell", "ui/checkBox", "ui/colorChooser",
+            "ui/comboBox", "ui/fileChooser", "ui/tristate", "ui/internalFrame", "ui/label", "ui/list", "ui/menu",
+            "ui/menuBar", "ui/menuItem", "ui/numberingPane", "ui/optionPane", "ui/panel", "ui/popupMenu",
+            "ui/progressBar", "ui/radioButton", "ui/rootPane", "ui/scrollBar", "ui/scrollPane", "ui/separator",
+            "ui/slider", "ui/spinner", "ui/splitPane", "ui/statusBar", "ui/tabbedPane", "ui/tabFrame", "ui/table",
+            "ui/taskPane", "ui/text", "ui/toggleButton", "ui/toolBar", "ui/toolTip", "ui/tree", "ui/misc"})
+    private String file;
+
+    @Param({"false", "true"})
+    private boolean singlePass;
+
+    private Properties properties;
+    private Properties accumulator;
+    private UIDefaults defaults;
+    private IconResolver iconResolver;
+    private boolean savedSinglePassMode;
+
+    @Setup
+    public void setup() {
+        BenchmarkUtil.installLaf();
+        savedSinglePassMode = Parser.isSinglePassMode();
+        Parser.setSinglePassMode(singlePass);
+        int separator = file.lastIndexOf('/') + 1;
+        properties = PropertyLoader.loadProperties(DarkLaf.class, file.substring(separator),
+                file.substring(0, separator));
+        UIDefaults lafDefaults = UIManager.getLookAndFeelDefaults();
+        accumulator = new Properties();
+        defaults = new UIDefaults(lafDefaults.size(), 0.75f);
+        for (Map.Entry<Object, Object> entry : lafDefaults.entrySet()) {
+            accumulator.put(entry.getKey(), entry.getValue());
+            defaults.put(entry.getKey(), entry.getValue());
+        }
+        iconResolver = DarkUIUtil.iconResolver();
+    }
+
+    @TearDown
+    public void tearDown() {
+        Parser.setSinglePassMode(savedSinglePassMode);
+    }
+
+    @Benchmark
+    public Properties putProperties() {
+        PropertyLoader.putProperties(properties, accumulator, defaults, iconResolver);
+        return accumulator;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.benchmarks;
+
+import java.awt.*;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.*;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.weisj.darklaf.iconset.IconSet;
+import com.github.weisj.darklaf.properties.icons.DarkSVGIcon;
+import com.github.weisj.darklaf.properties.icons.IconColorMapper;
+import com.github.weisj.darklaf.properties.icons.IconLoader;
+
+/**
+ * Measures rasterizing a themed svg icon and patching its colors with the values of the installed
+ * theme.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SVGIconBenchmark {
+
+    private static final int ICON_SIZE = 32;
+
+    private DarkSVGIcon icon;
+
+    @State(Scope.Thread)
+    public static class ImageSize {
+
+        @Param({"1", "2"})
+        private int scale;
+
+        private Dimension size;
+
+        @Setup
+        public void setup() {
+            size = new Dimension(scale * ICON_SIZE, scale * ICON_SIZE);
+        }
+    }
+
+    @Setup
+    public void setup() {
+        BenchmarkUtil.installLaf();
+        icon = (DarkSVGIcon) IconLoader.get(IconSet.class).loadSVGIcon("dialog/errorDialog.svg",
+                ICON_SIZE, ICON_SIZE, true);
+        // Load the icon and patch its colors once up front.
+        icon.createImage(new Dimension(ICON_SIZE, ICON_SIZE));
+    }
+
+    @Benchmark
+    public Image createImage(final ImageSize imageSize) {
+        return icon.createImage(imageSize.size);
+    }
+
+    @Benchmark
+    public DarkSVGIcon patchColors() {
+        IconColorMapper.patchColors(icon.getSVGIcon(), UIManager.getDefaults(), null);
+        return icon;
+    }
+}
@@ -22,6 +22,9 @@
 package com.github.weisj.darklaf;
 
 import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -35,6 +38,7 @@ import com.github.weisj.darklaf.theme.laf.ThemedLookAndFeel;
 import com.github.weisj.darklaf.ui.DarkPopupFactory;
 import com.github.weisj.darklaf.ui.popupmenu.MouseGrabberUtil;
 import com.github.weisj.darklaf.util.LogUtil;
+import com.github.weisj.darklaf.util.PropertyUtil;
 import com.github.weisj.darklaf.util.SystemInfo;
 
 /** @author Jannis Weis */
@@ -42,6 +46,9 @@ public class DarkLaf extends ThemedLookAndFeel {
 
     public static final String SYSTEM_PROPERTY_PREFIX = "darklaf.";
     public static final String ALLOW_NATIVE_CODE_FLAG = DarkLaf.SYSTEM_PROPERTY_PREFIX + "allowNativeCode";
+    public static final String INCREMENTAL_INSTALL_FLAG = DarkLaf.SYSTEM_PROPERTY_PREFIX + "incrementalInstall";
+    public static final String PARALLEL_INIT_FLAG = DarkLaf.SYSTEM_PROPERTY_PREFIX + "parallelDefaultsInit";
+    public static final String PREPARE_THEMED_ICONS_FLAG = DarkLaf.SYSTEM_PROPERTY_PREFIX + "prepareThemedIcons";
     private static final Logger LOGGER = LogUtil.getLogger(DarkLaf.class);
 
     /*
@@ -87,9 +94,30 @@ public class DarkLaf extends ThemedLookAndFeel {
         this(null, true);
     }
 
+    /*
+     * Whether the base look and feel is Metal. Otherwise the base look and feel is the system look and
+     * feel, whose defaults can't be prepared ahead of time.
+     */
+    static boolean usesMetalBase() {
+        return SystemInfo.isWindows || SystemInfo.isLinux;
+    }
+
+    /*
+     * The leading tasks which neither need the laf to be installed nor have any side effects. These can
+     * be run ahead of time on a background thread.
+     */
+    static List<DefaultsInitTask> getPreloadableTasks() {
+        List<DefaultsInitTask> tasks = new ArrayList<>();
+        for (DefaultsInitTask task : INIT_TASKS) {
+            if (task.onlyDuringInstallation() || task.getDependencies() == null) break;
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
     private LookAndFeel getBase() {
         LookAndFeel baseLaf;
-        if (SystemInfo.isWindows || SystemInfo.isLinux) {
+        if (usesMetalBase()) {
             baseLaf = new MetalLookAndFeel();
         } else {
             final String systemLafClassName = UIManager.getSystemLookAndFeelClassName();
@@ -142,11 +170,23 @@ public class DarkLaf extends ThemedLookAndFeel {
 
     @Override
     public UIDefaults getDefaults() {
-        final UIDefaults defaults = base.getDefaults();
         final Theme currentTheme = getTheme();
-        for (DefaultsInitTask task : INIT_TASKS) {
-            if (task.onlyDuringInstallation() && !isInitialized) continue;
-            task.run(currentTheme, defaults);
+        final ThemePreload.PreparedDefaults prepared =
+                isInitialized ? ThemePreload.takePreparedDefaults(currentTheme) : null;
+        final UIDefaults defaults = prepared != null ? prepared.defaults : base.getDefaults();
+        final int firstTask = prepared != null ? prepared.completedTasks : 0;
+        if (PropertyUtil.getSystemFlag(PARALLEL_INIT_FLAG, false)) {
+            List<DefaultsInitTask> tasks = new ArrayList<>(INIT_TASKS.length);
+            for (int i = firstTask; i < INIT_TASKS.length; i++) {
+                if (INIT_TASKS[i].onlyDuringInstallation() && !isInitialized) continue;
+                tasks.add(INIT_TASKS[i]);
+            }
+            DefaultsInitTaskScheduler.run(tasks, currentTheme, defaults);
+        } else {
+            for (int i = firstTask; i < INIT_TASKS.length; i++) {
+                if (INIT_TASKS[i].onlyDuringInstallation() && !isInitialized) continue;
+                INIT_TASKS[i].run(currentTheme, defaults);
+            }
         }
         if (isInitialized) {
             postInstall();
@@ -154,6 +194,46 @@ public class DarkLaf extends ThemedLookAndFeel {
         return defaults;
     }
 
+    /*
+     * Computes the defaults for a theme which only differs from the installed theme in its accent colors.
+     * Only the values derived from the accent colors are computed again. Tasks whose values may override
+     * them are run again on top. Returns null if the defaults can't be computed this way.
+     */
+    static UIDefaults computeAccentColorDefaults(final Theme installedTheme, final Theme theme,
+            final UIDefaults installedDefaults) {
+        if (!LafManager.getUserInitTasks().isEmpty()) return null;
+        UIDefaults defaults = new UIDefaults(installedDefaults.size(), 0.75f);
+        for (Map.Entry<Object, Object> entry : installedDefaults.entrySet()) {
+            defaults.put(entry.getKey(), entry.getValue());
+        }
+        for (DefaultsInitTask task : INIT_TASKS) {
+            if (task instanceof ThemeDefaultsInitTask) {
+                Map<Object, Object> changes =
+                        ((ThemeDefaultsInitTask) task).computeAccentColorChanges(installedTheme, theme, defaults);
+                if (changes == null) return null;
+                // UIDefaults#put removes keys with a null value.
+                changes.forEach(defaults::put);
+            } else if (task instanceof SystemDefaultsInitTask || task instanceof PlatformDefaultsInitTask) {
+                task.run(theme, defaults);
+            }
+        }
+        return defaults;
+    }
+
+    /*
+     * Applies the given changes to the defaults of the installed look and feel and finishes the
+     * installation of the theme.
+     */
+    void installIncrementally(final Theme theme, final UIDefaultsDiff diff) {
+        setTheme(theme);
+        UIDefaults defaults = UIManager.getLookAndFeelDefaults();
+        diff.applyTo(defaults);
+        for (DefaultsInitTask task : INIT_TASKS) {
+            if (task.onlyDuringInstallation()) task.run(theme, defaults);
+        }
+        postInstall();
+    }
+
     private void postInstall() {
         Theme currentTheme = getTheme();
         if (!LafManager.getInstalledTheme().equals(currentTheme)) {
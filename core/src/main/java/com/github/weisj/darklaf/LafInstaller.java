@@ -21,20 +21,31 @@
  */
 package com.github.weisj.darklaf;
 
+import java.awt.Component;
+import java.awt.Container;
 import java.awt.Window;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.swing.JComponent;
+import javax.swing.JMenu;
+import javax.swing.JPopupMenu;
+import javax.swing.LookAndFeel;
 import javax.swing.SwingUtilities;
+import javax.swing.UIDefaults;
 import javax.swing.UIManager;
 import javax.swing.UnsupportedLookAndFeelException;
 
+import com.github.weisj.darklaf.properties.icons.IconLoader;
 import com.github.weisj.darklaf.theme.Theme;
 import com.github.weisj.darklaf.theme.event.ThemeChangeEvent;
 import com.github.weisj.darklaf.theme.event.ThemeChangeListener;
 import com.github.weisj.darklaf.theme.event.ThemeEventSupport;
 import com.github.weisj.darklaf.util.LogUtil;
+import com.github.weisj.darklaf.util.PropertyUtil;
 
 final class LafInstaller {
 
@@ -50,8 +61,13 @@ final class LafInstaller {
         try {
             LOGGER.fine(() -> "Installing theme " + theme);
             LafTransition transition = LafTransition.showSnapshot();
-            UIManager.setLookAndFeel(new DarkLaf(theme, false));
-            updateLaf();
+            if (!installIncrementally(theme)) {
+                UIManager.setLookAndFeel(new DarkLaf(theme, false));
+                updateLaf();
+            }
+            if (PropertyUtil.getSystemFlag(DarkLaf.PREPARE_THEMED_ICONS_FLAG, false)) {
+                IconLoader.prepareThemedIconsInBackground();
+            }
             SwingUtilities.invokeLater(transition::runTransition);
             notifyThemeInstalled(theme);
         } catch (final UnsupportedLookAndFeelException e) {
@@ -61,6 +77,78 @@ final class LafInstaller {
         }
     }
 
+    /*
+     * If only the accent colors of the theme change it suffices to compute the values derived from them,
+     * patch the changed defaults and update the components whose defaults changed. Components only
+     * affected by global values are repainted. If the affected components can't be determined all of them
+     * are updated, which still spares recreating the look and feel. Fonts and sizes on the other hand
+     * affect the layout of the whole component hierarchy, hence require a full update.
+     */
+    private boolean installIncrementally(final Theme theme) {
+        if (!PropertyUtil.getSystemFlag(DarkLaf.INCREMENTAL_INSTALL_FLAG, false)) return false;
+        LookAndFeel laf = UIManager.getLookAndFeel();
+        if (!(laf instanceof DarkLaf)) return false;
+        Theme installedTheme = LafManager.getInstalledTheme();
+        if (!Objects.equals(installedTheme.getThemeClass(), theme.getThemeClass())
+                || !Objects.equals(installedTheme.getFontSizeRule(), theme.getFontSizeRule())) {
+            return false;
+        }
+        // The installed look and feel is left untouched until it is certain the changes can be applied.
+        UIDefaults defaults = UIManager.getLookAndFeelDefaults();
+        UIDefaults newDefaults = DarkLaf.computeAccentColorDefaults(installedTheme, theme, defaults);
+        if (newDefaults == null) return false;
+        UIDefaultsDiff diff = new UIDefaultsDiff(defaults, newDefaults);
+        if (diff.affectsLayout()) {
+            LOGGER.fine("Theme changes fonts or sizes. Falling back to full installation.");
+            return false;
+        }
+        Set<String> uiClassIDs = diff.getAffectedUIClassIDs(defaults);
+        LOGGER.fine(() -> "Updating " + diff.getChangedKeys().size() + " changed defaults of " + uiClassIDs);
+        ((DarkLaf) laf).installIncrementally(theme, diff);
+        if (uiClassIDs == null) {
+            LOGGER.fine("Changed defaults can't be attributed to specific components. Updating all components.");
+            updateLaf();
+            return true;
+        }
+        for (final Window w : Window.getWindows()) {
+            updateLafRecursively(w, uiClassIDs);
+        }
+        return true;
+    }
+
+    private void updateLafRecursively(final Window window, final Set<String> uiClassIDs) {
+        for (final Window childWindow : window.getOwnedWindows()) {
+            updateLafRecursively(childWindow, uiClassIDs);
+        }
+        updateComponentUI(window, uiClassIDs);
+        // Values may also be queried during painting.
+        window.repaint();
+    }
+
+    /*
+     * Mirrors SwingUtilities#updateComponentTreeUI but only updates components whose ui class id is
+     * contained in the given set.
+     */
+    private void updateComponentUI(final Component c, final Set<String> uiClassIDs) {
+        if (c instanceof JComponent) {
+            JComponent jc = (JComponent) c;
+            if (uiClassIDs.contains(jc.getUIClassID())) jc.updateUI();
+            JPopupMenu popupMenu = jc.getComponentPopupMenu();
+            if (popupMenu != null) updateComponentUI(popupMenu, uiClassIDs);
+        }
+        Component[] children = null;
+        if (c instanceof JMenu) {
+            children = ((JMenu) c).getMenuComponents();
+        } else if (c instanceof Container) {
+            children = ((Container) c).getComponents();
+        }
+        if (children != null) {
+            for (Component child : children) {
+                updateComponentUI(child, uiClassIDs);
+            }
+        }
+    }
+
     void updateLaf() {
         for (final Window w : Window.getWindows()) {
             updateLafRecursively(w);
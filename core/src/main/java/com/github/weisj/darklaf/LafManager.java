@@ -22,8 +22,11 @@
 package com.github.weisj.darklaf;
 
 import java.awt.*;
+import java.io.File;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -50,6 +53,9 @@ import com.github.weisj.darklaf.util.LogUtil;
  */
 public final class LafManager {
 
+    public static final String THEME_SNAPSHOT_DIRECTORY_KEY =
+            DarkLaf.SYSTEM_PROPERTY_PREFIX + "themeSnapshotDirectory";
+
     private static final Logger LOGGER = LogUtil.getLogger(LafManager.class);
     private static final LafInstaller installer = new LafInstaller();
     private static ThemeProvider themeProvider;
@@ -58,6 +64,7 @@ public final class LafManager {
     private static final List<Theme> registeredThemes = new ArrayList<>();
     private static final Collection<DefaultsAdjustmentTask> uiDefaultsTasks = new ArrayList<>();
     private static final Collection<DefaultsInitTask> uiInitTasks = new ArrayList<>();
+    private static File themeSnapshotDirectory;
 
     static {
         setLogLevel(Level.WARNING);
@@ -443,6 +450,33 @@ public final class LafManager {
         setInstalledTheme(theme);
     }
 
+    /**
+     * Prepares the installation of the given theme on a background thread. Property files are parsed,
+     * icons are loaded and fonts are set up ahead of time. If the theme is installed after the preload
+     * has completed only the remaining work has to be done on the event dispatch thread.
+     *
+     * @param theme the theme to preload.
+     * @return the preload, which completes once the theme is prepared.
+     * @see #preload(Theme, Executor)
+     */
+    public static ThemePreload preload(final Theme theme) {
+        return preload(theme, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Prepares the installation of the given theme using the given executor.
+     *
+     * @param theme the theme to preload.
+     * @param executor the executor to run the preload on.
+     * @return the preload, which completes once the theme is prepared.
+     * @see #preload(Theme)
+     */
+    public static ThemePreload preload(final Theme theme, final Executor executor) {
+        ThemePreload preload = new ThemePreload(Objects.requireNonNull(theme));
+        preload.start(executor);
+        return preload;
+    }
+
     /** Update the component ui classes for all current windows. */
     public static void updateLaf() {
         installer.updateLaf();
@@ -504,6 +538,35 @@ public final class LafManager {
         return uiInitTasks;
     }
 
+    /**
+     * Sets the directory used to store precompiled snapshots of the theme defaults. If a valid snapshot
+     * exists for the theme being installed the property files don't need to be parsed. Otherwise, a
+     * snapshot is created after the defaults have been loaded. Snapshots are invalidated automatically
+     * if any of the property files they were created from change.
+     *
+     * <p>
+     * Snapshots aren't used if any {@link DefaultsAdjustmentTask}s are registered.
+     *
+     * @param directory the snapshot directory or null if snapshots shouldn't be used.
+     * @see #THEME_SNAPSHOT_DIRECTORY_KEY
+     */
+    public static void setThemeSnapshotDirectory(final File directory) {
+        themeSnapshotDirectory = directory;
+    }
+
+    /**
+     * Get the directory used to store snapshots of the theme defaults. If none has been set explicitly
+     * the directory specified by the system property {@link #THEME_SNAPSHOT_DIRECTORY_KEY} is used.
+     *
+     * @return the snapshot directory or null if snapshots are disabled.
+     * @see #setThemeSnapshotDirectory(File)
+     */
+    public static File getThemeSnapshotDirectory() {
+        if (themeSnapshotDirectory != null) return themeSnapshotDirectory;
+        String directory = System.getProperty(THEME_SNAPSHOT_DIRECTORY_KEY);
+        return directory != null && !directory.isEmpty() ? new File(directory) : null;
+    }
+
     /**
      * Get the closest match of a registered theme for the given theme.
      *
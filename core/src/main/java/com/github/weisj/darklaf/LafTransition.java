@@ -24,7 +24,6 @@ package com.github.weisj.darklaf;
 
 
 import java.awt.AlphaComposite;
-import java.awt.Component;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Image;
@@ -37,6 +36,7 @@ import javax.swing.JComponent;
 import javax.swing.JLayeredPane;
 import javax.swing.RootPaneContainer;
 
+import com.github.weisj.darklaf.graphics.AnimationClock;
 import com.github.weisj.darklaf.graphics.Animator;
 import com.github.weisj.darklaf.graphics.DefaultInterpolator;
 import com.github.weisj.darklaf.util.ImageUtil;
@@ -63,7 +63,7 @@ class LafTransition {
     static final class AnimatedLafTransition extends LafTransition {
 
         private final Animator animator;
-        private final Map<JLayeredPane, Component> uiSnapshots;
+        private final Map<JLayeredPane, JComponent> uiSnapshots;
         private final SharedNonNull<Float> sharedAlpha;
 
         private AnimatedLafTransition() {
@@ -91,7 +91,7 @@ class LafTransition {
         }
 
         private void disposeSnapshots() {
-            for (Map.Entry<JLayeredPane, Component> entry : uiSnapshots.entrySet()) {
+            for (Map.Entry<JLayeredPane, JComponent> entry : uiSnapshots.entrySet()) {
                 entry.getKey().remove(entry.getValue());
                 entry.getKey().revalidate();
                 entry.getKey().repaint();
@@ -100,10 +100,11 @@ class LafTransition {
         }
 
         private void doPaint() {
-            for (Map.Entry<JLayeredPane, Component> entry : uiSnapshots.entrySet()) {
+            AnimationClock clock = AnimationClock.getInstance();
+            for (Map.Entry<JLayeredPane, JComponent> entry : uiSnapshots.entrySet()) {
                 if (entry.getKey().isShowing()) {
                     entry.getValue().revalidate();
-                    entry.getValue().repaint();
+                    clock.repaint(entry.getValue());
                 }
             }
         }
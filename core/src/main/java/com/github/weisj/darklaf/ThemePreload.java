@@ -0,0 +1,213 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+import javax.swing.Icon;
+import javax.swing.UIDefaults;
+import javax.swing.plaf.metal.MetalLookAndFeel;
+
+import com.github.weisj.darklaf.properties.icons.DarkSVGIcon;
+import com.github.weisj.darklaf.properties.icons.IconLoader;
+import com.github.weisj.darklaf.properties.icons.StateIcon;
+import com.github.weisj.darklaf.task.DefaultsAdjustmentTask;
+import com.github.weisj.darklaf.task.DefaultsInitTask;
+import com.github.weisj.darklaf.theme.Theme;
+import com.github.weisj.darklaf.util.LogUtil;
+
+/**
+ * Preparation of a theme on a background thread. All thread safe work needed for the installation is
+ * done ahead of time: Property files are loaded and parsed, icons are resolved, their svg documents get
+ * parsed and the fonts are set up. If the theme is installed afterwards the prepared defaults are used
+ * and only the remaining work is done on the event dispatch thread.
+ * <p>
+ * The preload completes with the theme once all stages have finished. The progress and the time spent in
+ * each stage can be queried while the preload is running.
+ *
+ * @see LafManager#preload(Theme)
+ */
+public final class ThemePreload extends CompletableFuture<Theme> {
+
+    private static final Logger LOGGER = LogUtil.getLogger(ThemePreload.class);
+    private static final String STAGE_BASE_DEFAULTS = "BaseDefaults";
+    private static final String STAGE_ICONS = "Icons";
+    private static final AtomicReference<PreparedDefaults> preparedDefaults = new AtomicReference<>();
+
+    private final Theme theme;
+    private final List<String> stages;
+    private final Map<String, Duration> stageTimes = new LinkedHashMap<>();
+
+    ThemePreload(final Theme theme) {
+        this.theme = theme;
+        List<String> stageNames = new ArrayList<>();
+        stageNames.add(STAGE_BASE_DEFAULTS);
+        for (DefaultsInitTask task : DarkLaf.getPreloadableTasks()) {
+            stageNames.add(task.getClass().getSimpleName());
+        }
+        stageNames.add(STAGE_ICONS);
+        stages = Collections.unmodifiableList(stageNames);
+    }
+
+    void start(final Executor executor) {
+        executor.execute(() -> {
+            try {
+                preload();
+                complete(theme);
+            } catch (final RuntimeException e) {
+                completeExceptionally(e);
+            }
+        });
+    }
+
+    private void preload() {
+        Collection<DefaultsAdjustmentTask> adjustmentTasks =
+                new ArrayList<>(LafManager.getUserDefaultsAdjustmentTasks());
+        UIDefaults defaults = runStage(STAGE_BASE_DEFAULTS, () -> new MetalLookAndFeel().getDefaults());
+        List<DefaultsInitTask> tasks = DarkLaf.getPreloadableTasks();
+        for (DefaultsInitTask task : tasks) {
+            runStage(task.getClass().getSimpleName(), () -> {
+                task.run(theme, defaults);
+                return null;
+            });
+        }
+        runStage(STAGE_ICONS, () -> {
+            // The svg documents are parsed off the event dispatch thread.
+            IconLoader.runBackgroundIconTask(() -> {
+                for (Map.Entry<Object, Object> entry : defaults.entrySet()) {
+                    if (entry.getValue() instanceof Icon) preloadIcon((Icon) entry.getValue());
+                }
+            });
+            return null;
+        });
+        if (DarkLaf.usesMetalBase()) {
+            preparedDefaults.set(new PreparedDefaults(theme, adjustmentTasks, defaults, tasks.size()));
+        }
+        LOGGER.fine(() -> "Preloaded theme " + theme + " " + getStageTimes());
+    }
+
+    private <T> T runStage(final String stage, final Supplier<T> action) {
+        long start = System.nanoTime();
+        T result = action.get();
+        Duration duration = Duration.ofNanos(System.nanoTime() - start);
+        synchronized (stageTimes) {
+            stageTimes.put(stage, duration);
+        }
+        return result;
+    }
+
+    private void preloadIcon(final Icon icon) {
+        if (icon instanceof DarkSVGIcon) {
+            ((DarkSVGIcon) icon).preload();
+        } else if (icon instanceof StateIcon) {
+            for (Icon stateIcon : ((StateIcon) icon).getIcons()) {
+                preloadIcon(stateIcon);
+            }
+        }
+    }
+
+    /**
+     * Returns the theme being preloaded.
+     *
+     * @return the theme.
+     */
+    public Theme getTheme() {
+        return theme;
+    }
+
+    /**
+     * Returns the names of all stages in order of execution.
+     *
+     * @return the stages.
+     */
+    public List<String> getStages() {
+        return stages;
+    }
+
+    /**
+     * Returns the time spent in each of the finished stages.
+     *
+     * @return the durations of the finished stages by name.
+     */
+    public Map<String, Duration> getStageTimes() {
+        synchronized (stageTimes) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(stageTimes));
+        }
+    }
+
+    /**
+     * Returns the fraction of finished stages.
+     *
+     * @return the progress between 0 and 1.
+     */
+    public double getProgress() {
+        synchronized (stageTimes) {
+            return stageTimes.size() / (double) stages.size();
+        }
+    }
+
+    /*
+     * Returns the prepared defaults for the given theme if there are any. The defaults can only be taken
+     * once, as they become the defaults of the installed look and feel.
+     */
+    static PreparedDefaults takePreparedDefaults(final Theme theme) {
+        PreparedDefaults prepared = preparedDefaults.getAndSet(null);
+        if (prepared == null) return null;
+        if (!prepared.isValidFor(theme)) {
+            LOGGER.fine(() -> "Discarding preloaded defaults of theme " + prepared.theme);
+            return null;
+        }
+        return prepared;
+    }
+
+    static final class PreparedDefaults {
+        private final Theme theme;
+        private final Collection<DefaultsAdjustmentTask> adjustmentTasks;
+        final UIDefaults defaults;
+        final int completedTasks;
+
+        private PreparedDefaults(final Theme theme, final Collection<DefaultsAdjustmentTask> adjustmentTasks,
+                final UIDefaults defaults, final int completedTasks) {
+            this.theme = theme;
+            this.adjustmentTasks = adjustmentTasks;
+            this.defaults = defaults;
+            this.completedTasks = completedTasks;
+        }
+
+        private boolean isValidFor(final Theme currentTheme) {
+            return Objects.equals(theme, currentTheme)
+                    && new ArrayList<>(LafManager.getUserDefaultsAdjustmentTasks()).equals(adjustmentTasks);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf;
+
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.Insets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.swing.InputMap;
+import javax.swing.KeyStroke;
+import javax.swing.UIDefaults;
+
+import com.github.weisj.darklaf.properties.parser.ActiveObjectParser;
+import com.github.weisj.darklaf.properties.parser.LazyObjectParser;
+
+/**
+ * The difference between two sets of ui defaults. Values are compared structurally where possible i.e.
+ * freshly created input maps, arrays or lazy values count as unchanged if they are equivalent to the old
+ * ones. Values without a notion of equality (e.g. borders or themed icons) are always treated as
+ * changed.
+ */
+final class UIDefaultsDiff {
+
+    /*
+     * Prefixes of keys which aren't tied to a single ui. Their values are either read while painting or
+     * have already been resolved into the values of the uis, hence repainting suffices.
+     */
+    private static final Set<String> GLOBAL_PREFIXES = new HashSet<>(Arrays.asList(
+            "global", "Cell", "Icons", "Focus", "Highlight", "Hyperlink", "link"));
+    /*
+     * Prefixes of keys which are read by uis with a different class id.
+     */
+    private static final Map<String, List<String>> SHARED_PREFIXES = new HashMap<>();
+
+    static {
+        SHARED_PREFIXES.put("ArrowButton", Arrays.asList("ComboBoxUI", "SpinnerUI", "SplitButtonUI"));
+        SHARED_PREFIXES.put("FileView", Collections.singletonList("FileChooserUI"));
+        SHARED_PREFIXES.put("InternalFrameMenuBar", Collections.singletonList("InternalFrameUI"));
+        SHARED_PREFIXES.put("InternalFrameTitlePane", Collections.singletonList("InternalFrameUI"));
+        SHARED_PREFIXES.put("PopupMenuDivider", Collections.singletonList("PopupMenuSeparatorUI"));
+        SHARED_PREFIXES.put("SplitPaneDivider", Collections.singletonList("SplitPaneUI"));
+        SHARED_PREFIXES.put("TabFramePopup", Arrays.asList("TabFramePanelPopupUI", "TabFrameTabbedPopupUI"));
+        SHARED_PREFIXES.put("TabFrameTab", Arrays.asList("TabFrameTabLabelUI", "TabFrameTabContainerUI"));
+        SHARED_PREFIXES.put("TextComponent", Arrays.asList("EditorPaneUI", "FormattedTextFieldUI",
+                "PasswordFieldUI", "TextAreaUI", "TextFieldUI", "TextPaneUI"));
+        SHARED_PREFIXES.put("TitlePane", Collections.singletonList("RootPaneUI"));
+    }
+
+    private final List<Object> changedKeys = new ArrayList<>();
+    private final Object[] patch;
+    private final boolean affectsLayout;
+
+    UIDefaultsDiff(final UIDefaults oldDefaults, final UIDefaults newDefaults) {
+        // UIDefaults#get resolves lazy and active values, hence the raw values are accessed through the entry
+        // sets.
+        Map<Object, Object> oldValues = rawValues(oldDefaults);
+        Map<Object, Object> newValues = rawValues(newDefaults);
+        boolean layoutChanged = false;
+        for (Map.Entry<Object, Object> entry : newValues.entrySet()) {
+            Object oldValue = oldValues.get(entry.getKey());
+            if (!valuesEqual(oldValue, entry.getValue())) {
+                changedKeys.add(entry.getKey());
+                layoutChanged |= affectsLayout(oldValue) || affectsLayout(entry.getValue());
+            }
+        }
+        for (Map.Entry<Object, Object> entry : oldValues.entrySet()) {
+            if (!newValues.containsKey(entry.getKey())) {
+                changedKeys.add(entry.getKey());
+                layoutChanged |= affectsLayout(entry.getValue());
+            }
+        }
+        affectsLayout = layoutChanged;
+        patch = new Object[2 * changedKeys.size()];
+        for (int i = 0; i < changedKeys.size(); i++) {
+            Object key = changedKeys.get(i);
+            patch[2 * i] = key;
+            // UIDefaults#putDefaults removes keys with a null value.
+            patch[2 * i + 1] = newValues.get(key);
+        }
+    }
+
+    private static Map<Object, Object> rawValues(final UIDefaults defaults) {
+        Map<Object, Object> values = new HashMap<>(2 * defaults.size());
+        for (Map.Entry<Object, Object> entry : defaults.entrySet()) {
+            values.put(entry.getKey(), entry.getValue());
+        }
+        return values;
+    }
+
+    /**
+     * Returns whether any of the changed values is a font or a size, in which case the changes can't be
+     * applied without reinstalling all components.
+     *
+     * @return true if fonts or sizes changed.
+     */
+    boolean affectsLayout() {
+        return affectsLayout;
+    }
+
+    boolean isEmpty() {
+        return changedKeys.isEmpty();
+    }
+
+    List<Object> getChangedKeys() {
+        return changedKeys;
+    }
+
+    /**
+     * Returns the ui class ids of the components which need to update their ui. A changed key of the form
+     * {@code <prefix>.<property>} belongs to the ui with class id {@code <prefix>UI}, which may be
+     * qualified by a namespace e.g. {@code TaskPane.*} belongs to {@code swingx/TaskPaneUI}. Keys read by
+     * uis with a different class id are attributed to all of them.
+     * <p>
+     * Keys without a prefix (e.g. {@code widgetFillDefault}) and global keys (e.g. {@code Cell.*}) don't
+     * belong to any ui. Components only affected by those merely need to be repainted. If any other key
+     * can't be attributed to a ui class id present in the given defaults {@code null} is returned, in which
+     * case all components need to be updated.
+     *
+     * @param defaults the defaults used to look up the ui class ids.
+     * @return the ui class ids of the affected components or null if they can't be determined.
+     */
+    Set<String> getAffectedUIClassIDs(final UIDefaults defaults) {
+        Map<String, String> namespacedUIClassIDs = new HashMap<>();
+        for (Map.Entry<Object, Object> entry : defaults.entrySet()) {
+            if (!(entry.getKey() instanceof String) || !(entry.getValue() instanceof String)) continue;
+            String uiClassID = (String) entry.getKey();
+            int slash = uiClassID.lastIndexOf('/');
+            if (slash >= 0 && uiClassID.endsWith("UI")) {
+                namespacedUIClassIDs.put(uiClassID.substring(slash + 1), uiClassID);
+            }
+        }
+        Set<String> uiClassIDs = new TreeSet<>();
+        for (Object key : changedKeys) {
+            if (!(key instanceof String)) return null;
+            String k = (String) key;
+            int dot = k.indexOf('.');
+            if (dot < 0) continue;
+            if (dot == 0) return null;
+            String prefix = k.substring(0, dot);
+            if (GLOBAL_PREFIXES.contains(prefix)) continue;
+            List<String> sharedUIClassIDs = SHARED_PREFIXES.get(prefix);
+            if (sharedUIClassIDs != null) {
+                uiClassIDs.addAll(sharedUIClassIDs);
+                continue;
+            }
+            String uiClassID = prefix + "UI";
+            if (!(defaults.get(uiClassID) instanceof String)) {
+                uiClassID = namespacedUIClassIDs.get(uiClassID);
+                if (uiClassID == null) return null;
+            }
+            uiClassIDs.add(uiClassID);
+        }
+        return uiClassIDs;
+    }
+
+    /**
+     * Writes the changed values to the given defaults.
+     *
+     * @param defaults the defaults to patch.
+     */
+    void applyTo(final UIDefaults defaults) {
+        if (patch.length > 0) defaults.putDefaults(patch);
+    }
+
+    private static boolean affectsLayout(final Object value) {
+        return value instanceof Font || value instanceof Insets || value instanceof Dimension;
+    }
+
+    static boolean valuesEqual(final Object a, final Object b) {
+        if (Objects.equals(a, b)) return true;
+        if (a == null || b == null || a.getClass() != b.getClass()) return false;
+        if (a instanceof Object[]) {
+            Object[] arrA = (Object[]) a;
+            Object[] arrB = (Object[]) b;
+            if (arrA.length != arrB.length) return false;
+            for (int i = 0; i < arrA.length; i++) {
+                if (!valuesEqual(arrA[i], arrB[i])) return false;
+            }
+            return true;
+        } else if (a.getClass().isArray()) {
+            return Objects.deepEquals(a, b);
+        } else if (a instanceof List) {
+            List<?> listA = (List<?>) a;
+            List<?> listB = (List<?>) b;
+            if (listA.size() != listB.size()) return false;
+            Iterator<?> itB = listB.iterator();
+            for (Object element : listA) {
+                if (!valuesEqual(element, itB.next())) return false;
+            }
+            return true;
+        } else if (a instanceof Map) {
+            Map<?, ?> mapA = (Map<?, ?>) a;
+            Map<?, ?> mapB = (Map<?, ?>) b;
+            if (mapA.size() != mapB.size()) return false;
+            for (Map.Entry<?, ?> entry : mapA.entrySet()) {
+                if (!mapB.containsKey(entry.getKey())) return false;
+                if (!valuesEqual(entry.getValue(), mapB.get(entry.getKey()))) return false;
+            }
+            return true;
+        } else if (a instanceof InputMap) {
+            return inputMapsEqual((InputMap) a, (InputMap) b);
+        } else if (a instanceof UIDefaults.LazyInputMap) {
+            // The bindings aren't accessible, but creating the input maps is cheap.
+            return valuesEqual(((UIDefaults.LazyInputMap) a).createValue(null),
+                    ((UIDefaults.LazyInputMap) b).createValue(null));
+        } else if (a instanceof LazyObjectParser.LazyObject) {
+            return ((LazyObjectParser.LazyObject) a).getClassName()
+                    .equals(((LazyObjectParser.LazyObject) b).getClassName());
+        } else if (a instanceof ActiveObjectParser.ActiveObject) {
+            return ((ActiveObjectParser.ActiveObject) a).getClassName()
+                    .equals(((ActiveObjectParser.ActiveObject) b).getClassName());
+        }
+        return false;
+    }
+
+    private static boolean inputMapsEqual(final InputMap a, final InputMap b) {
+        if (!valuesEqual(a.getParent(), b.getParent())) return false;
+        KeyStroke[] keysA = a.keys();
+        KeyStroke[] keysB = b.keys();
+        int sizeA = keysA != null ? keysA.length : 0;
+        int sizeB = keysB != null ? keysB.length : 0;
+        if (sizeA != sizeB) return false;
+        for (int i = 0; i < sizeA; i++) {
+            if (!Objects.equals(a.get(keysA[i]), b.get(keysA[i]))) return false;
+        }
+        return true;
+    }
+}
@@ -23,17 +23,26 @@ package com.github.weisj.darklaf.components;
 
 import java.awt.event.ActionEvent;
 
+import java.util.concurrent.TimeUnit;
+
 import javax.swing.*;
 
+import com.github.weisj.darklaf.graphics.AnimationClock;
 import com.github.weisj.darklaf.properties.icons.RotatableIcon;
-import com.github.weisj.darklaf.ui.util.DarkUIUtil;
 import com.github.weisj.darklaf.util.Alignment;
 
+/**
+ * Animator rotating an icon in steps. Though the animator is a {@link Timer} the steps are driven by the
+ * {@link AnimationClock}, such that they are painted together with all other running animations.
+ */
 public class RotatableIconAnimator extends Timer {
 
     private final RotatableIcon icon;
     private final JComponent parent;
     private final int frameCount;
+    private final AnimationClock.FrameListener frameListener = this::onFrame;
+    private boolean running;
+    private long lastStep;
     private int frame;
 
     public RotatableIconAnimator(final RotatableIcon icon, final JComponent parent) {
@@ -50,6 +59,39 @@ public class RotatableIconAnimator extends Timer {
         this.parent = parent;
     }
 
+    @Override
+    public void start() {
+        if (running) return;
+        running = true;
+        lastStep = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(getDelay() - getInitialDelay());
+        AnimationClock.getInstance().addFrameListener(frameListener);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) return;
+        running = false;
+        AnimationClock.getInstance().removeFrameListener(frameListener);
+    }
+
+    @Override
+    public void restart() {
+        stop();
+        start();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void onFrame(final long frameTimeNanos) {
+        if (!running || frameTimeNanos - lastStep < TimeUnit.MILLISECONDS.toNanos(getDelay())) return;
+        lastStep = frameTimeNanos;
+        if (!isRepeats()) stop();
+        fireActionPerformed(new ActionEvent(this, ActionEvent.ACTION_PERFORMED, null));
+    }
+
     public void resume() {
         if (!isRunning()) start();
     }
@@ -61,7 +103,8 @@ public class RotatableIconAnimator extends Timer {
     }
 
     protected void repaint() {
-        DarkUIUtil.repaint(getParent());
+        JComponent parent = getParent();
+        if (parent != null && parent.isVisible()) AnimationClock.getInstance().repaint(parent);
     }
 
     public JComponent getParent() {
@@ -22,20 +22,15 @@
 package com.github.weisj.darklaf.components.border;
 
 import java.awt.*;
-import java.awt.geom.RoundRectangle2D;
-import java.awt.image.BufferedImage;
-import java.awt.image.ConvolveOp;
 import java.awt.image.ImageObserver;
-import java.awt.image.Kernel;
 import java.io.Serializable;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
 
 import javax.swing.border.Border;
 
+import com.github.weisj.darklaf.components.border.ShadowRenderer.Position;
+import com.github.weisj.darklaf.components.border.ShadowRenderer.ShadowTiles;
 import com.github.weisj.darklaf.util.Disposable;
-import com.github.weisj.darklaf.util.ImageUtil;
+import com.github.weisj.darklaf.util.Scale;
 
 /**
  * Implements a DropShadow for components. In general, the DropShadowBorder will work with any
@@ -48,17 +43,14 @@ import com.github.weisj.darklaf.util.ImageUtil;
  * background is likely to bleed through.
  *
  * <p>
- * Note: Since generating drop shadows is relatively expensive operation, {@code
- * DropShadowBorder} keeps internal static cache that allows sharing same border for multiple
- * re-rendering and between different instances of the class. Since this cache is shared at class
- * level and never reset, it might bleed your app memory in case you tend to create many different
- * borders rapidly.
+ * Note: Since generating drop shadows is relatively expensive operation, the shadows are shared
+ * between all borders with the same appearance. They are kept in a bounded cache, see
+ * {@link ShadowRenderer}.
  *
  * @author rbair Adaptions made by
  * @author Jannis Weis
  */
 public class DropShadowBorder implements Border, Serializable {
-    private static final Map<Integer, BufferedImage[]> CACHE = new HashMap<>();
     private Color shadowColor;
     private int shadowSize;
     private float shadowOpacity;
@@ -92,8 +84,9 @@ public class DropShadowBorder implements Border, Serializable {
     @Override
     public void paintBorder(final Component c, final Graphics graphics, final int x, final int y, final int width,
             final int height) {
-        final BufferedImage[] images = getImages();
         final Graphics2D g2 = (Graphics2D) graphics.create();
+        final ShadowTiles tiles = ShadowRenderer.getTiles(shadowColor, shadowSize, shadowOpacity, cornerSize,
+                Scale.getScaleX(g2));
 
         try (Disposable d = g2::dispose) {
             // The location and size of the shadows depends on which shadows are being
@@ -158,48 +151,48 @@ public class DropShadowBorder implements Border, Serializable {
 
             if (showLeftShadow) {
                 assert topLeftShadowPoint != null && bottomLeftShadowPoint != null;
-                drawImage(g2, images[Position.LEFT.ordinal()], x, topLeftShadowPoint.y + shadowSize, shadowSize,
+                drawImage(g2, tiles.getTile(Position.LEFT), x, topLeftShadowPoint.y + shadowSize, shadowSize,
                         bottomLeftShadowPoint.y - topLeftShadowPoint.y - shadowSize, c);
             }
 
             if (showBottomShadow) {
                 assert bottomLeftShadowPoint != null && bottomRightShadowPoint != null;
-                drawImage(g2, images[Position.BOTTOM.ordinal()], bottomLeftShadowPoint.x + shadowSize,
+                drawImage(g2, tiles.getTile(Position.BOTTOM), bottomLeftShadowPoint.x + shadowSize,
                         y + height - shadowSize, bottomRightShadowPoint.x - bottomLeftShadowPoint.x - shadowSize,
                         shadowSize, c);
             }
 
             if (showRightShadow) {
                 assert topRightShadowPoint != null && bottomRightShadowPoint != null;
-                drawImage(g2, images[Position.RIGHT.ordinal()], x + width - shadowSize,
+                drawImage(g2, tiles.getTile(Position.RIGHT), x + width - shadowSize,
                         topRightShadowPoint.y + shadowSize, shadowSize,
                         bottomRightShadowPoint.y - topRightShadowPoint.y - shadowSize, c);
             }
 
             if (showTopShadow) {
                 assert topLeftShadowPoint != null && topRightShadowPoint != null;
-                drawImage(g2, images[Position.TOP.ordinal()], topLeftShadowPoint.x + shadowSize, y,
+                drawImage(g2, tiles.getTile(Position.TOP), topLeftShadowPoint.x + shadowSize, y,
                         topRightShadowPoint.x - topLeftShadowPoint.x - shadowSize, shadowSize, c);
             }
 
             if (showLeftShadow || showTopShadow) {
-                drawImage(g2, images[Position.TOP_LEFT.ordinal()], topLeftShadowPoint, c);
+                drawImage(g2, tiles.getTile(Position.TOP_LEFT), topLeftShadowPoint, c);
             }
             if (showLeftShadow || showBottomShadow) {
-                drawImage(g2, images[Position.BOTTOM_LEFT.ordinal()], bottomLeftShadowPoint, c);
+                drawImage(g2, tiles.getTile(Position.BOTTOM_LEFT), bottomLeftShadowPoint, c);
             }
             if (showRightShadow || showBottomShadow) {
-                drawImage(g2, images[Position.BOTTOM_RIGHT.ordinal()], bottomRightShadowPoint, c);
+                drawImage(g2, tiles.getTile(Position.BOTTOM_RIGHT), bottomRightShadowPoint, c);
             }
             if (showRightShadow || showTopShadow) {
-                drawImage(g2, images[Position.TOP_RIGHT.ordinal()], topRightShadowPoint, c);
+                drawImage(g2, tiles.getTile(Position.TOP_RIGHT), topRightShadowPoint, c);
             }
         }
     }
 
     protected void drawImage(final Graphics g, final Image image, final Point p, final ImageObserver observer) {
         if (p == null) return;
-        g.drawImage(image, p.x, p.y, observer);
+        g.drawImage(image, p.x, p.y, shadowSize, shadowSize, observer);
     }
 
     protected void drawImage(final Graphics g, final Image image, final int x, final int y, final int w, final int h,
@@ -207,119 +200,6 @@ public class DropShadowBorder implements Border, Serializable {
         g.drawImage(image, x, y, w, h, observer);
     }
 
-    @SuppressWarnings("SuspiciousNameCombination")
-    private BufferedImage[] getImages() {
-        // first, check to see if an image for this size has already been rendered
-        // if so, use the cache. Else, draw and save
-        BufferedImage[] images = CACHE.get(getBorderHash(shadowSize, shadowOpacity, shadowColor));
-        if (images == null) {
-            images = new BufferedImage[Position.count()];
-
-            /*
-             * To draw a drop shadow, I have to:
-             *
-             * 1) Create a rounded rectangle
-             *
-             * 2) Create a BufferedImage to draw the rounded rect in
-             *
-             * 3) Translate the graphics for the image, so that the rectangle is centered in the drawn space.
-             * The border around the rectangle needs to be shadowWidth wide, so that there is space for the
-             * shadow to be drawn.
-             *
-             * 4) Draw the rounded rect as shadowColor, with an opacity of shadowOpacity
-             *
-             * 5) Create the BLUR_KERNEL
-             *
-             * 6) Blur the image
-             *
-             * 7) copy off the corners, sides, etc. into images to be used for drawing the Border
-             */
-            int rectWidth = cornerSize + 1;
-            RoundRectangle2D rect = new RoundRectangle2D.Double(0, 0, rectWidth, rectWidth, cornerSize, cornerSize);
-            int imageWidth = rectWidth + shadowSize * 2;
-            BufferedImage image = ImageUtil.createCompatibleTranslucentImage(imageWidth, imageWidth);
-            Graphics2D buffer = (Graphics2D) image.getGraphics();
-
-            try (Disposable d = buffer::dispose) {
-                buffer.setPaint(new Color(shadowColor.getRed(), shadowColor.getGreen(), shadowColor.getBlue(),
-                        (int) (shadowOpacity * 255)));
-                buffer.translate(shadowSize, shadowSize);
-                buffer.fill(rect);
-            }
-
-            float blurry = 1.0f / (float) (shadowSize * shadowSize);
-            float[] blurKernel = new float[shadowSize * shadowSize];
-            Arrays.fill(blurKernel, blurry);
-            ConvolveOp blur = new ConvolveOp(new Kernel(shadowSize, shadowSize, blurKernel));
-            BufferedImage targetImage = ImageUtil.createCompatibleTranslucentImage(imageWidth, imageWidth);
-            Graphics2D targetGraphics = (Graphics2D) targetImage.getGraphics();
-            try (Disposable d = targetGraphics::dispose) {
-                targetGraphics.drawImage(image, blur, -(shadowSize / 2), -(shadowSize / 2));
-            }
-
-            int x = 1;
-            int y = 1;
-            int w = shadowSize;
-            int h = shadowSize;
-            images[Position.TOP_LEFT.ordinal()] = getSubImage(targetImage, x, y, w, h);
-            x = 1;
-            y = h;
-            w = shadowSize;
-            h = 1;
-            images[Position.LEFT.ordinal()] = getSubImage(targetImage, x, y, w, h);
-            x = 1;
-            y = rectWidth;
-            w = shadowSize;
-            h = shadowSize;
-            images[Position.BOTTOM_LEFT.ordinal()] = getSubImage(targetImage, x, y, w, h);
-            x = cornerSize + 1;
-            y = rectWidth;
-            w = 1;
-            h = shadowSize;
-            images[Position.BOTTOM.ordinal()] = getSubImage(targetImage, x, y, w, h);
-            x = rectWidth;
-            y = x;
-            w = shadowSize;
-            h = shadowSize;
-            images[Position.BOTTOM_RIGHT.ordinal()] = getSubImage(targetImage, x, y, w, h);
-            x = rectWidth;
-            y = cornerSize + 1;
-            w = shadowSize;
-            h = 1;
-            images[Position.RIGHT.ordinal()] = getSubImage(targetImage, x, y, w, h);
-            x = rectWidth;
-            y = 1;
-            w = shadowSize;
-            h = shadowSize;
-            images[Position.TOP_RIGHT.ordinal()] = getSubImage(targetImage, x, y, w, h);
-            x = shadowSize;
-            y = 1;
-            w = 1;
-            h = shadowSize;
-            images[Position.TOP.ordinal()] = getSubImage(targetImage, x, y, w, h);
-
-            image.flush();
-            CACHE.put(getBorderHash(shadowSize, shadowOpacity, shadowColor), images);
-        }
-        return images;
-    }
-
-    private static int getBorderHash(final int shadowSize, final float opacity, final Color shadowColor) {
-        int result = shadowSize;
-        result = 31 * result + (opacity != +0.0f ? Float.floatToIntBits(opacity) : 0);
-        result = 31 * result + (shadowColor != null ? shadowColor.hashCode() : 0);
-        return result;
-    }
-
-    /**
-     * Returns a new BufferedImage that represents a subregion of the given BufferedImage. (Note that
-     * this method does not use BufferedImage.getSubimage(), which will defeat image acceleration
-     * strategies on later JDKs.)
-     */
-    private BufferedImage getSubImage(final BufferedImage img, final int x, final int y, final int w, final int h) {
-        return img.getSubimage(x, y, w, h);
-    }
-
     /** {@inheritDoc} */
     @Override
     public Insets getBorderInsets(final Component c) {
@@ -408,19 +288,4 @@ public class DropShadowBorder implements Border, Serializable {
         this.cornerSize = cornerSize;
         return this;
     }
-
-    private enum Position {
-        TOP,
-        TOP_LEFT,
-        LEFT,
-        BOTTOM_LEFT,
-        BOTTOM,
-        BOTTOM_RIGHT,
-        RIGHT,
-        TOP_RIGHT;
-
-        static int count() {
-            return 8;
-        }
-    }
 }
@@ -0,0 +1,241 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.components.border;
+
+import java.awt.*;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+
+import com.github.weisj.darklaf.DarkLaf;
+import com.github.weisj.darklaf.util.Disposable;
+import com.github.weisj.darklaf.util.ImageUtil;
+import com.github.weisj.darklaf.util.cache.CacheStatistics;
+import com.github.weisj.darklaf.util.cache.LRUCache;
+import com.github.weisj.darklaf.util.cache.SoftCache;
+
+/**
+ * Renders the tiles of drop shadows. The shadow of a rounded rectangle is blurred using a separable
+ * box blur, which only needs a constant number of operations per pixel independent of the shadow size.
+ * <p>
+ * Tiles are shared between all borders painting shadows with the same size, opacity, colour, corner
+ * size and display scale. They are kept in a least recently used cache, whose budget in bytes can be
+ * set using the system property {@link #CACHE_SIZE_PROPERTY}.
+ */
+public final class ShadowRenderer {
+
+    public static final String CACHE_SIZE_PROPERTY = DarkLaf.SYSTEM_PROPERTY_PREFIX + "shadowCacheSize";
+    private static final int DEFAULT_CACHE_SIZE = 4 * 1024 * 1024;
+
+    private static final LRUCache<Key, ShadowTiles> CACHE = new LRUCache<>(
+            Math.max(0, Integer.getInteger(CACHE_SIZE_PROPERTY, DEFAULT_CACHE_SIZE)), ShadowTiles::getByteSize,
+            false);
+
+    private ShadowRenderer() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static CacheStatistics getCacheStatistics() {
+        return CACHE.getStatistics();
+    }
+
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
+    static ShadowTiles getTiles(final Color color, final int shadowSize, final float opacity, final int cornerSize,
+            final double scale) {
+        Key key = new Key(color, shadowSize, opacity, cornerSize, scale);
+        ShadowTiles tiles = CACHE.get(key);
+        if (tiles == null) {
+            tiles = createTiles(color, shadowSize, opacity, cornerSize, scale);
+            CACHE.put(key, tiles);
+        }
+        return tiles;
+    }
+
+    private static ShadowTiles createTiles(final Color color, final int shadowSize, final float opacity,
+            final int cornerSize, final double scale) {
+        int rectWidth = cornerSize + 1;
+        int imageSize = (int) Math.ceil((rectWidth + 2 * shadowSize) * scale);
+        int blurSize = Math.max(1, (int) Math.round(shadowSize * scale));
+
+        BufferedImage mask = new BufferedImage(imageSize, imageSize, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = mask.createGraphics();
+        try (Disposable d = g::dispose) {
+            g.setColor(new Color(0, 0, 0, (int) (opacity * 255)));
+            g.scale(scale, scale);
+            g.translate(shadowSize, shadowSize);
+            g.fill(new RoundRectangle2D.Double(0, 0, rectWidth, rectWidth, cornerSize, cornerSize));
+        }
+
+        int[] pixels = ((DataBufferInt) mask.getRaster().getDataBuffer()).getData();
+        int[] alpha = new int[pixels.length];
+        for (int i = 0; i < pixels.length; i++) {
+            alpha[i] = pixels[i] >>> 24;
+        }
+        boxBlurAlpha(alpha, imageSize, imageSize, blurSize);
+        int rgb = color.getRGB() & 0x00FFFFFF;
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = (alpha[i] << 24) | rgb;
+        }
+
+        BufferedImage image = ImageUtil.createCompatibleTranslucentImage(imageSize, imageSize);
+        Graphics2D imageGraphics = image.createGraphics();
+        try (Disposable d = imageGraphics::dispose) {
+            imageGraphics.drawImage(mask, -(blurSize / 2), -(blurSize / 2), null);
+        }
+        mask.flush();
+        return new ShadowTiles(image, shadowSize, cornerSize, scale);
+    }
+
+    /**
+     * Blurs the given alpha values using a box blur of the given size. The result is the same as
+     * convolving the values with a {@code size × size} kernel with all entries equal to
+     * {@code 1 / (size * size)}, where values outside of the area count as zero. The blur is
+     * applied horizontally and vertically in separate passes using running sums.
+     *
+     * @param alpha the alpha values in row major order. The result is written back to the array.
+     * @param width the width of the area.
+     * @param height the height of the area.
+     * @param size the size of the kernel.
+     */
+    public static void boxBlurAlpha(final int[] alpha, final int width, final int height, final int size) {
+        if (size <= 1) return;
+        int before = size / 2;
+        int after = size - 1 - before;
+        int[] rowSums = new int[alpha.length];
+        for (int y = 0; y < height; y++) {
+            int offset = y * width;
+            int sum = 0;
+            for (int x = 0; x < Math.min(after, width); x++) {
+                sum += alpha[offset + x];
+            }
+            for (int x = 0; x < width; x++) {
+                if (x + after < width) sum += alpha[offset + x + after];
+                if (x - before - 1 >= 0) sum -= alpha[offset + x - before - 1];
+                rowSums[offset + x] = sum;
+            }
+        }
+        int area = size * size;
+        for (int x = 0; x < width; x++) {
+            int sum = 0;
+            for (int y = 0; y < Math.min(after, height); y++) {
+                sum += rowSums[y * width + x];
+            }
+            for (int y = 0; y < height; y++) {
+                if (y + after < height) sum += rowSums[(y + after) * width + x];
+                if (y - before - 1 >= 0) sum -= rowSums[(y - before - 1) * width + x];
+                alpha[y * width + x] = (sum + area / 2) / area;
+            }
+        }
+    }
+
+    enum Position {
+        TOP,
+        TOP_LEFT,
+        LEFT,
+        BOTTOM_LEFT,
+        BOTTOM,
+        BOTTOM_RIGHT,
+        RIGHT,
+        TOP_RIGHT
+    }
+
+    static final class ShadowTiles implements SoftCache.Cacheable<Key> {
+
+        private final BufferedImage image;
+        private final BufferedImage[] tiles = new BufferedImage[Position.values().length];
+
+        @SuppressWarnings("SuspiciousNameCombination")
+        private ShadowTiles(final BufferedImage image, final int shadowSize, final int cornerSize,
+                final double scale) {
+            this.image = image;
+            int rectWidth = cornerSize + 1;
+            setTile(Position.TOP_LEFT, 1, 1, shadowSize, shadowSize, scale);
+            setTile(Position.LEFT, 1, shadowSize, shadowSize, 1, scale);
+            setTile(Position.BOTTOM_LEFT, 1, rectWidth, shadowSize, shadowSize, scale);
+            setTile(Position.BOTTOM, cornerSize + 1, rectWidth, 1, shadowSize, scale);
+            setTile(Position.BOTTOM_RIGHT, rectWidth, rectWidth, shadowSize, shadowSize, scale);
+            setTile(Position.RIGHT, rectWidth, cornerSize + 1, shadowSize, 1, scale);
+            setTile(Position.TOP_RIGHT, rectWidth, 1, shadowSize, shadowSize, scale);
+            setTile(Position.TOP, shadowSize, 1, 1, shadowSize, scale);
+        }
+
+        private void setTile(final Position position, final int x, final int y, final int w, final int h,
+                final double scale) {
+            // Edges are stretched along their length, hence a single pixel suffices.
+            int sx = Math.min((int) Math.round(x * scale), image.getWidth() - 1);
+            int sy = Math.min((int) Math.round(y * scale), image.getHeight() - 1);
+            int sw = w == 1 ? 1 : Math.max(1, Math.min((int) Math.round(w * scale), image.getWidth() - sx));
+            int sh = h == 1 ? 1 : Math.max(1, Math.min((int) Math.round(h * scale), image.getHeight() - sy));
+            tiles[position.ordinal()] = image.getSubimage(sx, sy, sw, sh);
+        }
+
+        BufferedImage getTile(final Position position) {
+            return tiles[position.ordinal()];
+        }
+
+        private long getByteSize() {
+            return 4L * image.getWidth() * image.getHeight();
+        }
+
+        @Override
+        public void setCacheKey(final Key key) {}
+    }
+
+    static final class Key {
+        private final int rgb;
+        private final int shadowSize;
+        private final int opacity;
+        private final int cornerSize;
+        private final long scale;
+
+        private Key(final Color color, final int shadowSize, final float opacity, final int cornerSize,
+                final double scale) {
+            this.rgb = color.getRGB();
+            this.shadowSize = shadowSize;
+            this.opacity = Float.floatToIntBits(opacity + 0.0f);
+            this.cornerSize = cornerSize;
+            this.scale = Double.doubleToLongBits(scale);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return rgb == key.rgb && shadowSize == key.shadowSize && opacity == key.opacity
+                    && cornerSize == key.cornerSize && scale == key.scale;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = rgb;
+            result = 31 * result + shadowSize;
+            result = 31 * result + opacity;
+            result = 31 * result + cornerSize;
+            result = 31 * result + Long.hashCode(scale);
+            return result;
+        }
+    }
+}
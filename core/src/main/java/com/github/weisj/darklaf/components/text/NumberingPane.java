@@ -36,13 +36,17 @@ public class NumberingPane extends JComponent {
     public static final String KEY_ICONS = "icons";
     public static final String KEY_MIN_ICON_WIDTH = "minimumIconWidth";
     private JTextComponent textComponent;
-    private final Map<Position, Icon> iconMap;
-    private final Map<Position, List<IconListener>> listenerMap;
+    // The width of each icon at the time it was added is recorded as the weight of its entry.
+    private final PositionIndex<Icon> iconMap;
+    private final PositionIndex<List<IconListener>> listenerMap;
+    // Number of icons for each icon width.
+    private final TreeMap<Integer, Integer> iconWidths;
     private int width;
 
     public NumberingPane() {
-        iconMap = new HashMap<>();
-        listenerMap = new HashMap<>();
+        iconMap = new PositionIndex<>();
+        listenerMap = new PositionIndex<>();
+        iconWidths = new TreeMap<>();
         updateUI();
     }
 
@@ -79,11 +83,27 @@ public class NumberingPane extends JComponent {
         return iconMap.size();
     }
 
+    /**
+     * Returns the icons whose position lies within the given range in order of their offsets. The entries
+     * are read-only. Use {@link #addIconAtLine(int, Icon)} and {@link #removeIconAt(Position)} to change the
+     * icons.
+     *
+     * @param startOff the start offset (inclusive).
+     * @param endOff the end offset (inclusive).
+     * @return the icons within the range.
+     */
     public List<Map.Entry<Position, Icon>> getIconsInRange(final int startOff, final int endOff) {
-        return iconMap.entrySet().stream().filter(e -> {
-            Position pos = e.getKey();
-            return pos.getOffset() >= startOff && pos.getOffset() <= endOff;
-        }).collect(Collectors.toList());
+        return iconMap.getInRange(startOff, endOff);
+    }
+
+    /**
+     * Returns the largest width of all icons added to the pane. The width of an icon is the width it had
+     * when it was added.
+     *
+     * @return the maximum icon width or 0 if there are no icons.
+     */
+    public int getMaxIconWidth() {
+        return iconWidths.isEmpty() ? 0 : iconWidths.lastKey();
     }
 
     public Position addIconAtLine(final int lineIndex, final Icon icon) throws BadLocationException {
@@ -115,7 +135,10 @@ public class NumberingPane extends JComponent {
         Document doc = textComponent.getDocument();
         Position pos = doc.createPosition(offset);
         if (icon != null) {
-            iconMap.put(pos, icon);
+            int iconWidth = icon.getIconWidth();
+            int oldWidth = iconMap.getWeight(pos);
+            if (iconMap.put(pos, icon, iconWidth) != null) removeIconWidth(oldWidth);
+            iconWidths.merge(iconWidth, 1, Integer::sum);
         }
         firePropertyChange(KEY_ICONS, null, icon);
         return pos;
@@ -127,10 +150,11 @@ public class NumberingPane extends JComponent {
     }
 
     public void addIconListener(final Position position, final IconListener listener) {
-        if (!listenerMap.containsKey(position)) {
-            listenerMap.put(position, new ArrayList<>());
-        }
         List<IconListener> list = listenerMap.get(position);
+        if (list == null) {
+            list = new ArrayList<>();
+            listenerMap.put(position, list);
+        }
         list.add(listener);
     }
 
@@ -152,10 +176,8 @@ public class NumberingPane extends JComponent {
     }
 
     public List<IconListener> getIconListeners(final int startOffset, final int endOffset) {
-        return listenerMap.entrySet().stream().filter(entry -> {
-            Position p = entry.getKey();
-            return p.getOffset() >= startOffset && p.getOffset() <= endOffset;
-        }).map(Map.Entry::getValue).flatMap(List::stream).collect(Collectors.toList());
+        return listenerMap.getInRange(startOffset, endOffset).stream().map(Map.Entry::getValue)
+                .flatMap(List::stream).collect(Collectors.toList());
     }
 
     public void addIndexListener(final IndexListener listener) {
@@ -185,10 +207,17 @@ public class NumberingPane extends JComponent {
     }
 
     public void removeIconAt(final Position position) {
+        // Icons may have changed their width since they were added, hence the recorded width is removed.
+        int iconWidth = iconMap.getWeight(position);
         Icon icon = iconMap.remove(position);
+        if (icon != null) removeIconWidth(iconWidth);
         firePropertyChange(KEY_ICONS, icon, icon);
     }
 
+    private void removeIconWidth(final int iconWidth) {
+        iconWidths.computeIfPresent(iconWidth, (w, count) -> count > 1 ? count - 1 : null);
+    }
+
     public List<IconListener> getIconListeners() {
         return listenerMap.values().stream().flatMap(List::stream).collect(Collectors.toList());
     }
@@ -0,0 +1,207 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.components.text;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.text.Position;
+
+/**
+ * Values associated with document positions, ordered by the offsets of the positions.
+ * <p>
+ * Positions keep their relative order when the document changes: Removing text may collapse several
+ * positions onto the same offset but never swaps them. Hence the entries stay sorted without having to
+ * be reordered and range queries are a binary search over the current offsets.
+ *
+ * @param <T> the type of the values.
+ */
+final class PositionIndex<T> {
+
+    private final ArrayList<Entry<T>> entries = new ArrayList<>();
+    private final Map<Position, Entry<T>> entryMap = new HashMap<>();
+    private final List<T> values = new AbstractList<T>() {
+        @Override
+        public T get(final int index) {
+            return entries.get(index).value;
+        }
+
+        @Override
+        public int size() {
+            return entries.size();
+        }
+    };
+
+    int size() {
+        return entries.size();
+    }
+
+    T get(final Position position) {
+        Entry<T> entry = entryMap.get(position);
+        return entry != null ? entry.value : null;
+    }
+
+    /**
+     * Associates the value with the position.
+     *
+     * @param position the position.
+     * @param value the value.
+     * @return the value previously associated with the position or null.
+     */
+    T put(final Position position, final T value) {
+        return put(position, value, 0);
+    }
+
+    /**
+     * Associates the value with the position and records a weight for it. The weight is kept as is until
+     * the value is replaced or removed, even if the value itself changes in the meantime.
+     *
+     * @param position the position.
+     * @param value the value.
+     * @param weight the weight of the value.
+     * @return the value previously associated with the position or null.
+     */
+    T put(final Position position, final T value, final int weight) {
+        Entry<T> entry = entryMap.get(position);
+        if (entry != null) {
+            T old = entry.value;
+            entry.value = value;
+            entry.weight = weight;
+            return old;
+        }
+        entry = new Entry<>(position, value, weight);
+        entryMap.put(position, entry);
+        entries.add(upperBound(position.getOffset()), entry);
+        return null;
+    }
+
+    /**
+     * Returns the weight recorded for the value associated with the position.
+     *
+     * @param position the position.
+     * @return the weight or 0 if there is no value associated with the position.
+     */
+    int getWeight(final Position position) {
+        Entry<T> entry = entryMap.get(position);
+        return entry != null ? entry.weight : 0;
+    }
+
+    /**
+     * Removes the value associated with the position.
+     *
+     * @param position the position.
+     * @return the removed value or null if there was none.
+     */
+    T remove(final Position position) {
+        Entry<T> entry = entryMap.remove(position);
+        if (entry == null) return null;
+        int offset = position.getOffset();
+        for (int i = lowerBound(offset); i < entries.size(); i++) {
+            if (entries.get(i) == entry) {
+                entries.remove(i);
+                break;
+            }
+        }
+        return entry.value;
+    }
+
+    /**
+     * Returns all entries whose position lies within the given range in order of their offsets. The entries
+     * are a read-only snapshot and don't reflect later changes.
+     *
+     * @param startOffset the start of the range (inclusive).
+     * @param endOffset the end of the range (inclusive).
+     * @return the entries within the range.
+     */
+    List<Map.Entry<Position, T>> getInRange(final int startOffset, final int endOffset) {
+        int start = lowerBound(startOffset);
+        int end = upperBound(endOffset);
+        if (start >= end) return Collections.emptyList();
+        List<Map.Entry<Position, T>> result = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            Entry<T> entry = entries.get(i);
+            result.add(new AbstractMap.SimpleImmutableEntry<>(entry.position, entry.value));
+        }
+        return result;
+    }
+
+    /**
+     * Returns a view of the values in order of their offsets.
+     *
+     * @return the values.
+     */
+    List<T> values() {
+        return values;
+    }
+
+    /*
+     * Index of the first entry with an offset >= the given offset.
+     */
+    private int lowerBound(final int offset) {
+        int low = 0;
+        int high = entries.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (entries.get(mid).position.getOffset() < offset) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /*
+     * Index of the first entry with an offset > the given offset.
+     */
+    private int upperBound(final int offset) {
+        int low = 0;
+        int high = entries.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (entries.get(mid).position.getOffset() <= offset) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static final class Entry<T> {
+
+        private final Position position;
+        private T value;
+        private int weight;
+
+        private Entry(final Position position, final T value, final int weight) {
+            this.position = position;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
@@ -21,45 +21,76 @@
  */
 package com.github.weisj.darklaf.components.treetable;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import javax.swing.*;
 import javax.swing.event.TreeExpansionEvent;
 import javax.swing.event.TreeExpansionListener;
+import javax.swing.event.TreeModelEvent;
+import javax.swing.event.TreeModelListener;
 import javax.swing.table.AbstractTableModel;
-import javax.swing.tree.TreeNode;
 import javax.swing.tree.TreePath;
 
 import com.github.weisj.darklaf.components.treetable.model.TreeTableModel;
 
+/**
+ * Table model presenting the visible rows of a tree. The paths of the visible rows are kept in an index which
+ * is updated incrementally whenever nodes are expanded, collapsed, inserted or removed. Hence looking up the
+ * node of a row doesn't need to query the tree and the fired table events only span the rows which actually
+ * changed.
+ */
 public class TreeTableModelAdapter extends AbstractTableModel {
 
     private final JTree tree;
     private final TreeTableModel treeTableModel;
+    private final List<TreePath> rows = new ArrayList<>();
 
     public TreeTableModelAdapter(final TreeTableModel treeTableModel, final JTree tree) {
         this.tree = tree;
         this.treeTableModel = treeTableModel;
+        rebuildRows();
 
         tree.addTreeExpansionListener(new TreeExpansionListener() {
             @Override
             public void treeExpanded(final TreeExpansionEvent event) {
-                TreePath path = event.getPath();
-                int start = tree.getRowForPath(path);
-                int length = ((TreeNode) path.getLastPathComponent()).getChildCount();
                 int selection = tree.getLeadSelectionRow();
-                fireTableRowsInserted(start, start + length);
+                pathExpanded(event.getPath());
                 tree.setSelectionRow(selection);
             }
 
             @Override
             public void treeCollapsed(final TreeExpansionEvent event) {
-                TreePath path = event.getPath();
-                int start = tree.getRowForPath(path);
-                int length = ((TreeNode) path.getLastPathComponent()).getChildCount();
                 int selection = tree.getLeadSelectionRow();
-                fireTableRowsDeleted(start, start + length);
+                pathCollapsed(event.getPath());
                 tree.setSelectionRow(selection);
             }
         });
+        treeTableModel.addTreeModelListener(new TreeModelListener() {
+            @Override
+            public void treeNodesChanged(final TreeModelEvent e) {
+                nodesChanged(e);
+            }
+
+            @Override
+            public void treeNodesInserted(final TreeModelEvent e) {
+                nodesInserted(e);
+            }
+
+            @Override
+            public void treeNodesRemoved(final TreeModelEvent e) {
+                nodesRemoved(e);
+            }
+
+            @Override
+            public void treeStructureChanged(final TreeModelEvent e) {
+                structureChanged(e);
+            }
+        });
+        tree.addPropertyChangeListener(JTree.ROOT_VISIBLE_PROPERTY, e -> {
+            rebuildRows();
+            fireTableDataChanged();
+        });
     }
 
     @Override
@@ -79,12 +110,11 @@ public class TreeTableModelAdapter extends AbstractTableModel {
 
     @Override
     public int getRowCount() {
-        return tree.getRowCount();
+        return rows.size();
     }
 
     protected Object nodeForRow(final int row) {
-        TreePath treePath = tree.getPathForRow(row);
-        return treePath.getLastPathComponent();
+        return rows.get(row).getLastPathComponent();
     }
 
     @Override
@@ -101,4 +131,189 @@ public class TreeTableModelAdapter extends AbstractTableModel {
     public void setValueAt(final Object value, final int row, final int column) {
         treeTableModel.setValueAt(value, nodeForRow(row), column);
     }
+
+    private void rebuildRows() {
+        rows.clear();
+        Object root = treeTableModel.getRoot();
+        if (root == null) return;
+        TreePath rootPath = new TreePath(root);
+        if (tree.isRootVisible()) rows.add(rootPath);
+        if (tree.isExpanded(rootPath)) addVisibleDescendants(rootPath, rows);
+    }
+
+    private void addVisibleDescendants(final TreePath path, final List<TreePath> paths) {
+        Object node = path.getLastPathComponent();
+        int childCount = treeTableModel.getChildCount(node);
+        for (int i = 0; i < childCount; i++) {
+            Object child = treeTableModel.getChild(node, i);
+            TreePath childPath = path.pathByAddingChild(child);
+            paths.add(childPath);
+            // Leafs can't be expanded, so the more expensive expansion check is only needed for inner nodes.
+            if (!treeTableModel.isLeaf(child) && tree.isExpanded(childPath)) {
+                addVisibleDescendants(childPath, paths);
+            }
+        }
+    }
+
+    /*
+     * Returns the row of the given path or -1 if it's the hidden root. Returns -2 if the path isn't visible.
+     * Rows in front of a path don't depend on the subtree of the path. Hence the row of the tree is also valid
+     * while the tree hasn't processed a change to the subtree yet.
+     */
+    private int rowForPath(final TreePath path) {
+        if (path == null) return -2;
+        if (path.getParentPath() == null && !tree.isRootVisible()) return -1;
+        int row = tree.getRowForPath(path);
+        return row >= 0 ? row : -2;
+    }
+
+    /*
+     * Returns the first row after the subtree which starts at the given row.
+     */
+    private int endOfSubtree(final int row) {
+        int depth = row >= 0 ? rows.get(row).getPathCount() : 1;
+        int end = row + 1;
+        while (end < rows.size() && rows.get(end).getPathCount() > depth) {
+            end++;
+        }
+        return end;
+    }
+
+    /*
+     * Returns the row of the child with the given index of the expanded node at the given row. If the node has
+     * less children the end of its subtree is returned.
+     */
+    private int rowOfChild(final int parentRow, final int childIndex) {
+        int end = endOfSubtree(parentRow);
+        int row = parentRow + 1;
+        for (int i = 0; i < childIndex && row < end; i++) {
+            row = endOfSubtree(row);
+        }
+        return Math.min(row, end);
+    }
+
+    private void pathExpanded(final TreePath path) {
+        int row = rowForPath(path);
+        if (row == -2) return;
+        int start = row + 1;
+        // The rows are already present if the path has been made visible by expanding one of its parents.
+        if (start < rows.size() && rows.get(start).getPathCount() > path.getPathCount()) return;
+        List<TreePath> inserted = new ArrayList<>();
+        addVisibleDescendants(path, inserted);
+        if (inserted.isEmpty()) return;
+        rows.addAll(start, inserted);
+        fireTableRowsInserted(start, start + inserted.size() - 1);
+    }
+
+    private void pathCollapsed(final TreePath path) {
+        int row = rowForPath(path);
+        if (row == -2) return;
+        removeRows(row + 1, endOfSubtree(row));
+    }
+
+    private void removeRows(final int start, final int end) {
+        if (start >= end) return;
+        rows.subList(start, end).clear();
+        fireTableRowsDeleted(start, end - 1);
+    }
+
+    private boolean isExpandedAndVisible(final TreePath path, final int row) {
+        return row != -2 && tree.isExpanded(path);
+    }
+
+    private void nodesChanged(final TreeModelEvent e) {
+        TreePath parentPath = e.getTreePath();
+        int parentRow = rowForPath(parentPath);
+        int[] indices = e.getChildIndices();
+        if (indices == null || indices.length == 0) {
+            // The node of the path itself changed.
+            if (parentRow >= 0) fireTableRowsUpdated(parentRow, parentRow);
+            return;
+        }
+        if (!isExpandedAndVisible(parentPath, parentRow)) return;
+        int first = Integer.MAX_VALUE;
+        int last = -1;
+        int end = endOfSubtree(parentRow);
+        for (int index : indices) {
+            int row = rowOfChild(parentRow, index);
+            if (row >= end) continue;
+            first = Math.min(first, row);
+            last = Math.max(last, row);
+        }
+        if (last >= 0) fireTableRowsUpdated(first, last);
+    }
+
+    private void nodesInserted(final TreeModelEvent e) {
+        TreePath parentPath = e.getTreePath();
+        int parentRow = rowForPath(parentPath);
+        int[] indices = e.getChildIndices();
+        Object[] children = e.getChildren();
+        if (indices == null || children == null || !isExpandedAndVisible(parentPath, parentRow)) return;
+        // Inserted nodes are collapsed, hence each of them only adds a single row.
+        for (int i = 0; i < indices.length; i++) {
+            int row = rowOfChild(parentRow, indices[i]);
+            rows.add(row, parentPath.pathByAddingChild(children[i]));
+            fireTableRowsInserted(row, row);
+        }
+    }
+
+    private void nodesRemoved(final TreeModelEvent e) {
+        TreePath parentPath = e.getTreePath();
+        int parentRow = rowForPath(parentPath);
+        int[] indices = e.getChildIndices();
+        Object[] children = e.getChildren();
+        if (indices == null || children == null || !isExpandedAndVisible(parentPath, parentRow)) return;
+        // Remove from the back to keep the rows of the remaining children valid.
+        for (int i = indices.length - 1; i >= 0; i--) {
+            int row = rowOfChild(parentRow, indices[i]);
+            if (row >= rows.size() || rows.get(row).getLastPathComponent() != children[i]) {
+                row = findChildRow(parentRow, children[i]);
+                if (row < 0) continue;
+            }
+            removeRows(row, endOfSubtree(row));
+        }
+    }
+
+    private int findChildRow(final int parentRow, final Object child) {
+        int end = endOfSubtree(parentRow);
+        for (int row = parentRow + 1; row < end; row = endOfSubtree(row)) {
+            if (rows.get(row).getLastPathComponent() == child) return row;
+        }
+        return -1;
+    }
+
+    private void structureChanged(final TreeModelEvent e) {
+        // The tree collapses all descendants of a path whose structure changed.
+        TreePath path = e.getTreePath();
+        if (path == null || path.getParentPath() == null) {
+            rows.clear();
+            Object root = treeTableModel.getRoot();
+            if (root != null) {
+                TreePath rootPath = new TreePath(root);
+                if (tree.isRootVisible()) rows.add(rootPath);
+                if (!treeTableModel.isLeaf(root)) addChildren(rootPath, rows);
+            }
+            fireTableDataChanged();
+            return;
+        }
+        int row = rowForPath(path);
+        if (row == -2) return;
+        removeRows(row + 1, endOfSubtree(row));
+        fireTableRowsUpdated(row, row);
+        if (tree.isExpanded(path)) {
+            List<TreePath> inserted = new ArrayList<>();
+            addChildren(path, inserted);
+            if (inserted.isEmpty()) return;
+            rows.addAll(row + 1, inserted);
+            fireTableRowsInserted(row + 1, row + inserted.size());
+        }
+    }
+
+    private void addChildren(final TreePath path, final List<TreePath> paths) {
+        Object node = path.getLastPathComponent();
+        int childCount = treeTableModel.getChildCount(node);
+        for (int i = 0; i < childCount; i++) {
+            paths.add(path.pathByAddingChild(treeTableModel.getChild(node, i)));
+        }
+    }
 }
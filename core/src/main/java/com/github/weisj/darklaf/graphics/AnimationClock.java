@@ -0,0 +1,217 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.graphics;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.swing.*;
+
+import com.github.weisj.darklaf.DarkLaf;
+
+/**
+ * Clock driving all running animations. Instead of each animation scheduling its own events, the
+ * clock runs all registered {@link FrameListener}s in a single event on the event dispatch thread per
+ * frame. Repaints requested through {@link #repaint(JComponent, Rectangle)} during a frame are merged
+ * per root pane by the {@link RepaintBatcher} and passed on to the {@link RepaintManager} at the end of
+ * the frame.
+ * <p>
+ * The clock only runs while there are registered listeners.
+ */
+public final class AnimationClock {
+
+    public static final String TARGET_FPS_PROPERTY = DarkLaf.SYSTEM_PROPERTY_PREFIX + "animationFps";
+    private static final int DEFAULT_TARGET_FPS = 60;
+
+    private static final AnimationClock INSTANCE = new AnimationClock();
+
+    private final ScheduledExecutorService scheduler = createScheduler();
+    private final Set<FrameListener> listeners = new LinkedHashSet<>();
+    private final RepaintBatcher repaintBatcher = new RepaintBatcher();
+    private final AtomicBoolean framePending = new AtomicBoolean(false);
+
+    private ScheduledFuture<?> ticker;
+    private int targetFps;
+    private boolean inFrame;
+    private volatile long frameCount;
+
+    private AnimationClock() {
+        targetFps = Math.max(1, Integer.getInteger(TARGET_FPS_PROPERTY, DEFAULT_TARGET_FPS));
+    }
+
+    public static AnimationClock getInstance() {
+        return INSTANCE;
+    }
+
+    @SuppressWarnings("ThreadPriorityCheck")
+    private static ScheduledExecutorService createScheduler() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+            final Thread thread = new Thread(r, "Animations Thread");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MAX_PRIORITY);
+            return thread;
+        });
+        executor.setContinueExistingPeriodicTasksAfterShutdownPolicy(false);
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        return executor;
+    }
+
+    /**
+     * Registers a listener, which is notified on every frame until it is removed. Starts the clock if it
+     * isn't running.
+     *
+     * @param listener the listener.
+     */
+    public synchronized void addFrameListener(final FrameListener listener) {
+        if (listeners.add(listener) && ticker == null) startTicker();
+    }
+
+    /**
+     * Removes a listener. The clock is paused once no listeners are left.
+     *
+     * @param listener the listener.
+     */
+    public synchronized void removeFrameListener(final FrameListener listener) {
+        if (listeners.remove(listener) && listeners.isEmpty()) stopTicker();
+    }
+
+    public synchronized boolean isRunning() {
+        return ticker != null;
+    }
+
+    public synchronized int getTargetFps() {
+        return targetFps;
+    }
+
+    /**
+     * Sets the number of frames per second the clock aims for.
+     *
+     * @param targetFps the target frame rate.
+     * @see #TARGET_FPS_PROPERTY
+     */
+    public synchronized void setTargetFps(final int targetFps) {
+        if (targetFps <= 0) throw new IllegalArgumentException("Frame rate must be positive but was " + targetFps);
+        this.targetFps = targetFps;
+        if (ticker != null) {
+            stopTicker();
+            startTicker();
+        }
+    }
+
+    /**
+     * Returns the number of frames the clock has run so far.
+     *
+     * @return the frame count.
+     */
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    private void startTicker() {
+        ticker = scheduler.scheduleAtFixedRate(this::tick, 0, 1_000_000L / targetFps, TimeUnit.MICROSECONDS);
+    }
+
+    private void stopTicker() {
+        ticker.cancel(false);
+        ticker = null;
+    }
+
+    private void tick() {
+        // Skip frames if the event dispatch thread can't keep up.
+        if (framePending.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::runFrame);
+        }
+    }
+
+    private void runFrame() {
+        framePending.set(false);
+        List<FrameListener> currentListeners;
+        synchronized (this) {
+            if (listeners.isEmpty()) return;
+            currentListeners = new ArrayList<>(listeners);
+        }
+        frameCount++;
+        long frameTime = System.nanoTime();
+        inFrame = true;
+        try {
+            for (FrameListener listener : currentListeners) {
+                listener.onFrame(frameTime);
+            }
+        } finally {
+            inFrame = false;
+            repaintBatcher.flush();
+        }
+    }
+
+    /**
+     * Repaints the given area of a component. If called during a frame the area is repainted at the end
+     * of the frame together with all other areas of the same root pane requested during the frame.
+     * Otherwise the repaint is requested immediately.
+     *
+     * @param c the component.
+     * @param bounds the area to repaint.
+     */
+    public void repaint(final JComponent c, final Rectangle bounds) {
+        if (c == null || bounds == null) return;
+        if (inFrame && SwingUtilities.isEventDispatchThread()) {
+            repaintBatcher.add(c, bounds);
+        } else {
+            c.repaint(bounds);
+        }
+    }
+
+    public void repaint(final JComponent c) {
+        if (c == null) return;
+        repaint(c, new Rectangle(0, 0, c.getWidth(), c.getHeight()));
+    }
+
+    /**
+     * Returns the batcher merging the repaints requested during a frame. Its counters should only be
+     * accessed on the event dispatch thread.
+     *
+     * @return the repaint batcher.
+     */
+    public RepaintBatcher getRepaintBatcher() {
+        return repaintBatcher;
+    }
+
+    /**
+     * Listener notified on every frame of the {@link AnimationClock}.
+     */
+    public interface FrameListener {
+
+        /**
+         * Called on the event dispatch thread for every frame.
+         *
+         * @param frameTimeNanos the time of the frame as given by {@link System#nanoTime()}.
+         */
+        void onFrame(final long frameTimeNanos);
+    }
+}
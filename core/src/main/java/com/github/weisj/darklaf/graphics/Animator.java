@@ -21,11 +21,8 @@
  */
 package com.github.weisj.darklaf.graphics;
 
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.awt.*;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.swing.*;
 
@@ -36,7 +33,6 @@ import com.github.weisj.darklaf.util.PropertyUtil;
 public abstract class Animator {
 
     public static final String ANIMATIONS_FLAG = DarkLaf.SYSTEM_PROPERTY_PREFIX + "animations";
-    private static final ScheduledExecutorService scheduler = createScheduler();
 
     private final int totalFrames;
     private final int cycleDuration;
@@ -47,7 +43,9 @@ public abstract class Animator {
 
     private Interpolator interpolator;
 
-    private ScheduledFuture<?> ticker;
+    private final AnimationClock.FrameListener frameListener = this::onFrame;
+    private volatile boolean running;
+    private long resumeTime;
     private int startFrame;
     private int currentFrame;
     private long startTime;
@@ -97,19 +95,6 @@ public abstract class Animator {
         currentFrame %= totalFrames;
     }
 
-    @SuppressWarnings("ThreadPriorityCheck")
-    private static ScheduledExecutorService createScheduler() {
-        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
-            final Thread thread = new Thread(r, "Animations Thread");
-            thread.setDaemon(true);
-            thread.setPriority(Thread.MAX_PRIORITY);
-            return thread;
-        });
-        executor.setContinueExistingPeriodicTasksAfterShutdownPolicy(false);
-        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
-        return executor;
-    }
-
     public void suspend() {
         resetTime();
         reset();
@@ -117,9 +102,9 @@ public abstract class Animator {
     }
 
     public void stopTicker() {
-        if (ticker != null) {
-            ticker.cancel(false);
-            ticker = null;
+        if (running) {
+            running = false;
+            AnimationClock.getInstance().removeFrameListener(frameListener);
         }
     }
 
@@ -159,26 +144,19 @@ public abstract class Animator {
         }
         if (cycleDuration == 0 || startFrame >= totalFrames || !animationsEnabled()) {
             stopAnimation();
-        } else if (ticker == null) {
+        } else if (!running) {
             this.startFrame = startFrame;
-            long initialDelay = skipDelay ? 0 : delay * 1000L;
-            ticker = scheduler.scheduleWithFixedDelay(new Runnable() {
-                final AtomicBoolean isScheduled = new AtomicBoolean(false);
-
-                @Override
-                public void run() {
-                    if (!isScheduled.get() && !isDisposed()) {
-                        isScheduled.set(true);
-                        SwingUtilities.invokeLater(() -> {
-                            onTick();
-                            isScheduled.set(false);
-                        });
-                    }
-                }
-            }, initialDelay, cycleDuration * 1000L / totalFrames, TimeUnit.MICROSECONDS);
+            resumeTime = System.nanoTime() + (skipDelay ? 0 : TimeUnit.MILLISECONDS.toNanos(delay));
+            running = true;
+            AnimationClock.getInstance().addFrameListener(frameListener);
         }
     }
 
+    private void onFrame(final long frameTimeNanos) {
+        if (frameTimeNanos - resumeTime < 0) return;
+        onTick();
+    }
+
     private void paint() {
         int frame = forward ? currentFrame : totalFrames - currentFrame - 1;
         paintNow(interpolator.interpolate((float) frame / totalFrames));
@@ -194,7 +172,7 @@ public abstract class Animator {
     }
 
     private void onTick() {
-        if (isDisposed() || ticker == null) return;
+        if (isDisposed() || !running) return;
 
         if (startTime == -1) {
             startTime = System.currentTimeMillis();
@@ -222,6 +200,17 @@ public abstract class Animator {
 
     public abstract void paintNow(float fraction);
 
+    /**
+     * Requests a repaint of the given area. Repaints requested while painting a frame are merged with
+     * those of all other running animations.
+     *
+     * @param c the component to repaint.
+     * @param bounds the area to repaint.
+     */
+    protected void repaint(final JComponent c, final Rectangle bounds) {
+        AnimationClock.getInstance().repaint(c, bounds);
+    }
+
     protected void paintCycleEnd() {}
 
     public void dispose() {
@@ -230,7 +219,7 @@ public abstract class Animator {
     }
 
     public boolean isRunning() {
-        return ticker != null;
+        return running;
     }
 
     public final boolean isForward() {
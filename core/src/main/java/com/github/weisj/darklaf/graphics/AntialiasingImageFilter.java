@@ -25,6 +25,10 @@ import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.awt.image.RGBImageFilter;
 
+/**
+ * @deprecated Use {@link AntialiasingRasterFilter} instead, which operates on whole rows of pixels.
+ */
+@Deprecated
 public class AntialiasingImageFilter extends RGBImageFilter {
 
     private final BufferedImage destImg;
@@ -0,0 +1,173 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.graphics;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Converts text painted with sub-pixel antialiasing onto an opaque background into a translucent
+ * image, which can be painted onto a translucent destination. The coverage of each colour channel is
+ * recovered from the difference between the painted colour and the background colour. If the pixels
+ * of the destination are known the text is blended with them directly.
+ * <p>
+ * Produces the same result as {@link AntialiasingImageFilter} but operates on whole rows of pixels at
+ * once using integer arithmetic, instead of filtering each pixel through an image producer.
+ */
+public final class AntialiasingRasterFilter {
+
+    private static final int SHIFT = 16;
+    private static final int ONE = 1 << SHIFT;
+
+    private final int bgRgb;
+    private final int fgRed;
+    private final int fgGreen;
+    private final int fgBlue;
+    private final int bgRed;
+    private final int bgGreen;
+    private final int bgBlue;
+    // Reciprocals of the differences between fore- and background in fixed point. Zero if the colors agree.
+    private final int redFactor;
+    private final int greenFactor;
+    private final int blueFactor;
+    private final int definedChannels;
+
+    private int[] srcRow;
+    private int[] destRow;
+
+    public AntialiasingRasterFilter(final Color fg, final Color bg) {
+        this.bgRgb = bg.getRGB();
+        this.fgRed = fg.getRed();
+        this.fgGreen = fg.getGreen();
+        this.fgBlue = fg.getBlue();
+        this.bgRed = bg.getRed();
+        this.bgGreen = bg.getGreen();
+        this.bgBlue = bg.getBlue();
+        this.redFactor = reciprocal(fgRed - bgRed);
+        this.greenFactor = reciprocal(fgGreen - bgGreen);
+        this.blueFactor = reciprocal(fgBlue - bgBlue);
+        this.definedChannels = (redFactor != 0 ? 1 : 0) + (greenFactor != 0 ? 1 : 0) + (blueFactor != 0 ? 1 : 0);
+    }
+
+    private static int reciprocal(final int difference) {
+        return difference != 0 ? Math.round((float) ONE / difference) : 0;
+    }
+
+    /**
+     * Filters the given image.
+     *
+     * @param src the image containing the text painted onto the background colour.
+     * @param dest the image the result is going to be painted on or null if unknown.
+     * @param destX the x position of the text in the destination image.
+     * @param destY the y position of the text in the destination image.
+     * @param target the image to write the result to. If null or smaller than the source image a new
+     *        image is created.
+     * @return the result. If the target image is larger than the source image the corresponding sub image
+     *         is returned.
+     */
+    public BufferedImage filter(final BufferedImage src, final BufferedImage dest, final int destX, final int destY,
+            final BufferedImage target) {
+        int width = src.getWidth();
+        int height = src.getHeight();
+        BufferedImage result = target;
+        if (result == null || result.getType() != BufferedImage.TYPE_INT_ARGB
+                || result.getWidth() < width || result.getHeight() < height) {
+            result = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+        if (srcRow == null || srcRow.length < width) {
+            srcRow = new int[width];
+            destRow = new int[width];
+        }
+        // Pixels outside of the destination are treated as if the destination is unknown.
+        int destStart = 0;
+        int destEnd = 0;
+        if (dest != null) {
+            destStart = Math.max(0, Math.min(width, -destX));
+            destEnd = Math.max(destStart, Math.min(width, dest.getWidth() - destX));
+        }
+        for (int y = 0; y < height; y++) {
+            readRow(src, 0, y, width, srcRow);
+            int destRowY = destY + y;
+            boolean hasDest = dest != null && destRowY >= 0 && destRowY < dest.getHeight() && destEnd > destStart;
+            if (hasDest) readRow(dest, destX + destStart, destRowY, destEnd - destStart, destRow);
+            for (int x = 0; x < width; x++) {
+                boolean blend = hasDest && x >= destStart && x < destEnd;
+                srcRow[x] = filterPixel(srcRow[x], blend ? destRow[x - destStart] : 0, blend);
+            }
+            result.getRaster().setDataElements(0, y, width, 1, srcRow);
+        }
+        return result.getWidth() == width && result.getHeight() == height
+                ? result
+                : result.getSubimage(0, 0, width, height);
+    }
+
+    private static void readRow(final BufferedImage img, final int x, final int y, final int width,
+            final int[] row) {
+        int type = img.getType();
+        if (type == BufferedImage.TYPE_INT_RGB || type == BufferedImage.TYPE_INT_ARGB) {
+            img.getRaster().getDataElements(x, y, width, 1, row);
+            if (type == BufferedImage.TYPE_INT_RGB) {
+                for (int i = 0; i < width; i++) {
+                    row[i] |= 0xFF000000;
+                }
+            }
+        } else {
+            img.getRGB(x, y, width, 1, row, 0, width);
+        }
+    }
+
+    private int filterPixel(final int rgb, final int destRgb, final boolean blend) {
+        if ((rgb | 0xFF000000) == bgRgb) return 0;
+        int redCoverage = ((rgb >> 16) & 0xFF) - bgRed;
+        int greenCoverage = ((rgb >> 8) & 0xFF) - bgGreen;
+        int blueCoverage = (rgb & 0xFF) - bgBlue;
+        redCoverage *= redFactor;
+        greenCoverage *= greenFactor;
+        blueCoverage *= blueFactor;
+        if (definedChannels < 3) {
+            // Channels in which fore- and background agree carry no information about the coverage.
+            int fallback = definedChannels > 0
+                    ? (redCoverage + greenCoverage + blueCoverage) / definedChannels
+                    : ONE;
+            if (redFactor == 0) redCoverage = fallback;
+            if (greenFactor == 0) greenCoverage = fallback;
+            if (blueFactor == 0) blueCoverage = fallback;
+        }
+        if (blend) {
+            int red = blendChannel(fgRed, (destRgb >> 16) & 0xFF, redCoverage);
+            int green = blendChannel(fgGreen, (destRgb >> 8) & 0xFF, greenCoverage);
+            int blue = blendChannel(fgBlue, destRgb & 0xFF, blueCoverage);
+            return 0xFF000000 | (red << 16) | (green << 8) | blue;
+        } else {
+            int alpha = clamp((int) ((255L * (redCoverage + greenCoverage + blueCoverage) / 3) >> SHIFT));
+            return (alpha << 24) | (fgRed << 16) | (fgGreen << 8) | fgBlue;
+        }
+    }
+
+    private static int blendChannel(final int fg, final int dest, final int coverage) {
+        return clamp((int) (((long) fg * coverage + (long) (ONE - coverage) * dest) >> SHIFT));
+    }
+
+    private static int clamp(final int value) {
+        return Math.max(0, Math.min(255, value));
+    }
+}
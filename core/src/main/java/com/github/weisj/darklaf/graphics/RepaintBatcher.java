@@ -0,0 +1,156 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.graphics;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.*;
+
+/**
+ * Collects the repaints requested by animations during a frame of the {@link AnimationClock}. The
+ * requested areas are accumulated per root pane and merged such that each root pane receives as few
+ * {@link RepaintManager} requests as possible once the frame is finished.
+ * <p>
+ * Two areas are merged if the area of their union doesn't exceed their combined area by more than
+ * {@link #MERGE_SLACK}. At most {@link #MAX_REGIONS_PER_ROOT} separate areas are kept per root pane.
+ */
+public final class RepaintBatcher {
+
+    static final float MERGE_SLACK = 1.5f;
+    static final int MAX_REGIONS_PER_ROOT = 4;
+
+    private final Map<JComponent, List<Rectangle>> dirtyRegions = new LinkedHashMap<>();
+
+    private int pendingCount;
+    private long requestCount;
+    private long mergedCount;
+    private long issuedCount;
+
+    RepaintBatcher() {}
+
+    /**
+     * Adds an area of a component to the current batch.
+     *
+     * @param c the component.
+     * @param bounds the area in the coordinate system of the component.
+     */
+    void add(final JComponent c, final Rectangle bounds) {
+        requestCount++;
+        pendingCount++;
+        Rectangle area = bounds.intersection(c.getVisibleRect());
+        if (area.isEmpty()) return;
+        JComponent root = SwingUtilities.getRootPane(c);
+        if (root == null) {
+            root = c;
+        } else {
+            area = SwingUtilities.convertRectangle(c, area, root);
+        }
+        List<Rectangle> regions = dirtyRegions.computeIfAbsent(root, r -> new ArrayList<>(MAX_REGIONS_PER_ROOT));
+        addRegion(regions, area);
+    }
+
+    private static void addRegion(final List<Rectangle> regions, final Rectangle area) {
+        Rectangle current = area;
+        // A merged region may now be close enough to one of the others, hence check until nothing changes.
+        for (int i = 0; i < regions.size(); i++) {
+            Rectangle region = regions.get(i);
+            if (shouldMerge(region, current)) {
+                regions.remove(i);
+                region.add(current);
+                current = region;
+                i = -1;
+            }
+        }
+        if (regions.size() >= MAX_REGIONS_PER_ROOT) {
+            regions.get(regions.size() - 1).add(current);
+        } else {
+            regions.add(current);
+        }
+    }
+
+    private static boolean shouldMerge(final Rectangle a, final Rectangle b) {
+        if (a.contains(b) || b.contains(a)) return true;
+        long unionWidth = (long) Math.max(a.x + a.width, b.x + b.width) - Math.min(a.x, b.x);
+        long unionHeight = (long) Math.max(a.y + a.height, b.y + b.height) - Math.min(a.y, b.y);
+        long combinedArea = (long) a.width * a.height + (long) b.width * b.height;
+        return unionWidth * unionHeight <= MERGE_SLACK * combinedArea;
+    }
+
+    /**
+     * Issues the repaints of all collected areas and starts a new batch.
+     */
+    void flush() {
+        if (pendingCount == 0) return;
+        int issued = 0;
+        List<Map.Entry<JComponent, List<Rectangle>>> batch = new ArrayList<>(dirtyRegions.entrySet());
+        dirtyRegions.clear();
+        for (Map.Entry<JComponent, List<Rectangle>> entry : batch) {
+            JComponent root = entry.getKey();
+            RepaintManager repaintManager = RepaintManager.currentManager(root);
+            for (Rectangle r : entry.getValue()) {
+                repaintManager.addDirtyRegion(root, r.x, r.y, r.width, r.height);
+                issued++;
+            }
+        }
+        issuedCount += issued;
+        mergedCount += pendingCount - issued;
+        pendingCount = 0;
+    }
+
+    /**
+     * Returns the number of repaints requested by animations.
+     *
+     * @return the number of requested repaints.
+     */
+    public long getRequestCount() {
+        return requestCount;
+    }
+
+    /**
+     * Returns the number of requested repaints which were merged into other repaints or which didn't
+     * need to be painted because they aren't visible.
+     *
+     * @return the number of merged repaints.
+     */
+    public long getMergedCount() {
+        return mergedCount;
+    }
+
+    /**
+     * Returns the number of repaints passed on to the {@link RepaintManager}.
+     *
+     * @return the number of issued repaints.
+     */
+    public long getIssuedCount() {
+        return issuedCount;
+    }
+
+    public void resetCounters() {
+        requestCount = 0;
+        mergedCount = 0;
+        issuedCount = 0;
+    }
+}
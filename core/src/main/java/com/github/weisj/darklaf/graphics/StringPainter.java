@@ -23,8 +23,6 @@ package com.github.weisj.darklaf.graphics;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.awt.image.FilteredImageSource;
-import java.awt.image.ImageFilter;
 import java.lang.reflect.Field;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -38,6 +36,7 @@ import com.github.weisj.darklaf.ui.OpacityBufferedUI;
 import com.github.weisj.darklaf.ui.util.DarkUIUtil;
 import com.github.weisj.darklaf.util.*;
 import com.github.weisj.darklaf.util.ColorUtil;
+import com.github.weisj.darklaf.util.cache.CacheStatistics;
 import com.github.weisj.darklaf.util.graphics.GraphicsContext;
 import com.github.weisj.darklaf.util.graphics.GraphicsUtil;
 
@@ -47,6 +46,7 @@ public final class StringPainter {
 
     private static boolean translucentAAPaintingEnabled = true;
     private static boolean experimentalAntialiasingEnabled = false;
+    private static boolean textImageCacheEnabled = true;
 
     public static void setExperimentalAntialiasingEnabled(final boolean enabled) {
         experimentalAntialiasingEnabled = enabled;
@@ -64,6 +64,26 @@ public final class StringPainter {
         return experimentalAntialiasingEnabled;
     }
 
+    /**
+     * Sets whether text painted to an opaque buffer should be cached. If enabled repeated paints of the
+     * same text with the same font, colors and scale only draw the image created by the first paint.
+     *
+     * @param enabled true if the text images should be cached.
+     * @see #setTranslucentAAPaintingEnabled(boolean)
+     */
+    public static void setTextImageCacheEnabled(final boolean enabled) {
+        textImageCacheEnabled = enabled;
+        if (!enabled) TextImageCache.clear();
+    }
+
+    public static boolean isTextImageCacheEnabled() {
+        return textImageCacheEnabled;
+    }
+
+    public static CacheStatistics getTextImageCacheStatistics() {
+        return TextImageCache.getStatistics();
+    }
+
     public static <T extends JComponent> void drawString(final Graphics g, final T c, final String text,
             final Rectangle textRect) {
         drawString(g, c, text, textRect, SwingUtil.getFontMetrics(c, g));
@@ -118,10 +138,13 @@ public final class StringPainter {
         Graphics2D drawingGraphics = (Graphics2D) g;
         BufferedImage img = null; // Only needed for translucent AA painting.
         Point textPos = null; // Only needed for experimental algorithm.
+        TextImageCache.Key cacheKey = null;
 
         Color fgColor = g.getColor();
         Color bgColor = background;
 
+        View v = view != null ? view : PropertyUtil.getObject(c, BasicHTML.propertyKey, View.class);
+
         /*
          * If there is a non-opaque parent on Windows no sub-pixel AA is supported. In this case we paint
          * the text to an offscreen image with opaque background and paste it draw it back to the original
@@ -136,6 +159,8 @@ public final class StringPainter {
             LOGGER.finest(() -> "Using opaque buffering for " + c);
             double scaleX = Scale.getScaleX((Graphics2D) g);
             double scaleY = Scale.getScaleX((Graphics2D) g);
+            int imgWidth = (int) Math.round(scaleX * textRect.width);
+            int imgHeight = (int) Math.round(scaleY * textRect.height);
 
             if (experimentalAntialiasingEnabled) {
                 textPos = new Point(x, y);
@@ -148,16 +173,26 @@ public final class StringPainter {
                 Color fg = g.getColor();
                 double brightness = ColorUtil.getPerceivedBrightness(fg);
                 bgColor = brightness > 127 ? Color.BLACK : Color.WHITE;
+                img = TextImageCache.acquireScratchImage(imgWidth, imgHeight);
+            } else if (v == null && textImageCacheEnabled) {
+                // The result only depends on the text and its appearance, hence it can be reused.
+                cacheKey = createTextImageKey((Graphics2D) g, text, font, fm, mnemIndex, fgColor, bgColor, textRect,
+                        scaleX, scaleY);
+                BufferedImage cached = TextImageCache.get(cacheKey);
+                if (cached != null) {
+                    g.drawImage(cached, x, y, textRect.width, textRect.height, null);
+                    context.restore();
+                    return;
+                }
+                img = ImageUtil.createCompatibleImage(imgWidth, imgHeight);
+            } else {
+                img = TextImageCache.acquireScratchImage(imgWidth, imgHeight);
             }
-
-            img = ImageUtil.createCompatibleImage((int) Math.round(scaleX * textRect.width),
-                    (int) Math.round(scaleY * textRect.height));
             drawingGraphics = prepareImage(img, bgColor, fgColor, scaleX, scaleY);
             textRect.setLocation(0, 0);
         }
         drawingGraphics.setFont(font);
 
-        View v = view != null ? view : PropertyUtil.getObject(c, BasicHTML.propertyKey, View.class);
         if (v != null) {
             v.paint(drawingGraphics, textRect);
         } else {
@@ -171,18 +206,32 @@ public final class StringPainter {
 
         if (paintOpaqueBuffered) {
             drawingGraphics.dispose();
-            Image result = postProcessImage((Graphics2D) g, img, textPos, bgColor, fgColor);
+            BufferedImage result = postProcessImage((Graphics2D) g, img, textPos, bgColor, fgColor);
             g.drawImage(result, x, y, textRect.width, textRect.height, null);
+            if (cacheKey != null) {
+                TextImageCache.put(cacheKey, img);
+            } else {
+                TextImageCache.releaseScratchImage(img);
+            }
+            if (result != img) TextImageCache.releaseScratchImage(result);
         }
         context.restore();
     }
 
-    private static Image postProcessImage(final Graphics2D g, final BufferedImage img, final Point textPos,
+    static TextImageCache.Key createTextImageKey(final Graphics2D g, final String text, final Font font,
+            final FontMetrics fm, final int mnemIndex, final Color fgColor, final Color bgColor,
+            final Rectangle textRect, final double scaleX, final double scaleY) {
+        return new TextImageCache.Key(text, font, mnemIndex, fgColor, bgColor, textRect.width, textRect.height,
+                scaleX, scaleY, fm.getFontRenderContext(), g.getRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING),
+                g.getRenderingHint(RenderingHints.KEY_TEXT_LCD_CONTRAST));
+    }
+
+    private static BufferedImage postProcessImage(final Graphics2D g, final BufferedImage img, final Point textPos,
             final Color bgColor, final Color fgColor) {
         if (experimentalAntialiasingEnabled) {
             final BufferedImage destImg = getImage(g);
-            ImageFilter filter = new AntialiasingImageFilter(destImg, textPos.x, textPos.y, fgColor, bgColor);
-            return Toolkit.getDefaultToolkit().createImage(new FilteredImageSource(img.getSource(), filter));
+            BufferedImage target = TextImageCache.acquireTranslucentScratchImage(img.getWidth(), img.getHeight());
+            return new AntialiasingRasterFilter(fgColor, bgColor).filter(img, destImg, textPos.x, textPos.y, target);
         } else {
             return img;
         }
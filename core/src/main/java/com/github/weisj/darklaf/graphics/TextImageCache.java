@@ -0,0 +1,231 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.graphics;
+
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.image.BufferedImage;
+import java.util.Objects;
+
+import com.github.weisj.darklaf.DarkLaf;
+import com.github.weisj.darklaf.util.ImageUtil;
+import com.github.weisj.darklaf.util.cache.CacheStatistics;
+import com.github.weisj.darklaf.util.cache.LRUCache;
+import com.github.weisj.darklaf.util.cache.SoftCache;
+
+/**
+ * Images of text painted by the {@link StringPainter} onto an opaque buffer. Repeated paints of the
+ * same text with the same appearance reuse the image of the first paint. Text which can't be cached
+ * is painted to a reusable scratch buffer instead of allocating a new image for each paint.
+ */
+final class TextImageCache {
+
+    static final String CACHE_SIZE_PROPERTY = DarkLaf.SYSTEM_PROPERTY_PREFIX + "textImageCacheSize";
+    private static final int DEFAULT_CACHE_SIZE = 2 * 1024 * 1024;
+    // Larger buffers aren't kept as scratch buffer to avoid holding on to large images.
+    private static final int MAX_SCRATCH_PIXELS = 512 * 128;
+
+    private static final LRUCache<Key, TextImage> CACHE = new LRUCache<>(
+            Math.max(0, Integer.getInteger(CACHE_SIZE_PROPERTY, DEFAULT_CACHE_SIZE)), TextImage::getByteSize,
+            false);
+
+    private static final ScratchBuffer OPAQUE_SCRATCH = new ScratchBuffer(false);
+    private static final ScratchBuffer TRANSLUCENT_SCRATCH = new ScratchBuffer(true);
+
+    private TextImageCache() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    static BufferedImage get(final Key key) {
+        TextImage textImage = CACHE.get(key);
+        return textImage != null ? textImage.image : null;
+    }
+
+    static void put(final Key key, final BufferedImage image) {
+        CACHE.put(key, new TextImage(image));
+    }
+
+    static CacheStatistics getStatistics() {
+        return CACHE.getStatistics();
+    }
+
+    static void clear() {
+        CACHE.clear();
+        OPAQUE_SCRATCH.clear();
+        TRANSLUCENT_SCRATCH.clear();
+    }
+
+    /**
+     * Returns an opaque image of the given size backed by the scratch buffer. The image has to be
+     * released using {@link #releaseScratchImage(BufferedImage)} once it has been painted. If the scratch
+     * buffer is already in use or the requested size is too large a new image is created.
+     *
+     * @param width the width of the image.
+     * @param height the height of the image.
+     * @return the image.
+     */
+    static BufferedImage acquireScratchImage(final int width, final int height) {
+        return OPAQUE_SCRATCH.acquire(width, height);
+    }
+
+    /**
+     * Returns an image of type {@link BufferedImage#TYPE_INT_ARGB} of the given size backed by the
+     * translucent scratch buffer.
+     *
+     * @param width the width of the image.
+     * @param height the height of the image.
+     * @return the image.
+     * @see #acquireScratchImage(int, int)
+     */
+    static BufferedImage acquireTranslucentScratchImage(final int width, final int height) {
+        return TRANSLUCENT_SCRATCH.acquire(width, height);
+    }
+
+    static void releaseScratchImage(final BufferedImage image) {
+        OPAQUE_SCRATCH.release(image);
+        TRANSLUCENT_SCRATCH.release(image);
+    }
+
+    private static final class ScratchBuffer {
+        private final boolean translucent;
+        private BufferedImage image;
+        private boolean inUse;
+
+        private ScratchBuffer(final boolean translucent) {
+            this.translucent = translucent;
+        }
+
+        private BufferedImage createImage(final int width, final int height) {
+            return translucent
+                    ? new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB)
+                    : ImageUtil.createCompatibleImage(width, height);
+        }
+
+        private synchronized BufferedImage acquire(final int width, final int height) {
+            if (inUse || (long) width * height > MAX_SCRATCH_PIXELS) return createImage(width, height);
+            if (image == null || image.getWidth() < width || image.getHeight() < height) {
+                int w = Math.max(width, image != null ? image.getWidth() : 0);
+                int h = Math.max(height, image != null ? image.getHeight() : 0);
+                if ((long) w * h > MAX_SCRATCH_PIXELS) {
+                    w = width;
+                    h = height;
+                }
+                image = createImage(w, h);
+            }
+            inUse = true;
+            return image.getSubimage(0, 0, width, height);
+        }
+
+        private synchronized void release(final BufferedImage img) {
+            if (image != null && img.getRaster().getDataBuffer() == image.getRaster().getDataBuffer()) {
+                inUse = false;
+            }
+        }
+
+        private synchronized void clear() {
+            if (!inUse) image = null;
+        }
+    }
+
+    private static final class TextImage implements SoftCache.Cacheable<Key> {
+        private final BufferedImage image;
+
+        private TextImage(final BufferedImage image) {
+            this.image = image;
+        }
+
+        private long getByteSize() {
+            return 4L * image.getWidth() * image.getHeight();
+        }
+
+        @Override
+        public void setCacheKey(final Key key) {}
+    }
+
+    static final class Key {
+        private final String text;
+        private final Font font;
+        private final int mnemonicIndex;
+        private final int foreground;
+        private final int background;
+        private final int width;
+        private final int height;
+        private final long scaleX;
+        private final long scaleY;
+        private final FontRenderContext fontRenderContext;
+        private final Object textAntialiasing;
+        private final Object lcdContrast;
+        private final int hash;
+
+        Key(final String text, final Font font, final int mnemonicIndex, final Color foreground,
+                final Color background, final int width, final int height, final double scaleX, final double scaleY,
+                final FontRenderContext fontRenderContext, final Object textAntialiasing, final Object lcdContrast) {
+            this.text = text;
+            this.font = font;
+            this.mnemonicIndex = mnemonicIndex;
+            this.foreground = foreground.getRGB();
+            this.background = background.getRGB();
+            this.width = width;
+            this.height = height;
+            this.scaleX = Double.doubleToLongBits(scaleX);
+            this.scaleY = Double.doubleToLongBits(scaleY);
+            this.fontRenderContext = fontRenderContext;
+            this.textAntialiasing = textAntialiasing;
+            this.lcdContrast = lcdContrast;
+            this.hash = computeHash();
+        }
+
+        private int computeHash() {
+            int result = text.hashCode();
+            result = 31 * result + font.hashCode();
+            result = 31 * result + mnemonicIndex;
+            result = 31 * result + foreground;
+            result = 31 * result + background;
+            result = 31 * result + width;
+            result = 31 * result + height;
+            result = 31 * result + Long.hashCode(scaleX);
+            result = 31 * result + Long.hashCode(scaleY);
+            result = 31 * result + Objects.hashCode(fontRenderContext);
+            result = 31 * result + Objects.hashCode(textAntialiasing);
+            result = 31 * result + Objects.hashCode(lcdContrast);
+            return result;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return hash == key.hash && mnemonicIndex == key.mnemonicIndex && foreground == key.foreground
+                    && background == key.background && width == key.width && height == key.height
+                    && scaleX == key.scaleX && scaleY == key.scaleY && text.equals(key.text)
+                    && font.equals(key.font) && Objects.equals(fontRenderContext, key.fontRenderContext)
+                    && Objects.equals(textAntialiasing, key.textAntialiasing)
+                    && Objects.equals(lcdContrast, key.lcdContrast);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -21,6 +21,8 @@
  */
 package com.github.weisj.darklaf.task;
 
+import java.util.Set;
+
 import javax.swing.*;
 
 import com.github.weisj.darklaf.theme.Theme;
@@ -45,4 +47,21 @@ public interface DefaultsInitTask {
     default boolean onlyDuringInstallation() {
         return false;
     }
+
+    /**
+     * Returns the types of tasks whose results this task reads. A task declaring its dependencies may be
+     * run concurrently to preceding tasks it doesn't depend on. In this case it operates on a private copy
+     * of the defaults, which is merged back into the defaults in the original order of the tasks.
+     * <p>
+     * Hence a task declaring its dependencies must not read any values written by other tasks except
+     * those of its dependencies and mustn't have side effects outside of the defaults which interfere with
+     * other tasks.
+     *
+     * @return the types of tasks this task depends on or null if the task may depend on all preceding
+     *         tasks.
+     * @see DefaultsInitTaskScheduler
+     */
+    default Set<Class<? extends DefaultsInitTask>> getDependencies() {
+        return null;
+    }
 }
@@ -0,0 +1,169 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.task;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinTask;
+
+import javax.swing.*;
+
+import com.github.weisj.darklaf.theme.Theme;
+
+/**
+ * Runs {@link DefaultsInitTask}s concurrently where possible. Consecutive tasks which don't depend on
+ * each other (see {@link DefaultsInitTask#getDependencies()}) form a stage. The tasks of a stage are run
+ * on the common {@link java.util.concurrent.ForkJoinPool}, each on a private copy of the defaults. After
+ * all tasks of a stage have finished their changes are applied to the defaults in the original order of
+ * the tasks. Hence the resulting defaults are the same as if the tasks had been run one after another.
+ */
+public final class DefaultsInitTaskScheduler {
+
+    private DefaultsInitTaskScheduler() {}
+
+    /**
+     * Run the given tasks.
+     *
+     * @param tasks the tasks in order of execution.
+     * @param currentTheme the current theme being initialized.
+     * @param defaults the defaults to initialize.
+     */
+    public static void run(final List<DefaultsInitTask> tasks, final Theme currentTheme,
+            final UIDefaults defaults) {
+        List<DefaultsInitTask> stage = new ArrayList<>();
+        for (DefaultsInitTask task : tasks) {
+            if (!canJoinStage(task, stage)) {
+                runStage(stage, currentTheme, defaults);
+                stage.clear();
+            }
+            stage.add(task);
+        }
+        runStage(stage, currentTheme, defaults);
+    }
+
+    private static boolean canJoinStage(final DefaultsInitTask task, final List<DefaultsInitTask> stage) {
+        if (stage.isEmpty()) return true;
+        Set<Class<? extends DefaultsInitTask>> dependencies = task.getDependencies();
+        if (dependencies == null || stage.get(0).getDependencies() == null) return false;
+        for (DefaultsInitTask stageTask : stage) {
+            for (Class<? extends DefaultsInitTask> dependency : dependencies) {
+                if (dependency.isInstance(stageTask)) return false;
+            }
+        }
+        return true;
+    }
+
+    private static void runStage(final List<DefaultsInitTask> stage, final Theme currentTheme,
+            final UIDefaults defaults) {
+        if (stage.isEmpty()) return;
+        if (stage.size() == 1) {
+            stage.get(0).run(currentTheme, defaults);
+            return;
+        }
+        Map<Object, Object> snapshot = new HashMap<>(2 * defaults.size());
+        for (Map.Entry<Object, Object> entry : defaults.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue());
+        }
+        Locale locale = defaults.getDefaultLocale();
+        List<ForkJoinTask<TaskResult>> results = new ArrayList<>(stage.size());
+        for (DefaultsInitTask task : stage) {
+            results.add(ForkJoinTask.adapt(() -> runIsolated(task, currentTheme, snapshot, locale)));
+        }
+        // Fork in reverse order. If no worker is available the tasks get executed by the joining thread.
+        for (int i = results.size() - 1; i > 0; i--) {
+            results.get(i).fork();
+        }
+        List<TaskResult> stageResults = new ArrayList<>(results.size());
+        stageResults.add(results.get(0).invoke());
+        for (int i = 1; i < results.size(); i++) {
+            stageResults.add(results.get(i).join());
+        }
+        for (TaskResult result : stageResults) {
+            result.applyTo(defaults);
+        }
+    }
+
+    private static TaskResult runIsolated(final DefaultsInitTask task, final Theme currentTheme,
+            final Map<Object, Object> snapshot, final Locale locale) {
+        IsolatedDefaults isolatedDefaults = new IsolatedDefaults(snapshot.size());
+        isolatedDefaults.putAllRaw(snapshot);
+        isolatedDefaults.setDefaultLocale(locale);
+        task.run(currentTheme, isolatedDefaults);
+        return new TaskResult(snapshot, isolatedDefaults);
+    }
+
+    private static final class TaskResult {
+        private final List<Object> removedKeys = new ArrayList<>();
+        private final Map<Object, Object> changedValues = new HashMap<>();
+        private final List<String> resourceBundles;
+
+        private TaskResult(final Map<Object, Object> snapshot, final IsolatedDefaults defaults) {
+            for (Map.Entry<Object, Object> entry : defaults.entrySet()) {
+                if (snapshot.get(entry.getKey()) != entry.getValue()) {
+                    changedValues.put(entry.getKey(), entry.getValue());
+                }
+            }
+            for (Object key : snapshot.keySet()) {
+                if (!defaults.containsKey(key)) removedKeys.add(key);
+            }
+            resourceBundles = defaults.addedResourceBundles;
+        }
+
+        private void applyTo(final UIDefaults defaults) {
+            for (Object key : removedKeys) {
+                defaults.remove(key);
+            }
+            for (Map.Entry<Object, Object> entry : changedValues.entrySet()) {
+                defaults.put(entry.getKey(), entry.getValue());
+            }
+            for (String bundle : resourceBundles) {
+                defaults.addResourceBundle(bundle);
+            }
+        }
+    }
+
+    private static final class IsolatedDefaults extends UIDefaults {
+        private static final long serialVersionUID = 1L;
+
+        private final List<String> addedResourceBundles = new ArrayList<>();
+
+        private IsolatedDefaults(final int initialCapacity) {
+            super(initialCapacity, 0.75f);
+        }
+
+        private void putAllRaw(final Map<Object, Object> values) {
+            for (Map.Entry<Object, Object> entry : values.entrySet()) {
+                super.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        @Override
+        public synchronized void addResourceBundle(final String bundleName) {
+            super.addResourceBundle(bundleName);
+            addedResourceBundles.add(bundleName);
+        }
+    }
+}
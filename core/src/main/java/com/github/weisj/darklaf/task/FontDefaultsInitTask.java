@@ -49,8 +49,8 @@ import com.github.weisj.darklaf.util.graphics.GraphicsUtil;
 public class FontDefaultsInitTask implements DefaultsInitTask {
 
     private static final Logger LOGGER = LogUtil.getLogger(FontDefaultsInitTask.class);
-    private static final String SWING_AA_KEY = "swing.aatext";
-    private static final String SWING_AA_DEFAULT_VALUE = "true";
+    static final String SWING_AA_KEY = "swing.aatext";
+    static final String SWING_AA_DEFAULT_VALUE = "true";
     private static final String FONT_PROPERTY_PATH = "";
     private static final String FONT_SIZE_DEFAULTS_NAME = "font_sizes";
     private static final String FONT_DEFAULTS_NAME = "font";
@@ -121,8 +121,6 @@ public class FontDefaultsInitTask implements DefaultsInitTask {
 
     private void setupRenderingHints(final UIDefaults defaults) {
         if (!SystemInfo.isMacOSMojave) {
-            PropertyUtil.installSystemProperty(SWING_AA_KEY, SWING_AA_DEFAULT_VALUE);
-
             Toolkit toolkit = Toolkit.getDefaultToolkit();
             Map<?, ?> desktopHints = (Map<?, ?>) toolkit.getDesktopProperty(GraphicsUtil.DESKTOP_HINTS_KEY);
 
@@ -254,4 +252,9 @@ public class FontDefaultsInitTask implements DefaultsInitTask {
         }
         return withRule;
     }
+
+    @Override
+    public Set<Class<? extends DefaultsInitTask>> getDependencies() {
+        return Collections.singleton(ThemeDefaultsInitTask.class);
+    }
 }
@@ -21,6 +21,9 @@
  */
 package com.github.weisj.darklaf.task;
 
+import java.util.Collections;
+import java.util.Set;
+
 import javax.swing.*;
 
 import com.github.weisj.darklaf.theme.Theme;
@@ -53,4 +56,9 @@ public class IdeaDefaultsInitTask implements DefaultsInitTask {
                 "selectPreviousColumnCell", "ENTER", "selectNextRowCell", "shift ENTER", "selectPreviousRowCell",
                 "ctrl A", "selectAll", "meta A", "selectAll", "ESCAPE", "cancel", "F2", "startEditing"}));
     }
+
+    @Override
+    public Set<Class<? extends DefaultsInitTask>> getDependencies() {
+        return Collections.emptySet();
+    }
 }
@@ -23,6 +23,8 @@ package com.github.weisj.darklaf.task;
 
 import java.awt.event.InputEvent;
 import java.awt.event.KeyEvent;
+import java.util.Collections;
+import java.util.Set;
 
 import javax.swing.*;
 import javax.swing.plaf.metal.MetalLookAndFeel;
@@ -102,4 +104,9 @@ public class InputDefaultsInitTask implements DefaultsInitTask {
         defaults.put("ComboBox.ancestorInputMap", metalDefaults.get("ComboBox.ancestorInputMap"));
         defaults.put("ComboBox.actionMap", metalDefaults.get("ComboBox.actionMap"));
     }
+
+    @Override
+    public Set<Class<? extends DefaultsInitTask>> getDependencies() {
+        return Collections.emptySet();
+    }
 }
@@ -21,16 +21,34 @@
  */
 package com.github.weisj.darklaf.task;
 
+import java.util.Properties;
+
 import javax.swing.*;
 
 import com.github.weisj.darklaf.platform.DecorationsHandler;
 import com.github.weisj.darklaf.theme.Theme;
 import com.github.weisj.darklaf.ui.popupmenu.DarkPopupMenuUI;
+import com.github.weisj.darklaf.util.PropertyUtil;
 import com.github.weisj.darklaf.util.SystemInfo;
 
+/*
+ * Collects all initialization with global side effects, so the preceding tasks can be run ahead of time
+ * by a ThemePreload.
+ */
 public class PlatformDefaultsInitTask implements DefaultsInitTask {
     @Override
     public void run(final Theme currentTheme, final UIDefaults defaults) {
+        PropertyUtil.installSystemProperty(ThemeDefaultsInitTask.MAC_OS_MENU_BAR_KEY, "true");
+        if (!SystemInfo.isMacOSMojave) {
+            PropertyUtil.installSystemProperty(FontDefaultsInitTask.SWING_AA_KEY,
+                    FontDefaultsInitTask.SWING_AA_DEFAULT_VALUE);
+        }
+
+        // Decoration properties depend on whether the native decorations can be loaded.
+        Properties decorationProps = new Properties();
+        DecorationsHandler.getSharedInstance().loadDecorationProperties(decorationProps, defaults);
+        defaults.putAll(decorationProps);
+
         String key = DarkPopupMenuUI.KEY_DEFAULT_LIGHTWEIGHT_POPUPS;
         if (SystemInfo.isWindows10 && DecorationsHandler.getSharedInstance().isCustomDecorationSupported()) {
             JPopupMenu.setDefaultLightWeightPopupEnabled(Boolean.TRUE.equals(defaults.get(key + ".windows10")));
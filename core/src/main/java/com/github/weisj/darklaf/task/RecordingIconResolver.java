@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.task;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import javax.swing.*;
+
+import org.jetbrains.annotations.NotNull;
+
+import com.github.weisj.darklaf.properties.icons.IconResolver;
+import com.github.weisj.darklaf.properties.icons.UIAwareIcon;
+
+/**
+ * {@link IconResolver} which remembers how each icon was requested, so it can be requested again
+ * when restoring a {@link ThemeDefaultsSnapshot}.
+ */
+final class RecordingIconResolver implements IconResolver {
+
+    static final byte MODE_PLAIN = 0;
+    static final byte MODE_THEMED = 1;
+    static final byte MODE_AWARE = 2;
+    static final byte MODE_DUAL = 3;
+
+    private final IconResolver delegate;
+    private final Map<Icon, IconRequest> requests = new IdentityHashMap<>();
+
+    RecordingIconResolver(final IconResolver delegate) {
+        this.delegate = delegate;
+    }
+
+    IconRequest getRequest(final Icon icon) {
+        IconRequest request = requests.get(icon);
+        if (request != null) return request;
+        for (Map.Entry<Icon, IconRequest> entry : requests.entrySet()) {
+            IconRequest r = entry.getValue();
+            if (r.mode == MODE_AWARE && ((UIAwareIcon) entry.getKey()).getDual() == icon) {
+                return new IconRequest(r.path, r.width, r.height, MODE_DUAL);
+            }
+        }
+        return null;
+    }
+
+    private <T extends Icon> T record(final T icon, final String path, final int w, final int h, final byte mode) {
+        requests.put(icon, new IconRequest(path, w, h, mode));
+        return icon;
+    }
+
+    @NotNull
+    @Override
+    public Icon getIcon(final @NotNull String path) {
+        return record(delegate.getIcon(path), path, -1, -1, MODE_PLAIN);
+    }
+
+    @NotNull
+    @Override
+    public Icon getIcon(final @NotNull String path, final boolean themed) {
+        return record(delegate.getIcon(path, themed), path, -1, -1, themed ? MODE_THEMED : MODE_PLAIN);
+    }
+
+    @NotNull
+    @Override
+    public Icon getIcon(final @NotNull String path, final int width, final int height) {
+        return record(delegate.getIcon(path, width, height), path, width, height, MODE_PLAIN);
+    }
+
+    @NotNull
+    @Override
+    public Icon getIcon(final @NotNull String path, final int width, final int height, final boolean themed) {
+        return record(delegate.getIcon(path, width, height, themed), path, width, height,
+                themed ? MODE_THEMED : MODE_PLAIN);
+    }
+
+    @NotNull
+    @Override
+    public UIAwareIcon getUIAwareIcon(final @NotNull String path) {
+        return record(delegate.getUIAwareIcon(path), path, -1, -1, MODE_AWARE);
+    }
+
+    @NotNull
+    @Override
+    public UIAwareIcon getUIAwareIcon(final @NotNull String path, final int width, final int height) {
+        return record(delegate.getUIAwareIcon(path, width, height), path, width, height, MODE_AWARE);
+    }
+
+    static Icon resolve(final IconResolver resolver, final IconRequest request) {
+        switch (request.mode) {
+            case MODE_THEMED:
+                return resolver.getIcon(request.path, request.width, request.height, true);
+            case MODE_AWARE:
+                return resolver.getUIAwareIcon(request.path, request.width, request.height);
+            case MODE_DUAL:
+                return resolver.getUIAwareIcon(request.path, request.width, request.height).getDual();
+            case MODE_PLAIN:
+            default:
+                return resolver.getIcon(request.path, request.width, request.height);
+        }
+    }
+
+    static final class IconRequest {
+        final String path;
+        final int width;
+        final int height;
+        final byte mode;
+
+        IconRequest(final String path, final int width, final int height, final byte mode) {
+            this.path = path;
+            this.width = width;
+            this.height = height;
+            this.mode = mode;
+        }
+    }
+}
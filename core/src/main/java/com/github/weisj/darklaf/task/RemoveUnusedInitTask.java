@@ -21,7 +21,9 @@
  */
 package com.github.weisj.darklaf.task;
 
+import java.util.Collections;
 import java.util.Properties;
+import java.util.Set;
 
 import javax.swing.*;
 
@@ -36,4 +38,9 @@ public class RemoveUnusedInitTask implements DefaultsInitTask {
         Properties props = PropertyLoader.loadProperties(DarkLaf.class, "unused", "");
         props.keySet().forEach(defaults::remove);
     }
+
+    @Override
+    public Set<Class<? extends DefaultsInitTask>> getDependencies() {
+        return Collections.emptySet();
+    }
 }
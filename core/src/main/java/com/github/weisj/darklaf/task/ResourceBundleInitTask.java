@@ -21,6 +21,9 @@
  */
 package com.github.weisj.darklaf.task;
 
+import java.util.Collections;
+import java.util.Set;
+
 import javax.swing.*;
 
 import com.github.weisj.darklaf.theme.Theme;
@@ -45,4 +48,9 @@ public class ResourceBundleInitTask implements DefaultsInitTask {
         defaults.addResourceBundle(SETTING_BUNDLE_NAME);
         defaults.addResourceBundle(TAB_FRAME_BUNDLE_NAME);
     }
+
+    @Override
+    public Set<Class<? extends DefaultsInitTask>> getDependencies() {
+        return Collections.emptySet();
+    }
 }
@@ -22,6 +22,9 @@
 package com.github.weisj.darklaf.task;
 
 import java.awt.*;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 
 import javax.swing.*;
 import javax.swing.text.html.HTMLEditorKit;
@@ -264,4 +267,9 @@ public class StyleSheetInitTask implements DefaultsInitTask {
     public boolean onlyDuringInstallation() {
         return true;
     }
+
+    @Override
+    public Set<Class<? extends DefaultsInitTask>> getDependencies() {
+        return new HashSet<>(Arrays.asList(ThemeDefaultsInitTask.class, FontDefaultsInitTask.class));
+    }
 }
@@ -22,26 +22,38 @@
 package com.github.weisj.darklaf.task;
 
 import java.awt.*;
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import javax.swing.*;
 
 import com.github.weisj.darklaf.DarkLaf;
+import com.github.weisj.darklaf.LafManager;
 import com.github.weisj.darklaf.iconset.IconSet;
-import com.github.weisj.darklaf.platform.DecorationsHandler;
 import com.github.weisj.darklaf.properties.PropertyLoader;
 import com.github.weisj.darklaf.properties.icons.IconResolver;
+import com.github.weisj.darklaf.properties.parser.DependencyGraph;
+import com.github.weisj.darklaf.properties.parser.Parser;
 import com.github.weisj.darklaf.theme.Theme;
 import com.github.weisj.darklaf.ui.util.DarkUIUtil;
-import com.github.weisj.darklaf.util.PropertyUtil;
 import com.github.weisj.darklaf.util.SystemInfo;
 
 public class ThemeDefaultsInitTask implements DefaultsInitTask {
 
     private static final String GLOBAL_PREFIX = "global.";
-    private static final String MAC_OS_MENU_BAR_KEY = "apple.laf.useScreenMenuBar";
+    static final String MAC_OS_MENU_BAR_KEY = "apple.laf.useScreenMenuBar";
     private static final String[] UI_PROPERTIES = new String[] {"borders", "button", "cell", "checkBox", "colorChooser",
             "comboBox", "fileChooser", "tristate", "internalFrame", "label", "list", "menu", "menuBar", "menuItem",
             "numberingPane", "optionPane", "panel", "popupMenu", "progressBar", "radioButton", "rootPane", "scrollBar",
@@ -58,15 +70,65 @@ public class ThemeDefaultsInitTask implements DefaultsInitTask {
     private final DefaultsAdjustmentTask userPreferenceAdjustment = new UserDefaultsAdjustmentTask();
     private final DefaultsAdjustmentTask accentColorAdjustment = new AccentColorAdjustmentTask();
     private final DefaultsAdjustmentTask foregroundGeneration = new ForegroundColorGenerationTask();
+    private final Map<String, DependencyGraph> propertyGraphs = new HashMap<>();
 
     @Override
     public void run(final Theme currentTheme, final UIDefaults defaults) {
-        loadThemeDefaults(currentTheme, defaults);
+        File snapshotDirectory = LafManager.getThemeSnapshotDirectory();
+        if (snapshotDirectory != null && canUseSnapshot()) {
+            loadThemeDefaultsFromSnapshot(snapshotDirectory, currentTheme, defaults);
+        } else {
+            loadThemeDefaults(currentTheme, defaults, DarkUIUtil.iconResolver());
+        }
+    }
+
+    private boolean canUseSnapshot() {
+        // Adjustments of the user can't be checked for modifications.
+        return !Parser.isDebugMode() && LafManager.getUserDefaultsAdjustmentTasks().isEmpty();
+    }
+
+    private void loadThemeDefaultsFromSnapshot(final File snapshotDirectory, final Theme currentTheme,
+            final UIDefaults defaults) {
+        String key = ThemeDefaultsSnapshot.createKey(currentTheme);
+        File snapshotFile = ThemeDefaultsSnapshot.getSnapshotFile(snapshotDirectory, key);
+        IconResolver iconResolver = DarkUIUtil.iconResolver();
+        if (ThemeDefaultsSnapshot.restore(snapshotFile, key, defaults, iconResolver)) return;
+        Map<Object, Object> rawDefaults = new HashMap<>(defaults.size());
+        for (Map.Entry<Object, Object> entry : defaults.entrySet()) {
+            rawDefaults.put(entry.getKey(), entry.getValue());
+        }
+        Map<String, URL> resources = new LinkedHashMap<>();
+        RecordingIconResolver recordingIconResolver = new RecordingIconResolver(iconResolver);
+        PropertyLoader.setResourceObserver(url -> resources.putIfAbsent(url.toString(), url));
+        try {
+            loadThemeDefaults(currentTheme, defaults, recordingIconResolver);
+        } finally {
+            PropertyLoader.setResourceObserver(null);
+        }
+        ThemeDefaultsSnapshot.write(snapshotFile, key, resources.values(), rawDefaults, defaults,
+                recordingIconResolver);
     }
 
-    private void loadThemeDefaults(final Theme currentTheme, final UIDefaults defaults) {
+    private void loadThemeDefaults(final Theme currentTheme, final UIDefaults defaults,
+            final IconResolver iconResolver) {
         Properties uiProps = new Properties();
-        currentTheme.loadDefaults(uiProps, defaults, DarkUIUtil.iconResolver());
+        loadThemeProperties(currentTheme, defaults, uiProps, iconResolver);
+
+        initGlobals(currentTheme, defaults, uiProps, iconResolver);
+        initUIProperties(currentTheme, defaults, uiProps, iconResolver);
+        initIconTheme(currentTheme, defaults, uiProps, iconResolver);
+        initPlatformProperties(currentTheme, defaults, uiProps, iconResolver);
+
+        adjustPlatformSpecifics(uiProps);
+
+        initAccentProperties(currentTheme, uiProps);
+
+        defaults.putAll(uiProps);
+    }
+
+    private void loadThemeProperties(final Theme currentTheme, final UIDefaults defaults, final Properties uiProps,
+            final IconResolver iconResolver) {
+        currentTheme.loadDefaults(uiProps, defaults, iconResolver);
 
         backupAccentColors(uiProps);
 
@@ -81,18 +143,135 @@ public class ThemeDefaultsInitTask implements DefaultsInitTask {
          */
         accentColorAdjustment.run(currentTheme, uiProps);
         foregroundGeneration.run(currentTheme, uiProps);
+    }
 
-        initGlobals(currentTheme, defaults, uiProps);
-        initUIProperties(currentTheme, defaults, uiProps);
-        initIconTheme(currentTheme, defaults, uiProps);
-        initPlatformProperties(currentTheme, defaults, uiProps);
+    /**
+     * Computes the values which change if the accent and selection colors of the installed theme are
+     * changed. Instead of loading all properties only those, which directly or indirectly reference a
+     * value derived from the accent colors, are evaluated again. All other references are resolved using
+     * the installed values. Customizations of the theme are applied as usual.
+     *
+     * @param installedTheme the installed theme.
+     * @param currentTheme the theme, which only differs from the installed theme in its accent colors.
+     * @param defaults a copy of the installed defaults. These are used to resolve references.
+     * @return the changed values. Removed keys are mapped to null. Returns null if the changes can't be
+     *         computed incrementally.
+     */
+    public Map<Object, Object> computeAccentColorChanges(final Theme installedTheme, final Theme currentTheme,
+            final UIDefaults defaults) {
+        if (Parser.isDebugMode()) return null;
+        IconResolver iconResolver = DarkUIUtil.iconResolver();
+        Map<Object, Object> installedValues = new HashMap<>(2 * defaults.size());
+        for (Map.Entry<Object, Object> entry : defaults.entrySet()) {
+            installedValues.put(entry.getKey(), entry.getValue());
+        }
+        Properties installedThemeProps = new Properties();
+        loadThemeProperties(installedTheme, defaults, installedThemeProps, iconResolver);
+        Properties themeProps = new Properties();
+        loadThemeProperties(currentTheme, defaults, themeProps, iconResolver);
 
-        DecorationsHandler.getSharedInstance().loadDecorationProperties(uiProps, defaults);
-        adjustPlatformSpecifics(uiProps);
+        String osName = getOsName();
+        DependencyGraph globalGraph = getPropertyGraph("globals",
+                () -> PropertyLoader.loadProperties(DarkLaf.class, "globals", ""));
+        DependencyGraph componentGraph = getPropertyGraph("ui/",
+                () -> loadProperties(DarkLaf.class, UI_PROPERTIES, "ui/"));
+        DependencyGraph iconGraph = getPropertyGraph("icons",
+                () -> loadProperties(IconSet.class, ICON_PROPERTIES, ""));
+        DependencyGraph platformGraph = getPropertyGraph("platform/" + osName,
+                () -> PropertyLoader.loadProperties(DarkLaf.class, osName, "platform/"));
+        Set<Object> propertyKeys = new HashSet<>(themeProps.keySet());
+        for (DependencyGraph graph : new DependencyGraph[] {componentGraph, iconGraph, platformGraph}) {
+            for (String key : graph.getEvaluationOrder()) {
+                propertyKeys.add(stripReferencePrefix(key));
+            }
+        }
 
+        ChangeTrackingProperties uiProps = new ChangeTrackingProperties(installedValues);
+        for (Map.Entry<Object, Object> entry : themeProps.entrySet()) {
+            if (!Objects.equals(entry.getValue(), installedThemeProps.get(entry.getKey()))) {
+                uiProps.putChanged(entry.getKey(), entry.getValue());
+            }
+        }
+
+        putAffectedProperties(globalGraph, uiProps, defaults, iconResolver);
+        currentTheme.customizeGlobals(uiProps, defaults, iconResolver);
+        installChangedGlobals(uiProps, installedValues, propertyKeys);
+
+        putAffectedProperties(componentGraph, uiProps, defaults, iconResolver);
+        currentTheme.customizeUIProperties(uiProps, defaults, iconResolver);
+
+        currentTheme.loadIconTheme(uiProps, defaults, iconResolver);
+        putAffectedProperties(iconGraph, uiProps, defaults, iconResolver);
+        currentTheme.customizeIconTheme(uiProps, defaults, iconResolver);
+
+        putAffectedProperties(platformGraph, uiProps, defaults, iconResolver);
+        currentTheme.customizePlatformProperties(uiProps, defaults, iconResolver);
+
+        adjustPlatformSpecifics(uiProps);
         initAccentProperties(currentTheme, uiProps);
+        return uiProps.getChanges();
+    }
 
-        defaults.putAll(uiProps);
+    /*
+     * Evaluates the properties, which reference a changed value, as well as new definitions of changed
+     * values.
+     */
+    private void putAffectedProperties(final DependencyGraph graph, final ChangeTrackingProperties uiProps,
+            final UIDefaults defaults, final IconResolver iconResolver) {
+        Set<String> changedKeys = uiProps.getChangedKeys();
+        Set<String> affectedKeys = new HashSet<>(graph.getAffectedKeys(changedKeys));
+        List<String> evaluatedKeys = new ArrayList<>();
+        for (String key : graph.getEvaluationOrder()) {
+            if (affectedKeys.contains(key) || changedKeys.contains(stripReferencePrefix(key))) {
+                evaluatedKeys.add(key);
+            }
+        }
+        PropertyLoader.putProperties(graph, evaluatedKeys, uiProps, defaults, iconResolver);
+        for (String key : evaluatedKeys) {
+            uiProps.markChanged(stripReferencePrefix(key));
+        }
+    }
+
+    /*
+     * The property files don't change at runtime, hence their graphs only need to be created once.
+     */
+    private synchronized DependencyGraph getPropertyGraph(final String name, final Supplier<Properties> loader) {
+        return propertyGraphs.computeIfAbsent(name, n -> {
+            Properties properties = loader.get();
+            Set<String> keys = new HashSet<>();
+            for (Object key : properties.keySet()) {
+                keys.add(key.toString());
+            }
+            return new DependencyGraph(properties, keys);
+        });
+    }
+
+    private static String stripReferencePrefix(final String key) {
+        return key.startsWith(PropertyLoader.getReferencePrefix()) ? key.substring(1) : key;
+    }
+
+    /*
+     * Counterpart of #installGlobals. Values of the base look and feel which have been replaced by a
+     * changed global value are replaced again.
+     */
+    private void installChangedGlobals(final ChangeTrackingProperties uiProps,
+            final Map<Object, Object> installedValues, final Set<Object> propertyKeys) {
+        for (String changedKey : new ArrayList<>(uiProps.getChangedKeys())) {
+            if (!changedKey.startsWith(GLOBAL_PREFIX)) continue;
+            String globalKey = changedKey.substring(GLOBAL_PREFIX.length());
+            Object installedValue = installedValues.get(changedKey);
+            Object value = uiProps.get(changedKey);
+            if (installedValue == null || value == null) continue;
+            for (Map.Entry<Object, Object> entry : installedValues.entrySet()) {
+                if (!(entry.getKey() instanceof String) || propertyKeys.contains(entry.getKey())) continue;
+                String key = (String) entry.getKey();
+                if (key.startsWith(GLOBAL_PREFIX) || !key.contains(".")) continue;
+                if (globalKey.equals(key.substring(key.lastIndexOf('.') + 1))
+                        && Objects.equals(installedValue, entry.getValue())) {
+                    uiProps.putChanged(key, value);
+                }
+            }
+        }
     }
 
     private void backupAccentColors(final Properties uiProps) {
@@ -110,8 +289,8 @@ public class ThemeDefaultsInitTask implements DefaultsInitTask {
                 selectionColor != null ? selectionColor : uiProps.get(SELECTION_COLOR_BACKUP_KEY));
     }
 
-    private void initGlobals(final Theme currentTheme, final UIDefaults defaults, final Properties uiProps) {
-        IconResolver iconResolver = DarkUIUtil.iconResolver();
+    private void initGlobals(final Theme currentTheme, final UIDefaults defaults, final Properties uiProps,
+            final IconResolver iconResolver) {
         PropertyLoader.putProperties(PropertyLoader.loadProperties(DarkLaf.class, "globals", ""),
                 uiProps, defaults, iconResolver);
 
@@ -134,27 +313,45 @@ public class ThemeDefaultsInitTask implements DefaultsInitTask {
                 });
     }
 
-    private void initUIProperties(final Theme currentTheme, final UIDefaults defaults, final Properties uiProps) {
-        IconResolver iconResolver = DarkUIUtil.iconResolver();
-        for (String property : UI_PROPERTIES) {
-            PropertyLoader.putProperties(PropertyLoader.loadProperties(DarkLaf.class, property, "ui/"),
-                    uiProps, defaults, iconResolver);
-        }
+    private void initUIProperties(final Theme currentTheme, final UIDefaults defaults, final Properties uiProps,
+            final IconResolver iconResolver) {
+        putProperties(DarkLaf.class, UI_PROPERTIES, "ui/", uiProps, defaults, iconResolver);
         currentTheme.customizeUIProperties(uiProps, defaults, iconResolver);
     }
 
-    private void initIconTheme(final Theme currentTheme, final UIDefaults defaults, final Properties uiProps) {
-        IconResolver iconResolver = DarkUIUtil.iconResolver();
+    private void initIconTheme(final Theme currentTheme, final UIDefaults defaults, final Properties uiProps,
+            final IconResolver iconResolver) {
         currentTheme.loadIconTheme(uiProps, defaults, iconResolver);
-        for (String property : ICON_PROPERTIES) {
-            PropertyLoader.putProperties(PropertyLoader.loadProperties(IconSet.class, property, ""),
-                    uiProps, defaults, iconResolver);
-        }
+        putProperties(IconSet.class, ICON_PROPERTIES, "", uiProps, defaults, iconResolver);
         currentTheme.customizeIconTheme(uiProps, defaults, iconResolver);
     }
 
-    private void initPlatformProperties(final Theme currentTheme, final UIDefaults defaults, final Properties uiProps) {
-        IconResolver iconResolver = DarkUIUtil.iconResolver();
+    private Properties loadProperties(final Class<?> clazz, final String[] names, final String path) {
+        Properties properties = new Properties();
+        for (String name : names) {
+            properties.putAll(PropertyLoader.loadProperties(clazz, name, path));
+        }
+        return properties;
+    }
+
+    private void putProperties(final Class<?> clazz, final String[] names, final String path,
+            final Properties uiProps, final UIDefaults defaults, final IconResolver iconResolver) {
+        if (Parser.isSinglePassMode()) {
+            /*
+             * References are ordered using the dependency graph of all properties. Hence the files don't
+             * need to be loaded one after another.
+             */
+            PropertyLoader.putProperties(loadProperties(clazz, names, path), uiProps, defaults, iconResolver);
+        } else {
+            for (String name : names) {
+                PropertyLoader.putProperties(PropertyLoader.loadProperties(clazz, name, path),
+                        uiProps, defaults, iconResolver);
+            }
+        }
+    }
+
+    private void initPlatformProperties(final Theme currentTheme, final UIDefaults defaults, final Properties uiProps,
+            final IconResolver iconResolver) {
         PropertyLoader.putProperties(
                 PropertyLoader.loadProperties(DarkLaf.class, getOsName(), "platform/"),
                 uiProps, defaults, iconResolver);
@@ -167,12 +364,83 @@ public class ThemeDefaultsInitTask implements DefaultsInitTask {
     }
 
     private void adjustPlatformSpecifics(final Properties uiProps) {
-        PropertyUtil.installSystemProperty(MAC_OS_MENU_BAR_KEY, "true");
-        boolean useScreenMenuBar = Boolean.getBoolean(MAC_OS_MENU_BAR_KEY);
         // If user wants to use Apple menu bar, then we need to keep the default
         // component for MenuBarUI and MenuUI
-        if (SystemInfo.isMac && useScreenMenuBar) {
+        if (SystemInfo.isMac && useScreenMenuBar()) {
             uiProps.remove("MenuBarUI");
         }
     }
+
+    /*
+     * The property is installed by the PlatformDefaultsInitTask, as this task may run ahead of time
+     * without any side effects. Unless specified otherwise the screen menu bar is used.
+     */
+    static boolean useScreenMenuBar() {
+        String value = System.getProperty(MAC_OS_MENU_BAR_KEY);
+        return value == null || Boolean.parseBoolean(value);
+    }
+
+    @Override
+    public Set<Class<? extends DefaultsInitTask>> getDependencies() {
+        return Collections.singleton(RemoveUnusedInitTask.class);
+    }
+
+    /*
+     * Properties which keep track of the keys whose values changed.
+     */
+    private static final class ChangeTrackingProperties extends Properties {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Set<String> changedKeys = new LinkedHashSet<>();
+        private boolean tracking;
+
+        private ChangeTrackingProperties(final Map<Object, Object> values) {
+            putAll(values);
+            tracking = true;
+        }
+
+        private Set<String> getChangedKeys() {
+            return changedKeys;
+        }
+
+        private void markChanged(final Object key) {
+            if (key instanceof String) changedKeys.add((String) key);
+        }
+
+        private void putChanged(final Object key, final Object value) {
+            put(key, value);
+            markChanged(key);
+        }
+
+        private Map<Object, Object> getChanges() {
+            Map<Object, Object> changes = new HashMap<>(2 * changedKeys.size());
+            for (String key : changedKeys) {
+                changes.put(key, get(key));
+            }
+            return changes;
+        }
+
+        @Override
+        public synchronized Object put(final Object key, final Object value) {
+            Object previous = super.put(key, value);
+            if (tracking && !Objects.equals(previous, value)) markChanged(key);
+            return previous;
+        }
+
+        @Override
+        public synchronized void putAll(final Map<?, ?> values) {
+            // Properties#putAll doesn't necessarily delegate to #put.
+            for (Map.Entry<?, ?> entry : values.entrySet()) {
+                put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        @Override
+        public synchronized Object remove(final Object key) {
+            Object previous = super.remove(key);
+            if (tracking && previous != null) markChanged(key);
+            return previous;
+        }
+    }
 }
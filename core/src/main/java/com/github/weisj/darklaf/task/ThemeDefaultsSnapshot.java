@@ -0,0 +1,476 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.task;
+
+import java.awt.*;
+import java.io.*;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+import javax.swing.*;
+import javax.swing.plaf.ColorUIResource;
+import javax.swing.plaf.DimensionUIResource;
+import javax.swing.plaf.InsetsUIResource;
+
+import com.github.weisj.darklaf.DarkLaf;
+import com.github.weisj.darklaf.properties.icons.EmptyIcon;
+import com.github.weisj.darklaf.properties.icons.IconResolver;
+import com.github.weisj.darklaf.properties.icons.StateIcon;
+import com.github.weisj.darklaf.properties.parser.ActiveObjectParser;
+import com.github.weisj.darklaf.properties.parser.LazyObjectParser;
+import com.github.weisj.darklaf.properties.parser.Parser;
+import com.github.weisj.darklaf.properties.uiresource.DarkColorUIResource;
+import com.github.weisj.darklaf.properties.uiresource.DarkFontUIResource;
+import com.github.weisj.darklaf.theme.Theme;
+import com.github.weisj.darklaf.util.FontUtil;
+import com.github.weisj.darklaf.util.LogUtil;
+import com.github.weisj.darklaf.util.SystemInfo;
+
+/**
+ * Binary snapshot of the changes {@link ThemeDefaultsInitTask} applies to the {@link UIDefaults}.
+ * Restoring a snapshot doesn't involve any property parsing. A snapshot is only valid as long as
+ * the property files it was created from are unchanged, which is checked using their checksums.
+ */
+final class ThemeDefaultsSnapshot {
+
+    private static final Logger LOGGER = LogUtil.getLogger(ThemeDefaultsSnapshot.class);
+
+    private static final int MAGIC = 0x444C5353;
+    private static final int FORMAT_VERSION = 1;
+
+    private static final byte TAG_BACK_REFERENCE = 0;
+    private static final byte TAG_DEFAULTS_REFERENCE = 1;
+    private static final byte TAG_STRING = 2;
+    private static final byte TAG_INTEGER = 3;
+    private static final byte TAG_BOOLEAN = 4;
+    private static final byte TAG_FLOAT = 5;
+    private static final byte TAG_DOUBLE = 6;
+    private static final byte TAG_COLOR = 7;
+    private static final byte TAG_COLOR_UI_RESOURCE = 8;
+    private static final byte TAG_DARK_COLOR_UI_RESOURCE = 9;
+    private static final byte TAG_INSETS = 10;
+    private static final byte TAG_INSETS_UI_RESOURCE = 11;
+    private static final byte TAG_DIMENSION = 12;
+    private static final byte TAG_DIMENSION_UI_RESOURCE = 13;
+    private static final byte TAG_FONT = 14;
+    private static final byte TAG_LIST = 15;
+    private static final byte TAG_MAP = 16;
+    private static final byte TAG_EMPTY_VALUE = 17;
+    private static final byte TAG_LAZY_OBJECT = 18;
+    private static final byte TAG_ACTIVE_OBJECT = 19;
+    private static final byte TAG_ICON = 20;
+    private static final byte TAG_EMPTY_ICON = 21;
+    private static final byte TAG_STATE_ICON = 22;
+
+    private ThemeDefaultsSnapshot() {}
+
+    /**
+     * Creates the key identifying a snapshot. Everything influencing the result of
+     * {@link ThemeDefaultsInitTask} apart from the property files themselves has to be part of it.
+     *
+     * @param theme the theme.
+     * @return the key.
+     */
+    static String createKey(final Theme theme) {
+        Color accent = theme.getAccentColorRule().getAccentColor();
+        Color selection = theme.getAccentColorRule().getSelectionColor();
+        return theme.getThemeClass().getName()
+                + ";name=" + theme.getName()
+                + ";version=" + DarkLaf.class.getPackage().getImplementationVersion()
+                + ";accent=" + (accent != null ? Integer.toHexString(accent.getRGB()) : null)
+                + ";selection=" + (selection != null ? Integer.toHexString(selection.getRGB()) : null)
+                + ";font=" + theme.getFontSizeRule()
+                + ";os=" + SystemInfo.getOsName()
+                + ";screenMenuBar=" + ThemeDefaultsInitTask.useScreenMenuBar();
+    }
+
+    static File getSnapshotFile(final File directory, final String key) {
+        CRC32 crc = new CRC32();
+        crc.update(key.getBytes(StandardCharsets.UTF_8));
+        return new File(directory, "darklaf-theme-" + Long.toHexString(crc.getValue()) + ".snapshot");
+    }
+
+    /**
+     * Restores the snapshot stored in the given file.
+     *
+     * @param file the snapshot file.
+     * @param key the expected key of the snapshot.
+     * @param defaults the defaults to apply the snapshot to.
+     * @param iconResolver the resolver for icons.
+     * @return true if the snapshot was applied. If false is returned the defaults are left untouched.
+     */
+    static boolean restore(final File file, final String key, final UIDefaults defaults,
+            final IconResolver iconResolver) {
+        if (!file.isFile()) return false;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) return false;
+            if (!key.equals(in.readUTF())) return false;
+            int resourceCount = in.readInt();
+            for (int i = 0; i < resourceCount; i++) {
+                String url = in.readUTF();
+                long checksum = in.readLong();
+                if (checksum(new URL(url)) != checksum) {
+                    LOGGER.fine(() -> "Theme snapshot " + file + " is stale. Changed resource " + url);
+                    return false;
+                }
+            }
+            int removedCount = in.readInt();
+            List<String> removed = new ArrayList<>(removedCount);
+            for (int i = 0; i < removedCount; i++) {
+                removed.add(in.readUTF());
+            }
+            int entryCount = in.readInt();
+            Map<Object, Object> entries = new HashMap<>(entryCount * 2);
+            Decoder decoder = new Decoder(in, defaults, iconResolver);
+            for (int i = 0; i < entryCount; i++) {
+                String k = in.readUTF();
+                entries.put(k, decoder.read());
+            }
+            removed.forEach(defaults::remove);
+            defaults.putAll(entries);
+            return true;
+        } catch (final IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Could not restore theme snapshot " + file, e);
+            return false;
+        }
+    }
+
+    /**
+     * Write the difference between the defaults before and after running {@link ThemeDefaultsInitTask}.
+     *
+     * @param file the file to write the snapshot to.
+     * @param key the key of the snapshot.
+     * @param resources the property resources read while running the task.
+     * @param before the raw values of the defaults before running the task.
+     * @param after the defaults after running the task.
+     * @param iconResolver the resolver which was used to create the icons.
+     */
+    static void write(final File file, final String key, final Collection<URL> resources,
+            final Map<Object, Object> before, final UIDefaults after, final RecordingIconResolver iconResolver) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(key);
+            out.writeInt(resources.size());
+            for (URL url : resources) {
+                out.writeUTF(url.toString());
+                out.writeLong(checksum(url));
+            }
+
+            List<String> removed = new ArrayList<>();
+            for (Object k : before.keySet()) {
+                if (!after.containsKey(k)) removed.add(requireStringKey(k));
+            }
+            out.writeInt(removed.size());
+            for (String k : removed) {
+                out.writeUTF(k);
+            }
+
+            Map<Object, String> defaultsReferences = new IdentityHashMap<>();
+            before.forEach((k, v) -> {
+                if (k instanceof String) defaultsReferences.putIfAbsent(v, (String) k);
+            });
+            Map<String, Object> changed = new LinkedHashMap<>();
+            for (Map.Entry<Object, Object> entry : after.entrySet()) {
+                Object oldValue = before.get(entry.getKey());
+                if (oldValue == entry.getValue()) continue;
+                if (oldValue instanceof UIDefaults.LazyValue && !Encoder.isSupported(entry.getValue())) {
+                    /*
+                     * The lazy value was resolved while running the task. Resolving it again yields the same
+                     * result.
+                     */
+                    defaultsReferences.putIfAbsent(entry.getValue(), requireStringKey(entry.getKey()));
+                    continue;
+                }
+                changed.put(requireStringKey(entry.getKey()), entry.getValue());
+            }
+            Encoder encoder = new Encoder(out, defaultsReferences, iconResolver);
+            out.writeInt(changed.size());
+            for (Map.Entry<String, Object> entry : changed.entrySet()) {
+                out.writeUTF(entry.getKey());
+                encoder.write(entry.getValue());
+            }
+            out.flush();
+
+            File directory = file.getParentFile();
+            if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Could not create directory " + directory);
+            }
+            File temp = File.createTempFile(file.getName(), ".tmp", directory);
+            Files.write(temp.toPath(), bytes.toByteArray());
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            LOGGER.fine(() -> "Wrote theme snapshot " + file + " (" + bytes.size() + " bytes)");
+        } catch (final IOException | UnsupportedOperationException e) {
+            LOGGER.log(Level.WARNING, "Could not write theme snapshot " + file + ". " + e.getMessage());
+        }
+    }
+
+    private static String requireStringKey(final Object key) {
+        if (!(key instanceof String)) {
+            throw new UnsupportedOperationException("Unsupported key " + key + " of type " + key.getClass());
+        }
+        return (String) key;
+    }
+
+    private static long checksum(final URL url) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[8192];
+        try (InputStream in = url.openStream()) {
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                crc.update(buffer, 0, read);
+            }
+        }
+        return crc.getValue();
+    }
+
+    private static final class Encoder {
+        private final DataOutputStream out;
+        private final Map<Object, String> defaultsReferences;
+        private final RecordingIconResolver iconResolver;
+        private final Map<Object, Integer> written = new IdentityHashMap<>();
+
+        private Encoder(final DataOutputStream out, final Map<Object, String> defaultsReferences,
+                final RecordingIconResolver iconResolver) {
+            this.out = out;
+            this.defaultsReferences = defaultsReferences;
+            this.iconResolver = iconResolver;
+        }
+
+        private static boolean isSupported(final Object value) {
+            return value instanceof String || value instanceof Integer || value instanceof Boolean
+                    || value instanceof Float || value instanceof Double || value instanceof Color
+                    || value instanceof Insets || value instanceof Dimension || value instanceof Font
+                    || value instanceof List || value instanceof Map || value == Parser.EMPTY_VALUE
+                    || value instanceof LazyObjectParser.LazyObject
+                    || value instanceof ActiveObjectParser.ActiveObject
+                    || value instanceof Icon;
+        }
+
+        private void write(final Object value) throws IOException {
+            Integer index = written.get(value);
+            if (index != null) {
+                out.writeByte(TAG_BACK_REFERENCE);
+                out.writeInt(index);
+                return;
+            }
+            writeValue(value);
+            written.put(value, written.size());
+        }
+
+        private void writeValue(final Object value) throws IOException {
+            if (value == null) throw new UnsupportedOperationException("Unsupported null value");
+            Class<?> type = value.getClass();
+            if (type == String.class) {
+                out.writeByte(TAG_STRING);
+                out.writeUTF((String) value);
+            } else if (type == Integer.class) {
+                out.writeByte(TAG_INTEGER);
+                out.writeInt((Integer) value);
+            } else if (type == Boolean.class) {
+                out.writeByte(TAG_BOOLEAN);
+                out.writeBoolean((Boolean) value);
+            } else if (type == Float.class) {
+                out.writeByte(TAG_FLOAT);
+                out.writeFloat((Float) value);
+            } else if (type == Double.class) {
+                out.writeByte(TAG_DOUBLE);
+                out.writeDouble((Double) value);
+            } else if (type == Color.class || type == ColorUIResource.class || type == DarkColorUIResource.class) {
+                out.writeByte(type == Color.class
+                        ? TAG_COLOR
+                        : type == ColorUIResource.class ? TAG_COLOR_UI_RESOURCE : TAG_DARK_COLOR_UI_RESOURCE);
+                out.writeInt(((Color) value).getRGB());
+            } else if (type == Insets.class || type == InsetsUIResource.class) {
+                Insets insets = (Insets) value;
+                out.writeByte(type == Insets.class ? TAG_INSETS : TAG_INSETS_UI_RESOURCE);
+                out.writeInt(insets.top);
+                out.writeInt(insets.left);
+                out.writeInt(insets.bottom);
+                out.writeInt(insets.right);
+            } else if (type == Dimension.class || type == DimensionUIResource.class) {
+                Dimension dimension = (Dimension) value;
+                out.writeByte(type == Dimension.class ? TAG_DIMENSION : TAG_DIMENSION_UI_RESOURCE);
+                out.writeInt(dimension.width);
+                out.writeInt(dimension.height);
+            } else if (type == DarkFontUIResource.class && !((Font) value).isTransformed()
+                    && !((Font) value).hasLayoutAttributes()) {
+                Font font = (Font) value;
+                out.writeByte(TAG_FONT);
+                out.writeUTF(font.getName());
+                out.writeInt(font.getStyle());
+                out.writeFloat(font.getSize2D());
+            } else if (type == ArrayList.class) {
+                List<?> list = (List<?>) value;
+                out.writeByte(TAG_LIST);
+                out.writeInt(list.size());
+                for (Object o : list) {
+                    write(o);
+                }
+            } else if (type == HashMap.class) {
+                Map<?, ?> map = (Map<?, ?>) value;
+                out.writeByte(TAG_MAP);
+                out.writeInt(map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    write(entry.getKey());
+                    write(entry.getValue());
+                }
+            } else if (value == Parser.EMPTY_VALUE) {
+                out.writeByte(TAG_EMPTY_VALUE);
+            } else if (type == LazyObjectParser.LazyObject.class) {
+                out.writeByte(TAG_LAZY_OBJECT);
+                out.writeUTF(((LazyObjectParser.LazyObject) value).getClassName());
+            } else if (type == ActiveObjectParser.ActiveObject.class) {
+                out.writeByte(TAG_ACTIVE_OBJECT);
+                out.writeUTF(((ActiveObjectParser.ActiveObject) value).getClassName());
+            } else if (type == EmptyIcon.class) {
+                out.writeByte(TAG_EMPTY_ICON);
+                out.writeInt(((Icon) value).getIconWidth());
+                out.writeInt(((Icon) value).getIconHeight());
+            } else if (type == StateIcon.class) {
+                out.writeByte(TAG_STATE_ICON);
+                for (Icon icon : ((StateIcon) value).getIcons()) {
+                    write(icon);
+                }
+            } else if (value instanceof Icon && iconResolver.getRequest((Icon) value) != null) {
+                RecordingIconResolver.IconRequest request = iconResolver.getRequest((Icon) value);
+                out.writeByte(TAG_ICON);
+                out.writeByte(request.mode);
+                out.writeUTF(request.path);
+                out.writeInt(request.width);
+                out.writeInt(request.height);
+            } else if (defaultsReferences.containsKey(value)) {
+                out.writeByte(TAG_DEFAULTS_REFERENCE);
+                out.writeUTF(defaultsReferences.get(value));
+            } else {
+                throw new UnsupportedOperationException("Unsupported value " + value + " of type " + type);
+            }
+        }
+    }
+
+    private static final class Decoder {
+        private final DataInputStream in;
+        private final UIDefaults defaults;
+        private final IconResolver iconResolver;
+        private final List<Object> read = new ArrayList<>();
+
+        private Decoder(final DataInputStream in, final UIDefaults defaults, final IconResolver iconResolver) {
+            this.in = in;
+            this.defaults = defaults;
+            this.iconResolver = iconResolver;
+        }
+
+        private Object read() throws IOException {
+            byte tag = in.readByte();
+            if (tag == TAG_BACK_REFERENCE) return read.get(in.readInt());
+            Object value = readValue(tag);
+            read.add(value);
+            return value;
+        }
+
+        private Object readValue(final byte tag) throws IOException {
+            switch (tag) {
+                case TAG_DEFAULTS_REFERENCE:
+                    String key = in.readUTF();
+                    if (!defaults.containsKey(key)) throw new IOException("Missing default value " + key);
+                    return defaults.get(key);
+                case TAG_STRING:
+                    return in.readUTF();
+                case TAG_INTEGER:
+                    return in.readInt();
+                case TAG_BOOLEAN:
+                    return in.readBoolean();
+                case TAG_FLOAT:
+                    return in.readFloat();
+                case TAG_DOUBLE:
+                    return in.readDouble();
+                case TAG_COLOR:
+                    return new Color(in.readInt(), true);
+                case TAG_COLOR_UI_RESOURCE:
+                    return new ColorUIResource(new Color(in.readInt(), true));
+                case TAG_DARK_COLOR_UI_RESOURCE:
+                    return new DarkColorUIResource(new Color(in.readInt(), true));
+                case TAG_INSETS:
+                    return new Insets(in.readInt(), in.readInt(), in.readInt(), in.readInt());
+                case TAG_INSETS_UI_RESOURCE:
+                    return new InsetsUIResource(in.readInt(), in.readInt(), in.readInt(), in.readInt());
+                case TAG_DIMENSION:
+                    return new Dimension(in.readInt(), in.readInt());
+                case TAG_DIMENSION_UI_RESOURCE:
+                    return new DimensionUIResource(in.readInt(), in.readInt());
+                case TAG_FONT:
+                    String name = in.readUTF();
+                    int style = in.readInt();
+                    float size = in.readFloat();
+                    Font base = FontUtil.createFont(name, style, Math.round(size));
+                    return new DarkFontUIResource(base.deriveFont(style, size)
+                            .deriveFont(Collections.emptyMap()));
+                case TAG_LIST:
+                    int listSize = in.readInt();
+                    List<Object> list = new ArrayList<>(listSize);
+                    for (int i = 0; i < listSize; i++) {
+                        list.add(read());
+                    }
+                    return list;
+                case TAG_MAP:
+                    int mapSize = in.readInt();
+                    Map<Object, Object> map = new HashMap<>();
+                    for (int i = 0; i < mapSize; i++) {
+                        map.put(read(), read());
+                    }
+                    return map;
+                case TAG_EMPTY_VALUE:
+                    return Parser.EMPTY_VALUE;
+                case TAG_LAZY_OBJECT:
+                    return new LazyObjectParser.LazyObject(in.readUTF());
+                case TAG_ACTIVE_OBJECT:
+                    return new ActiveObjectParser.ActiveObject(in.readUTF());
+                case TAG_EMPTY_ICON:
+                    return EmptyIcon.create(in.readInt(), in.readInt());
+                case TAG_STATE_ICON:
+                    Icon[] icons = new Icon[6];
+                    for (int i = 0; i < icons.length; i++) {
+                        icons[i] = (Icon) read();
+                    }
+                    return new StateIcon(icons);
+                case TAG_ICON:
+                    byte mode = in.readByte();
+                    String path = in.readUTF();
+                    int width = in.readInt();
+                    int height = in.readInt();
+                    return RecordingIconResolver.resolve(iconResolver,
+                            new RecordingIconResolver.IconRequest(path, width, height, mode));
+                default:
+                    throw new IOException("Unknown tag " + tag);
+            }
+        }
+    }
+}
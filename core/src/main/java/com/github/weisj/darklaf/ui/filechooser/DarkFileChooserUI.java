@@ -25,13 +25,15 @@ import java.awt.BorderLayout;
 import java.awt.Component;
 import java.awt.Container;
 import java.awt.LayoutManager;
+import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
 import java.awt.event.ContainerAdapter;
 import java.awt.event.ContainerEvent;
 import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Supplier;
 
 import javax.swing.AbstractButton;
@@ -50,6 +52,7 @@ import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.JTextField;
 import javax.swing.ListCellRenderer;
+import javax.swing.ListModel;
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 import javax.swing.event.AncestorEvent;
@@ -80,6 +83,10 @@ public class DarkFileChooserUI extends MetalFileChooserUI {
 
     private static final int COLUMN_FILENAME = 0;
     private final DarkFileView fileView = createFileView();
+    private final FileTypeResolver typeResolver = new FileTypeResolver(this::typesResolved);
+
+    private JList<?> fileList;
+    private JTable fileTable;
 
     private Icon textFileIcon;
     private Icon imageFileIcon;
@@ -103,6 +110,14 @@ public class DarkFileChooserUI extends MetalFileChooserUI {
         return new DarkFileChooserUI((JFileChooser) c);
     }
 
+    @Override
+    public void uninstallUI(final JComponent c) {
+        typeResolver.cancel();
+        super.uninstallUI(c);
+        fileList = null;
+        fileTable = null;
+    }
+
     @Override
     protected void installIcons(final JFileChooser fc) {
         super.installIcons(fc);
@@ -197,6 +212,7 @@ public class DarkFileChooserUI extends MetalFileChooserUI {
     }
 
     private void patchDetailsView(final JTable table) {
+        fileTable = table;
         TableCellRenderer defaultRenderer = table.getDefaultRenderer(Object.class);
         table.setDefaultRenderer(Object.class, new DarkTableCellRenderer() {
             @Override
@@ -276,6 +292,7 @@ public class DarkFileChooserUI extends MetalFileChooserUI {
     }
 
     private void patchListView(final JList<?> list) {
+        fileList = list;
         list.setCellRenderer(new DarkFileRenderer());
         list.putClientProperty("JList.fullRowSelection", true);
         list.addContainerListener(new ContainerAdapter() {
@@ -345,16 +362,65 @@ public class DarkFileChooserUI extends MetalFileChooserUI {
 
     @Override
     public void clearIconCache() {
+        // The icon cache is cleared if the directory changes. Files of the old directory no longer need to be
+        // resolved.
+        typeResolver.cancel();
         fileView.clearIconCache();
     }
 
+    private Icon getIcon(final FileTypeResolver.FileType type) {
+        switch (type) {
+            case TEXT:
+                return textFileIcon;
+            case IMAGE:
+                return imageFileIcon;
+            default:
+                return fileIcon;
+        }
+    }
+
+    private void typesResolved(final Map<File, FileTypeResolver.FileType> types) {
+        for (Map.Entry<File, FileTypeResolver.FileType> entry : types.entrySet()) {
+            fileView.cacheIcon(entry.getKey(), getIcon(entry.getValue()));
+        }
+        repaintFiles(types.keySet());
+    }
+
+    /*
+     * Repaints the visible rows of the list and details view which display any of the given files.
+     */
+    private void repaintFiles(final Set<File> files) {
+        if (fileList != null && fileList.isShowing()) {
+            ListModel<?> model = fileList.getModel();
+            int first = fileList.getFirstVisibleIndex();
+            int last = Math.min(fileList.getLastVisibleIndex(), model.getSize() - 1);
+            for (int i = Math.max(first, 0); i <= last; i++) {
+                if (files.contains(model.getElementAt(i))) {
+                    Rectangle bounds = fileList.getCellBounds(i, i);
+                    if (bounds != null) fileList.repaint(bounds);
+                }
+            }
+        }
+        if (fileTable != null && fileTable.isShowing()) {
+            int column = fileTable.convertColumnIndexToView(COLUMN_FILENAME);
+            if (column < 0) return;
+            Rectangle visibleRect = fileTable.getVisibleRect();
+            int first = fileTable.rowAtPoint(visibleRect.getLocation());
+            int last = fileTable.rowAtPoint(new Point(visibleRect.x, visibleRect.y + visibleRect.height - 1));
+            if (last < 0) last = fileTable.getRowCount() - 1;
+            for (int row = Math.max(first, 0); row <= last; row++) {
+                if (files.contains(fileTable.getValueAt(row, column))) {
+                    fileTable.repaint(fileTable.getCellRect(row, column, true));
+                }
+            }
+        }
+    }
+
     protected DarkFileView createFileView() {
         return new DarkFileView();
     }
 
     private class DarkFileView extends BasicFileView {
-        private static final String MIME_TEXT = "text/";
-        private static final String MIME_IMAGE = "image/";
 
         @Override
         public Icon getIcon(final File f) {
@@ -375,17 +441,14 @@ public class DarkFileChooserUI extends MetalFileChooserUI {
                 } else if (f.isDirectory()) {
                     icon = directoryIcon;
                 } else {
-                    try {
-                        String mimeType = Files.probeContentType(f.toPath());
-                        if (mimeType == null) mimeType = "";
-                        if (mimeType.startsWith(MIME_IMAGE)) {
-                            icon = imageFileIcon;
-                        } else if (mimeType.startsWith(MIME_TEXT)) {
-                            icon = textFileIcon;
-                        }
-                    } catch (final IOException e) {
-                        icon = fileIcon;
+                    FileTypeResolver.FileType type = FileTypeResolver.getTypeForExtension(f);
+                    if (type == null) {
+                        // Probing the type may block. Until it has been resolved in the background the generic
+                        // file icon is used.
+                        typeResolver.resolve(f);
+                        return fileIcon;
                     }
+                    icon = DarkFileChooserUI.this.getIcon(type);
                 }
             }
             cacheIcon(f, icon);
@@ -0,0 +1,229 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.ui.filechooser;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * Determines the type of files for the file chooser icons without blocking the event dispatch thread.
+ * Files with a common extension are resolved immediately. All other files are probed using
+ * {@link Files#probeContentType(java.nio.file.Path)} on a background thread, which may be slow e.g. for
+ * files on network drives. Files are probed in batches of bounded size, hence results are published
+ * while large directories are still being processed and choosers share the background thread fairly.
+ * <p>
+ * Probed types are cached by path and are valid as long as the modification time of the file doesn't
+ * change.
+ */
+final class FileTypeResolver {
+
+    enum FileType {
+        TEXT, IMAGE, OTHER
+    }
+
+    private static final int BATCH_SIZE = 32;
+    private static final int CACHE_SIZE = 4096;
+    private static final String MIME_TEXT = "text/";
+    private static final String MIME_IMAGE = "image/";
+
+    private static final Map<String, FileType> EXTENSION_TYPES = createExtensionTypes();
+    private static final ExecutorService EXECUTOR = createExecutor();
+    // Shared by all choosers. Access is guarded by the map itself.
+    private static final Map<String, CacheEntry> TYPE_CACHE = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, CacheEntry> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private final Consumer<Map<File, FileType>> callback;
+    // Files which have been requested but not yet published. Only accessed on the event dispatch thread.
+    private final Set<File> pending = new HashSet<>();
+    // Guarded by this.
+    private final Deque<File> queue = new ArrayDeque<>();
+    private boolean scheduled;
+    private int generation;
+
+    /**
+     * Creates a new resolver.
+     *
+     * @param callback the callback receiving the resolved types on the event dispatch thread.
+     */
+    FileTypeResolver(final Consumer<Map<File, FileType>> callback) {
+        this.callback = callback;
+    }
+
+    private static Map<String, FileType> createExtensionTypes() {
+        Map<String, FileType> types = new HashMap<>();
+        for (String ext : new String[] {"txt", "text", "log", "md", "csv", "java", "c", "h", "cpp", "html", "htm",
+                "css"}) {
+            types.put(ext, FileType.TEXT);
+        }
+        for (String ext : new String[] {"png", "jpg", "jpeg", "gif", "bmp", "svg", "tif", "tiff", "ico", "webp"}) {
+            types.put(ext, FileType.IMAGE);
+        }
+        for (String ext : new String[] {"zip", "jar", "gz", "tar", "7z", "rar", "pdf", "exe", "dll", "so",
+                "class", "mp3", "mp4", "avi", "mkv", "wav", "doc", "docx", "xls", "xlsx", "ppt", "pptx"}) {
+            types.put(ext, FileType.OTHER);
+        }
+        return types;
+    }
+
+    private static ExecutorService createExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 5, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread thread = new Thread(r, "File Type Resolver");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Returns the type of the file as implied by its extension.
+     *
+     * @param file the file.
+     * @return the type or null if the extension isn't known.
+     */
+    static FileType getTypeForExtension(final File file) {
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        if (dot < 0 || dot == name.length() - 1) return null;
+        return EXTENSION_TYPES.get(name.substring(dot + 1).toLowerCase(Locale.ENGLISH));
+    }
+
+    static FileType getTypeForMimeType(final String mimeType) {
+        if (mimeType == null) return FileType.OTHER;
+        if (mimeType.startsWith(MIME_IMAGE)) return FileType.IMAGE;
+        if (mimeType.startsWith(MIME_TEXT)) return FileType.TEXT;
+        return FileType.OTHER;
+    }
+
+    /**
+     * Schedules the file to be probed in the background. Has to be called on the event dispatch thread.
+     *
+     * @param file the file.
+     */
+    void resolve(final File file) {
+        if (!pending.add(file)) return;
+        synchronized (this) {
+            queue.add(file);
+            if (!scheduled) {
+                scheduled = true;
+                EXECUTOR.execute(this::processBatch);
+            }
+        }
+    }
+
+    /**
+     * Discards all pending files. Results which are still being computed won't be published. Has to be
+     * called on the event dispatch thread.
+     */
+    void cancel() {
+        pending.clear();
+        synchronized (this) {
+            queue.clear();
+            generation++;
+        }
+    }
+
+    private void processBatch() {
+        List<File> batch = new ArrayList<>(BATCH_SIZE);
+        int batchGeneration;
+        synchronized (this) {
+            while (batch.size() < BATCH_SIZE && !queue.isEmpty()) {
+                batch.add(queue.poll());
+            }
+            batchGeneration = generation;
+        }
+        Map<File, FileType> types = new LinkedHashMap<>();
+        for (File file : batch) {
+            types.put(file, probe(file));
+        }
+        if (!types.isEmpty()) SwingUtilities.invokeLater(() -> publish(batchGeneration, types));
+        synchronized (this) {
+            if (queue.isEmpty()) {
+                scheduled = false;
+            } else {
+                // Resubmit instead of looping, so other choosers get their turn.
+                EXECUTOR.execute(this::processBatch);
+            }
+        }
+    }
+
+    private void publish(final int batchGeneration, final Map<File, FileType> types) {
+        synchronized (this) {
+            if (batchGeneration != generation) return;
+        }
+        pending.removeAll(types.keySet());
+        callback.accept(types);
+    }
+
+    private static FileType probe(final File file) {
+        String path = file.getPath();
+        long lastModified = file.lastModified();
+        synchronized (TYPE_CACHE) {
+            CacheEntry entry = TYPE_CACHE.get(path);
+            if (entry != null && entry.lastModified == lastModified) return entry.type;
+        }
+        FileType type;
+        try {
+            type = getTypeForMimeType(Files.probeContentType(file.toPath()));
+        } catch (final IOException | InvalidPathException e) {
+            type = FileType.OTHER;
+        }
+        synchronized (TYPE_CACHE) {
+            TYPE_CACHE.put(path, new CacheEntry(lastModified, type));
+        }
+        return type;
+    }
+
+    private static final class CacheEntry {
+        private final long lastModified;
+        private final FileType type;
+
+        private CacheEntry(final long lastModified, final FileType type) {
+            this.lastModified = lastModified;
+            this.type = type;
+        }
+    }
+}
@@ -44,8 +44,12 @@ public class DarkListUI extends DarkListUIBridge implements CellConstants {
     public static final String KEY_FULL_ROW_SELECTION = KEY_PREFIX + "fullRowSelection";
     public static final String KEY_IS_EDITING = KEY_PREFIX + "isEditing";
     public static final String KEY_IS_LIST_EDITOR = "JComponent.listCellEditor";
+    public static final String KEY_LAZY_LAYOUT = KEY_PREFIX + "lazyLayout";
 
     protected DarkListCellRendererDelegate rendererDelegate;
+    private final PaintState paintState = new PaintState();
+    // Empty cells are only merged into runs if painting cells isn't customized by a subclass.
+    private final boolean batchEmptyCells = !overridesPaintCell(getClass());
 
     public static ComponentUI createUI(final JComponent list) {
         return new DarkListUI();
@@ -107,6 +111,7 @@ public class DarkListUI extends DarkListUIBridge implements CellConstants {
 
         // Determine how many columns we need to paint
         Rectangle paintBounds = g.getClipBounds();
+        measureRowsInRange(paintBounds.y, paintBounds.y + paintBounds.height);
 
         int startColumn, endColumn;
         if (c.getComponentOrientation().isLeftToRight()) {
@@ -116,11 +121,24 @@ public class DarkListUI extends DarkListUIBridge implements CellConstants {
             startColumn = convertLocationToColumn(paintBounds.x + paintBounds.width, paintBounds.y);
             endColumn = convertLocationToColumn(paintBounds.x, paintBounds.y);
         }
-        int maxY = paintBounds.y + paintBounds.height;
-        int maxX = paintBounds.x + paintBounds.width;
         int leadIndex = adjustIndex(list.getLeadSelectionIndex(), list);
         int rowIncrement = (layoutOrientation == JList.HORIZONTAL_WRAP) ? columnCount : 1;
 
+        paintState.begin(g);
+        try {
+            paintColumns(g, paintBounds, startColumn, endColumn, leadIndex, rowIncrement, dataModel, selModel);
+        } finally {
+            paintState.end();
+        }
+        // Empty out the renderer pane, allowing renderers to be gc'ed.
+        rendererPane.removeAll();
+    }
+
+    private void paintColumns(final Graphics g, final Rectangle paintBounds, final int startColumn,
+            final int endColumn, final int leadIndex, final int rowIncrement, final ListModel<Object> dataModel,
+            final ListSelectionModel selModel) {
+        int maxY = paintBounds.y + paintBounds.height;
+        int maxX = paintBounds.x + paintBounds.width;
         Rectangle rowBounds = new Rectangle();
         for (int colCounter = startColumn; rowBounds.x < maxX; colCounter++) {
             int row = convertLocationToRowInColumn(paintBounds.y, colCounter);
@@ -150,18 +168,24 @@ public class DarkListUI extends DarkListUIBridge implements CellConstants {
                 }
                 if (rowBounds.height <= 0) rowBounds.height = getHeight(0, 0);
 
-                g.setClip(rowBounds.x, rowBounds.y, bgWidth > 0 ? bgWidth : rowBounds.width, rowBounds.height);
-                g.clipRect(paintBounds.x, paintBounds.y, paintBounds.width, paintBounds.height);
                 int cellIndex = row < maxRow && colCounter <= endColumn ? index : -1;
-                int rowIndex = row;
-                paintCell(g, cellIndex, rowBounds, dataModel, selModel, leadIndex, rowIndex, bgWidth);
+                if (batchEmptyCells && (cellIndex < 0 || cellIndex >= dataModel.getSize())) {
+                    paintState.addEmptyCell(rowBounds.x, rowBounds.y, bgWidth > 0 ? bgWidth : rowBounds.width,
+                            rowBounds.height, row);
+                } else {
+                    paintCell(g, cellIndex, rowBounds, dataModel, selModel, leadIndex, row, bgWidth);
+                }
                 rowBounds.y += rowBounds.height;
                 index += rowIncrement;
                 row++;
             }
+            paintState.flushEmptyCells();
         }
-        // Empty out the renderer pane, allowing renderers to be gc'ed.
-        rendererPane.removeAll();
+    }
+
+    @Override
+    protected boolean isLazyLayout() {
+        return PropertyUtil.getBooleanProperty(list, KEY_LAZY_LAYOUT);
     }
 
     protected ListCellRenderer<Object> getCellRenderer(final JList<Object> list) {
@@ -170,12 +194,26 @@ public class DarkListUI extends DarkListUIBridge implements CellConstants {
         return rendererDelegate;
     }
 
+    /**
+     * Paints the cell at the given index. The graphics are clipped to the painted area of the list. The
+     * renderer pane clips the renderer component to the bounds of the cell.
+     *
+     * @param g the graphics to paint with.
+     * @param index the model index of the cell. A negative index denotes an empty cell.
+     * @param rowBounds the bounds of the cell.
+     * @param dataModel the list model.
+     * @param selModel the selection model.
+     * @param leadIndex the lead selection index.
+     * @param row the row of the cell.
+     * @param bgWidth the width of the background of empty cells or 0 if the width of the cell should be used.
+     */
     protected void paintCell(final Graphics g, final int index, final Rectangle rowBounds,
             final ListModel<Object> dataModel,
             final ListSelectionModel selModel, final int leadIndex, final int row, final int bgWidth) {
         boolean empty = index < 0 || index >= list.getModel().getSize();
         Object value = empty ? null : dataModel.getElementAt(index);
-        boolean cellHasFocus = !empty && list.hasFocus() && (index == leadIndex);
+        boolean focused = paintState.isActive() ? paintState.focused : list.hasFocus();
+        boolean cellHasFocus = !empty && focused && (index == leadIndex);
         boolean isSelected = !empty && selModel.isSelectedIndex(index);
         int cellIndex = !empty ? index : -row; // Negative row indices aren't subject to model conversion.
 
@@ -184,15 +222,41 @@ public class DarkListUI extends DarkListUIBridge implements CellConstants {
         int cw = empty && bgWidth > 0 ? bgWidth : rowBounds.width;
         int ch = rowBounds.height;
 
-        ListCellRenderer<Object> renderer = getCellRenderer(list);
+        @SuppressWarnings("unchecked")
+        JList<Object> typedList = (JList<Object>) list;
+        ListCellRenderer<Object> renderer =
+                paintState.isActive() ? paintState.renderer : getCellRenderer(typedList);
         if (empty) {
             rendererDelegate.setDelegate(null);
             renderer = rendererDelegate;
         }
 
         Component rendererComponent =
-                renderer.getListCellRendererComponent(list, value, cellIndex, isSelected, cellHasFocus);
+                renderer.getListCellRendererComponent(typedList, value, cellIndex, isSelected, cellHasFocus);
         rendererPane.paintComponent(g, rendererComponent, list, cx, cy, cw, ch, true);
+        if (empty && paintState.isActive()) {
+            rendererDelegate.setDelegate(getListCellRenderer());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private ListCellRenderer<Object> getListCellRenderer() {
+        return (ListCellRenderer<Object>) list.getCellRenderer();
+    }
+
+    private static boolean overridesPaintCell(final Class<?> uiClass) {
+        for (Class<?> c = uiClass; c != DarkListUI.class; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod("paintCell", Graphics.class, int.class, Rectangle.class, ListModel.class,
+                        ListSelectionModel.class, int.class, int.class, int.class);
+                return true;
+            } catch (final NoSuchMethodException e) {
+                // Not declared by this class.
+            } catch (final SecurityException e) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
@@ -204,6 +268,90 @@ public class DarkListUI extends DarkListUIBridge implements CellConstants {
         return columnCount;
     }
 
+    /*
+     * State which stays the same while painting the list. Empty cells after the last row only consist
+     * of the background of the default renderer, hence instead of rendering them one by one consecutive
+     * empty cells of the same colour are filled at once. If a subclass overrides paintCell empty cells
+     * are painted through it instead.
+     */
+    private final class PaintState {
+
+        // Background of empty cells in even and odd rows.
+        private final Color[] emptyCellBackgrounds = new Color[2];
+        private boolean emptyCellBackgroundsValid;
+
+        private Graphics graphics;
+        private boolean focused;
+        private ListCellRenderer<Object> renderer;
+
+        private Color runColor;
+        private int runX;
+        private int runY;
+        private int runWidth;
+        private int runHeight;
+
+        private boolean isActive() {
+            return graphics != null;
+        }
+
+        private void begin(final Graphics g) {
+            @SuppressWarnings("unchecked")
+            JList<Object> typedList = (JList<Object>) list;
+            focused = list.hasFocus();
+            renderer = getCellRenderer(typedList);
+            emptyCellBackgroundsValid = false;
+            runColor = null;
+            graphics = g;
+        }
+
+        private void end() {
+            graphics = null;
+            renderer = null;
+            runColor = null;
+            emptyCellBackgrounds[0] = emptyCellBackgrounds[1] = null;
+        }
+
+        private void addEmptyCell(final int x, final int y, final int width, final int height, final int row) {
+            Color color = getEmptyCellBackground(row);
+            if (runColor != null && runColor.equals(color) && x == runX && width == runWidth
+                    && y == runY + runHeight) {
+                runHeight += height;
+                return;
+            }
+            flushEmptyCells();
+            if (color == null) return;
+            runColor = color;
+            runX = x;
+            runY = y;
+            runWidth = width;
+            runHeight = height;
+        }
+
+        private void flushEmptyCells() {
+            if (runColor == null) return;
+            graphics.setColor(runColor);
+            graphics.fillRect(runX, runY, runWidth, runHeight);
+            runColor = null;
+        }
+
+        private Color getEmptyCellBackground(final int row) {
+            if (!emptyCellBackgroundsValid) {
+                @SuppressWarnings("unchecked")
+                JList<Object> typedList = (JList<Object>) list;
+                rendererDelegate.setDelegate(null);
+                for (int parity = 0; parity < 2; parity++) {
+                    // Empty cells use the negated row as index.
+                    Component c =
+                            rendererDelegate.getListCellRendererComponent(typedList, null, -parity, false, false);
+                    emptyCellBackgrounds[parity] = c.isOpaque() ? c.getBackground() : null;
+                }
+                rendererDelegate.setDelegate(getListCellRenderer());
+                emptyCellBackgroundsValid = true;
+            }
+            return emptyCellBackgrounds[Math.abs(row) % 2];
+        }
+    }
+
     protected class DarkHandler extends Handler {
 
         @Override
@@ -212,6 +360,9 @@ public class DarkListUI extends DarkListUIBridge implements CellConstants {
             String key = e.getPropertyName();
             if (KEY_ALTERNATE_ROW_COLOR.equals(key)) {
                 list.repaint();
+            } else if (KEY_LAZY_LAYOUT.equals(key)) {
+                updateLayoutStateNeeded |= modelChanged;
+                redrawList();
             }
         }
 
@@ -44,6 +44,7 @@ import com.github.weisj.darklaf.ui.util.DarkUIUtil;
 import com.github.weisj.darklaf.ui.util.LazyActionMap;
 import com.github.weisj.darklaf.util.PropertyKey;
 import com.github.weisj.darklaf.util.PropertyUtil;
+import com.github.weisj.darklaf.util.RowHeightIndex;
 
 /**
  * An extensible implementation of {@code ListUI}.
@@ -85,6 +86,11 @@ public abstract class DarkListUIBridge extends BasicListUI {
     protected static final int componentOrientationChanged = 1 << 10;
     /** The constant DROP_LINE_THICKNESS. */
     protected static final int DROP_LINE_THICKNESS = 2;
+    /** Number of rows measured to estimate the height of the rows of a lazy layout. */
+    protected static final int LAZY_LAYOUT_SAMPLE_SIZE = 32;
+    /** Number of rows after the painted area which are measured in advance by a lazy layout. */
+    protected static final int LAZY_LAYOUT_LOOK_AHEAD = 16;
+    private static final double GOLDEN_RATIO_CONJUGATE = 0.6180339887498949;
     /**
      * Used by IncrementLeadSelectionAction. Indicates the action should change the lead, and not select
      * it.
@@ -141,6 +147,13 @@ public abstract class DarkListUIBridge extends BasicListUI {
     protected boolean isFileList = false;
     /** Local cache of JList's component orientation property */
     protected boolean isLeftToRight = true;
+    /**
+     * The heights of the rows if the list uses a lazy layout. In this case cellHeights is null and only
+     * the rows which have been painted are measured.
+     *
+     * @see #isLazyLayout()
+     */
+    protected RowHeightIndex rowHeights;
 
     /**
      * Returns a new instance of {@code BasicListUI}. {@code BasicListUI} delegates are allocated one
@@ -652,6 +665,7 @@ public abstract class DarkListUIBridge extends BasicListUI {
 
         cellWidth = cellHeight = -1;
         cellHeights = null;
+        rowHeights = null;
 
         listWidth = listHeight = -1;
 
@@ -801,6 +815,12 @@ public abstract class DarkListUIBridge extends BasicListUI {
         int fixedCellHeight = list.getFixedCellHeight();
         int fixedCellWidth = list.getFixedCellWidth();
 
+        if (fixedCellHeight == -1 && layoutOrientation == JList.VERTICAL && isLazyLayout()) {
+            updateLazyLayoutState(fixedCellWidth);
+            return;
+        }
+        rowHeights = null;
+
         cellWidth = fixedCellWidth;
 
         if (fixedCellHeight != -1) {
@@ -854,6 +874,140 @@ public abstract class DarkListUIBridge extends BasicListUI {
         }
     }
 
+    /**
+     * Returns whether the list uses a lazy layout. Instead of measuring all cells only a sample of cells
+     * is measured when the layout is updated and the height of the remaining cells is estimated. Cells
+     * are measured when they get painted. A lazy layout is only used for vertical lists without a fixed
+     * cell height.
+     *
+     * @return true if a lazy layout should be used.
+     */
+    protected boolean isLazyLayout() {
+        return false;
+    }
+
+    /**
+     * Initializes the row heights of a lazy layout by measuring a sample of rows spread over the model.
+     *
+     * @param fixedCellWidth the fixed cell width.
+     * @see #isLazyLayout()
+     */
+    protected void updateLazyLayoutState(final int fixedCellWidth) {
+        int size = list.getModel().getSize();
+        cellWidth = fixedCellWidth;
+        cellHeight = -1;
+        cellHeights = null;
+        columnCount = 1;
+        rowHeights = new RowHeightIndex(size, 0);
+
+        int sampleSize = 0;
+        long heightSum = 0;
+        double fraction = 0;
+        for (int i = 0; i < Math.min(size, LAZY_LAYOUT_SAMPLE_SIZE); i++) {
+            // Sample positions following the golden ratio don't alias with periodic patterns in the model.
+            int row = (int) (fraction * size);
+            fraction = (fraction + GOLDEN_RATIO_CONJUGATE) % 1;
+            if (rowHeights.isMeasured(row)) continue;
+            heightSum += measureRow(row);
+            sampleSize++;
+        }
+        if (cellWidth == -1) {
+            cellWidth = 0;
+        }
+        if (sampleSize > 0) {
+            rowHeights.setEstimatedHeight((int) Math.round(heightSum / (double) sampleSize));
+        }
+    }
+
+    /**
+     * Measures the row of a lazy layout. The cell width grows to the width of the row if no fixed cell
+     * width is set.
+     *
+     * @param row the row.
+     * @return the height of the row.
+     */
+    protected int measureRow(final int row) {
+        @SuppressWarnings("unchecked")
+        JList<Object> typedList = (JList<Object>) list;
+        ListCellRenderer<? super Object> renderer = typedList.getCellRenderer();
+        int height = 0;
+        if (renderer != null) {
+            Object value = typedList.getModel().getElementAt(row);
+            Component c = renderer.getListCellRendererComponent(typedList, value, row, false, false);
+            rendererPane.add(c);
+            Dimension cellSize = c.getPreferredSize();
+            if (list.getFixedCellWidth() == -1) {
+                cellWidth = Math.max(cellSize.width, cellWidth);
+            }
+            height = cellSize.height;
+        }
+        rowHeights.setHeight(row, height);
+        return height;
+    }
+
+    /**
+     * Measures the rows of a lazy layout within the given vertical range and a few rows after it. The
+     * list is revalidated if its preferred size changes.
+     *
+     * @param minY the start of the range.
+     * @param maxY the end of the range.
+     */
+    protected void measureRowsInRange(final int minY, final int maxY) {
+        if (rowHeights == null) return;
+        int size = rowHeights.size();
+        int top = list.getInsets().top;
+        int oldHeight = rowHeights.getTotalHeight();
+        int oldWidth = cellWidth;
+
+        int row = Math.max(0, rowHeights.getRowAt(Math.max(0, minY - top)));
+        int y = row < size ? top + rowHeights.getPosition(row) : maxY;
+        int lookAhead = LAZY_LAYOUT_LOOK_AHEAD;
+        while (row < size && (y < maxY || lookAhead-- > 0)) {
+            if (!rowHeights.isMeasured(row)) {
+                measureRow(row);
+            }
+            y += rowHeights.getHeight(row);
+            row++;
+        }
+        if (oldHeight != rowHeights.getTotalHeight() || oldWidth != cellWidth) {
+            list.revalidate();
+        }
+    }
+
+    /**
+     * Updates the row heights of a lazy layout after the model changed. Only the heights of the changed
+     * rows are invalidated.
+     *
+     * @param e the event describing the change.
+     * @return false if the layout needs to be updated completely.
+     */
+    protected boolean updateRowHeights(final ListDataEvent e) {
+        if (rowHeights == null || updateLayoutStateNeeded != 0) return false;
+        int size = list.getModel().getSize();
+        int rowCount = rowHeights.size();
+        int index0 = Math.min(e.getIndex0(), e.getIndex1());
+        int index1 = Math.max(e.getIndex0(), e.getIndex1());
+        switch (e.getType()) {
+            case ListDataEvent.INTERVAL_ADDED:
+                if (index0 < 0 || index0 > rowCount) return false;
+                rowHeights.insertRows(index0, index1 - index0 + 1);
+                break;
+            case ListDataEvent.INTERVAL_REMOVED:
+                if (index0 < 0 || index1 >= rowCount) return false;
+                rowHeights.removeRows(index0, index1 - index0 + 1);
+                break;
+            default:
+                if (size != rowCount) return false;
+                if (index0 < 0) {
+                    index0 = 0;
+                    index1 = rowCount - 1;
+                }
+                rowHeights.invalidate(index0, Math.min(index1, rowCount - 1));
+                break;
+        }
+        return rowHeights.size() == size;
+    }
+
     /**
      * Creates a delegate that implements {@code MouseInputListener}. The delegate is added to the
      * corresponding {@code java.awt.Component} listener lists at {@code installUI()} time. Subclasses
@@ -994,7 +1148,15 @@ public abstract class DarkListUIBridge extends BasicListUI {
             return -1;
         }
         Insets insets = list.getInsets();
-        if (cellHeights == null) {
+        if (rowHeights != null) {
+            if (size != rowHeights.size()) {
+                return -1;
+            }
+            if (y0 < insets.top) {
+                return closest ? 0 : size - 1;
+            }
+            return Math.min(rowHeights.getRowAt(y0 - insets.top), size - 1);
+        } else if (cellHeights == null) {
             int row = (cellHeight == 0) ? 0 : ((y0 - insets.top) / cellHeight);
             if (closest) {
                 if (row < 0) {
@@ -1237,6 +1399,9 @@ public abstract class DarkListUIBridge extends BasicListUI {
         if (row >= list.getModel().getSize()) {
             return -1;
         }
+        if (rowHeights != null) {
+            return (row < rowHeights.size()) ? rowHeights.getHeight(row) : -1;
+        }
         return (cellHeights == null) ? cellHeight : (row < cellHeights.length) ? cellHeights[row] : -1;
     }
 
@@ -1432,7 +1597,9 @@ public abstract class DarkListUIBridge extends BasicListUI {
                 break;
             default:
                 x = insets.left;
-                if (cellHeights == null) {
+                if (rowHeights != null) {
+                    y = (row < rowHeights.size()) ? y + rowHeights.getPosition(row) : 0;
+                } else if (cellHeights == null) {
                     y += cellHeight * row;
                 } else if (row >= cellHeights.length) {
                     y = 0;
@@ -2432,7 +2599,9 @@ public abstract class DarkListUIBridge extends BasicListUI {
         //
         @Override
         public void intervalAdded(final ListDataEvent e) {
-            updateLayoutStateNeeded = modelChanged;
+            if (!updateRowHeights(e)) {
+                updateLayoutStateNeeded = modelChanged;
+            }
 
             int minIndex = Math.min(e.getIndex0(), e.getIndex1());
             int maxIndex = Math.max(e.getIndex0(), e.getIndex1());
@@ -2453,7 +2622,9 @@ public abstract class DarkListUIBridge extends BasicListUI {
 
         @Override
         public void intervalRemoved(final ListDataEvent e) {
-            updateLayoutStateNeeded = modelChanged;
+            if (!updateRowHeights(e)) {
+                updateLayoutStateNeeded = modelChanged;
+            }
 
             /*
              * Sync the SelectionModel with the DataModel.
@@ -2472,7 +2643,9 @@ public abstract class DarkListUIBridge extends BasicListUI {
 
         @Override
         public void contentsChanged(final ListDataEvent e) {
-            updateLayoutStateNeeded = modelChanged;
+            if (!updateRowHeights(e)) {
+                updateLayoutStateNeeded = modelChanged;
+            }
             redrawList();
         }
 
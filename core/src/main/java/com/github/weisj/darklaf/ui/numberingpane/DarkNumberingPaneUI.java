@@ -28,7 +28,6 @@ import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
-import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
@@ -66,6 +65,11 @@ public class DarkNumberingPaneUI extends ComponentUI {
     protected JViewport viewport;
     protected int maxIconWidth = 0;
     protected Color oldBackground;
+    // Large enough for the digits of any int.
+    private final char[] numberBuffer = new char[10];
+    private Font numberingFont;
+    private Font numberingFontSource;
+    private Font numberingFontBase;
 
     public static ComponentUI createUI(final JComponent c) {
         return new DarkNumberingPaneUI();
@@ -193,20 +197,26 @@ public class DarkNumberingPaneUI extends ComponentUI {
     protected void drawNumbering(final Graphics g, final int startLine, final int endLine, final int yCur,
             final Element root, final int descent) {
         GraphicsContext config = GraphicsUtil.setupAntialiasing(g);
-        g.setColor(numberingPane.getForeground());
 
         Font font = getNumberingFont(numberingPane.getTextComponent(), g, numberingPane.getFont());
         g.setFont(font);
         FontMetrics fm = numberingPane.getFontMetrics(font);
 
-        int width = numberingPane.getWidth();
+        Color foreground = numberingPane.getForeground();
+        int x = numberingPane.getWidth() - OUTER_PAD - maxIconWidth;
+        int lineHeight = getUniformLineHeight();
+        Rectangle lineRect = null;
         for (int i = startLine; i <= endLine; i++) {
-            int off = root.getElement(i).getStartOffset();
             try {
-                String numberStr = String.valueOf(i);
-                Rectangle lineRect = textComponent.modelToView(off);
-                g.setColor(lineRect.y == yCur ? foregroundHighlight : numberingPane.getForeground());
-                g.drawString(numberStr, width - OUTER_PAD - fm.stringWidth(numberStr) - maxIconWidth,
+                if (lineRect != null && lineHeight > 0) {
+                    lineRect.y += lineHeight;
+                } else {
+                    lineRect = textComponent.modelToView(root.getElement(i).getStartOffset());
+                }
+                int length = formatLineNumber(i);
+                int start = numberBuffer.length - length;
+                g.setColor(lineRect.y == yCur ? foregroundHighlight : foreground);
+                g.drawChars(numberBuffer, start, length, x - fm.charsWidth(numberBuffer, start, length),
                         lineRect.y + lineRect.height - descent);
             } catch (final BadLocationException e) {
                 LOGGER.log(Level.SEVERE, "Painting numbering failed", e);
@@ -215,16 +225,50 @@ public class DarkNumberingPaneUI extends ComponentUI {
         config.restore();
     }
 
+    /*
+     * Writes the digits of the line number to the end of the number buffer and returns their count.
+     */
+    private int formatLineNumber(final int line) {
+        int value = line;
+        int index = numberBuffer.length;
+        do {
+            numberBuffer[--index] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        return numberBuffer.length - index;
+    }
+
+    /**
+     * Returns the height of the lines of the text component if all lines have the same height. In this
+     * case the position of a line can be computed from the position of the previous line instead of
+     * querying the view.
+     *
+     * @return the line height or -1 if lines may differ in height.
+     */
+    protected int getUniformLineHeight() {
+        View rootView = textComponent.getUI().getRootView(textComponent);
+        if (rootView.getViewCount() == 1 && rootView.getView(0) instanceof PlainView) {
+            // PlainView places line i at insets.top + i * lineHeight.
+            return textComponent.getFontMetrics(textComponent.getFont()).getHeight();
+        }
+        return -1;
+    }
+
     private Font getNumberingFont(final JComponent c, final Graphics g, final Font f) {
         Font baseFont = c.getFont();
         Font font = f;
         if (font instanceof UIResource) {
-            int newSize = baseFont.getSize() - 1;
-            if (newSize > 0) {
-                font = font.deriveFont((float) newSize);
-            } else {
-                font = font.deriveFont(baseFont.getSize2D());
+            if (font != numberingFontSource || !baseFont.equals(numberingFontBase)) {
+                int newSize = baseFont.getSize() - 1;
+                if (newSize > 0) {
+                    numberingFont = font.deriveFont((float) newSize);
+                } else {
+                    numberingFont = font.deriveFont(baseFont.getSize2D());
+                }
+                numberingFontSource = font;
+                numberingFontBase = baseFont;
             }
+            font = numberingFont;
         } else {
             font = g.getFont();
         }
@@ -249,12 +293,7 @@ public class DarkNumberingPaneUI extends ComponentUI {
     }
 
     protected int calculateMaxIconWidth() {
-        Collection<Icon> icons = numberingPane.getIcons();
-        int max = numberingPane.getMinimumIconWidth();
-        for (Icon icon : icons) {
-            max = Math.max(icon.getIconWidth(), max);
-        }
-        return max;
+        return Math.max(numberingPane.getMaxIconWidth(), numberingPane.getMinimumIconWidth());
     }
 
     protected void updateViewport(final Component comp) {
@@ -414,9 +414,9 @@ public class DarkScrollBarListener<T extends DarkScrollBarUI> extends MouseAdapt
         }
 
         private void repaint() {
-            if (component != null) {
-                ((JComponent) component.getParent()).paintImmediately(component.getBounds());
-                component.getParent().repaint();
+            if (component != null && component.getParent() instanceof JComponent) {
+                JComponent parent = (JComponent) component.getParent();
+                repaint(parent, new Rectangle(0, 0, parent.getWidth(), parent.getHeight()));
             }
         }
 
@@ -0,0 +1,149 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.ui.table;
+
+import java.awt.*;
+
+import javax.swing.*;
+import javax.swing.table.TableColumnModel;
+
+/**
+ * Bounds of the cells painted in a single pass. The positions of the painted rows and columns are
+ * computed once per paint as prefix sums of their sizes, starting from the bounds of the first painted
+ * cell. This avoids looking up every row through {@link JTable#getCellRect(int, int, boolean)}, which
+ * searches the row model for the position of the row and sums the widths of all columns preceding the
+ * cell.
+ */
+final class CellGeometry {
+
+    private final JTable table;
+    private int rMin;
+    private int rMax = -1;
+    private int cMin;
+    private int cMax = -1;
+    // Positions of the rows rMin to rMax + 1 i.e. including the bottom of the last row.
+    private int[] rowY = new int[0];
+    private int[] columnX = new int[0];
+    private int[] columnWidth = new int[0];
+
+    CellGeometry(final JTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Computes the bounds of the given range of cells.
+     *
+     * @param rowMin the first painted row.
+     * @param rowMax the last painted row.
+     * @param columnMin the first painted column.
+     * @param columnMax the last painted column.
+     */
+    void update(final int rowMin, final int rowMax, final int columnMin, final int columnMax) {
+        rMin = rowMin;
+        rMax = rowMax;
+        cMin = columnMin;
+        cMax = columnMax;
+
+        Rectangle first = table.getCellRect(rMin, cMin, true);
+        int rowCount = rMax - rMin + 1;
+        if (rowY.length < rowCount + 1) rowY = new int[rowCount + 1];
+        int y = first.y;
+        for (int i = 0; i < rowCount; i++) {
+            rowY[i] = y;
+            y += table.getRowHeight(rMin + i);
+        }
+        rowY[rowCount] = y;
+
+        int columnCount = cMax - cMin + 1;
+        if (columnX.length < columnCount) {
+            columnX = new int[columnCount];
+            columnWidth = new int[columnCount];
+        }
+        TableColumnModel cm = table.getColumnModel();
+        boolean ltr = table.getComponentOrientation().isLeftToRight();
+        int x = first.x;
+        for (int i = 0; i < columnCount; i++) {
+            int width = cm.getColumn(cMin + i).getWidth();
+            // In right to left orientation the columns following cMin are located to its left.
+            if (!ltr && i > 0) x -= width;
+            columnX[i] = x;
+            columnWidth[i] = width;
+            if (ltr) x += width;
+        }
+    }
+
+    /**
+     * Clears the painted range after painting. All cells are looked up through the table until the next
+     * update.
+     */
+    void reset() {
+        rMin = cMin = 0;
+        rMax = cMax = -1;
+    }
+
+    boolean containsRow(final int row) {
+        return row >= rMin && row <= rMax;
+    }
+
+    boolean containsColumn(final int column) {
+        return column >= cMin && column <= cMax;
+    }
+
+    int getRowY(final int row) {
+        if (!containsRow(row)) return table.getCellRect(row, -1, true).y;
+        return rowY[row - rMin];
+    }
+
+    int getRowHeight(final int row) {
+        if (!containsRow(row)) return table.getRowHeight(row);
+        return rowY[row - rMin + 1] - rowY[row - rMin];
+    }
+
+    /**
+     * Returns the same bounds as {@link JTable#getCellRect(int, int, boolean)}. Cells outside of the
+     * painted range are looked up through the table.
+     *
+     * @param row the row of the cell.
+     * @param column the column of the cell.
+     * @param includeSpacing whether the bounds should include the row and column margins.
+     * @param rect the rectangle to store the bounds in.
+     * @return the bounds of the cell.
+     */
+    Rectangle getCellRect(final int row, final int column, final boolean includeSpacing, final Rectangle rect) {
+        if (!containsRow(row) || !containsColumn(column)) {
+            rect.setBounds(table.getCellRect(row, column, includeSpacing));
+            return rect;
+        }
+        int y = rowY[row - rMin];
+        int height = rowY[row - rMin + 1] - y;
+        int x = columnX[column - cMin];
+        int width = columnWidth[column - cMin];
+        if (includeSpacing) {
+            rect.setBounds(x, y, width, height);
+        } else {
+            int rm = Math.min(table.getRowMargin(), height);
+            int cm = Math.min(table.getColumnModel().getColumnMargin(), width);
+            rect.setBounds(x + cm / 2, y + rm / 2, width - cm, height - rm);
+        }
+        return rect;
+    }
+}
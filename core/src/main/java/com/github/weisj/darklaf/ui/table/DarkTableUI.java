@@ -28,6 +28,10 @@ import java.util.Objects;
 import java.util.function.Supplier;
 
 import javax.swing.*;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ListSelectionEvent;
+import javax.swing.event.TableColumnModelEvent;
+import javax.swing.event.TableColumnModelListener;
 import javax.swing.plaf.ComponentUI;
 import javax.swing.plaf.UIResource;
 import javax.swing.table.*;
@@ -75,6 +79,8 @@ public class DarkTableUI extends DarkTableUIBridge implements TableConstants, Ha
 
     protected DarkTableCellRendererDelegate rendererDelegate;
 
+    private final GridLines gridLines = new GridLines();
+
     public static ComponentUI createUI(final JComponent c) {
         return new DarkTableUI();
     }
@@ -143,6 +149,7 @@ public class DarkTableUI extends DarkTableUIBridge implements TableConstants, Ha
     @Override
     protected void installListeners() {
         super.installListeners();
+        gridLines.install(table.getColumnModel());
         if (CELL_POPUP_ENABLED && UIManager.getBoolean("Table.showFullCellInPopup")) {
             popupListener = createPopupMouseListener();
             popupListener.install();
@@ -156,6 +163,7 @@ public class DarkTableUI extends DarkTableUIBridge implements TableConstants, Ha
     @Override
     protected void uninstallListeners() {
         super.uninstallListeners();
+        gridLines.uninstall();
         if (popupListener != null) {
             popupListener.uninstall();
             popupListener = null;
@@ -242,63 +250,34 @@ public class DarkTableUI extends DarkTableUIBridge implements TableConstants, Ha
 
     @Override
     protected void paintGrid(final Graphics g, final int rMin, final int rMax, final int cMin, final int cMax) {
+        boolean showHorizontalLines = table.getShowHorizontalLines();
+        boolean showVerticalLines = table.getShowVerticalLines();
+        if (!showHorizontalLines && !showVerticalLines) return;
         g.setColor(table.getGridColor());
 
-        Rectangle minCell = table.getCellRect(rMin, cMin, true);
-        Rectangle maxCell = table.getCellRect(rMax, cMax, true);
-        Rectangle damagedArea = minCell.union(maxCell);
-
         JTableHeader header = table.getTableHeader();
         int draggedIndex = -1;
         if (header != null) {
             draggedIndex = viewIndexForColumn(header.getDraggedColumn());
         }
-        if (table.getShowHorizontalLines()) {
-            int tableWidth = damagedArea.x + damagedArea.width;
-            if (table.getComponentOrientation().isLeftToRight()) {
-                if (draggedIndex >= 0 && draggedIndex == cMax) {
-                    tableWidth -= 1;
-                }
-            } else {
-                if (draggedIndex >= 0 && draggedIndex == cMin) {
-                    tableWidth -= 1;
-                }
-            }
-            int y = damagedArea.y;
-            for (int row = rMin; row <= rMax; row++) {
-                y += table.getRowHeight(row);
-                PaintUtil.drawHLine(g, damagedArea.x, tableWidth - 1, y - 1);
-            }
-        }
-
-        boolean scrollPaneRtl = isScrollPaneRtl();
-        boolean scrollVisible = scrollBarVisible();
-        if (table.getShowVerticalLines()) {
-            TableColumnModel cm = table.getColumnModel();
-            int tableHeight = table.getHeight();
-            int x;
-            boolean ltr = table.getComponentOrientation().isLeftToRight();
-            x = damagedArea.x;
-            if (scrollPaneRtl && scrollBarVisible()) {
-                PaintUtil.drawVLine(g, x, 0, tableHeight - 1);
+        boolean ltr = table.getComponentOrientation().isLeftToRight();
+        gridLines.updateColumns(cMin, cMax, ltr, draggedIndex);
+        if (showHorizontalLines) {
+            int maxX = gridLines.maxX;
+            if (draggedIndex >= 0 && draggedIndex == (ltr ? cMax : cMin)) {
+                maxX -= 1;
             }
-            if (ltr) {
-                for (int column = cMin; column <= cMax; column++) {
-                    int w = cm.getColumn(column).getWidth();
-                    x += w;
-                    if (showVerticalLine(true, scrollVisible, !scrollPaneRtl, column, draggedIndex, cMin, cMax)) {
-                        PaintUtil.drawVLine(g, x - 1, 0, tableHeight - 1);
-                    }
-                }
-            } else {
-                for (int column = cMax; column >= cMin; column--) {
-                    int w = cm.getColumn(column).getWidth();
-                    x += w;
-                    if (showVerticalLine(false, scrollVisible, !scrollPaneRtl, column, draggedIndex, cMin, cMax)) {
-                        PaintUtil.drawVLine(g, x - 1, 0, tableHeight - 1);
-                    }
-                }
+            gridLines.paintHorizontalLines(g, rMin, rMax, maxX);
+        }
+        if (showVerticalLines) {
+            boolean scrollPaneRtl = isScrollPaneRtl();
+            boolean scrollVisible = scrollBarVisible();
+            boolean isDragged = false;
+            if (draggedIndex >= 0) {
+                isDragged = adjustDistance(header.getDraggedDistance(), table.getCellRect(0, draggedIndex, true),
+                        table) != 0;
             }
+            gridLines.paintVerticalLines(g, scrollPaneRtl, scrollVisible, draggedIndex, isDragged);
         }
     }
 
@@ -321,7 +300,12 @@ public class DarkTableUI extends DarkTableUIBridge implements TableConstants, Ha
         int dist = header != null
                 ? adjustDistance(header.getDraggedDistance(), table.getCellRect(0, draggedIndex, true), table)
                 : 0;
-        boolean isDragged = column == draggedIndex && dist != 0;
+        return showVerticalLine(ltr, scrollVisible, scrollLtR, column, column == draggedIndex && dist != 0, cMin,
+                cMax);
+    }
+
+    private static boolean showVerticalLine(final boolean ltr, final boolean scrollVisible, final boolean scrollLtR,
+            final int column, final boolean isDragged, final int cMin, final int cMax) {
         if (!scrollVisible) {
             if (ltr) {
                 return column != cMax;
@@ -358,8 +342,8 @@ public class DarkTableUI extends DarkTableUIBridge implements TableConstants, Ha
             final TableColumn draggedColumn, final int distance) {
         int draggedColumnIndex = viewIndexForColumn(draggedColumn);
 
-        Rectangle minCell = table.getCellRect(rMin, draggedColumnIndex, true);
-        Rectangle maxCell = table.getCellRect(rMax, draggedColumnIndex, true);
+        Rectangle minCell = cellGeometry.getCellRect(rMin, draggedColumnIndex, true, new Rectangle());
+        Rectangle maxCell = cellGeometry.getCellRect(rMax, draggedColumnIndex, true, new Rectangle());
 
         Rectangle vacatedColumnRect = minCell.union(maxCell);
 
@@ -417,15 +401,17 @@ public class DarkTableUI extends DarkTableUIBridge implements TableConstants, Ha
             }
         }
 
+        Rectangle r = new Rectangle();
+        Rectangle rcr = new Rectangle();
         for (int row = rMin; row <= rMax; row++) {
             // Render the cell value
-            Rectangle r = table.getCellRect(row, draggedColumnIndex, false);
+            cellGeometry.getCellRect(row, draggedColumnIndex, false, r);
             r.x += dist;
             paintCell(g, r, row, draggedColumnIndex, cMin, cMax);
 
             if (table.getShowHorizontalLines()) {
                 g.setColor(table.getGridColor());
-                Rectangle rcr = table.getCellRect(row, draggedColumnIndex, true);
+                cellGeometry.getCellRect(row, draggedColumnIndex, true, rcr);
                 rcr.x += dist;
                 int x1 = rcr.x;
                 int y1 = rcr.y;
@@ -687,4 +673,139 @@ public class DarkTableUI extends DarkTableUIBridge implements TableConstants, Ha
             }
         }
     }
+
+    /*
+     * Positions of the grid lines. The vertical lines only depend on the painted columns, hence they are
+     * computed once and reused until the column model, the size of the table or the dragged column
+     * changes. Row heights can change without any event being fired (see JTable#setRowHeight(int, int)),
+     * hence the horizontal lines are computed while painting.
+     */
+    private final class GridLines implements TableColumnModelListener {
+
+        private TableColumnModel columnModel;
+        private boolean columnsValid;
+        private int cMin;
+        private int cMax;
+        private boolean leftToRight;
+        private int draggedIndex;
+        private int tableWidth;
+        // Horizontal extent of the painted columns and the positions of the lines between them.
+        private int minX;
+        private int maxX;
+        private int[] columnLineX = new int[0];
+
+        private boolean verticalLinesValid;
+        private int tableHeight;
+        private boolean scrollPaneRtl;
+        private boolean scrollVisible;
+        private boolean isDragged;
+        private int[] verticalLineX = new int[0];
+        private int verticalLineCount;
+
+        private void install(final TableColumnModel model) {
+            uninstall();
+            columnModel = model;
+            if (columnModel != null) columnModel.addColumnModelListener(this);
+        }
+
+        private void uninstall() {
+            if (columnModel != null) columnModel.removeColumnModelListener(this);
+            columnModel = null;
+            invalidate();
+        }
+
+        private void invalidate() {
+            columnsValid = false;
+            verticalLinesValid = false;
+        }
+
+        private void updateColumns(final int columnMin, final int columnMax, final boolean ltr, final int dragged) {
+            if (columnModel != table.getColumnModel()) install(table.getColumnModel());
+            int width = table.getWidth();
+            if (columnsValid && columnMin == cMin && columnMax == cMax && ltr == leftToRight
+                    && dragged == draggedIndex && width == tableWidth) {
+                return;
+            }
+            columnsValid = true;
+            verticalLinesValid = false;
+            cMin = columnMin;
+            cMax = columnMax;
+            leftToRight = ltr;
+            draggedIndex = dragged;
+            tableWidth = width;
+
+            minX = table.getCellRect(0, ltr ? cMin : cMax, true).x;
+            int count = cMax - cMin + 1;
+            if (columnLineX.length < count) {
+                columnLineX = new int[count];
+                verticalLineX = new int[count + 1];
+            }
+            int x = minX;
+            for (int i = 0; i < count; i++) {
+                int column = ltr ? cMin + i : cMax - i;
+                x += columnModel.getColumn(column).getWidth();
+                columnLineX[i] = x - 1;
+            }
+            maxX = x;
+        }
+
+        private void paintHorizontalLines(final Graphics g, final int rMin, final int rMax, final int lineMaxX) {
+            int y = cellGeometry.getRowY(rMin);
+            for (int row = rMin; row <= rMax; row++) {
+                y += cellGeometry.getRowHeight(row);
+                PaintUtil.drawHLine(g, minX, lineMaxX - 1, y - 1);
+            }
+        }
+
+        private void paintVerticalLines(final Graphics g, final boolean paneRtl, final boolean scrollBarVisible,
+                final int dragged, final boolean dragging) {
+            int height = table.getHeight();
+            if (!verticalLinesValid || height != tableHeight || paneRtl != scrollPaneRtl
+                    || scrollBarVisible != scrollVisible || dragging != isDragged) {
+                verticalLinesValid = true;
+                tableHeight = height;
+                scrollPaneRtl = paneRtl;
+                scrollVisible = scrollBarVisible;
+                isDragged = dragging;
+                verticalLineCount = 0;
+                if (scrollPaneRtl && scrollVisible) {
+                    verticalLineX[verticalLineCount++] = minX;
+                }
+                int count = cMax - cMin + 1;
+                for (int i = 0; i < count; i++) {
+                    int column = leftToRight ? cMin + i : cMax - i;
+                    if (showVerticalLine(leftToRight, scrollVisible, !scrollPaneRtl, column,
+                            isDragged && column == dragged, cMin, cMax)) {
+                        verticalLineX[verticalLineCount++] = columnLineX[i];
+                    }
+                }
+            }
+            for (int i = 0; i < verticalLineCount; i++) {
+                PaintUtil.drawVLine(g, verticalLineX[i], 0, tableHeight - 1);
+            }
+        }
+
+        @Override
+        public void columnAdded(final TableColumnModelEvent e) {
+            invalidate();
+        }
+
+        @Override
+        public void columnRemoved(final TableColumnModelEvent e) {
+            invalidate();
+        }
+
+        @Override
+        public void columnMoved(final TableColumnModelEvent e) {
+            invalidate();
+        }
+
+        @Override
+        public void columnMarginChanged(final ChangeEvent e) {
+            invalidate();
+        }
+
+        @Override
+        public void columnSelectionChanged(final ListSelectionEvent e) {}
+    }
 }
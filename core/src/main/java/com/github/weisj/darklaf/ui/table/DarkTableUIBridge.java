@@ -36,9 +36,12 @@ public abstract class DarkTableUIBridge extends TableUIBridge {
     protected Color dropLine;
     protected Color dropLineShort;
 
+    CellGeometry cellGeometry;
+
     @Override
     protected void installDefaults() {
         super.installDefaults();
+        cellGeometry = new CellGeometry(table);
         dropLine = UIManager.getColor("Table.dropLineColor");
         dropLineShort = UIManager.getColor("Table.dropLineShortColor");
     }
@@ -128,12 +131,16 @@ public abstract class DarkTableUIBridge extends TableUIBridge {
             }
         }
 
+        cellGeometry.update(rMin, rMax, cMin, cMax);
+
         // Paint the grid.
         paintGrid(g, rMin, rMax, cMin, cMax);
 
         // Paint the cells.
         paintCells(g, rMin, rMax, cMin, cMax);
 
+        cellGeometry.reset();
+
         paintDropLines(g);
     }
 
@@ -194,12 +201,12 @@ public abstract class DarkTableUIBridge extends TableUIBridge {
         TableColumnModel cm = table.getColumnModel();
         int columnMargin = cm.getColumnMargin();
 
-        Rectangle cellRect;
+        Rectangle cellRect = new Rectangle();
         TableColumn aColumn;
         int columnWidth;
         if (table.getComponentOrientation().isLeftToRight()) {
             for (int row = rMin; row <= rMax; row++) {
-                cellRect = table.getCellRect(row, cMin, false);
+                cellGeometry.getCellRect(row, cMin, false, cellRect);
                 for (int column = cMin; column <= cMax; column++) {
                     aColumn = cm.getColumn(column);
                     columnWidth = aColumn.getWidth();
@@ -212,7 +219,7 @@ public abstract class DarkTableUIBridge extends TableUIBridge {
             }
         } else {
             for (int row = rMin; row <= rMax; row++) {
-                cellRect = table.getCellRect(row, cMin, false);
+                cellGeometry.getCellRect(row, cMin, false, cellRect);
                 aColumn = cm.getColumn(cMin);
                 if (aColumn != draggedColumn) {
                     columnWidth = aColumn.getWidth();
@@ -127,7 +127,7 @@ public class DarkToggleButtonListener extends DarkButtonListener<DarkToggleButto
 
         private void repaint() {
             if (c != null) {
-                c.paintImmediately(animationBounds != null ? animationBounds : c.getVisibleRect());
+                repaint(c, animationBounds != null ? animationBounds : c.getVisibleRect());
             }
         }
 
@@ -92,7 +92,7 @@ public class DarkTreeExpansionAnimationListener implements TreeExpansionListener
                 Rectangle bounds = tree.getRowBounds(animationRow);
                 bounds.x = 0;
                 bounds.width = tree.getWidth();
-                tree.paintImmediately(bounds);
+                repaint(tree, bounds);
             }
         }
 
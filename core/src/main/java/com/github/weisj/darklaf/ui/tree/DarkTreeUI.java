@@ -23,9 +23,13 @@ package com.github.weisj.darklaf.ui.tree;
 
 import java.awt.*;
 import java.awt.event.*;
+import java.awt.geom.Path2D;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.util.Arrays;
 import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
 
 import javax.swing.*;
@@ -96,6 +100,9 @@ public class DarkTreeUI extends BasicTreeUI implements PropertyChangeListener, C
     private int dashLength;
     private int dashGapLength;
     private DarkTreeExpansionAnimationListener treeExpansionAnimationListener;
+    private final PaintState paintState = new PaintState();
+    // Legs are only merged into shared shapes if the painting hooks aren't customized by a subclass.
+    private final boolean batchLegs = !overridesLegPainting(getClass());
 
     public static ComponentUI createUI(final JComponent c) {
         return new DarkTreeUI();
@@ -287,15 +294,20 @@ public class DarkTreeUI extends BasicTreeUI implements PropertyChangeListener, C
         if (initialPath != null && paintingEnumerator != null) {
             int row = treeState.getRowForPath(initialPath);
 
-            boolean done = false;
-            while (!done && paintingEnumerator.hasMoreElements()) {
-                TreePath path = (TreePath) paintingEnumerator.nextElement();
-                Rectangle cellBounds = paintSingleRow(g, paintBounds, insets, path, row);
-                if (cellBounds == null
-                        || (cellBounds.y + cellBounds.height) >= paintBounds.y + paintBounds.height) {
-                    done = true;
+            paintState.begin(g, insets);
+            try {
+                boolean done = false;
+                while (!done && paintingEnumerator.hasMoreElements()) {
+                    TreePath path = (TreePath) paintingEnumerator.nextElement();
+                    Rectangle cellBounds = paintSingleRow(g, paintBounds, insets, path, row);
+                    if (cellBounds == null
+                            || (cellBounds.y + cellBounds.height) >= paintBounds.y + paintBounds.height) {
+                        done = true;
+                    }
+                    row++;
                 }
-                row++;
+            } finally {
+                paintState.end();
             }
         }
         paintDropLine(g);
@@ -310,7 +322,12 @@ public class DarkTreeUI extends BasicTreeUI implements PropertyChangeListener, C
         Rectangle rowBounds = getPathBounds(path, insets, boundsBuffer);
         g.translate(0, -rowBounds.y);
         paintBounds.y += rowBounds.y;
-        paintSingleRow(g, paintBounds, insets, path, row);
+        paintState.begin(g, insets);
+        try {
+            paintSingleRow(g, paintBounds, insets, path, row);
+        } finally {
+            paintState.end();
+        }
         rendererPane.removeAll();
         g.translate(0, rowBounds.y);
     }
@@ -341,15 +358,18 @@ public class DarkTreeUI extends BasicTreeUI implements PropertyChangeListener, C
 
         boolean isLeaf = treeModel.isLeaf(path.getLastPathComponent());
         boolean isExpanded = !isLeaf && treeState.getExpandedState(path);
-        boolean hasBeenExpanded = !isLeaf && tree.hasBeenExpanded(path);
+        // Expanded paths always have been expanded.
+        boolean hasBeenExpanded = isExpanded || (!isLeaf && tree.hasBeenExpanded(path));
 
-        boolean isFocused = hasFocus();
+        boolean isFocused = isPaintingFocused();
         if (shouldPaintExpandControl(path, row, isExpanded, hasBeenExpanded, isLeaf)) {
             paintExpandControl(g, cellBounds, path, row, isExpanded, isLeaf, isFocused);
         }
         paintRow(g, paintBounds, insets, cellBounds, path, row, isExpanded, hasBeenExpanded, isLeaf);
 
-        if (!selected && tree.getLeadSelectionRow() == row && isFocused) {
+        if (!selected && getLeadSelectionRowForPainting() == row && isFocused) {
+            // The border has to be painted above the legs of the row.
+            paintState.flushLegs();
             g.setColor(CellUtil.getTreeBackground(tree, true, row));
             cellBounds.x = xOffset;
             cellBounds.width = containerWidth;
@@ -372,31 +392,14 @@ public class DarkTreeUI extends BasicTreeUI implements PropertyChangeListener, C
      */
     protected void paintVerticalLegs(final Graphics g, final Rectangle clipBounds, final Rectangle rowBounds,
             final Insets insets, final TreePath path) {
-        if (!shouldPaintLines()) return;
-        int depth = path.getPathCount() - 1;
-        if (depth == 0 && (!isRootVisible() || !getShowsRootHandles())) {
-            // Parent is the root, which isn't visible.
-            return;
-        }
-        int clipLeft = clipBounds.x;
-        int clipRight = clipBounds.x + (clipBounds.width - 1);
-
-        TreePath parentPath = path;
-        for (int currentDepth = depth - 1; currentDepth >= 0; currentDepth--) {
-            if (currentDepth == 0 && !isRootVisible()) continue;
-
-            int lineX = getRowX(-1, currentDepth);
-            if (tree.getComponentOrientation().isLeftToRight()) {
-                lineX = lineX - getRightChildIndent() + insets.left;
-            } else {
-                lineX = tree.getWidth() - lineX - insets.right + getRightChildIndent() - 1;
-            }
-
-            if (lineX > clipRight || lineX < clipLeft) continue;
-
-            parentPath = parentPath.getParentPath();
-            g.setColor(getLineColor(parentPath));
-            paintVerticalLine(g, tree, lineX, rowBounds.y, rowBounds.y + rowBounds.height);
+        boolean standalone = !paintState.isActive();
+        if (standalone) paintState.begin(g, insets);
+        try {
+            paintState.addLegs(clipBounds, rowBounds, path);
+            // Paint the legs of this row right away such that each of them goes through paintVerticalLine.
+            if (!batchLegs) paintState.flushLegs();
+        } finally {
+            if (standalone) paintState.end();
         }
     }
 
@@ -451,7 +454,7 @@ public class DarkTreeUI extends BasicTreeUI implements PropertyChangeListener, C
 
     protected Color getLineColor(final TreePath path) {
         if (isChildOfSelectionPath(path)) {
-            if (tree.isEditing() || hasFocus()) {
+            if (tree.isEditing() || isPaintingFocused()) {
                 return focusSelectedLineColor;
             } else {
                 return selectedLineColor;
@@ -483,15 +486,28 @@ public class DarkTreeUI extends BasicTreeUI implements PropertyChangeListener, C
     }
 
     protected boolean isChildOfSelectionPath(final TreePath path) {
-        TreePath p = tree.isEditing() ? tree.getEditingPath() : tree.getSelectionPath();
+        boolean painting = paintState.isActive();
+        TreePath p = painting ? paintState.selectionPath : getSelectionPathForLines();
         if (p == null) return false;
         if (Objects.equals(p, path)) return true;
-        if (tree.isExpanded(p)) return false;
+        if (painting ? paintState.selectionExpanded : tree.isExpanded(p)) return false;
         TreePath parent = p.getParentPath();
         if (parent == null) return false;
         return Objects.equals(parent.getLastPathComponent(), path.getLastPathComponent());
     }
 
+    private TreePath getSelectionPathForLines() {
+        return tree.isEditing() ? tree.getEditingPath() : tree.getSelectionPath();
+    }
+
+    private boolean isPaintingFocused() {
+        return paintState.isActive() ? paintState.focused : hasFocus();
+    }
+
+    private int getLeadSelectionRowForPainting() {
+        return paintState.isActive() ? paintState.leadSelectionRow : tree.getLeadSelectionRow();
+    }
+
     protected boolean isDashedLine() {
         return STYLE_DASHED.equals(getLineStyle());
     }
@@ -529,7 +545,7 @@ public class DarkTreeUI extends BasicTreeUI implements PropertyChangeListener, C
 
     protected void paintExpandControl(final Graphics g, final Rectangle bounds, final TreePath path,
             final int row, final boolean isExpanded, final boolean isLeaf, final boolean isFocused) {
-        if (!isLeaf(row)) {
+        if (!isLeaf) {
             boolean isPathSelected = tree.isPathSelected(path);
             setExpandedIcon(getExpandedIcon(isPathSelected, isFocused || tree.isEditing()));
             setCollapsedIcon(getCollapsedIcon(isPathSelected, isFocused || tree.isEditing()));
@@ -660,6 +676,200 @@ public class DarkTreeUI extends BasicTreeUI implements PropertyChangeListener, C
         return rendererPane;
     }
 
+    private static boolean overridesLegPainting(final Class<?> uiClass) {
+        for (Class<?> c = uiClass; c != DarkTreeUI.class; c = c.getSuperclass()) {
+            if (declaresMethod(c, "paintVerticalLine", Graphics.class, JComponent.class, int.class, int.class,
+                    int.class)
+                    || declaresMethod(c, "paintVerticalLegs", Graphics.class, Rectangle.class, Rectangle.class,
+                            Insets.class, TreePath.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean declaresMethod(final Class<?> c, final String name, final Class<?>... parameterTypes) {
+        try {
+            c.getDeclaredMethod(name, parameterTypes);
+            return true;
+        } catch (final NoSuchMethodException e) {
+            return false;
+        } catch (final SecurityException e) {
+            return true;
+        }
+    }
+
+    /*
+     * State shared by all rows painted in a single pass. It is captured once per paint, hence the cost of
+     * painting a row doesn't depend on the size or depth of the tree. Vertical legs of consecutive rows are
+     * merged and painted as a single shape per colour once the pass is done, unless a subclass overrides
+     * paintVerticalLine or paintVerticalLegs, in which case each leg is painted through paintVerticalLine.
+     */
+    private final class PaintState {
+
+        private final Map<Color, Path2D> legShapes = new LinkedHashMap<>();
+
+        private Graphics graphics;
+        private Insets insets;
+        private boolean focused;
+        private TreePath selectionPath;
+        private boolean selectionExpanded;
+        private int leadSelectionRow;
+        private boolean paintLines;
+        private boolean dashed;
+        private boolean leftToRight;
+
+        // Indexed by depth. The colour of a leg is only recomputed if the parent path at that depth changes.
+        private int[] legX = new int[0];
+        private TreePath[] legParents = new TreePath[0];
+        private Color[] legColors = new Color[0];
+        // The leg segments which can still be extended by the next row.
+        private int[] segmentX = new int[0];
+        private int[] segmentTop = new int[0];
+        private int[] segmentBottom = new int[0];
+        private Color[] segmentColors = new Color[0];
+        private int segmentDepth;
+
+        private boolean isActive() {
+            return graphics != null;
+        }
+
+        private void begin(final Graphics g, final Insets treeInsets) {
+            insets = treeInsets;
+            focused = hasFocus();
+            selectionPath = getSelectionPathForLines();
+            selectionExpanded = selectionPath != null && tree.isExpanded(selectionPath);
+            leadSelectionRow = tree.getLeadSelectionRow();
+            paintLines = shouldPaintLines();
+            dashed = isDashedLine();
+            leftToRight = tree.getComponentOrientation().isLeftToRight();
+            Arrays.fill(legX, Integer.MIN_VALUE);
+            Arrays.fill(legParents, null);
+            graphics = g;
+        }
+
+        private void end() {
+            if (graphics == null) return;
+            flushLegs();
+            graphics = null;
+            insets = null;
+            selectionPath = null;
+            Arrays.fill(legParents, null);
+            legShapes.clear();
+        }
+
+        private void addLegs(final Rectangle clipBounds, final Rectangle rowBounds, final TreePath path) {
+            if (!paintLines) return;
+            int depth = path.getPathCount() - 1;
+            if (depth == 0 && (!isRootVisible() || !getShowsRootHandles())) {
+                // Parent is the root, which isn't visible.
+                return;
+            }
+            ensureCapacity(depth);
+            int clipLeft = clipBounds.x;
+            int clipRight = clipBounds.x + (clipBounds.width - 1);
+
+            TreePath parentPath = path.getParentPath();
+            for (int currentDepth = depth - 1; currentDepth >= 0; currentDepth--) {
+                if (currentDepth > 0 || isRootVisible()) {
+                    int lineX = getLegX(currentDepth);
+                    if (lineX <= clipRight && lineX >= clipLeft) {
+                        addSegment(currentDepth, lineX, rowBounds.y, rowBounds.y + rowBounds.height,
+                                getLegColor(currentDepth, parentPath));
+                    }
+                }
+                parentPath = parentPath.getParentPath();
+            }
+        }
+
+        private int getLegX(final int depth) {
+            int lineX = legX[depth];
+            if (lineX == Integer.MIN_VALUE) {
+                lineX = getRowX(-1, depth);
+                if (leftToRight) {
+                    lineX = lineX - getRightChildIndent() + insets.left;
+                } else {
+                    lineX = tree.getWidth() - lineX - insets.right + getRightChildIndent() - 1;
+                }
+                legX[depth] = lineX;
+            }
+            return lineX;
+        }
+
+        private Color getLegColor(final int depth, final TreePath parentPath) {
+            if (legParents[depth] != parentPath) {
+                legParents[depth] = parentPath;
+                legColors[depth] = getLineColor(parentPath);
+            }
+            return legColors[depth];
+        }
+
+        private void addSegment(final int depth, final int x, final int top, final int bottom, final Color color) {
+            if (color == null) return;
+            if (segmentColors[depth] != null && segmentX[depth] == x && segmentBottom[depth] == top
+                    && segmentColors[depth].equals(color)) {
+                segmentBottom[depth] = bottom;
+                return;
+            }
+            closeSegment(depth);
+            segmentX[depth] = x;
+            segmentTop[depth] = top;
+            segmentBottom[depth] = bottom;
+            segmentColors[depth] = color;
+            segmentDepth = Math.max(segmentDepth, depth + 1);
+        }
+
+        private void closeSegment(final int depth) {
+            Color color = segmentColors[depth];
+            if (color == null) return;
+            segmentColors[depth] = null;
+            int x = segmentX[depth];
+            int top = segmentTop[depth];
+            int bottom = segmentBottom[depth];
+            if (dashed || !batchLegs) {
+                // The dash pattern depends on the start of the line, hence dashed lines can't be part of a shared
+                // shape.
+                graphics.setColor(color);
+                paintVerticalLine(graphics, tree, x, top, bottom);
+            } else {
+                Path2D shape = legShapes.computeIfAbsent(color, c -> new Path2D.Float());
+                shape.moveTo(x, top);
+                shape.lineTo(x + 1, top);
+                shape.lineTo(x + 1, bottom);
+                shape.lineTo(x, bottom);
+                shape.closePath();
+            }
+        }
+
+        private void flushLegs() {
+            for (int depth = 0; depth < segmentDepth; depth++) {
+                closeSegment(depth);
+            }
+            segmentDepth = 0;
+            for (Map.Entry<Color, Path2D> entry : legShapes.entrySet()) {
+                Path2D shape = entry.getValue();
+                if (shape.getCurrentPoint() == null) continue;
+                graphics.setColor(entry.getKey());
+                ((Graphics2D) graphics).fill(shape);
+                shape.reset();
+            }
+        }
+
+        private void ensureCapacity(final int depth) {
+            int size = legX.length;
+            if (size >= depth) return;
+            int newSize = Math.max(depth, 2 * size);
+            legX = Arrays.copyOf(legX, newSize);
+            Arrays.fill(legX, size, newSize, Integer.MIN_VALUE);
+            legParents = Arrays.copyOf(legParents, newSize);
+            legColors = Arrays.copyOf(legColors, newSize);
+            segmentX = Arrays.copyOf(segmentX, newSize);
+            segmentTop = Arrays.copyOf(segmentTop, newSize);
+            segmentBottom = Arrays.copyOf(segmentBottom, newSize);
+            segmentColors = Arrays.copyOf(segmentColors, newSize);
+        }
+    }
+
     protected static class TreeUIAction extends AbstractAction implements UIResource {
 
         private final ActionListener actionListener;
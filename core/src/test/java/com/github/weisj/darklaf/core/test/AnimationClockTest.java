@@ -0,0 +1,107 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.core.test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.github.weisj.darklaf.graphics.AnimationClock;
+import com.github.weisj.darklaf.graphics.Animator;
+
+class AnimationClockTest implements NonThreadSafeTest {
+
+    private final AnimationClock clock = AnimationClock.getInstance();
+
+    @Test
+    void testAnimatorsShareFrames() throws InterruptedException {
+        Set<Long> framesA = Collections.synchronizedSet(new HashSet<>());
+        Set<Long> framesB = Collections.synchronizedSet(new HashSet<>());
+        CountDownLatch done = new CountDownLatch(2);
+        TestAnimator a = new TestAnimator(framesA, done);
+        TestAnimator b = new TestAnimator(framesB, done);
+        SwingUtilities.invokeLater(() -> {
+            a.resume(0, true);
+            b.resume(0, true);
+        });
+        Assertions.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assertions.assertFalse(a.offEventThread || b.offEventThread);
+        // Both animators were started in the same event, hence their first steps run in the same frame.
+        Assertions.assertEquals(Collections.min(framesA), Collections.min(framesB));
+        TestUtils.runOnSwingThreadNotThrowing(() -> Assertions.assertFalse(clock.isRunning()));
+    }
+
+    @Test
+    void testClockPausesWithoutListeners() throws InterruptedException {
+        CountDownLatch frames = new CountDownLatch(3);
+        AnimationClock.FrameListener listener = frameTime -> frames.countDown();
+        clock.addFrameListener(listener);
+        Assertions.assertTrue(clock.isRunning());
+        Assertions.assertTrue(frames.await(5, TimeUnit.SECONDS));
+        clock.removeFrameListener(listener);
+        Assertions.assertFalse(clock.isRunning());
+
+        long frameCount = clock.getFrameCount();
+        Thread.sleep(100);
+        TestUtils.runOnSwingThreadNotThrowing(() -> Assertions.assertEquals(frameCount, clock.getFrameCount()));
+    }
+
+    @Test
+    void testTargetFps() {
+        int fps = clock.getTargetFps();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> clock.setTargetFps(0));
+        clock.setTargetFps(30);
+        Assertions.assertEquals(30, clock.getTargetFps());
+        clock.setTargetFps(fps);
+    }
+
+    private class TestAnimator extends Animator {
+
+        private final Set<Long> frames;
+        private final CountDownLatch done;
+        private volatile boolean offEventThread;
+
+        private TestAnimator(final Set<Long> frames, final CountDownLatch done) {
+            super(10, 100, 0, false);
+            this.frames = frames;
+            this.done = done;
+        }
+
+        @Override
+        public void paintNow(final float fraction) {
+            offEventThread |= !SwingUtilities.isEventDispatchThread();
+            frames.add(clock.getFrameCount());
+        }
+
+        @Override
+        protected void paintCycleEnd() {
+            done.countDown();
+        }
+    }
+}
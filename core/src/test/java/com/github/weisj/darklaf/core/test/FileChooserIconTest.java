@@ -0,0 +1,92 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.core.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.swing.Icon;
+import javax.swing.JFileChooser;
+import javax.swing.UIManager;
+import javax.swing.filechooser.FileView;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileChooserIconTest implements NonThreadSafeTest {
+
+    @TempDir
+    Path directory;
+
+    private JFileChooser chooser;
+    private FileView fileView;
+
+    @BeforeEach
+    void setup() {
+        TestUtils.ensureLafInstalled();
+        TestUtils.runOnSwingThreadNotThrowing(() -> {
+            chooser = new JFileChooser(directory.toFile());
+            fileView = chooser.getUI().getFileView(chooser);
+        });
+    }
+
+    private File createFile(final String name) throws IOException {
+        return Files.write(directory.resolve(name), "content".getBytes()).toFile();
+    }
+
+    private Icon getIcon(final File file) {
+        AtomicReference<Icon> icon = new AtomicReference<>();
+        TestUtils.runOnSwingThreadNotThrowing(() -> icon.set(fileView.getIcon(file)));
+        return icon.get();
+    }
+
+    private Icon getExpectedIcon(final String mimeType) {
+        if (mimeType != null && mimeType.startsWith("text/")) return UIManager.getIcon("FileView.textFileIcon");
+        if (mimeType != null && mimeType.startsWith("image/")) return UIManager.getIcon("FileView.imageFileIcon");
+        return UIManager.getIcon("FileView.fileIcon");
+    }
+
+    @Test
+    void testCommonExtensionsResolvedImmediately() throws IOException {
+        Assertions.assertSame(UIManager.getIcon("FileView.textFileIcon"), getIcon(createFile("notes.txt")));
+        Assertions.assertSame(UIManager.getIcon("FileView.imageFileIcon"), getIcon(createFile("image.PNG")));
+        Assertions.assertSame(UIManager.getIcon("FileView.fileIcon"), getIcon(createFile("archive.zip")));
+    }
+
+    @Test
+    void testOtherTypesResolvedInBackground() throws IOException, InterruptedException {
+        File file = createFile("table.tsv");
+        Icon expected = getExpectedIcon(Files.probeContentType(file.toPath()));
+        // The generic icon is used until the type has been probed.
+        Assertions.assertSame(UIManager.getIcon("FileView.fileIcon"), getIcon(file));
+        long deadline = System.currentTimeMillis() + 10000;
+        while (getIcon(file) != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertSame(expected, getIcon(file));
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.core.test;
+
+import java.awt.Color;
+import java.awt.FlowLayout;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.swing.JButton;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.LookAndFeel;
+import javax.swing.UIDefaults;
+import javax.swing.UIManager;
+import javax.swing.plaf.ComponentUI;
+
+import org.jdesktop.swingx.JXTaskPane;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.github.weisj.darklaf.DarkLaf;
+import com.github.weisj.darklaf.LafManager;
+import com.github.weisj.darklaf.components.tabframe.JTabFrame;
+import com.github.weisj.darklaf.components.tabframe.TabFrameTabLabel;
+import com.github.weisj.darklaf.properties.icons.IconResolver;
+import com.github.weisj.darklaf.theme.DarculaTheme;
+import com.github.weisj.darklaf.theme.Theme;
+import com.github.weisj.darklaf.theme.info.AccentColorRule;
+import com.github.weisj.darklaf.theme.info.FontSizeRule;
+import com.github.weisj.darklaf.ui.tabframe.DarkTabFrameTabLabelUI;
+import com.github.weisj.darklaf.util.Alignment;
+
+class IncrementalInstallTest implements NonThreadSafeTest {
+
+    private final Theme theme = new DarculaTheme();
+
+    @AfterEach
+    void resetFlag() {
+        System.clearProperty(DarkLaf.INCREMENTAL_INSTALL_FLAG);
+    }
+
+    private Theme withAccentColor(final Color accentColor) {
+        return withAccentColor(theme, accentColor);
+    }
+
+    private Theme withAccentColor(final Theme theme, final Color accentColor) {
+        return theme.derive(theme.getFontSizeRule(), AccentColorRule.fromColor(accentColor, Color.GREEN));
+    }
+
+    private Map<Object, Color> installAndCollectColors(final Theme theme) {
+        TestUtils.runOnSwingThreadNotThrowing(() -> LafManager.installTheme(theme));
+        Map<Object, Color> colors = new HashMap<>();
+        UIDefaults defaults = UIManager.getLookAndFeelDefaults();
+        for (Object key : new ArrayList<>(defaults.keySet())) {
+            Object value = defaults.get(key);
+            if (value instanceof Color) colors.put(key, (Color) value);
+        }
+        return colors;
+    }
+
+    @Test
+    void testAccentColorChangeIsIncremental() {
+        System.setProperty(DarkLaf.INCREMENTAL_INSTALL_FLAG, "true");
+        TestUtils.ensureLafInstalled(theme, true);
+        LookAndFeel laf = UIManager.getLookAndFeel();
+        Map<Object, Color> patchedColors = installAndCollectColors(withAccentColor(Color.RED));
+        Assertions.assertSame(laf, UIManager.getLookAndFeel());
+
+        System.setProperty(DarkLaf.INCREMENTAL_INSTALL_FLAG, "false");
+        TestUtils.ensureLafInstalled(theme, true);
+        Map<Object, Color> expectedColors = installAndCollectColors(withAccentColor(Color.RED));
+        Assertions.assertNotSame(laf, UIManager.getLookAndFeel());
+        Assertions.assertEquals(expectedColors, patchedColors);
+    }
+
+    @Test
+    void testFontSizeChangeIsFullInstallation() {
+        TestUtils.ensureLafInstalled(theme, true);
+        LookAndFeel laf = UIManager.getLookAndFeel();
+        TestUtils.runOnSwingThreadNotThrowing(() -> LafManager.installTheme(
+                theme.derive(FontSizeRule.relativeAdjustment(120), theme.getAccentColorRule())));
+        Assertions.assertNotSame(laf, UIManager.getLookAndFeel());
+    }
+
+    @Test
+    void testAccentColorChangeUpdatesComponents() {
+        System.setProperty(DarkLaf.INCREMENTAL_INSTALL_FLAG, "true");
+        Theme accentTheme = new AccentBorderTheme();
+        TestUtils.ensureLafInstalled(withAccentColor(accentTheme, Color.RED), true);
+        LookAndFeel laf = UIManager.getLookAndFeel();
+
+        AtomicReference<JFrame> frame = new AtomicReference<>();
+        AtomicReference<JXTaskPane> taskPane = new AtomicReference<>();
+        AtomicReference<TabFrameTabLabel> tab = new AtomicReference<>();
+        AtomicReference<JButton> button = new AtomicReference<>();
+        AtomicReference<JLabel> label = new AtomicReference<>();
+        TestUtils.runOnSwingThreadNotThrowing(() -> {
+            JXTaskPane pane = new JXTaskPane();
+            pane.setTitle("Task");
+            pane.add(new JLabel("Content"));
+            JTabFrame tabFrame = new JTabFrame();
+            tabFrame.addTab(new JLabel("Content"), "Tab", Alignment.NORTH_WEST);
+            tabFrame.toggleTab(Alignment.NORTH_WEST, 0, true);
+            JPanel content = new JPanel(new FlowLayout());
+            content.add(pane);
+            content.add(tabFrame);
+            button.set(new JButton("Button"));
+            label.set(new JLabel("Label"));
+            content.add(button.get());
+            content.add(label.get());
+            JFrame f = new JFrame();
+            f.setContentPane(content);
+            f.pack();
+            frame.set(f);
+            taskPane.set(pane);
+            tab.set((TabFrameTabLabel) tabFrame.getTabComponentAt(Alignment.NORTH_WEST, 0));
+        });
+        try {
+            Color oldColor = UIManager.getColor("TaskPane.borderColor");
+            Assertions.assertEquals(oldColor, tabBackground(tab.get()));
+            Assertions.assertTrue(paintsColor(taskPane.get(), oldColor));
+            ComponentUI taskPaneUI = taskPane.get().getUI();
+            ComponentUI tabUI = tab.get().getUI();
+            ComponentUI buttonUI = button.get().getUI();
+            ComponentUI labelUI = label.get().getUI();
+
+            TestUtils.runOnSwingThreadNotThrowing(
+                    () -> LafManager.installTheme(withAccentColor(accentTheme, Color.BLUE)));
+            Assertions.assertSame(laf, UIManager.getLookAndFeel());
+
+            // Only components whose defaults depend on the accent color are updated.
+            Assertions.assertNotSame(taskPaneUI, taskPane.get().getUI(), "swingx/TaskPaneUI");
+            Assertions.assertNotSame(tabUI, tab.get().getUI(), "TabFrameTabLabelUI");
+            Assertions.assertNotSame(buttonUI, button.get().getUI(), "ButtonUI");
+            Assertions.assertSame(labelUI, label.get().getUI(), "LabelUI");
+
+            Color newColor = UIManager.getColor("TaskPane.borderColor");
+            Assertions.assertNotEquals(oldColor, newColor);
+
+            Assertions.assertEquals(newColor, tabBackground(tab.get()));
+            Assertions.assertTrue(paintsColor(taskPane.get(), newColor));
+            Assertions.assertFalse(paintsColor(taskPane.get(), oldColor));
+        } finally {
+            if (frame.get() != null) TestUtils.runOnSwingThreadNotThrowing(() -> TestUtils.closeWindow(frame.get()));
+        }
+    }
+
+    private Color tabBackground(final TabFrameTabLabel tab) {
+        AtomicReference<Color> color = new AtomicReference<>();
+        TestUtils.runOnSwingThreadNotThrowing(
+                () -> color.set(((DarkTabFrameTabLabelUI) tab.getUI()).getBackground(tab)));
+        return color.get();
+    }
+
+    private boolean paintsColor(final JXTaskPane taskPane, final Color color) {
+        BufferedImage image = new BufferedImage(taskPane.getWidth(), taskPane.getHeight(), BufferedImage.TYPE_INT_RGB);
+        TestUtils.runOnSwingThreadNotThrowing(() -> {
+            Graphics2D g = image.createGraphics();
+            taskPane.paint(g);
+            g.dispose();
+        });
+        for (int x = 0; x < image.getWidth(); x++) {
+            for (int y = 0; y < image.getHeight(); y++) {
+                if (image.getRGB(x, y) == color.getRGB()) return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Ties colors of components whose ui class ids differ from the prefix of their keys to the accent
+     * color.
+     */
+    private static final class AccentBorderTheme extends DarculaTheme {
+
+        @Override
+        public void customizeUIProperties(final Properties properties, final UIDefaults currentDefaults,
+                final IconResolver iconResolver) {
+            super.customizeUIProperties(properties, currentDefaults, iconResolver);
+            Object accentColor = properties.get("widgetFillDefault");
+            properties.put("TaskPane.borderColor", accentColor);
+            properties.put("TabFrameTab.selectedBackground", accentColor);
+        }
+    }
+}
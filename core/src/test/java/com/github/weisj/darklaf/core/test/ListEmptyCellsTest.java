@@ -0,0 +1,113 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.core.test;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+
+import javax.swing.JList;
+import javax.swing.ListModel;
+import javax.swing.ListSelectionModel;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.weisj.darklaf.ui.list.DarkListUI;
+
+class ListEmptyCellsTest implements NonThreadSafeTest {
+
+    private static final int WIDTH = 150;
+    private static final int HEIGHT = 300;
+
+    @BeforeEach
+    void setup() {
+        TestUtils.ensureLafInstalled();
+    }
+
+    private JList<String> createList(final int layoutOrientation) {
+        JList<String> list = new JList<>(new String[] {"one", "two", "three", "four", "five"});
+        list.putClientProperty(DarkListUI.KEY_ALTERNATE_ROW_COLOR, true);
+        list.setLayoutOrientation(layoutOrientation);
+        list.setVisibleRowCount(2);
+        list.setSelectedIndex(1);
+        return list;
+    }
+
+    private BufferedImage paint(final JList<String> list) {
+        list.setSize(WIDTH, HEIGHT);
+        list.doLayout();
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setClip(0, 0, WIDTH, HEIGHT);
+        list.paint(g);
+        g.dispose();
+        return image;
+    }
+
+    private void assertSameEmptyCells(final int layoutOrientation) {
+        TestUtils.runOnSwingThreadNotThrowing(() -> {
+            JList<String> expectedList = createList(layoutOrientation);
+            PerCellListUI perCellUI = new PerCellListUI();
+            expectedList.setUI(perCellUI);
+            BufferedImage expected = paint(expectedList);
+            Assertions.assertTrue(perCellUI.paintedEmptyCells > 0, "Empty cells should be painted through paintCell");
+
+            JList<String> list = createList(layoutOrientation);
+            Assertions.assertSame(DarkListUI.class, list.getUI().getClass());
+            BufferedImage actual = paint(list);
+            for (int i = 0; i < WIDTH; i++) {
+                for (int j = 0; j < HEIGHT; j++) {
+                    Assertions.assertEquals(expected.getRGB(i, j), actual.getRGB(i, j),
+                            "Pixel (" + i + "," + j + ")");
+                }
+            }
+        });
+    }
+
+    @Test
+    void testBatchedEmptyCellsMatchPerCellPainting() {
+        assertSameEmptyCells(JList.VERTICAL);
+    }
+
+    @Test
+    void testBatchedEmptyCellsMatchPerCellPaintingWrapped() {
+        assertSameEmptyCells(JList.VERTICAL_WRAP);
+    }
+
+    /*
+     * Overriding paintCell disables the batching, such that every empty cell is painted through it.
+     */
+    private static final class PerCellListUI extends DarkListUI {
+        private int paintedEmptyCells;
+
+        @Override
+        protected void paintCell(final Graphics g, final int index, final Rectangle rowBounds,
+                final ListModel<Object> dataModel, final ListSelectionModel selModel, final int leadIndex,
+                final int row, final int bgWidth) {
+            if (index < 0 || index >= dataModel.getSize()) paintedEmptyCells++;
+            super.paintCell(g, index, rowBounds, dataModel, selModel, leadIndex, row, bgWidth);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.core.test;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+
+import javax.swing.DefaultListModel;
+import javax.swing.JList;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.weisj.darklaf.ui.list.DarkListUI;
+
+class ListLazyLayoutTest implements NonThreadSafeTest {
+
+    private DefaultListModel<String> model;
+    private JList<String> eagerList;
+    private JList<String> lazyList;
+
+    @BeforeEach
+    void setup() {
+        TestUtils.ensureLafInstalled();
+        TestUtils.runOnSwingThreadNotThrowing(() -> {
+            model = new DefaultListModel<>();
+            for (int i = 0; i < 500; i++) {
+                model.addElement(createValue(i));
+            }
+            eagerList = new JList<>(model);
+            lazyList = new JList<>(model);
+            lazyList.putClientProperty(DarkListUI.KEY_LAZY_LAYOUT, true);
+        });
+    }
+
+    private static String createValue(final int i) {
+        return i % 7 == 0 ? "<html>Row " + i + "<br>Second line</html>" : "Row " + i;
+    }
+
+    private void paintAll(final JList<?> list) {
+        list.setSize(200, list.getPreferredSize().height);
+        BufferedImage image = new BufferedImage(200, 100, BufferedImage.TYPE_INT_ARGB);
+        int y = 0;
+        while (y < list.getHeight()) {
+            Graphics2D g = image.createGraphics();
+            g.translate(0, -y);
+            g.setClip(0, y, 200, 100);
+            list.paint(g);
+            g.dispose();
+            y += 100;
+            // Painting refines the height of the list.
+            list.setSize(200, list.getPreferredSize().height);
+        }
+    }
+
+    private void assertSameLayout() {
+        eagerList.setSize(200, eagerList.getPreferredSize().height);
+        paintAll(lazyList);
+        Assertions.assertEquals(eagerList.getPreferredSize(), lazyList.getPreferredSize());
+        for (int i = 0; i < model.getSize(); i++) {
+            Rectangle bounds = eagerList.getCellBounds(i, i);
+            Assertions.assertEquals(bounds, lazyList.getCellBounds(i, i), "Bounds of row " + i);
+            Assertions.assertEquals(i, lazyList.locationToIndex(bounds.getLocation()));
+        }
+    }
+
+    @Test
+    void testLazyLayoutMatchesAfterPainting() {
+        TestUtils.runOnSwingThreadNotThrowing(() -> {
+            // Unpainted rows are estimated, but their height is positive.
+            lazyList.setSize(200, lazyList.getPreferredSize().height);
+            Rectangle lastBounds = lazyList.getCellBounds(model.getSize() - 1, model.getSize() - 1);
+            Assertions.assertTrue(lastBounds.height > 0);
+            assertSameLayout();
+        });
+    }
+
+    @Test
+    void testModelChangesKeepMeasurements() {
+        TestUtils.runOnSwingThreadNotThrowing(() -> {
+            assertSameLayout();
+            model.add(10, createValue(0));
+            model.removeRange(100, 120);
+            model.set(200, createValue(7));
+            model.addElement(createValue(14));
+            assertSameLayout();
+        });
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.core.test;
+
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.function.Supplier;
+
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import javax.swing.JTextPane;
+import javax.swing.plaf.UIResource;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Element;
+import javax.swing.text.JTextComponent;
+import javax.swing.text.SimpleAttributeSet;
+import javax.swing.text.StyleConstants;
+import javax.swing.text.StyledDocument;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.weisj.darklaf.components.text.NumberingPane;
+import com.github.weisj.darklaf.ui.numberingpane.DarkNumberingPaneUI;
+import com.github.weisj.darklaf.util.graphics.GraphicsContext;
+import com.github.weisj.darklaf.util.graphics.GraphicsUtil;
+
+class NumberingPanePaintTest implements NonThreadSafeTest {
+
+    private static final int WIDTH = 300;
+    private static final int HEIGHT = 200;
+    private static final int LINES = 120;
+
+    @BeforeEach
+    void setup() {
+        TestUtils.ensureLafInstalled();
+    }
+
+    private static String createText() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < LINES; i++) {
+            text.append("line ").append(i).append('\n');
+        }
+        return text.toString();
+    }
+
+    private static JTextArea createTextArea() {
+        return new JTextArea(createText());
+    }
+
+    private static JTextPane createTextPane() {
+        JTextPane textPane = new JTextPane();
+        textPane.setText(createText());
+        // Lines of different heights.
+        StyledDocument doc = textPane.getStyledDocument();
+        SimpleAttributeSet large = new SimpleAttributeSet();
+        StyleConstants.setFontSize(large, 24);
+        Element root = doc.getDefaultRootElement();
+        for (int line = 3; line < LINES; line += 7) {
+            Element element = root.getElement(line);
+            doc.setCharacterAttributes(element.getStartOffset(), element.getEndOffset() - element.getStartOffset(),
+                    large, false);
+        }
+        return textPane;
+    }
+
+    private static JScrollPane createNumberedComponent(final JTextComponent textComponent,
+            final DarkNumberingPaneUI ui) {
+        JScrollPane scrollPane = new JScrollPane(textComponent);
+        TestNumberingPane numberingPane = new TestNumberingPane();
+        scrollPane.setRowHeaderView(numberingPane);
+        numberingPane.setUI(ui);
+        numberingPane.setTextComponent(textComponent);
+        return scrollPane;
+    }
+
+    private static void layout(final Component c) {
+        c.doLayout();
+        if (c instanceof Container) {
+            for (Component child : ((Container) c).getComponents()) {
+                layout(child);
+            }
+        }
+    }
+
+    private static BufferedImage paint(final JScrollPane scrollPane, final int caretLine, final int y)
+            throws BadLocationException {
+        JTextComponent textComponent = (JTextComponent) scrollPane.getViewport().getView();
+        NumberingPane numberingPane = (NumberingPane) scrollPane.getRowHeader().getView();
+        textComponent.setCaretPosition(
+                textComponent.getDocument().getDefaultRootElement().getElement(caretLine).getStartOffset());
+        scrollPane.setSize(WIDTH, HEIGHT);
+        layout(scrollPane);
+        textComponent.setSize(textComponent.getPreferredSize());
+        numberingPane.setSize(numberingPane.getPreferredSize());
+        scrollPane.getViewport().setViewPosition(
+                new Point(0, Math.max(0, Math.min(y, textComponent.getHeight() - HEIGHT))));
+        layout(scrollPane);
+
+        Rectangle viewRect = scrollPane.getViewport().getViewRect();
+        BufferedImage image = new BufferedImage(numberingPane.getWidth(), HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.translate(0, -viewRect.y);
+        g.setClip(0, viewRect.y, numberingPane.getWidth(), HEIGHT);
+        numberingPane.paint(g);
+        g.dispose();
+        return image;
+    }
+
+    private void assertSameNumbering(final Supplier<JTextComponent> textComponentSupplier,
+            final boolean uniformLineHeight) {
+        TestUtils.runOnSwingThreadNotThrowing(() -> {
+            JScrollPane expectedComponent =
+                    createNumberedComponent(textComponentSupplier.get(), new ReferenceNumberingPaneUI());
+            ProbeNumberingPaneUI ui = new ProbeNumberingPaneUI();
+            JScrollPane actualComponent = createNumberedComponent(textComponentSupplier.get(), ui);
+            Assertions.assertEquals(uniformLineHeight, ui.uniformLineHeight() > 0);
+
+            for (int[] state : new int[][] {{0, 0}, {9, 0}, {60, 700}, {LINES - 1, 5000}}) {
+                BufferedImage expected = paint(expectedComponent, state[0], state[1]);
+                BufferedImage actual = paint(actualComponent, state[0], state[1]);
+                Assertions.assertEquals(expected.getWidth(), actual.getWidth());
+                boolean hasNumbers = false;
+                for (int i = 0; i < expected.getWidth(); i++) {
+                    for (int j = 0; j < HEIGHT; j++) {
+                        Assertions.assertEquals(expected.getRGB(i, j), actual.getRGB(i, j),
+                                "Pixel (" + i + "," + j + ") with caret in line " + state[0] + " at scroll position "
+                                        + state[1]);
+                        hasNumbers |= expected.getRGB(i, j) != expected.getRGB(0, j);
+                    }
+                }
+                Assertions.assertTrue(hasNumbers, "Line numbers should be painted");
+            }
+        });
+    }
+
+    @Test
+    void testUniformLineHeightNumbering() {
+        assertSameNumbering(NumberingPanePaintTest::createTextArea, true);
+    }
+
+    @Test
+    void testVaryingLineHeightNumbering() {
+        assertSameNumbering(NumberingPanePaintTest::createTextPane, false);
+    }
+
+    private static final class TestNumberingPane extends NumberingPane {
+
+        private void setUI(final DarkNumberingPaneUI ui) {
+            super.setUI(ui);
+        }
+    }
+
+    private static final class ProbeNumberingPaneUI extends DarkNumberingPaneUI {
+
+        private int uniformLineHeight() {
+            return getUniformLineHeight();
+        }
+    }
+
+    /*
+     * Paints the numbering by querying the position of every line and measuring each line number
+     * separately.
+     */
+    private static final class ReferenceNumberingPaneUI extends DarkNumberingPaneUI {
+
+        @Override
+        protected void drawNumbering(final Graphics g, final int startLine, final int endLine, final int yCur,
+                final Element root, final int descent) {
+            GraphicsContext config = GraphicsUtil.setupAntialiasing(g);
+            g.setColor(numberingPane.getForeground());
+
+            Font font = numberingPane.getFont();
+            if (font instanceof UIResource) {
+                Font baseFont = numberingPane.getTextComponent().getFont();
+                int newSize = baseFont.getSize() - 1;
+                font = font.deriveFont(newSize > 0 ? (float) newSize : baseFont.getSize2D());
+            } else {
+                font = g.getFont();
+            }
+            g.setFont(font);
+            FontMetrics fm = numberingPane.getFontMetrics(font);
+
+            int width = numberingPane.getWidth();
+            for (int i = startLine; i <= endLine; i++) {
+                int off = root.getElement(i).getStartOffset();
+                try {
+                    String numberStr = String.valueOf(i);
+                    Rectangle lineRect = textComponent.modelToView(off);
+                    Color color = lineRect.y == yCur ? foregroundHighlight : numberingPane.getForeground();
+                    g.setColor(color);
+                    g.drawString(numberStr, width - OUTER_PAD - fm.stringWidth(numberStr) - maxIconWidth,
+                            lineRect.y + lineRect.height - descent);
+                } catch (final BadLocationException e) {
+                    Assertions.fail(e);
+                }
+            }
+            config.restore();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.core.test;
+
+import java.awt.Component;
+import java.awt.Graphics;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.swing.Icon;
+import javax.swing.JTextArea;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Position;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.weisj.darklaf.components.text.NumberingPane;
+import com.github.weisj.darklaf.properties.icons.EmptyIcon;
+
+class NumberingPaneTest implements NonThreadSafeTest {
+
+    private NumberingPane numberingPane;
+    private Document document;
+
+    @BeforeEach
+    void setup() {
+        TestUtils.ensureLafInstalled();
+        TestUtils.runOnSwingThreadNotThrowing(() -> {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < 10; i++) {
+                text.append("line").append(i).append('\n');
+            }
+            JTextArea textArea = new JTextArea(text.toString());
+            document = textArea.getDocument();
+            numberingPane = new NumberingPane();
+            numberingPane.setTextComponent(textArea);
+        });
+    }
+
+    private List<Integer> offsetsInRange(final int start, final int end) {
+        return numberingPane.getIconsInRange(start, end).stream().map(e -> e.getKey().getOffset())
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void testRangeQueryFollowsDocumentChanges() {
+        TestUtils.runOnSwingThreadNotThrowing(() -> {
+            // Icons are added out of order to ensure they end up sorted.
+            for (int line : new int[] {5, 1, 8, 3}) {
+                numberingPane.addIconAtLine(line, EmptyIcon.create(line));
+            }
+            Assertions.assertEquals(4, numberingPane.getIconCount());
+            Assertions.assertEquals(Arrays.asList(6, 18, 30), offsetsInRange(0, 30));
+
+            insert(0, "inserted\n");
+            Assertions.assertEquals(Arrays.asList(15, 27), offsetsInRange(0, 30));
+
+            // Removing the text between two icons collapses them onto the same offset.
+            document.remove(15, 12);
+            List<Map.Entry<Position, Icon>> icons = numberingPane.getIconsInRange(15, 15);
+            Assertions.assertEquals(2, icons.size());
+            Assertions.assertEquals(1, icons.get(0).getValue().getIconWidth());
+            Assertions.assertEquals(3, icons.get(1).getValue().getIconWidth());
+            Assertions.assertThrows(UnsupportedOperationException.class,
+                    () -> icons.get(0).setValue(EmptyIcon.create(2)));
+            Assertions.assertEquals(Arrays.asList(15, 15, 27, 45), offsetsInRange(0, 60));
+
+            numberingPane.removeIconAt(icons.get(0).getKey());
+            Assertions.assertEquals(3, numberingPane.getIconCount());
+            Assertions.assertEquals(Collections.singletonList(15), offsetsInRange(0, 20));
+        });
+    }
+
+    @Test
+    void testMaxIconWidth() {
+        TestUtils.runOnSwingThreadNotThrowing(() -> {
+            Assertions.assertEquals(0, numberingPane.getMaxIconWidth());
+            Position small = numberingPane.addIconAtOffset(0, EmptyIcon.create(4));
+            Position large = numberingPane.addIconAtOffset(6, EmptyIcon.create(12));
+            Position large2 = numberingPane.addIconAtOffset(12, EmptyIcon.create(12));
+            Assertions.assertEquals(12, numberingPane.getMaxIconWidth());
+            numberingPane.removeIconAt(large);
+            Assertions.assertEquals(12, numberingPane.getMaxIconWidth());
+            numberingPane.removeIconAt(large2);
+            Assertions.assertEquals(4, numberingPane.getMaxIconWidth());
+            numberingPane.removeIconAt(small);
+            Assertions.assertEquals(0, numberingPane.getMaxIconWidth());
+        });
+    }
+
+    @Test
+    void testMaxIconWidthWithChangingIcon() {
+        TestUtils.runOnSwingThreadNotThrowing(() -> {
+            ResizableIcon icon = new ResizableIcon(8);
+            Position resizable = numberingPane.addIconAtOffset(0, icon);
+            Position other = numberingPane.addIconAtOffset(6, EmptyIcon.create(5));
+            Assertions.assertEquals(8, numberingPane.getMaxIconWidth());
+
+            // The width recorded when the icon was added is removed, not the current one.
+            icon.width = 20;
+            numberingPane.removeIconAt(resizable);
+            Assertions.assertEquals(5, numberingPane.getMaxIconWidth());
+            numberingPane.removeIconAt(other);
+            Assertions.assertEquals(0, numberingPane.getMaxIconWidth());
+
+            icon.width = 3;
+            Position readded = numberingPane.addIconAtOffset(0, icon);
+            Assertions.assertEquals(3, numberingPane.getMaxIconWidth());
+            icon.width = 0;
+            numberingPane.removeIconAt(readded);
+            Assertions.assertEquals(0, numberingPane.getMaxIconWidth());
+        });
+    }
+
+    private void insert(final int offset, final String text) throws BadLocationException {
+        document.insertString(offset, text, null);
+    }
+
+    private static final class ResizableIcon implements Icon {
+        private int width;
+
+        private ResizableIcon(final int width) {
+            this.width = width;
+        }
+
+        @Override
+        public void paintIcon(final Component c, final Graphics g, final int x, final int y) {}
+
+        @Override
+        public int getIconWidth() {
+            return width;
+        }
+
+        @Override
+        public int getIconHeight() {
+            return 10;
+        }
+    }
+}
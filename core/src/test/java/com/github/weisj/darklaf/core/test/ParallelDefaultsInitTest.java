@@ -0,0 +1,78 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.core.test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.swing.Icon;
+import javax.swing.UIDefaults;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.github.weisj.darklaf.DarkLaf;
+
+class ParallelDefaultsInitTest implements NonThreadSafeTest {
+
+    @AfterEach
+    void resetFlag() {
+        System.clearProperty(DarkLaf.PARALLEL_INIT_FLAG);
+    }
+
+    @Test
+    void testParallelInitializationProducesSameDefaults() {
+        System.setProperty(DarkLaf.PARALLEL_INIT_FLAG, "false");
+        Map<Object, Object> expected = rawValues(new DarkLaf().getDefaults());
+        System.setProperty(DarkLaf.PARALLEL_INIT_FLAG, "true");
+        Map<Object, Object> actual = rawValues(new DarkLaf().getDefaults());
+
+        Set<Object> keys = new HashSet<>(expected.keySet());
+        keys.addAll(actual.keySet());
+        for (Object key : keys) {
+            Assertions.assertEquals(describe(expected.get(key)), describe(actual.get(key)),
+                    "Value of " + key + " differs");
+        }
+    }
+
+    private Map<Object, Object> rawValues(final UIDefaults defaults) {
+        Map<Object, Object> values = new HashMap<>();
+        for (Map.Entry<Object, Object> entry : defaults.entrySet()) {
+            values.put(entry.getKey(), entry.getValue());
+        }
+        return values;
+    }
+
+    private String describe(final Object value) {
+        if (value == null) return "null";
+        if (value instanceof Icon) {
+            Icon icon = (Icon) value;
+            return value.getClass().getName() + "[" + icon.getIconWidth() + "x" + icon.getIconHeight() + "]";
+        }
+        String description = value.toString();
+        // Objects without a meaningful string representation are compared by type.
+        return description.contains("@") ? value.getClass().getName() : description;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.core.test;
+
+import java.awt.BorderLayout;
+import java.awt.Rectangle;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JComponent;
+import javax.swing.JPanel;
+import javax.swing.JRootPane;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.github.weisj.darklaf.graphics.AnimationClock;
+import com.github.weisj.darklaf.graphics.RepaintBatcher;
+
+class RepaintBatcherTest implements NonThreadSafeTest {
+
+    private final AnimationClock clock = AnimationClock.getInstance();
+    private final RepaintBatcher batcher = clock.getRepaintBatcher();
+
+    private JPanel createContent(final JRootPane rootPane) {
+        JPanel content = new JPanel(null);
+        rootPane.getContentPane().add(content, BorderLayout.CENTER);
+        rootPane.setSize(400, 400);
+        rootPane.doLayout();
+        rootPane.getContentPane().doLayout();
+        return content;
+    }
+
+    private JComponent addChild(final JPanel parent, final int x, final int y) {
+        JComponent child = new JPanel();
+        child.setBounds(x, y, 20, 20);
+        parent.add(child);
+        return child;
+    }
+
+    private void runInFrame(final Runnable action) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        AnimationClock.FrameListener listener = new AnimationClock.FrameListener() {
+            @Override
+            public void onFrame(final long frameTimeNanos) {
+                clock.removeFrameListener(this);
+                action.run();
+                latch.countDown();
+            }
+        };
+        TestUtils.runOnSwingThreadNotThrowing(batcher::resetCounters);
+        clock.addFrameListener(listener);
+        Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    private void assertCounts(final long requested, final long merged, final long issued) {
+        TestUtils.runOnSwingThreadNotThrowing(() -> {
+            Assertions.assertEquals(requested, batcher.getRequestCount());
+            Assertions.assertEquals(merged, batcher.getMergedCount());
+            Assertions.assertEquals(issued, batcher.getIssuedCount());
+        });
+    }
+
+    @Test
+    void testAdjacentRepaintsAreMerged() throws InterruptedException {
+        JPanel content = createContent(new JRootPane());
+        JComponent a = addChild(content, 10, 10);
+        JComponent b = addChild(content, 30, 10);
+        runInFrame(() -> {
+            clock.repaint(a);
+            clock.repaint(b);
+            clock.repaint(b, new Rectangle(5, 5, 5, 5));
+        });
+        assertCounts(3, 2, 1);
+    }
+
+    @Test
+    void testDistantRepaintsStaySeparate() throws InterruptedException {
+        JPanel content = createContent(new JRootPane());
+        JComponent a = addChild(content, 0, 0);
+        JComponent b = addChild(content, 300, 300);
+        runInFrame(() -> {
+            clock.repaint(a);
+            clock.repaint(b);
+        });
+        assertCounts(2, 0, 2);
+    }
+
+    @Test
+    void testRepaintsArePerRootPane() throws InterruptedException {
+        JComponent a = addChild(createContent(new JRootPane()), 10, 10);
+        JComponent b = addChild(createContent(new JRootPane()), 10, 10);
+        runInFrame(() -> {
+            clock.repaint(a);
+            clock.repaint(b);
+        });
+        assertCounts(2, 0, 2);
+    }
+
+    @Test
+    void testInvisibleAreasAreSkipped() throws InterruptedException {
+        JComponent a = addChild(createContent(new JRootPane()), 10, 10);
+        runInFrame(() -> clock.repaint(a, new Rectangle(100, 100, 10, 10)));
+        assertCounts(1, 1, 0);
+    }
+}
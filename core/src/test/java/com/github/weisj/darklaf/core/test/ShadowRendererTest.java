@@ -0,0 +1,93 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.core.test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.ConvolveOp;
+import java.awt.image.Kernel;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.github.weisj.darklaf.components.border.DropShadowBorder;
+import com.github.weisj.darklaf.components.border.ShadowRenderer;
+import com.github.weisj.darklaf.util.cache.CacheStatistics;
+
+class ShadowRendererTest implements NonThreadSafeTest {
+
+    @Test
+    void testBoxBlurMatchesConvolution() {
+        int width = 40;
+        int height = 30;
+        Random random = new Random(42);
+        for (int size : new int[] {2, 3, 4, 7}) {
+            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            int[] alpha = new int[width * height];
+            for (int i = 0; i < alpha.length; i++) {
+                alpha[i] = random.nextInt(256);
+                image.setRGB(i % width, i / width, alpha[i] << 24);
+            }
+            float[] kernel = new float[size * size];
+            Arrays.fill(kernel, 1f / (size * size));
+            BufferedImage expected = new ConvolveOp(new Kernel(size, size, kernel)).filter(image, null);
+
+            ShadowRenderer.boxBlurAlpha(alpha, width, height, size);
+            // The convolution doesn't compute values at the edges.
+            for (int y = size; y < height - size; y++) {
+                for (int x = size; x < width - size; x++) {
+                    int expectedAlpha = expected.getRGB(x, y) >>> 24;
+                    Assertions.assertEquals(expectedAlpha, alpha[y * width + x], 1,
+                            "Size " + size + " at (" + x + "," + y + ")");
+                }
+            }
+        }
+    }
+
+    private void paint(final DropShadowBorder border, final double scale) {
+        BufferedImage image = new BufferedImage(200, 200, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.scale(scale, scale);
+        border.paintBorder(null, g, 0, 0, 100, 100);
+        g.dispose();
+    }
+
+    @Test
+    void testTilesAreShared() {
+        ShadowRenderer.clearCache();
+        CacheStatistics before = ShadowRenderer.getCacheStatistics();
+        paint(new DropShadowBorder(Color.BLACK, 7, .3f, 14, true, true, true, true), 1);
+        paint(new DropShadowBorder(Color.BLACK, 7, .3f, 14, false, true, true, true), 1);
+        paint(new DropShadowBorder(Color.BLACK, 7, .3f, 14, true, true, true, true), 2);
+        paint(new DropShadowBorder(Color.BLACK, 7, .3f, 6, true, true, true, true), 1);
+        CacheStatistics after = ShadowRenderer.getCacheStatistics();
+
+        Assertions.assertEquals(3, after.getMissCount() - before.getMissCount());
+        Assertions.assertEquals(1, after.getHitCount() - before.getHitCount());
+        Assertions.assertEquals(3, after.getSize());
+        ShadowRenderer.clearCache();
+        Assertions.assertEquals(0, ShadowRenderer.getCacheStatistics().getSize());
+    }
+}
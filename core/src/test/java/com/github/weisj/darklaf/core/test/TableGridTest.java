@@ -0,0 +1,185 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.core.test;
+
+import java.awt.Component;
+import java.awt.ComponentOrientation;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import javax.swing.JTable;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.DefaultTableColumnModel;
+import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableColumn;
+import javax.swing.table.TableColumnModel;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TableGridTest implements NonThreadSafeTest {
+
+    private static final int WIDTH = 300;
+    private static final int HEIGHT = 200;
+
+    @BeforeEach
+    void setup() {
+        TestUtils.ensureLafInstalled();
+    }
+
+    private JTable createTable() {
+        JTable table = new JTable(new DefaultTableModel(100, 20));
+        table.setAutoResizeMode(JTable.AUTO_RESIZE_OFF);
+        table.setShowGrid(true);
+        for (int i = 0; i < table.getColumnCount(); i++) {
+            table.getColumnModel().getColumn(i).setPreferredWidth(30 + 5 * (i % 3));
+        }
+        return table;
+    }
+
+    private BufferedImage paint(final JTable table, final int y) {
+        table.setSize(table.getPreferredSize());
+        table.doLayout();
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.translate(0, -y);
+        g.setClip(0, y, WIDTH, HEIGHT);
+        table.paint(g);
+        g.dispose();
+        return image;
+    }
+
+    private void assertSameGrid(final Consumer<JTable> change) {
+        TestUtils.runOnSwingThreadNotThrowing(() -> {
+            JTable table = createTable();
+            // Populate the cached grid geometry before changing the table.
+            paint(table, 0);
+            paint(table, 50);
+            change.accept(table);
+            JTable expectedTable = createTable();
+            change.accept(expectedTable);
+            for (int y : new int[] {0, 50, 400}) {
+                BufferedImage expected = paint(expectedTable, y);
+                BufferedImage actual = paint(table, y);
+                for (int i = 0; i < WIDTH; i++) {
+                    for (int j = 0; j < HEIGHT; j++) {
+                        Assertions.assertEquals(expected.getRGB(i, j), actual.getRGB(i, j),
+                                "Pixel (" + i + "," + j + ") at scroll position " + y);
+                    }
+                }
+            }
+        });
+    }
+
+    @Test
+    void testColumnWidthChange() {
+        assertSameGrid(table -> table.getColumnModel().getColumn(2).setPreferredWidth(70));
+    }
+
+    @Test
+    void testColumnMoved() {
+        assertSameGrid(table -> table.getColumnModel().moveColumn(0, 3));
+    }
+
+    @Test
+    void testColumnModelReplaced() {
+        assertSameGrid(table -> {
+            TableColumnModel columnModel = new DefaultTableColumnModel();
+            for (int i = 0; i < table.getColumnCount(); i++) {
+                TableColumn column = new TableColumn(i);
+                column.setPreferredWidth(45);
+                columnModel.addColumn(column);
+            }
+            table.setColumnModel(columnModel);
+        });
+    }
+
+    @Test
+    void testRowHeightChange() {
+        assertSameGrid(table -> {
+            table.setRowHeight(1, 40);
+            table.setRowHeight(3, 10);
+        });
+    }
+
+    @Test
+    void testGridLinesToggled() {
+        assertSameGrid(table -> table.setShowVerticalLines(false));
+    }
+
+    @Test
+    void testCellsPaintedAtCellBounds() {
+        TestUtils.runOnSwingThreadNotThrowing(() -> {
+            for (ComponentOrientation orientation : new ComponentOrientation[] {ComponentOrientation.LEFT_TO_RIGHT,
+                    ComponentOrientation.RIGHT_TO_LEFT}) {
+                Map<String, Rectangle> paintedBounds = new HashMap<>();
+                JTable table = createTable();
+                table.setShowGrid(false);
+                table.setIntercellSpacing(new Dimension(3, 2));
+                table.setComponentOrientation(orientation);
+                for (int row = 0; row < table.getRowCount(); row += 3) {
+                    table.setRowHeight(row, 10 + row % 17);
+                }
+                table.setDefaultRenderer(Object.class, new DefaultTableCellRenderer() {
+                    private String cell;
+
+                    @Override
+                    public Component getTableCellRendererComponent(final JTable t, final Object value,
+                            final boolean isSelected, final boolean hasFocus, final int row, final int column) {
+                        cell = row + ":" + column;
+                        return super.getTableCellRendererComponent(t, value, isSelected, hasFocus, row, column);
+                    }
+
+                    @Override
+                    public void paint(final Graphics g) {
+                        paintedBounds.put(cell, getBounds());
+                    }
+                });
+                table.setSize(table.getPreferredSize());
+                table.doLayout();
+                int x = orientation.isLeftToRight() ? 0 : table.getWidth() - WIDTH;
+                Graphics2D g = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB).createGraphics();
+                g.translate(-x, -400);
+                g.setClip(x, 400, WIDTH, HEIGHT);
+                table.paint(g);
+                g.dispose();
+
+                Assertions.assertFalse(paintedBounds.isEmpty());
+                for (Map.Entry<String, Rectangle> entry : paintedBounds.entrySet()) {
+                    String[] cell = entry.getKey().split(":");
+                    int row = Integer.parseInt(cell[0]);
+                    int column = Integer.parseInt(cell[1]);
+                    String description = orientation.isLeftToRight() ? "ltr" : "rtl";
+                    Assertions.assertEquals(table.getCellRect(row, column, false), entry.getValue(),
+                            "Bounds of cell " + entry.getKey() + " in " + description);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.core.test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.Icon;
+import javax.swing.UIDefaults;
+import javax.swing.UIManager;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.github.weisj.darklaf.LafManager;
+import com.github.weisj.darklaf.ThemePreload;
+import com.github.weisj.darklaf.theme.DarculaTheme;
+import com.github.weisj.darklaf.theme.IntelliJTheme;
+import com.github.weisj.darklaf.theme.Theme;
+
+class ThemePreloadTest implements NonThreadSafeTest {
+
+    @Test
+    void testPreloadedThemeInstallsSameDefaults() throws Exception {
+        Theme theme = new DarculaTheme();
+        TestUtils.ensureLafInstalled(theme, true);
+        Map<Object, String> expected = describeDefaults(UIManager.getLookAndFeelDefaults());
+
+        TestUtils.ensureLafInstalled(new IntelliJTheme(), true);
+        ThemePreload preload = LafManager.preload(new DarculaTheme());
+        Assertions.assertEquals(DarculaTheme.class, preload.get(10, TimeUnit.SECONDS).getClass());
+        Assertions.assertEquals(1.0, preload.getProgress());
+        Assertions.assertEquals(preload.getStages(), new ArrayList<>(preload.getStageTimes().keySet()));
+
+        TestUtils.runOnSwingThreadNotThrowing(() -> LafManager.installTheme(preload.getTheme()));
+        Map<Object, String> actual = describeDefaults(UIManager.getLookAndFeelDefaults());
+        Set<Object> keys = new HashSet<>(expected.keySet());
+        keys.addAll(actual.keySet());
+        for (Object key : keys) {
+            Assertions.assertEquals(expected.get(key), actual.get(key), "Value of " + key + " differs");
+        }
+    }
+
+    @Test
+    void testPreloadHasNoGlobalSideEffects() throws Exception {
+        TestUtils.ensureLafInstalled(new IntelliJTheme());
+        String[] properties = new String[] {"apple.laf.useScreenMenuBar", "swing.aatext"};
+        Map<String, String> values = new HashMap<>();
+        for (String property : properties) {
+            values.put(property, System.clearProperty(property));
+        }
+        try {
+            LafManager.preload(new DarculaTheme()).get(10, TimeUnit.SECONDS);
+            for (String property : properties) {
+                Assertions.assertNull(System.getProperty(property), property);
+            }
+        } finally {
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                if (entry.getValue() != null) System.setProperty(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private Map<Object, String> describeDefaults(final UIDefaults defaults) {
+        Map<Object, String> values = new HashMap<>();
+        for (Map.Entry<Object, Object> entry : defaults.entrySet()) {
+            values.put(entry.getKey(), describe(entry.getValue()));
+        }
+        return values;
+    }
+
+    private String describe(final Object value) {
+        if (value == null) return "null";
+        if (value instanceof Icon) {
+            Icon icon = (Icon) value;
+            return value.getClass().getName() + "[" + icon.getIconWidth() + "x" + icon.getIconHeight() + "]";
+        }
+        String description = value.toString();
+        // Objects without a meaningful string representation are compared by type.
+        return description.contains("@") ? value.getClass().getName() : description;
+    }
+}
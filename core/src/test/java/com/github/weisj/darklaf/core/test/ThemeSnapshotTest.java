@@ -0,0 +1,93 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.core.test;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Hashtable;
+import java.util.Set;
+
+import javax.swing.Icon;
+import javax.swing.UIDefaults;
+import javax.swing.plaf.metal.MetalLookAndFeel;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.weisj.darklaf.LafManager;
+import com.github.weisj.darklaf.task.ThemeDefaultsInitTask;
+import com.github.weisj.darklaf.theme.DarculaTheme;
+import com.github.weisj.darklaf.theme.Theme;
+
+class ThemeSnapshotTest implements NonThreadSafeTest {
+
+    @TempDir
+    File snapshotDirectory;
+
+    @AfterEach
+    void resetSnapshotDirectory() {
+        LafManager.setThemeSnapshotDirectory(null);
+    }
+
+    @Test
+    void testSnapshotProducesSameDefaults() {
+        Theme theme = new DarculaTheme();
+        UIDefaults expected = loadThemeDefaults(theme);
+
+        LafManager.setThemeSnapshotDirectory(snapshotDirectory);
+        loadThemeDefaults(theme);
+        File[] snapshots = snapshotDirectory.listFiles();
+        Assertions.assertNotNull(snapshots);
+        Assertions.assertEquals(1, snapshots.length);
+
+        UIDefaults restored = loadThemeDefaults(theme);
+        Set<Object> keys = new HashSet<>(expected.keySet());
+        keys.addAll(restored.keySet());
+        for (Object key : keys) {
+            Assertions.assertEquals(describe(rawValue(expected, key)), describe(rawValue(restored, key)),
+                    "Value of " + key + " differs");
+        }
+    }
+
+    private UIDefaults loadThemeDefaults(final Theme theme) {
+        UIDefaults defaults = new MetalLookAndFeel().getDefaults();
+        new ThemeDefaultsInitTask().run(theme, defaults);
+        return defaults;
+    }
+
+    private Object rawValue(final UIDefaults defaults, final Object key) {
+        return ((Hashtable<Object, Object>) defaults).get(key);
+    }
+
+    private String describe(final Object value) {
+        if (value == null) return "null";
+        if (value instanceof Icon) {
+            Icon icon = (Icon) value;
+            return value.getClass().getName() + "[" + icon.getIconWidth() + "x" + icon.getIconHeight() + "]";
+        }
+        String description = value.toString();
+        // Objects without a meaningful string representation are compared by type.
+        return description.contains("@") ? value.getClass().getName() : description;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.core.test;
+
+import java.awt.ComponentOrientation;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import javax.swing.JComponent;
+import javax.swing.JTree;
+import javax.swing.tree.DefaultMutableTreeNode;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.weisj.darklaf.ui.tree.DarkTreeUI;
+
+class TreeLegsTest implements NonThreadSafeTest {
+
+    private static final int WIDTH = 200;
+    private static final int HEIGHT = 300;
+
+    @BeforeEach
+    void setup() {
+        TestUtils.ensureLafInstalled();
+    }
+
+    private JTree createTree(final String lineStyle, final ComponentOrientation orientation) {
+        DefaultMutableTreeNode root = new DefaultMutableTreeNode("root");
+        for (int i = 0; i < 4; i++) {
+            DefaultMutableTreeNode child = new DefaultMutableTreeNode("child " + i);
+            root.add(child);
+            for (int j = 0; j < 3; j++) {
+                DefaultMutableTreeNode grandChild = new DefaultMutableTreeNode("node " + i + "." + j);
+                child.add(grandChild);
+                for (int k = 0; k < i; k++) {
+                    grandChild.add(new DefaultMutableTreeNode("leaf " + k));
+                }
+            }
+        }
+        JTree tree = new JTree(root);
+        tree.putClientProperty(DarkTreeUI.KEY_LINE_STYLE, lineStyle);
+        tree.setComponentOrientation(orientation);
+        for (int row = 0; row < tree.getRowCount(); row++) {
+            tree.expandRow(row);
+        }
+        // Legs of children of the selection are painted in a different colour.
+        tree.setSelectionRow(5);
+        return tree;
+    }
+
+    private BufferedImage paint(final JTree tree) {
+        tree.setSize(WIDTH, Math.max(HEIGHT, tree.getPreferredSize().height));
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setClip(0, 0, WIDTH, HEIGHT);
+        tree.paint(g);
+        g.dispose();
+        return image;
+    }
+
+    private void assertSameLegs(final String lineStyle, final ComponentOrientation orientation) {
+        TestUtils.runOnSwingThreadNotThrowing(() -> {
+            JTree expectedTree = createTree(lineStyle, orientation);
+            PerLegTreeUI perLegUI = new PerLegTreeUI();
+            expectedTree.setUI(perLegUI);
+            BufferedImage expected = paint(expectedTree);
+            Assertions.assertTrue(perLegUI.paintedLines > 0, "Legs should be painted through paintVerticalLine");
+
+            JTree tree = createTree(lineStyle, orientation);
+            Assertions.assertSame(DarkTreeUI.class, tree.getUI().getClass());
+            BufferedImage actual = paint(tree);
+            for (int i = 0; i < WIDTH; i++) {
+                for (int j = 0; j < HEIGHT; j++) {
+                    Assertions.assertEquals(expected.getRGB(i, j), actual.getRGB(i, j),
+                            "Pixel (" + i + "," + j + ") with " + lineStyle + " lines");
+                }
+            }
+        });
+    }
+
+    @Test
+    void testBatchedLegsMatchPerLegPainting() {
+        assertSameLegs(DarkTreeUI.STYLE_LINE, ComponentOrientation.LEFT_TO_RIGHT);
+    }
+
+    @Test
+    void testBatchedLegsMatchPerLegPaintingRightToLeft() {
+        assertSameLegs(DarkTreeUI.STYLE_LINE, ComponentOrientation.RIGHT_TO_LEFT);
+    }
+
+    @Test
+    void testDashedLegsMatchPerLegPainting() {
+        assertSameLegs(DarkTreeUI.STYLE_DASHED, ComponentOrientation.LEFT_TO_RIGHT);
+    }
+
+    /*
+     * Overriding paintVerticalLine disables the batching, such that every leg is painted through it.
+     */
+    private static final class PerLegTreeUI extends DarkTreeUI {
+        private int paintedLines;
+
+        @Override
+        protected void paintVerticalLine(final Graphics g, final JComponent c, final int x, final int top,
+                final int bottom) {
+            paintedLines++;
+            super.paintVerticalLine(g, c, x, top, bottom);
+        }
+    }
+}
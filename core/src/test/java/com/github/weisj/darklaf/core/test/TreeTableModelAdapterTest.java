@@ -0,0 +1,192 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.core.test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.JTree;
+import javax.swing.event.TableModelEvent;
+import javax.swing.tree.TreePath;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.weisj.darklaf.components.treetable.TreeTableModelAdapter;
+import com.github.weisj.darklaf.components.treetable.model.DefaultTreeTableModel;
+import com.github.weisj.darklaf.components.treetable.model.DefaultTreeTableNode;
+import com.github.weisj.darklaf.components.treetable.model.TreeTableNode;
+
+class TreeTableModelAdapterTest implements NonThreadSafeTest {
+
+    private TestModel model;
+    private DefaultTreeTableNode root;
+    private JTree tree;
+    private TreeTableModelAdapter adapter;
+    private final List<TableModelEvent> events = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        TestUtils.ensureLafInstalled();
+        TestUtils.runOnSwingThreadNotThrowing(() -> {
+            root = new DefaultTreeTableNode(null, new Object[] {"root", 0});
+            for (int i = 0; i < 4; i++) {
+                DefaultTreeTableNode child = addNode(root, "n" + i);
+                for (int j = 0; j < 3; j++) {
+                    DefaultTreeTableNode grandChild = addNode(child, "n" + i + j);
+                    for (int k = 0; k < 2; k++) {
+                        addNode(grandChild, "n" + i + j + k);
+                    }
+                }
+            }
+            model = new TestModel(root);
+            tree = new JTree(model);
+            adapter = new TreeTableModelAdapter(model, tree);
+            adapter.addTableModelListener(events::add);
+        });
+    }
+
+    private static DefaultTreeTableNode addNode(final DefaultTreeTableNode parent, final String name) {
+        DefaultTreeTableNode node = new DefaultTreeTableNode(parent, new Object[] {name, 0});
+        parent.addChild(node);
+        return node;
+    }
+
+    private TreePath path(final int... indices) {
+        TreePath path = new TreePath(root);
+        TreeTableNode node = root;
+        for (int index : indices) {
+            node = node.getChildAt(index);
+            path = path.pathByAddingChild(node);
+        }
+        return path;
+    }
+
+    private void assertRowsMatchTree() {
+        Assertions.assertEquals(tree.getRowCount(), adapter.getRowCount());
+        for (int row = 0; row < tree.getRowCount(); row++) {
+            TreeTableNode node = (TreeTableNode) tree.getPathForRow(row).getLastPathComponent();
+            Assertions.assertEquals(node.getTreeValue(), adapter.getValueAt(row, 0), "Row " + row);
+        }
+    }
+
+    private void assertSingleEvent(final int type, final int firstRow, final int lastRow) {
+        Assertions.assertEquals(1, events.size(), "Number of events");
+        TableModelEvent event = events.get(0);
+        Assertions.assertEquals(type, event.getType());
+        Assertions.assertEquals(firstRow, event.getFirstRow());
+        Assertions.assertEquals(lastRow, event.getLastRow());
+        events.clear();
+    }
+
+    @Test
+    void testExpandWithExpandedDescendants() {
+        TestUtils.runOnSwingThreadNotThrowing(() -> {
+            tree.expandPath(path(1, 2));
+            tree.collapsePath(path(1));
+            events.clear();
+            assertRowsMatchTree();
+
+            // Expanding n1 also shows the children of the already expanded n12.
+            tree.expandPath(path(1));
+            assertSingleEvent(TableModelEvent.INSERT, 3, 7);
+            assertRowsMatchTree();
+
+            tree.collapsePath(path(1));
+            assertSingleEvent(TableModelEvent.DELETE, 3, 7);
+            assertRowsMatchTree();
+        });
+    }
+
+    @Test
+    void testHiddenRoot() {
+        TestUtils.runOnSwingThreadNotThrowing(() -> {
+            tree.setRootVisible(false);
+            tree.expandPath(path(3, 0));
+            assertRowsMatchTree();
+            events.clear();
+
+            tree.collapsePath(path(3));
+            assertSingleEvent(TableModelEvent.DELETE, 4, 8);
+            assertRowsMatchTree();
+        });
+    }
+
+    @Test
+    void testModelChanges() {
+        TestUtils.runOnSwingThreadNotThrowing(() -> {
+            tree.expandPath(path(0, 1));
+            tree.expandPath(path(2));
+            events.clear();
+            assertRowsMatchTree();
+
+            DefaultTreeTableNode parent = (DefaultTreeTableNode) root.getChildAt(2);
+            DefaultTreeTableNode inserted = new DefaultTreeTableNode(parent, new Object[] {"inserted", 0});
+            parent.getChildren().add(1, inserted);
+            model.fireNodesInserted(path(2), 1, inserted);
+            // root, n0, n00, n01, n010, n011, n02, n1, n2, n20, inserted
+            assertSingleEvent(TableModelEvent.INSERT, 10, 10);
+            assertRowsMatchTree();
+
+            TreeTableNode removed = root.getChildAt(0);
+            root.getChildren().remove(0);
+            model.fireNodesRemoved(path(), 0, removed);
+            assertSingleEvent(TableModelEvent.DELETE, 1, 6);
+            assertRowsMatchTree();
+
+            model.fireNodesChanged(path(), 1, root.getChildAt(1));
+            assertSingleEvent(TableModelEvent.UPDATE, 2, 2);
+
+            tree.expandPath(path(0, 1));
+            model.fireStructureChanged(path(0));
+            assertRowsMatchTree();
+
+            tree.expandPath(path(0, 1));
+            model.fireStructureChanged(path());
+            assertRowsMatchTree();
+        });
+    }
+
+    private static class TestModel extends DefaultTreeTableModel {
+
+        private TestModel(final TreeTableNode root) {
+            super(root, new String[] {"Name", "Value"});
+        }
+
+        private void fireNodesInserted(final TreePath parent, final int index, final Object child) {
+            fireTreeNodesInserted(this, parent.getPath(), new int[] {index}, new Object[] {child});
+        }
+
+        private void fireNodesRemoved(final TreePath parent, final int index, final Object child) {
+            fireTreeNodesRemoved(this, parent.getPath(), new int[] {index}, new Object[] {child});
+        }
+
+        private void fireStructureChanged(final TreePath path) {
+            fireTreeStructureChanged(this, path.getPath(), null, null);
+        }
+
+        private void fireNodesChanged(final TreePath parent, final int index, final Object child) {
+            fireTreeNodesChanged(this, parent.getPath(), new int[] {index}, new Object[] {child});
+        }
+    }
+}
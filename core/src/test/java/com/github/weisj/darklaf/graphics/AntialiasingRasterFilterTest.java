@@ -0,0 +1,181 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.graphics;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class AntialiasingRasterFilterTest {
+
+    private static final int WIDTH = 60;
+    private static final int HEIGHT = 20;
+
+    private static final Color[][] COLORS = {
+            {Color.BLACK, Color.WHITE},
+            {Color.WHITE, Color.BLACK},
+            {new Color(187, 187, 187), new Color(60, 63, 65)},
+            {new Color(20, 120, 220), new Color(240, 230, 200)}};
+
+    private static BufferedImage createSample(final Color fg, final Color bg, final long seed) {
+        BufferedImage img = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(seed);
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                int red = mix(fg.getRed(), bg.getRed(), random.nextInt(5) / 4f);
+                int green = mix(fg.getGreen(), bg.getGreen(), random.nextInt(5) / 4f);
+                int blue = mix(fg.getBlue(), bg.getBlue(), random.nextInt(5) / 4f);
+                img.setRGB(x, y, (red << 16) | (green << 8) | blue);
+            }
+        }
+        return img;
+    }
+
+    private static BufferedImage createText(final Color fg, final Color bg) {
+        BufferedImage img = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+        g.setColor(bg);
+        g.fillRect(0, 0, WIDTH, HEIGHT);
+        g.setColor(fg);
+        g.setFont(new Font(Font.DIALOG, Font.PLAIN, 12));
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_LCD_HRGB);
+        g.drawString("Sample", 2, 15);
+        g.dispose();
+        return img;
+    }
+
+    private static int mix(final int fg, final int bg, final float coverage) {
+        return Math.round(bg + coverage * (fg - bg));
+    }
+
+    private static BufferedImage createDestination(final int width, final int height) {
+        BufferedImage dest = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Random random = new Random(42);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                dest.setRGB(x, y, 0xFF000000 | random.nextInt(0xFFFFFF));
+            }
+        }
+        return dest;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static void assertMatchesImageFilter(final BufferedImage src, final BufferedImage dest, final int destX,
+            final int destY, final Color fg, final Color bg) {
+        BufferedImage result = new AntialiasingRasterFilter(fg, bg).filter(src, dest, destX, destY, null);
+        AntialiasingImageFilter expectedFilter = new AntialiasingImageFilter(dest, destX, destY, fg, bg);
+        for (int y = 0; y < src.getHeight(); y++) {
+            for (int x = 0; x < src.getWidth(); x++) {
+                // The image filter doesn't clamp the alpha of pixels beyond the background, which wraps around.
+                if (dest == null && !isBetween(src.getRGB(x, y), fg, bg)) continue;
+                int expected = expectedFilter.filterRGB(x, y, src.getRGB(x, y));
+                assertPixelEquals(expected, result.getRGB(x, y), x, y);
+            }
+        }
+    }
+
+    private static boolean isBetween(final int rgb, final Color fg, final Color bg) {
+        return isBetween((rgb >> 16) & 0xFF, fg.getRed(), bg.getRed())
+                && isBetween((rgb >> 8) & 0xFF, fg.getGreen(), bg.getGreen())
+                && isBetween(rgb & 0xFF, fg.getBlue(), bg.getBlue());
+    }
+
+    private static boolean isBetween(final int value, final int a, final int b) {
+        return value >= Math.min(a, b) && value <= Math.max(a, b);
+    }
+
+    private static void assertPixelEquals(final int expected, final int actual, final int x, final int y) {
+        if (((expected >>> 24) == 0) && ((actual >>> 24) == 0)) return;
+        for (int shift = 0; shift <= 24; shift += 8) {
+            int e = (expected >>> shift) & 0xFF;
+            int a = (actual >>> shift) & 0xFF;
+            if (Math.abs(e - a) > 1) {
+                Assertions.fail("Pixel (" + x + "," + y + ") differs: expected " + Integer.toHexString(expected)
+                        + " but was " + Integer.toHexString(actual));
+            }
+        }
+    }
+
+    @Test
+    void testMatchesImageFilterWithoutDestination() {
+        for (Color[] colors : COLORS) {
+            assertMatchesImageFilter(createSample(colors[0], colors[1], 1), null, 0, 0, colors[0], colors[1]);
+            assertMatchesImageFilter(createText(colors[0], colors[1]), null, 0, 0, colors[0], colors[1]);
+        }
+    }
+
+    @Test
+    void testMatchesImageFilterWithDestination() {
+        BufferedImage dest = createDestination(WIDTH + 10, HEIGHT + 10);
+        for (Color[] colors : COLORS) {
+            assertMatchesImageFilter(createSample(colors[0], colors[1], 2), dest, 5, 7, colors[0], colors[1]);
+            assertMatchesImageFilter(createText(colors[0], colors[1]), dest, 10, 3, colors[0], colors[1]);
+        }
+    }
+
+    @Test
+    void testEqualChannels() {
+        Color fg = new Color(200, 50, 50);
+        Color bg = new Color(0, 50, 50);
+        BufferedImage src = new BufferedImage(3, 1, BufferedImage.TYPE_INT_RGB);
+        src.setRGB(0, 0, bg.getRGB());
+        src.setRGB(1, 0, new Color(100, 50, 50).getRGB());
+        src.setRGB(2, 0, fg.getRGB());
+        BufferedImage result = new AntialiasingRasterFilter(fg, bg).filter(src, null, 0, 0, null);
+        Assertions.assertEquals(0, result.getRGB(0, 0) >>> 24);
+        Assertions.assertEquals(127, result.getRGB(1, 0) >>> 24, 1);
+        Assertions.assertEquals(255, result.getRGB(2, 0) >>> 24);
+
+        // Fore- and background agree in all channels. Every pixel differing from the background is text.
+        src.setRGB(1, 0, Color.RED.getRGB());
+        result = new AntialiasingRasterFilter(bg, bg).filter(src, null, 0, 0, null);
+        Assertions.assertEquals(0, result.getRGB(0, 0) >>> 24);
+        Assertions.assertEquals(255, result.getRGB(1, 0) >>> 24);
+    }
+
+    @Test
+    void testDestinationOutOfBounds() {
+        Color fg = COLORS[2][0];
+        Color bg = COLORS[2][1];
+        BufferedImage src = createSample(fg, bg, 3);
+        BufferedImage dest = createDestination(WIDTH / 2, HEIGHT / 2);
+        int destX = -WIDTH / 4;
+        int destY = -HEIGHT / 4;
+        AntialiasingRasterFilter filter = new AntialiasingRasterFilter(fg, bg);
+        BufferedImage translucent = filter.filter(src, null, 0, 0, null);
+        BufferedImage blended = filter.filter(src, dest, destX, destY, null);
+        Rectangle destBounds = new Rectangle(-destX, -destY, dest.getWidth(), dest.getHeight());
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                if (!destBounds.contains(x, y)) {
+                    Assertions.assertEquals(translucent.getRGB(x, y), blended.getRGB(x, y),
+                            "Pixel (" + x + "," + y + ") outside of the destination should not be blended");
+                }
+            }
+        }
+        BufferedImage inside = src.getSubimage(destBounds.x, destBounds.y, destBounds.width, destBounds.height);
+        assertMatchesImageFilter(inside, dest, 0, 0, fg, bg);
+    }
+}
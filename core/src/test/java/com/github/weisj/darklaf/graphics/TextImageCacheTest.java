@@ -0,0 +1,130 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.graphics;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+import javax.swing.JLabel;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.weisj.darklaf.core.test.NonThreadSafeTest;
+import com.github.weisj.darklaf.util.cache.CacheStatistics;
+
+class TextImageCacheTest implements NonThreadSafeTest {
+
+    private static final String TEXT = "Text";
+    private static final Rectangle TEXT_RECT = new Rectangle(0, 0, 40, 16);
+
+    private final JLabel label = new JLabel(TEXT);
+    private BufferedImage target;
+    private Graphics2D graphics;
+
+    @BeforeEach
+    void setup() {
+        TextImageCache.clear();
+        target = new BufferedImage(TEXT_RECT.width, TEXT_RECT.height, BufferedImage.TYPE_INT_RGB);
+        graphics = target.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+    }
+
+    @AfterEach
+    void cleanup() {
+        graphics.dispose();
+        TextImageCache.clear();
+    }
+
+    private TextImageCache.Key createKey(final Font font, final Color foreground, final double scale) {
+        FontMetrics fm = label.getFontMetrics(font);
+        return StringPainter.createTextImageKey(graphics, TEXT, font, fm, -1, foreground, Color.WHITE, TEXT_RECT,
+                scale, scale);
+    }
+
+    private TextImageCache.Key createKey() {
+        return createKey(label.getFont(), Color.BLACK, 1);
+    }
+
+    @Test
+    void testRepeatedPaintHitsCache() {
+        BufferedImage image = new BufferedImage(TEXT_RECT.width, TEXT_RECT.height, BufferedImage.TYPE_INT_RGB);
+        TextImageCache.put(createKey(), image);
+        CacheStatistics before = TextImageCache.getStatistics();
+
+        Assertions.assertSame(image, TextImageCache.get(createKey()));
+        Assertions.assertSame(image, TextImageCache.get(createKey()));
+
+        CacheStatistics after = TextImageCache.getStatistics();
+        Assertions.assertEquals(before.getHitCount() + 2, after.getHitCount());
+        Assertions.assertEquals(before.getMissCount(), after.getMissCount());
+    }
+
+    @Test
+    void testChangedAppearanceMissesCache() {
+        BufferedImage image = new BufferedImage(TEXT_RECT.width, TEXT_RECT.height, BufferedImage.TYPE_INT_RGB);
+        TextImageCache.put(createKey(), image);
+        Font font = label.getFont();
+
+        Assertions.assertNull(TextImageCache.get(createKey(font, Color.RED, 1)), "Foreground changed");
+        Assertions.assertNull(TextImageCache.get(createKey(font.deriveFont(font.getSize2D() + 2), Color.BLACK, 1)),
+                "Font changed");
+        Assertions.assertNull(TextImageCache.get(createKey(font, Color.BLACK, 2)), "Scale changed");
+        graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_OFF);
+        Assertions.assertNull(TextImageCache.get(createKey()), "Antialiasing changed");
+
+        graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        Assertions.assertSame(image, TextImageCache.get(createKey()));
+    }
+
+    @Test
+    void testScratchBufferNotSharedWhileNested() {
+        BufferedImage outer = TextImageCache.acquireScratchImage(20, 10);
+        BufferedImage nested = TextImageCache.acquireScratchImage(20, 10);
+        Assertions.assertNotSame(outer.getRaster().getDataBuffer(), nested.getRaster().getDataBuffer(),
+                "Nested paint must not reuse the scratch buffer in use");
+
+        // Releasing the nested image must not free the outer scratch buffer.
+        TextImageCache.releaseScratchImage(nested);
+        BufferedImage whileOuterInUse = TextImageCache.acquireScratchImage(20, 10);
+        Assertions.assertNotSame(outer.getRaster().getDataBuffer(), whileOuterInUse.getRaster().getDataBuffer());
+        TextImageCache.releaseScratchImage(whileOuterInUse);
+
+        TextImageCache.releaseScratchImage(outer);
+        BufferedImage reused = TextImageCache.acquireScratchImage(10, 5);
+        Assertions.assertSame(outer.getRaster().getDataBuffer(), reused.getRaster().getDataBuffer(),
+                "Released scratch buffer should be reused");
+        TextImageCache.releaseScratchImage(reused);
+    }
+
+    @Test
+    void testTranslucentScratchBufferIndependent() {
+        BufferedImage opaque = TextImageCache.acquireScratchImage(20, 10);
+        BufferedImage translucent = TextImageCache.acquireTranslucentScratchImage(20, 10);
+        Assertions.assertNotSame(opaque.getRaster().getDataBuffer(), translucent.getRaster().getDataBuffer());
+        Assertions.assertEquals(BufferedImage.TYPE_INT_ARGB, translucent.getType());
+        TextImageCache.releaseScratchImage(translucent);
+        TextImageCache.releaseScratchImage(opaque);
+    }
+}
@@ -23,7 +23,9 @@ package com.github.weisj.darklaf.properties;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URL;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.logging.Level;
@@ -32,9 +34,11 @@ import java.util.logging.Logger;
 import javax.swing.*;
 
 import com.github.weisj.darklaf.properties.icons.IconResolver;
+import com.github.weisj.darklaf.properties.parser.DependencyGraph;
 import com.github.weisj.darklaf.properties.parser.ParseResult;
 import com.github.weisj.darklaf.properties.parser.Parser;
 import com.github.weisj.darklaf.properties.parser.ParserContext;
+import com.github.weisj.darklaf.properties.parser.SinglePassParser;
 import com.github.weisj.darklaf.util.*;
 
 /**
@@ -46,10 +50,12 @@ public final class PropertyLoader {
     private static final Logger LOGGER = LogUtil.getLogger(PropertyLoader.class);
 
     private static final char REFERENCE_PREFIX = '%';
+    private static final ThreadLocal<Consumer<URL>> resourceObserver = new ThreadLocal<>();
 
     public static Properties loadProperties(final Class<?> clazz, final String name, final String path) {
         final Properties properties = new Properties();
         String p = path + name + ".properties";
+        notifyResourceLoaded(clazz, p);
         try (InputStream stream = clazz.getResourceAsStream(p)) {
             properties.load(stream);
         } catch (IOException | NullPointerException e) {
@@ -70,21 +76,49 @@ public final class PropertyLoader {
 
     public static void putProperties(final Map<Object, Object> properties, final Set<String> keys,
             final Map<Object, Object> accumulator, final UIDefaults currentDefaults, final IconResolver iconResolver) {
+        if (Parser.isSinglePassMode()) {
+            DependencyGraph graph = new DependencyGraph(properties, keys);
+            putProperties(graph, graph.getEvaluationOrder(), accumulator, currentDefaults, iconResolver);
+            return;
+        }
         ParserContext context = new ParserContext(accumulator, currentDefaults, iconResolver);
         for (final String key : keys) {
             final String value = properties.get(key).toString();
-            ParseResult parseResult = Parser.parse(Parser.createParseResult(key, value), context);
-            if (parseResult.finished) {
-                Object result = parseResult.result;
-                if (result != null) {
-                    if (Parser.isDebugMode()) {
-                        accumulator.put(parseResult.key, parseResult);
-                    } else {
-                        accumulator.put(parseResult.key, result);
-                    }
+            putParseResult(Parser.parse(Parser.createParseResult(key, value), context), accumulator, currentDefaults);
+        }
+    }
+
+    /**
+     * Evaluates the given properties of the dependency graph. The properties are evaluated in the given
+     * order, which should be consistent with {@link DependencyGraph#getEvaluationOrder()}.
+     *
+     * @param graph the dependency graph of the properties.
+     * @param keys the keys of the properties to evaluate.
+     * @param accumulator the map the values are put into.
+     * @param currentDefaults the current defaults.
+     * @param iconResolver the icon resolver.
+     * @see DependencyGraph#getAffectedKeys(Collection)
+     */
+    public static void putProperties(final DependencyGraph graph, final Collection<String> keys,
+            final Map<Object, Object> accumulator, final UIDefaults currentDefaults, final IconResolver iconResolver) {
+        SinglePassParser parser = new SinglePassParser(new ParserContext(accumulator, currentDefaults, iconResolver));
+        for (final String key : keys) {
+            putParseResult(graph.parse(key, parser), accumulator, currentDefaults);
+        }
+    }
+
+    private static void putParseResult(final ParseResult parseResult, final Map<Object, Object> accumulator,
+            final UIDefaults currentDefaults) {
+        if (parseResult.finished) {
+            Object result = parseResult.result;
+            if (result != null) {
+                if (Parser.isDebugMode()) {
+                    accumulator.put(parseResult.key, parseResult);
                 } else {
-                    currentDefaults.remove(parseResult.key);
+                    accumulator.put(parseResult.key, result);
                 }
+            } else {
+                currentDefaults.remove(parseResult.key);
             }
         }
     }
@@ -113,6 +147,33 @@ public final class PropertyLoader {
                 .forEach(e -> Optional.ofNullable(mapper.apply((Map.Entry<Object, T>) e)).ifPresent(e::setValue));
     }
 
+    /**
+     * Sets the observer which gets notified about every property resource loaded on the current thread.
+     *
+     * @param observer the observer or null if resources shouldn't be observed anymore.
+     */
+    public static void setResourceObserver(final Consumer<URL> observer) {
+        if (observer != null) {
+            resourceObserver.set(observer);
+        } else {
+            resourceObserver.remove();
+        }
+    }
+
+    /**
+     * Notifies the resource observer of the current thread that the given resource has been loaded.
+     *
+     * @param clazz the class used to resolve the resource.
+     * @param path the path of the resource relative to the class.
+     * @see #setResourceObserver(Consumer)
+     */
+    public static void notifyResourceLoaded(final Class<?> clazz, final String path) {
+        Consumer<URL> observer = resourceObserver.get();
+        if (observer == null) return;
+        URL url = clazz.getResource(path);
+        if (url != null) observer.accept(url);
+    }
+
     public static String getReferencePrefix() {
         return String.valueOf(REFERENCE_PREFIX);
     }
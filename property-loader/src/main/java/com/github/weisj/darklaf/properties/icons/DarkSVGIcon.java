@@ -28,14 +28,17 @@ import java.io.Serializable;
 import java.net.URI;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 
 import org.jetbrains.annotations.NotNull;
 
 import com.github.weisj.darklaf.util.LogUtil;
 import com.github.weisj.darklaf.util.Scale;
+import com.github.weisj.darklaf.util.cache.Cache;
 import com.github.weisj.swingdsl.visualpadding.VisualPaddingProvider;
 import com.kitfox.svg.SVGException;
 import com.kitfox.svg.SVGRoot;
@@ -71,12 +74,16 @@ public class DarkSVGIcon
     private URI uri;
 
     private IconLoader.IconKey iconKey;
+    private transient Cache<IconLoader.IconKey, ?> cache;
 
     private boolean directRendering;
     private boolean loadedWithExtraScale;
     private double scaleX;
     private double scaleY;
     private Image image;
+    private transient IconAtlas.Region atlasRegion;
+    private final AtomicBoolean rasterizationPending = new AtomicBoolean(false);
+    private volatile boolean rasterizationFailed;
 
     /**
      * Method to fetch the SVG icon from a url.
@@ -125,6 +132,11 @@ public class DarkSVGIcon
         this.iconKey = key;
     }
 
+    @Override
+    public void setCache(final Cache<IconLoader.IconKey, ?> cache) {
+        this.cache = cache;
+    }
+
     IconLoader.IconKey getCacheKey() {
         return iconKey;
     }
@@ -164,16 +176,19 @@ public class DarkSVGIcon
 
     private boolean ensureSVGLoaded() {
         if (!isSVGLoaded()) {
-            URI iconUri = getUri();
-            LOGGER.finer(() -> "Loading icon '" + iconUri.toASCIIString() + "'.");
-            icon.setSvgURI(iconUri);
-            loaded.set(true);
+            synchronized (IconRasterizer.LOCK) {
+                if (isSVGLoaded()) return false;
+                URI iconUri = getUri();
+                LOGGER.finer(() -> "Loading icon '" + iconUri.toASCIIString() + "'.");
+                icon.setSvgURI(iconUri);
+                loaded.set(true);
+            }
             return true;
         }
         return false;
     }
 
-    private boolean isSVGLoaded() {
+    boolean isSVGLoaded() {
         return loaded.get();
     }
 
@@ -191,30 +206,79 @@ public class DarkSVGIcon
         GraphicsConfiguration gc = c != null ? c.getGraphicsConfiguration() : null;
         double sx = Scale.getScaleX(gc);
         double sy = Scale.getScaleY(gc);
-        if (!update && Scale.equalWithError(scaleX, sx) && Scale.equalWithError(scaleY, sy) && image != null) return;
+        if (!update && Scale.equalWithError(scaleX, sx) && Scale.equalWithError(scaleY, sy) && hasImage()) return;
         scaleX = sx;
         scaleY = sy;
+        rasterize();
+    }
+
+    /**
+     * Rasterizes the icon again at the scale it has last been painted with. Does nothing if the icon
+     * hasn't been rasterized yet.
+     */
+    void updateImage() {
+        synchronized (IconRasterizer.LOCK) {
+            if (hasImage()) rasterize();
+        }
+    }
+
+    private void rasterize() {
         double effectiveScaleX = loadedWithExtraScale ? scaleX * extraScale : scaleX;
         double effectiveScaleY = loadedWithExtraScale ? scaleY * extraScale : scaleY;
         LOGGER.finer(() -> String.format("Creating Image with size (w=%s, h=%s, scaleW=%s, scaleH=%s) for icon '%s'",
                 getSize().width, getSize().height, effectiveScaleX, effectiveScaleX, getName(getUri())));
-        image = createImage(Scale.scale(effectiveScaleX, effectiveScaleY, getSize()));
+        Dimension size = Scale.scale(effectiveScaleX, effectiveScaleY, getSize());
+        if (IconLoader.isIconAtlasEnabled() && !loadedWithExtraScale && paintToAtlas(size)) {
+            image = null;
+            return;
+        }
+        releaseAtlasRegion();
+        image = createImage(size);
+        // The image counts towards the weight of the icon in the cache.
+        if (cache != null && iconKey != null) cache.updateWeight(iconKey);
+    }
+
+    private boolean hasImage() {
+        return image != null || (atlasRegion != null && atlasRegion.isValid());
+    }
+
+    private boolean paintToAtlas(final Dimension size) {
+        IconAtlas atlas = IconAtlas.getInstance();
+        atlasRegion = atlas.allocate(this, atlasRegion, scaleX, scaleY, size);
+        if (atlasRegion == null) return false;
+        ensureLoaded(false);
+        icon.setPreferredSize(size);
+        try {
+            atlas.paint(atlasRegion, this::paintSVG);
+            return true;
+        } catch (final RuntimeException e) {
+            // Let createImage handle the failure.
+            releaseAtlasRegion();
+            return false;
+        }
+    }
+
+    private void releaseAtlasRegion() {
+        if (atlasRegion != null) {
+            IconAtlas.getInstance().release(atlasRegion);
+            atlasRegion = null;
+        }
     }
 
     @Override
     public Image createImage(final Dimension size) {
+        synchronized (IconRasterizer.LOCK) {
+            return createImageImpl(size);
+        }
+    }
+
+    private Image createImageImpl(final Dimension size) {
         ensureLoaded(false);
         icon.setPreferredSize(size);
         try {
             BufferedImage bi = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_ARGB);
             Graphics2D g = (Graphics2D) bi.getGraphics();
-            g.setRenderingHint(
-                    RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            g.setRenderingHint(
-                    RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_NORMALIZE);
-            Object aaHint = UIManager.get(RenderingHints.KEY_TEXT_ANTIALIASING);
-            if (aaHint != null) g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, aaHint);
-            icon.paintIcon(null, g, 0, 0);
+            paintSVG(g);
             g.dispose();
             return bi;
         } catch (final RuntimeException e) {
@@ -232,6 +296,16 @@ public class DarkSVGIcon
         }
     }
 
+    private void paintSVG(final Graphics2D g) {
+        g.setRenderingHint(
+                RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(
+                RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_NORMALIZE);
+        Object aaHint = UIManager.get(RenderingHints.KEY_TEXT_ANTIALIASING);
+        if (aaHint != null) g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, aaHint);
+        icon.paintIcon(null, g, 0, 0);
+    }
+
     protected String getName(final URI uri) {
         String name = uri.toASCIIString();
         name = name.substring(Math.min(name.length() - 1, name.lastIndexOf('/') + 1));
@@ -259,6 +333,44 @@ public class DarkSVGIcon
 
     @Override
     public void paintIcon(final Component c, final Graphics g, final int x, final int y, final double rotation) {
+        if (IconLoader.isAsyncRasterizationEnabled() && c != null && !isDirectRenderingMode()
+                && (rasterizationPending.get() || (!hasImage() && !rasterizationFailed))) {
+            // The icon stays transparent until it has been rasterized.
+            scheduleRasterization(c, x, y, rotation);
+            return;
+        }
+        // Icons may be patched and rasterized on a background thread.
+        IconRasterizer.runGuarded(() -> paintIconImpl(c, g, x, y, rotation));
+    }
+
+    private void scheduleRasterization(final Component c, final int x, final int y, final double rotation) {
+        if (!rasterizationPending.compareAndSet(false, true)) return;
+        IconRasterizer.submit(() -> {
+            try {
+                IconRasterizer.runInBackground(() -> {
+                    synchronized (IconRasterizer.LOCK) {
+                        ensureImageLoaded(c, rotation);
+                    }
+                });
+            } catch (final RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Couldn't rasterize icon " + this, e);
+                // Let the next paint call report the failure.
+                rasterizationFailed = true;
+            } finally {
+                SwingUtilities.invokeLater(() -> {
+                    rasterizationPending.set(false);
+                    IconRasterizer.repaint(c, x, y, getIconWidth(), getIconHeight());
+                });
+            }
+        });
+    }
+
+    boolean isRasterizationPending() {
+        return rasterizationPending.get();
+    }
+
+    private void paintIconImpl(final Component c, final Graphics g, final int x, final int y,
+            final double rotation) {
         boolean dr = isDirectRenderingMode();
         if (dr) {
             ensureLoaded(true);
@@ -272,8 +384,19 @@ public class DarkSVGIcon
         g2.translate(x, y);
 
         Dimension size = getSize();
-        double imageWidth = dr ? size.width : image.getWidth(null);
-        double imageHeight = dr ? size.height : image.getHeight(null);
+        IconAtlas.Region region = image == null ? atlasRegion : null;
+        double imageWidth;
+        double imageHeight;
+        if (dr) {
+            imageWidth = size.width;
+            imageHeight = size.height;
+        } else if (region != null) {
+            imageWidth = region.getWidth();
+            imageHeight = region.getHeight();
+        } else {
+            imageWidth = image.getWidth(null);
+            imageHeight = image.getHeight(null);
+        }
         double sx = size.width / imageWidth;
         double sy = size.height / imageHeight;
         g2.scale(sx, sy);
@@ -283,6 +406,8 @@ public class DarkSVGIcon
 
         if (dr) {
             getSVGIcon().paintIcon(c, g, 0, 0);
+        } else if (region != null) {
+            region.draw(g2, c);
         } else {
             g2.drawImage(image, 0, 0, c);
         }
@@ -316,6 +441,14 @@ public class DarkSVGIcon
     }
 
     private void ensureSizeLoaded() {
+        if (iconSize.width < 0 || iconSize.height < 0) {
+            synchronized (IconRasterizer.LOCK) {
+                inferSize();
+            }
+        }
+    }
+
+    private void inferSize() {
         if (iconSize.width < 0 || iconSize.height < 0) {
             SVGIcon svg = getSVGIcon();
             int autoSizeMode = svg.getAutosize();
@@ -354,6 +487,27 @@ public class DarkSVGIcon
         return icon;
     }
 
+    /**
+     * Parses the svg document of the icon ahead of time. Usually this happens when the icon is painted or
+     * its size is inferred for the first time.
+     */
+    public void preload() {
+        SVGIcon svgIcon = getSVGIcon();
+        synchronized (IconRasterizer.LOCK) {
+            svgIcon.getSvgUniverse().getDiagram(svgIcon.getSvgURI());
+        }
+    }
+
+    /**
+     * Returns the image the icon has been rasterized to, if any. Icons rasterized into the shared
+     * {@link IconAtlas} don't own an image.
+     *
+     * @return the rasterized image or null.
+     */
+    Image getCachedImage() {
+        return image;
+    }
+
     @Override
     public String toString() {
         return "DarkSVGIcon{" +
@@ -375,7 +529,10 @@ public class DarkSVGIcon
     @SuppressWarnings("EmptyCatch")
     public @NotNull Insets getVisualPaddings(@NotNull Component component) {
         SVGIcon icon = getSVGIcon();
-        SVGRoot root = icon.getSvgUniverse().getDiagram(icon.getSvgURI()).getRoot();
+        SVGRoot root;
+        synchronized (IconRasterizer.LOCK) {
+            root = icon.getSvgUniverse().getDiagram(icon.getSvgURI()).getRoot();
+        }
         StyleAttribute attr = new StyleAttribute("visualPadding");
         try {
             if (root.getStyle(attr, false)) {
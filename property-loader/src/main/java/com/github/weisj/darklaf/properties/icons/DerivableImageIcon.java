@@ -33,6 +33,7 @@ import javax.swing.*;
 
 import com.github.weisj.darklaf.util.LazyValue;
 import com.github.weisj.darklaf.util.LogUtil;
+import com.github.weisj.darklaf.util.cache.Cache;
 
 public class DerivableImageIcon
         implements DerivableIcon<DerivableImageIcon>, IconLoader.CacheableIcon, ImageSource, Accessible {
@@ -49,6 +50,7 @@ public class DerivableImageIcon
     private String description;
     private AccessibleContext accessibleContext;
     private IconLoader.IconKey iconKey;
+    private Cache<IconLoader.IconKey, ?> cache;
 
     /**
      * Create a new derivable image icon.
@@ -302,6 +304,15 @@ public class DerivableImageIcon
         return getImage(null);
     }
 
+    /**
+     * Returns the scaled image of the icon if it has already been loaded.
+     *
+     * @return the image or null.
+     */
+    Image getCachedImage() {
+        return image.getIfLoaded();
+    }
+
     /**
      * Get the underlying {@link Image}.
      *
@@ -386,10 +397,20 @@ public class DerivableImageIcon
         }
     }
 
+    @Override
+    public void setCache(final Cache<IconLoader.IconKey, ?> cache) {
+        this.cache = cache;
+    }
+
     IconLoader.IconKey getCacheKey() {
         return iconKey;
     }
 
+    private void imageLoaded() {
+        // The image counts towards the weight of the icon in the cache.
+        if (cache != null && iconKey != null) cache.updateWeight(iconKey);
+    }
+
     protected static class AccessibleDerivableImageIcon extends AccessibleContext implements AccessibleIcon {
 
         private final DerivableImageIcon icon;
@@ -466,8 +487,15 @@ public class DerivableImageIcon
             return new LazyImageValue(icon);
         }
 
+        Image getIfLoaded() {
+            return value;
+        }
+
         public Image get(final ImageObserver observer) {
-            if (value == null) set(load(observer));
+            if (value == null) {
+                set(load(observer));
+                if (value != null) icon.imageLoaded();
+            }
             return value;
         }
 
@@ -0,0 +1,377 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.properties.icons;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import com.github.weisj.darklaf.util.Scale;
+
+/**
+ * Shared images the rasterized svg icons are packed into. Icons rasterized for the same display scale
+ * share pages, which are released once all their icons have been released or no screen uses the scale
+ * anymore.
+ * <p>
+ * Pages start out small and are grown on demand up to {@link #PAGE_SIZE}, such that the few icons usually
+ * rasterized for a scale don't occupy a full page.
+ */
+final class IconAtlas {
+
+    private static final IconAtlas INSTANCE = new IconAtlas();
+
+    static final int PAGE_SIZE = 512;
+    // Larger icons get their own image as they would waste too much space of a page.
+    static final int MAX_REGION_SIZE = 128;
+    // Has to be able to hold a region of maximal size.
+    static final int INITIAL_PAGE_SIZE = MAX_REGION_SIZE;
+    // Transparent gap between regions to avoid bleeding when the image is interpolated.
+    private static final int GAP = 1;
+
+    private final Map<ScaleKey, List<Page>> pages = new HashMap<>();
+    private final ReferenceQueue<Object> releasedOwners = new ReferenceQueue<>();
+
+    private IconAtlas() {}
+
+    static IconAtlas getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns a region of the given size for the owner. If the previous region of the owner is still
+     * valid and has the correct size and scale it is reused. Otherwise it is released.
+     *
+     * @param owner the owner of the region.
+     * @param previous the previously allocated region or null.
+     * @param scaleX the horizontal display scale.
+     * @param scaleY the vertical display scale.
+     * @param size the size of the region in pixels.
+     * @return the region or null if icons of the given size aren't stored in the atlas.
+     */
+    synchronized Region allocate(final Object owner, final Region previous, final double scaleX,
+            final double scaleY, final Dimension size) {
+        drainReleasedOwners();
+        ScaleKey scale = new ScaleKey(scaleX, scaleY);
+        if (previous != null) {
+            if (previous.isValid() && previous.page.scale.equals(scale)
+                    && previous.width == size.width && previous.height == size.height) {
+                return previous;
+            }
+            release(previous);
+        }
+        if (size.width <= 0 || size.height <= 0 || size.width > MAX_REGION_SIZE || size.height > MAX_REGION_SIZE) {
+            return null;
+        }
+        List<Page> scalePages = pages.get(scale);
+        if (scalePages == null) {
+            // A new scale may indicate that the screen configuration has changed.
+            releaseUnusedScales();
+            scalePages = new ArrayList<>();
+            pages.put(scale, scalePages);
+        }
+        Region region = null;
+        for (Page page : scalePages) {
+            region = page.allocate(size.width, size.height);
+            if (region != null) break;
+        }
+        if (region == null) {
+            Page page = new Page(scale);
+            scalePages.add(page);
+            region = page.allocate(size.width, size.height);
+        }
+        region.owner = new Owner(owner, region, releasedOwners);
+        return region;
+    }
+
+    /**
+     * Paints into the given region. The graphics are translated to the origin of the region and the
+     * region is cleared beforehand.
+     *
+     * @param region the region.
+     * @param painter the painter.
+     */
+    synchronized void paint(final Region region, final Consumer<Graphics2D> painter) {
+        if (!region.isValid()) return;
+        Graphics2D g = region.page.image.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.Clear);
+            g.fillRect(region.x, region.y, region.width, region.height);
+            g.setComposite(AlphaComposite.SrcOver);
+            g.clipRect(region.x, region.y, region.width, region.height);
+            g.translate(region.x, region.y);
+            painter.accept(g);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    synchronized void release(final Region region) {
+        if (region == null || region.owner == null) return;
+        region.owner.clear();
+        region.owner = null;
+        Page page = region.page;
+        if (page.image == null) return;
+        page.free(region);
+        if (page.isEmpty()) disposePage(page);
+    }
+
+    /**
+     * Releases all pages of scales which aren't used by any screen.
+     */
+    synchronized void releaseUnusedScales() {
+        if (GraphicsEnvironment.isHeadless()) return;
+        Set<ScaleKey> usedScales = new HashSet<>();
+        usedScales.add(new ScaleKey(Scale.SCALE_X, Scale.SCALE_Y));
+        for (GraphicsDevice device : GraphicsEnvironment.getLocalGraphicsEnvironment().getScreenDevices()) {
+            GraphicsConfiguration gc = device.getDefaultConfiguration();
+            usedScales.add(new ScaleKey(Scale.getScaleX(gc), Scale.getScaleY(gc)));
+        }
+        Iterator<Map.Entry<ScaleKey, List<Page>>> iterator = pages.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<ScaleKey, List<Page>> entry = iterator.next();
+            if (usedScales.contains(entry.getKey())) continue;
+            for (Page page : entry.getValue()) {
+                page.image = null;
+            }
+            iterator.remove();
+        }
+    }
+
+    synchronized void clear() {
+        for (List<Page> scalePages : pages.values()) {
+            for (Page page : scalePages) {
+                page.image = null;
+            }
+        }
+        pages.clear();
+    }
+
+    synchronized int getPageCount() {
+        drainReleasedOwners();
+        int count = 0;
+        for (List<Page> scalePages : pages.values()) {
+            count += scalePages.size();
+        }
+        return count;
+    }
+
+    synchronized long getPixelCount() {
+        long count = 0;
+        for (List<Page> scalePages : pages.values()) {
+            for (Page page : scalePages) {
+                count += (long) page.size * page.size;
+            }
+        }
+        return count;
+    }
+
+    private void disposePage(final Page page) {
+        page.image = null;
+        List<Page> scalePages = pages.get(page.scale);
+        if (scalePages == null) return;
+        scalePages.remove(page);
+        if (scalePages.isEmpty()) pages.remove(page.scale);
+    }
+
+    private void drainReleasedOwners() {
+        Reference<?> reference;
+        while ((reference = releasedOwners.poll()) != null) {
+            Region region = ((Owner) reference).region;
+            if (region.owner == reference) release(region);
+        }
+    }
+
+    static final class Region {
+        private final Page page;
+        private final int x;
+        private final int y;
+        private final int width;
+        private final int height;
+        private Owner owner;
+
+        private Region(final Page page, final int x, final int y, final int width, final int height) {
+            this.page = page;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+
+        boolean isValid() {
+            return owner != null && page.image != null;
+        }
+
+        int getWidth() {
+            return width;
+        }
+
+        int getHeight() {
+            return height;
+        }
+
+        /**
+         * Draws the region at the origin of the graphics.
+         *
+         * @param g the graphics.
+         * @param observer the image observer.
+         */
+        void draw(final Graphics g, final Component observer) {
+            Image image = page.image;
+            if (image == null) return;
+            g.drawImage(image, 0, 0, width, height, x, y, x + width, y + height, observer);
+        }
+    }
+
+    private static final class Owner extends WeakReference<Object> {
+        private final Region region;
+
+        private Owner(final Object referent, final Region region, final ReferenceQueue<Object> queue) {
+            super(referent, queue);
+            this.region = region;
+        }
+    }
+
+    private static final class Page {
+        private final ScaleKey scale;
+        private final List<Shelf> shelves = new ArrayList<>();
+        private final Map<Dimension, ArrayDeque<Region>> freeRegions = new HashMap<>();
+        private BufferedImage image;
+        private int size;
+        private int usedHeight;
+        private int regionCount;
+
+        private Page(final ScaleKey scale) {
+            this.scale = scale;
+            this.size = INITIAL_PAGE_SIZE;
+            this.image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        }
+
+        private Region allocate(final int width, final int height) {
+            Region region = allocateInBounds(width, height);
+            while (region == null && size < PAGE_SIZE) {
+                grow();
+                region = allocateInBounds(width, height);
+            }
+            return region;
+        }
+
+        private void grow() {
+            size = Math.min(2 * size, PAGE_SIZE);
+            BufferedImage grown = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = grown.createGraphics();
+            try {
+                // Regions keep their position, hence the content can be copied as is.
+                g.drawImage(image, 0, 0, null);
+            } finally {
+                g.dispose();
+            }
+            image = grown;
+        }
+
+        private Region allocateInBounds(final int width, final int height) {
+            ArrayDeque<Region> free = freeRegions.get(new Dimension(width, height));
+            Region region = free != null ? free.poll() : null;
+            if (region == null) {
+                for (Shelf shelf : shelves) {
+                    if (shelf.fits(width, height, size)) {
+                        region = shelf.allocate(this, width, height);
+                        break;
+                    }
+                }
+            }
+            if (region == null && usedHeight + height <= size) {
+                Shelf shelf = new Shelf(usedHeight, height);
+                shelves.add(shelf);
+                usedHeight += height + GAP;
+                region = shelf.allocate(this, width, height);
+            }
+            if (region != null) regionCount++;
+            return region;
+        }
+
+        private void free(final Region region) {
+            regionCount--;
+            freeRegions.computeIfAbsent(new Dimension(region.width, region.height), d -> new ArrayDeque<>())
+                    .add(region);
+        }
+
+        private boolean isEmpty() {
+            return regionCount == 0;
+        }
+    }
+
+    private static final class Shelf {
+        private final int y;
+        private final int height;
+        private int usedWidth;
+
+        private Shelf(final int y, final int height) {
+            this.y = y;
+            this.height = height;
+        }
+
+        private boolean fits(final int width, final int height, final int pageSize) {
+            // Only use shelves of similar height to limit the wasted space.
+            return height <= this.height && 4 * height >= 3 * this.height && usedWidth + width <= pageSize;
+        }
+
+        private Region allocate(final Page page, final int width, final int height) {
+            Region region = new Region(page, usedWidth, y, width, height);
+            usedWidth += width + GAP;
+            return region;
+        }
+    }
+
+    private static final class ScaleKey {
+        private final long scaleX;
+        private final long scaleY;
+
+        private ScaleKey(final double scaleX, final double scaleY) {
+            this.scaleX = Math.round(scaleX * 1000);
+            this.scaleY = Math.round(scaleY * 1000);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ScaleKey scaleKey = (ScaleKey) o;
+            return scaleX == scaleKey.scaleX && scaleY == scaleKey.scaleY;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(scaleX) + Long.hashCode(scaleY);
+        }
+    }
+}
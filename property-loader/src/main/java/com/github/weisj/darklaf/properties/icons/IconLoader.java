@@ -25,9 +25,12 @@ import java.awt.*;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 import java.util.logging.Level;
@@ -41,6 +44,10 @@ import org.jetbrains.annotations.Nullable;
 
 import com.github.weisj.darklaf.util.LazyValue;
 import com.github.weisj.darklaf.util.LogUtil;
+import com.github.weisj.darklaf.util.PropertyUtil;
+import com.github.weisj.darklaf.util.cache.Cache;
+import com.github.weisj.darklaf.util.cache.CachePolicy;
+import com.github.weisj.darklaf.util.cache.CacheStatistics;
 import com.github.weisj.darklaf.util.cache.SoftCache;
 
 /**
@@ -50,6 +57,8 @@ import com.github.weisj.darklaf.util.cache.SoftCache;
  * @author Jannis Weis
  */
 public final class IconLoader implements IconResolver {
+    public static final String ICON_ATLAS_FLAG = "darklaf.iconAtlas";
+    public static final String ASYNC_RASTERIZATION_FLAG = "darklaf.asyncIconRasterization";
     private static final Logger LOGGER = LogUtil.getLogger(IconLoader.class);
     private static final Map<Class<?>, IconLoader> iconLoaderMap = new HashMap<>();
     private static final LazyValue<IconLoader> instance = new LazyValue<>(() -> get(null));
@@ -60,11 +69,17 @@ public final class IconLoader implements IconResolver {
     // Infer size by default.
     private static final int DEFAULT_WIDTH_SVG = -1;
     private static final int DEFAULT_HEIGHT_SVG = -1;
+    // Estimated memory used by an icon apart from its rasterized image.
+    private static final long ICON_BASE_SIZE = 1024;
+    private static CachePolicy defaultCachePolicy = CachePolicy.soft();
+    private static boolean iconAtlasEnabled = PropertyUtil.getSystemFlag(ICON_ATLAS_FLAG, false);
+    private static boolean asyncRasterizationEnabled = PropertyUtil.getSystemFlag(ASYNC_RASTERIZATION_FLAG, false);
     private final @Nullable Class<?> parentClass;
 
     private boolean cacheEnabled = true;
-    private final SoftCache<IconKey, DarkUIAwareIcon> awareIconCache = new SoftCache<>();
-    private final SoftCache<IconKey, CacheableIcon> iconCache = new SoftCache<>();
+    private CachePolicy cachePolicy;
+    private Cache<IconKey, DarkUIAwareIcon> awareIconCache;
+    private Cache<IconKey, CacheableIcon> iconCache;
 
     static {
         UIManager.addPropertyChangeListener(e -> {
@@ -81,7 +96,7 @@ public final class IconLoader implements IconResolver {
      *
      * @return the size of the cache.
      */
-    public int cacheSize() {
+    public synchronized int cacheSize() {
         return awareIconCache.size() + iconCache.size();
     }
 
@@ -90,13 +105,167 @@ public final class IconLoader implements IconResolver {
      *
      * @return true if the cache is empty.
      */
-    public boolean isCacheEmpty() {
+    public synchronized boolean isCacheEmpty() {
         return awareIconCache.isEmpty() && iconCache.isEmpty();
     }
 
     private IconLoader(final @Nullable Class<?> parentClass) {
         this.parentClass = parentClass;
-        iconLoaderMap.put(parentClass, this);
+        synchronized (iconLoaderMap) {
+            setCachePolicy(defaultCachePolicy);
+            iconLoaderMap.put(parentClass, this);
+        }
+    }
+
+    /**
+     * Sets the cache policy used by all icon loaders, including the ones already created. Caches of
+     * existing icon loaders are cleared.
+     *
+     * @param cachePolicy the cache policy.
+     * @see #setCachePolicy(CachePolicy)
+     */
+    public static void setDefaultCachePolicy(final @NotNull CachePolicy cachePolicy) {
+        List<IconLoader> loaders;
+        synchronized (iconLoaderMap) {
+            defaultCachePolicy = Objects.requireNonNull(cachePolicy);
+            loaders = new ArrayList<>(iconLoaderMap.values());
+        }
+        for (IconLoader loader : loaders) {
+            loader.setCachePolicy(cachePolicy);
+        }
+    }
+
+    /**
+     * Returns the cache policy used for newly created icon loaders. By default icons are held as soft
+     * references.
+     *
+     * @return the default cache policy.
+     */
+    public static @NotNull CachePolicy getDefaultCachePolicy() {
+        synchronized (iconLoaderMap) {
+            return defaultCachePolicy;
+        }
+    }
+
+    /**
+     * Sets the policy of the icon cache. The weight of an icon is the estimated memory it uses in bytes,
+     * which includes the size of its rasterized image. Changing the policy clears the cache.
+     *
+     * @param cachePolicy the cache policy.
+     * @see CachePolicy#leastRecentlyUsed(long, boolean)
+     */
+    public synchronized void setCachePolicy(final @NotNull CachePolicy cachePolicy) {
+        this.cachePolicy = Objects.requireNonNull(cachePolicy);
+        awareIconCache = cachePolicy.createCache(icon -> ICON_BASE_SIZE);
+        iconCache = cachePolicy.createCache(IconLoader::estimateIconSize);
+    }
+
+    public synchronized @NotNull CachePolicy getCachePolicy() {
+        return cachePolicy;
+    }
+
+    /**
+     * Returns the statistics of the icon cache. Looking up an icon may probe multiple caches, each of
+     * which is counted as a separate request.
+     *
+     * @return the cache statistics.
+     */
+    public synchronized @NotNull CacheStatistics getCacheStatistics() {
+        return CacheStatistics.combine(awareIconCache.getStatistics(), iconCache.getStatistics());
+    }
+
+    /**
+     * Sets whether svg icons should be rasterized into shared images. Small icons rasterized for the
+     * same display scale are packed into common pages instead of each one allocating its own image.
+     *
+     * @param enabled true if the icon atlas should be used.
+     * @see #ICON_ATLAS_FLAG
+     */
+    public static void setIconAtlasEnabled(final boolean enabled) {
+        iconAtlasEnabled = enabled;
+        if (!enabled) IconAtlas.getInstance().clear();
+    }
+
+    public static boolean isIconAtlasEnabled() {
+        return iconAtlasEnabled;
+    }
+
+    /**
+     * Sets whether svg icons should be parsed and rasterized in the background. Until an icon has been
+     * rasterized it is painted transparent. Once it is ready the area it was painted to is repainted.
+     * Icons painted in direct rendering mode or without a component are always rasterized immediately.
+     *
+     * @param enabled true if icons should be rasterized asynchronously.
+     * @see #ASYNC_RASTERIZATION_FLAG
+     */
+    public static void setAsyncRasterizationEnabled(final boolean enabled) {
+        asyncRasterizationEnabled = enabled;
+    }
+
+    public static boolean isAsyncRasterizationEnabled() {
+        return asyncRasterizationEnabled;
+    }
+
+    /**
+     * Patches the colors of all themed icons, which have already been loaded, for the current theme and
+     * rasterizes them again. Usually this happens lazily when the icons are painted for the first time
+     * after the theme has changed.
+     *
+     * @see #prepareThemedIconsInBackground()
+     */
+    public static void prepareThemedIcons() {
+        ThemedSVGIcon.prepareAll();
+    }
+
+    /**
+     * Runs {@link #prepareThemedIcons()} on a background thread. Icons painted in the meantime are
+     * prepared on demand as usual.
+     *
+     * @return a future which completes once all icons have been prepared.
+     */
+    public static @NotNull CompletableFuture<Void> prepareThemedIconsInBackground() {
+        return CompletableFuture.runAsync(ThemedSVGIcon::prepareAll, IconRasterizer.getExecutor());
+    }
+
+    /**
+     * Runs a task, which loads or paints icons, on the calling thread. This has to be used if icons are
+     * accessed from a different thread than the event dispatch thread, such that icons painted on the
+     * event dispatch thread in the meantime are synchronized with the task.
+     *
+     * @param task the task.
+     */
+    public static void runBackgroundIconTask(final Runnable task) {
+        IconRasterizer.runInBackground(task);
+    }
+
+    /**
+     * Releases the rasterized icons of display scales which aren't used by any screen anymore e.g. after
+     * a monitor has been disconnected. This also happens automatically once icons are rasterized for a
+     * new display scale.
+     */
+    public static void releaseUnusedIconAtlasScales() {
+        IconAtlas.getInstance().releaseUnusedScales();
+    }
+
+    private static long estimateIconSize(final CacheableIcon icon) {
+        // Aware icons load their icons through the icon cache, hence only images owned by the icon itself
+        // are accounted for.
+        Image image = null;
+        if (icon instanceof DarkSVGIcon) {
+            image = ((DarkSVGIcon) icon).getCachedImage();
+        } else if (icon instanceof DerivableImageIcon) {
+            image = ((DerivableImageIcon) icon).getCachedImage();
+        }
+        if (image == null) return ICON_BASE_SIZE;
+        // Images are assumed to use 4 bytes per pixel. Images which are still being produced will have the
+        // size of the icon.
+        long width = image.getWidth(null);
+        long height = image.getHeight(null);
+        if (width < 0 || height < 0) {
+            width = icon.getIconWidth();
+            height = icon.getIconHeight();
+        }
+        return ICON_BASE_SIZE + 4 * Math.max(0, width) * Math.max(0, height);
     }
 
     /**
@@ -114,11 +283,13 @@ public final class IconLoader implements IconResolver {
      * @return the default icon loader.
      */
     public static @NotNull IconLoader get(final @Nullable Class<?> parentClass) {
-        if (iconLoaderMap.containsKey(parentClass)) {
-            return iconLoaderMap.get(parentClass);
-        } else {
-            IconLoader loader = new IconLoader(parentClass);
-            iconLoaderMap.put(parentClass, loader);
+        // Icons may be loaded on a background thread while preloading a theme.
+        synchronized (iconLoaderMap) {
+            IconLoader loader = iconLoaderMap.get(parentClass);
+            if (loader == null) {
+                loader = new IconLoader(parentClass);
+                iconLoaderMap.put(parentClass, loader);
+            }
             return loader;
         }
     }
@@ -138,7 +309,7 @@ public final class IconLoader implements IconResolver {
     /**
      * Clears the icon cache.
      */
-    public void clearCache() {
+    public synchronized void clearCache() {
         awareIconCache.clear();
         iconCache.clear();
     }
@@ -220,13 +391,16 @@ public final class IconLoader implements IconResolver {
      */
     @Override
     public @NotNull DarkUIAwareIcon getUIAwareIcon(final @NotNull String path, final int w, final int h) {
-        IconKey key = new IconKey(path, w, h);
-        DarkUIAwareIcon icon;
-        if (!isCacheEnabled() || ((icon = awareIconCache.get(key)) == null)) {
-            icon = createUIAwareIcon(path, w, h);
-            cache(awareIconCache, key, icon);
+        // Icons may be resolved on a background thread e.g. by a theme preload.
+        synchronized (this) {
+            IconKey key = new IconKey(path, w, h);
+            DarkUIAwareIcon icon;
+            if (!isCacheEnabled() || ((icon = awareIconCache.get(key)) == null)) {
+                icon = createUIAwareIcon(path, w, h);
+                cache(awareIconCache, key, icon);
+            }
+            return icon;
         }
-        return icon;
     }
 
     /**
@@ -346,7 +520,7 @@ public final class IconLoader implements IconResolver {
         }
     }
 
-    private @Nullable CacheableIcon getWildcardIcon(final SoftCache<IconKey, CacheableIcon> iconMap,
+    private @Nullable CacheableIcon getWildcardIcon(final Cache<IconKey, CacheableIcon> iconMap,
             final IconKey iconKey, final int w, final int h) {
         iconKey.isWildcardEnabled = true;
         CacheableIcon icon = iconMap.get(iconKey);
@@ -361,7 +535,7 @@ public final class IconLoader implements IconResolver {
         return null;
     }
 
-    private <T extends CacheableIcon> void cache(final SoftCache<IconKey, T> iconMap, final IconKey key, final T icon) {
+    private <T extends CacheableIcon> void cache(final Cache<IconKey, T> iconMap, final IconKey key, final T icon) {
         if (cacheEnabled) {
             iconMap.put(key, icon);
         }
@@ -0,0 +1,152 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.properties.icons;
+
+import java.awt.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.*;
+
+import com.github.weisj.darklaf.util.LazyValue;
+
+/**
+ * Rasterizes svg icons in the background if {@link IconLoader#isAsyncRasterizationEnabled()} is set.
+ * <p>
+ * The svg documents of all icons are managed by a shared {@link com.kitfox.svg.SVGUniverse}, which
+ * isn't thread safe. Hence all access to it has to be guarded by {@link #LOCK} and icons are
+ * rasterized by a single worker thread.
+ * <p>
+ * Painting only takes the lock while background work is active, such that the event dispatch thread
+ * doesn't pay for the synchronization if icons are only ever used from the event dispatch thread.
+ */
+final class IconRasterizer {
+
+    static final Object LOCK = new Object();
+    private static final Object UNGUARDED_LOCK = new Object();
+
+    private static final AtomicInteger backgroundTasks = new AtomicInteger();
+    private static final AtomicInteger unguardedTasks = new AtomicInteger();
+
+    private static final LazyValue<ExecutorService> executor = new LazyValue<>(() -> Executors
+            .newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "Darklaf Icon Rasterizer");
+                thread.setDaemon(true);
+                return thread;
+            }));
+
+    private IconRasterizer() {}
+
+    static void submit(final Runnable task) {
+        getExecutor().execute(task);
+    }
+
+    static synchronized ExecutorService getExecutor() {
+        return executor.get();
+    }
+
+    /**
+     * Runs a task which accesses the svg documents. The task is only guarded by {@link #LOCK} if background
+     * work is active.
+     *
+     * @param task the task.
+     * @see #runInBackground(Runnable)
+     */
+    static void runGuarded(final Runnable task) {
+        if (backgroundTasks.get() == 0) {
+            unguardedTasks.incrementAndGet();
+            try {
+                // Background work may have started in the meantime.
+                if (backgroundTasks.get() == 0) {
+                    task.run();
+                    return;
+                }
+            } finally {
+                if (unguardedTasks.decrementAndGet() == 0 && backgroundTasks.get() > 0) {
+                    synchronized (UNGUARDED_LOCK) {
+                        UNGUARDED_LOCK.notifyAll();
+                    }
+                }
+            }
+        }
+        synchronized (LOCK) {
+            task.run();
+        }
+    }
+
+    /**
+     * Runs a task which accesses the svg documents from a different thread than the event dispatch
+     * thread. Tasks run through {@link #runGuarded(Runnable)} are guarded by {@link #LOCK} until the task
+     * has finished. The task itself is responsible for taking the lock.
+     * <p>
+     * Must not be called while holding {@link #LOCK}.
+     *
+     * @param task the task.
+     */
+    static void runInBackground(final Runnable task) {
+        backgroundTasks.incrementAndGet();
+        try {
+            awaitUnguardedTasks();
+            task.run();
+        } finally {
+            backgroundTasks.decrementAndGet();
+        }
+    }
+
+    /*
+     * Waits for unguarded tasks, which started before the background work, to finish.
+     */
+    private static void awaitUnguardedTasks() {
+        boolean interrupted = false;
+        synchronized (UNGUARDED_LOCK) {
+            while (unguardedTasks.get() > 0) {
+                try {
+                    UNGUARDED_LOCK.wait();
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Repaints the area an icon has been painted to. Icons painted by cell renderers can't be repainted
+     * through the renderer itself, in which case the component using the renderer is repainted.
+     *
+     * @param c the component the icon was painted on.
+     * @param x the x coordinate of the icon.
+     * @param y the y coordinate of the icon.
+     * @param width the width of the icon.
+     * @param height the height of the icon.
+     */
+    static void repaint(final Component c, final int x, final int y, final int width, final int height) {
+        Container parent = c.getParent();
+        if (parent instanceof CellRendererPane) {
+            Container owner = parent.getParent();
+            if (owner != null) owner.repaint();
+        } else {
+            c.repaint(x, y, width, height);
+        }
+    }
+}
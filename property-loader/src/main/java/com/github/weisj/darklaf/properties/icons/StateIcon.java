@@ -63,6 +63,16 @@ public class StateIcon implements Icon {
         this.selectedFocusedIcon = selectedFocusedIcon;
     }
 
+    /**
+     * Returns the icons in the same order as accepted by {@link #StateIcon(Icon[])}.
+     *
+     * @return the state icons.
+     */
+    public Icon[] getIcons() {
+        return new Icon[] {icon, disabledIcon, focusedIcon, selectedIcon, selectedDisabledIcon,
+                selectedFocusedIcon};
+    }
+
     @Override
     public void paintIcon(final Component c, final Graphics g, final int x, final int y) {
         getIcon(c).paintIcon(c, g, x, y);
@@ -22,10 +22,18 @@
 package com.github.weisj.darklaf.properties.icons;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.function.Supplier;
 
 import javax.swing.*;
 
+import com.kitfox.svg.SVGDiagram;
+import com.kitfox.svg.app.beans.SVGIcon;
 
 /**
  * An {@link DarkSVGIcon}, which will patch dynamic color values defined in the svg file.
@@ -34,23 +42,65 @@ import javax.swing.*;
  */
 public class ThemedSVGIcon extends DarkSVGIcon implements ThemedIcon {
 
+    private static final Set<ThemedSVGIcon> instances = Collections.newSetFromMap(new WeakHashMap<>());
+    /*
+     * Icons loaded from the same uri share their svg document. Hence it only has to be patched once for each
+     * theme. Guarded by IconRasterizer.LOCK.
+     */
+    private static final Map<SVGDiagram, PatchState> patchedDiagrams = new WeakHashMap<>();
+
     private Object currentTheme;
     private boolean updatedNotDuringPaint;
 
     public ThemedSVGIcon(final Supplier<URI> uriSupplier, final int displayWidth, final int displayHeight) {
         super(uriSupplier, displayWidth, displayHeight);
         currentTheme = new Object();
+        register(this);
     }
 
     public ThemedSVGIcon(final URI uri, final int displayWidth, final int displayHeight) {
         super(uri, displayWidth, displayHeight);
         currentTheme = new Object();
+        register(this);
     }
 
     protected ThemedSVGIcon(final int width, final int height, final ThemedSVGIcon icon) {
         super(width, height, icon);
         this.currentTheme = icon.currentTheme;
         this.updatedNotDuringPaint = icon.updatedNotDuringPaint;
+        register(this);
+    }
+
+    private static void register(final ThemedSVGIcon icon) {
+        synchronized (instances) {
+            instances.add(icon);
+        }
+    }
+
+    /**
+     * Patches the colors of all loaded themed icons for the current theme and rasterizes them again.
+     * Icons which haven't been loaded yet are left untouched.
+     */
+    static void prepareAll() {
+        List<ThemedSVGIcon> icons;
+        synchronized (instances) {
+            icons = new ArrayList<>(instances);
+        }
+        IconRasterizer.runInBackground(() -> {
+            for (ThemedSVGIcon icon : icons) {
+                icon.prepareForCurrentTheme();
+            }
+        });
+    }
+
+    private void prepareForCurrentTheme() {
+        synchronized (IconRasterizer.LOCK) {
+            if (!isSVGLoaded()) return;
+            if (ensureTheme(false)) {
+                updateImage();
+                updatedNotDuringPaint = false;
+            }
+        }
     }
 
     @Override
@@ -108,6 +158,25 @@ public class ThemedSVGIcon extends DarkSVGIcon implements ThemedIcon {
     }
 
     protected void patchColors() {
-        IconColorMapper.patchColors(getSVGIcon(), getContextDefaults());
+        SVGIcon svgIcon = getSVGIcon();
+        UIDefaults contextDefaults = getContextDefaults();
+        Object theme = IconLoader.getThemeStatus();
+        synchronized (IconRasterizer.LOCK) {
+            SVGDiagram diagram = svgIcon.getSvgUniverse().getDiagram(svgIcon.getSvgURI());
+            PatchState state = diagram != null ? patchedDiagrams.get(diagram) : null;
+            if (state != null && state.theme == theme && state.contextDefaults == contextDefaults) return;
+            IconColorMapper.patchColors(svgIcon, contextDefaults);
+            if (diagram != null) patchedDiagrams.put(diagram, new PatchState(theme, contextDefaults));
+        }
+    }
+
+    private static final class PatchState {
+        private final Object theme;
+        private final UIDefaults contextDefaults;
+
+        private PatchState(final Object theme, final UIDefaults contextDefaults) {
+            this.theme = theme;
+            this.contextDefaults = contextDefaults;
+        }
     }
 }
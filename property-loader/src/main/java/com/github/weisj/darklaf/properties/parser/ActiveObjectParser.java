@@ -31,8 +31,27 @@ public class ActiveObjectParser extends KeyFilteredParser {
 
     @Override
     public ParseResult doParse(final ParseResult parseResult, final ParserContext context) {
-        return ParserUtil.setNonNull(parseResult,
-                (UIDefaults.ActiveValue) (def) -> ParserUtil.createObject(parseResult.value));
+        return ParserUtil.setNonNull(parseResult, new ActiveObject(parseResult.value));
     }
 
+    /**
+     * Object which is created each time it is requested. The class name is retained so the value can
+     * be reconstructed without parsing the property again.
+     */
+    public static final class ActiveObject implements UIDefaults.ActiveValue {
+        private final String className;
+
+        public ActiveObject(final String className) {
+            this.className = className;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        @Override
+        public Object createValue(final UIDefaults table) {
+            return ParserUtil.createObject(className);
+        }
+    }
 }
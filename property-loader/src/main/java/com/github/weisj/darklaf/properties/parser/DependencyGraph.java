@@ -0,0 +1,208 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.properties.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import com.github.weisj.darklaf.util.LogUtil;
+
+/**
+ * Graph of the references between properties. Properties are evaluated after all properties they
+ * reference, hence references can be resolved independent of the order the properties are declared
+ * in.
+ * <p>
+ * References to keys which aren't defined by the properties of the graph are resolved against the
+ * {@link ParserContext} as usual. Properties referencing each other cyclically are evaluated in their
+ * original order.
+ * <p>
+ * Evaluation is sequential, even for independent parts of the graph. Results are written to the
+ * accumulator and the current defaults, neither of which is thread safe, and evaluating a single
+ * property is too cheap to outweigh handing work to other threads.
+ */
+public final class DependencyGraph {
+
+    private static final Logger LOGGER = LogUtil.getLogger(DependencyGraph.class);
+
+    // Properties in evaluation order.
+    private final String[] keys;
+    private final String[] values;
+    private final ValueNode[] nodes;
+    private final Map<String, Integer> indices;
+    // Indices of the properties referencing a key.
+    private final Map<String, int[]> referencedBy;
+    private final Set<String> cyclicKeys;
+
+    /**
+     * Creates the dependency graph of the given properties.
+     *
+     * @param properties the properties.
+     * @param keys the keys of the properties to include in the graph.
+     */
+    public DependencyGraph(final Map<Object, Object> properties, final Collection<String> keys) {
+        int count = keys.size();
+        String[] propertyKeys = keys.toArray(new String[0]);
+        String[] propertyValues = new String[count];
+        ValueNode[] propertyNodes = new ValueNode[count];
+        Map<String, Integer> definitions = new HashMap<>(2 * count);
+        for (int i = 0; i < count; i++) {
+            propertyValues[i] = properties.get(propertyKeys[i]).toString();
+            propertyNodes[i] = new ValueNodeBuilder(propertyValues[i]).build(propertyKeys[i]);
+            definitions.put(ValueNodeBuilder.stripReferencePrefix(propertyKeys[i]), i);
+        }
+
+        Map<String, List<Integer>> references = new HashMap<>();
+        int[] dependencyCount = new int[count];
+        Set<String> referencedKeys = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            referencedKeys.clear();
+            propertyNodes[i].collectReferences(referencedKeys);
+            for (String referencedKey : referencedKeys) {
+                Integer definition = definitions.get(referencedKey);
+                // References to the property itself refer to its previous value.
+                if (definition != null && definition == i) continue;
+                references.computeIfAbsent(referencedKey, k -> new ArrayList<>()).add(i);
+                if (definition != null) dependencyCount[i]++;
+            }
+        }
+
+        int[] order = new int[count];
+        int evaluated = 0;
+        for (int i = 0; i < count; i++) {
+            if (dependencyCount[i] == 0) order[evaluated++] = i;
+        }
+        for (int next = 0; next < evaluated; next++) {
+            String key = ValueNodeBuilder.stripReferencePrefix(propertyKeys[order[next]]);
+            // Only the last property defining a key is referenced.
+            if (definitions.get(key) != order[next]) continue;
+            List<Integer> dependents = references.get(key);
+            if (dependents == null) continue;
+            for (int dependent : dependents) {
+                if (--dependencyCount[dependent] == 0) order[evaluated++] = dependent;
+            }
+        }
+        if (evaluated < count) {
+            Set<String> cyclic = new LinkedHashSet<>();
+            for (int i = 0; i < count; i++) {
+                if (dependencyCount[i] > 0) {
+                    order[evaluated++] = i;
+                    cyclic.add(propertyKeys[i]);
+                }
+            }
+            LOGGER.warning("Properties " + cyclic + " are part of or depend on cyclic references.");
+            cyclicKeys = Collections.unmodifiableSet(cyclic);
+        } else {
+            cyclicKeys = Collections.emptySet();
+        }
+
+        int[] position = new int[count];
+        this.keys = new String[count];
+        this.values = new String[count];
+        this.nodes = new ValueNode[count];
+        this.indices = new HashMap<>(2 * count);
+        for (int i = 0; i < count; i++) {
+            int index = order[i];
+            position[index] = i;
+            this.keys[i] = propertyKeys[index];
+            this.values[i] = propertyValues[index];
+            this.nodes[i] = propertyNodes[index];
+            this.indices.put(propertyKeys[index], i);
+        }
+        this.referencedBy = new HashMap<>(2 * references.size());
+        for (Map.Entry<String, List<Integer>> entry : references.entrySet()) {
+            List<Integer> dependents = entry.getValue();
+            int[] dependentPositions = new int[dependents.size()];
+            for (int i = 0; i < dependentPositions.length; i++) {
+                dependentPositions[i] = position[dependents.get(i)];
+            }
+            referencedBy.put(entry.getKey(), dependentPositions);
+        }
+    }
+
+    /**
+     * Returns the keys of the properties in the order they should be evaluated.
+     *
+     * @return the keys in evaluation order.
+     */
+    public List<String> getEvaluationOrder() {
+        return Collections.unmodifiableList(Arrays.asList(keys));
+    }
+
+    /**
+     * Returns the keys of the properties which couldn't be ordered because they are part of a cycle of
+     * references or depend on one.
+     *
+     * @return the keys of the cyclic properties.
+     */
+    public Set<String> getCyclicKeys() {
+        return cyclicKeys;
+    }
+
+    /**
+     * Returns the keys of all properties which directly or indirectly reference any of the given keys,
+     * in evaluation order. These are the properties which need to be evaluated again if the values of the
+     * given keys change.
+     *
+     * @param changedKeys the keys which changed.
+     * @return the keys of the affected properties in evaluation order.
+     */
+    public List<String> getAffectedKeys(final Collection<String> changedKeys) {
+        boolean[] affected = new boolean[keys.length];
+        List<String> pending = new ArrayList<>(changedKeys);
+        while (!pending.isEmpty()) {
+            int[] dependents = referencedBy.get(pending.remove(pending.size() - 1));
+            if (dependents == null) continue;
+            for (int dependent : dependents) {
+                if (affected[dependent]) continue;
+                affected[dependent] = true;
+                pending.add(ValueNodeBuilder.stripReferencePrefix(keys[dependent]));
+            }
+        }
+        List<String> affectedKeys = new ArrayList<>();
+        for (int i = 0; i < keys.length; i++) {
+            if (affected[i]) affectedKeys.add(keys[i]);
+        }
+        return affectedKeys;
+    }
+
+    /**
+     * Parses the property with the given key.
+     *
+     * @param key the key of the property.
+     * @param parser the parser to use.
+     * @return the parse result.
+     */
+    public ParseResult parse(final String key, final SinglePassParser parser) {
+        Integer index = indices.get(key);
+        if (index == null) throw new IllegalArgumentException("Property '" + key + "' isn't part of the graph");
+        return parser.parse(Parser.createParseResult(key, values[index]), nodes[index]);
+    }
+}
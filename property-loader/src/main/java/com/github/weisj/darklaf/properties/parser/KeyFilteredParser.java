@@ -21,8 +21,6 @@
  */
 package com.github.weisj.darklaf.properties.parser;
 
-import java.util.Arrays;
-
 public abstract class KeyFilteredParser implements PropertyParser {
 
     private final String[] suffixes;
@@ -33,6 +31,13 @@ public abstract class KeyFilteredParser implements PropertyParser {
 
     @Override
     public boolean filter(final ParseResult parseResult, final ParserContext context) {
-        return Arrays.stream(suffixes).anyMatch(it -> parseResult.key.endsWith(it));
+        return matches(parseResult.key);
+    }
+
+    boolean matches(final String key) {
+        for (String suffix : suffixes) {
+            if (key.endsWith(suffix)) return true;
+        }
+        return false;
     }
 }
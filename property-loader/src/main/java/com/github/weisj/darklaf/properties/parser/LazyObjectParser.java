@@ -31,7 +31,27 @@ public class LazyObjectParser extends KeyFilteredParser {
 
     @Override
     public ParseResult doParse(final ParseResult parseResult, final ParserContext context) {
-        return ParserUtil.setNonNull(parseResult,
-                (UIDefaults.LazyValue) def -> ParserUtil.createObject(parseResult.value));
+        return ParserUtil.setNonNull(parseResult, new LazyObject(parseResult.value));
+    }
+
+    /**
+     * Lazily created object. The class name is retained so the value can be reconstructed without
+     * parsing the property again.
+     */
+    public static final class LazyObject implements UIDefaults.LazyValue {
+        private final String className;
+
+        public LazyObject(final String className) {
+            this.className = className;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        @Override
+        public Object createValue(final UIDefaults table) {
+            return ParserUtil.createObject(className);
+        }
     }
 }
@@ -24,10 +24,12 @@ package com.github.weisj.darklaf.properties.parser;
 import java.util.Arrays;
 import java.util.List;
 
+import com.github.weisj.darklaf.util.PropertyUtil;
 
 public final class Parser {
 
     public static final Object EMPTY_VALUE = new Object();
+    public static final String SINGLE_PASS_FLAG = "darklaf.singlePassParser";
 
     private static final List<PropertyParser> steps = Arrays.asList(
             new NullParser(),
@@ -44,6 +46,7 @@ public final class Parser {
             new MapParser());
 
     private static boolean debugMode;
+    private static boolean singlePassMode = PropertyUtil.getSystemFlag(SINGLE_PASS_FLAG, false);
 
     public static void setDebugMode(final boolean debugMode) {
         Parser.debugMode = debugMode;
@@ -53,6 +56,20 @@ public final class Parser {
         return debugMode;
     }
 
+    /**
+     * Sets whether properties should be parsed using the {@link SinglePassParser}. Debug mode always uses
+     * the step-wise parser.
+     *
+     * @param singlePassMode true if the single pass parser should be used.
+     */
+    public static void setSinglePassMode(final boolean singlePassMode) {
+        Parser.singlePassMode = singlePassMode;
+    }
+
+    public static boolean isSinglePassMode() {
+        return singlePassMode && !debugMode;
+    }
+
     public static ParseResult parse(final ParseResult parseResult, final ParserContext context) {
         ParseResult p = parseResult;
         String savedValue = parseResult.value;
@@ -0,0 +1,63 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.properties.parser;
+
+/**
+ * Parser producing the same results as {@link Parser#parse(ParseResult, ParserContext)}. Instead of
+ * passing the value through all parsing steps, each of them creating intermediate strings, the value
+ * is tokenized once into a syntax tree which then gets evaluated against the {@link ParserContext}.
+ *
+ * @see Parser#setSinglePassMode(boolean)
+ */
+public final class SinglePassParser {
+
+    private final ParserContext context;
+
+    public SinglePassParser(final ParserContext context) {
+        this.context = context;
+    }
+
+    public ParseResult parse(final ParseResult parseResult) {
+        return parse(parseResult, new ValueNodeBuilder(parseResult.value).build(parseResult.key));
+    }
+
+    ParseResult parse(final ParseResult parseResult, final ValueNode value) {
+        ValueNode node = value;
+        // The key only gets stripped of its reference prefix if the value isn't resolved by a fallback.
+        while (node instanceof ValueNode.FallbackNode) {
+            ValueNode.FallbackNode fallbackNode = (ValueNode.FallbackNode) node;
+            Object obj = ValueNode.lookup(fallbackNode.key, context);
+            if (obj != null) {
+                parseResult.result = obj;
+                parseResult.finished = true;
+                return parseResult;
+            }
+            node = fallbackNode.fallback;
+        }
+        if (node != ValueNode.NullNode.INSTANCE) {
+            parseResult.key = ValueNodeBuilder.stripReferencePrefix(parseResult.key);
+        }
+        parseResult.result = node.evaluate(context);
+        parseResult.finished = true;
+        return parseResult;
+    }
+}
@@ -0,0 +1,543 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.properties.parser;
+
+import java.awt.Font;
+import java.text.AttributedCharacterIterator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import javax.swing.Icon;
+import javax.swing.plaf.DimensionUIResource;
+import javax.swing.plaf.InsetsUIResource;
+
+import com.github.weisj.darklaf.properties.icons.EmptyIcon;
+import com.github.weisj.darklaf.properties.icons.StateIcon;
+import com.github.weisj.darklaf.properties.icons.UIAwareIcon;
+import com.github.weisj.darklaf.properties.uiresource.DarkFontUIResource;
+import com.github.weisj.darklaf.util.FontUtil;
+import com.github.weisj.darklaf.util.LogUtil;
+import com.github.weisj.darklaf.util.Pair;
+import com.github.weisj.darklaf.util.Types;
+
+/**
+ * Node of the syntax tree produced by the {@link SinglePassParser}. Evaluating a node yields the same
+ * value the corresponding steps of {@link Parser} would produce.
+ */
+abstract class ValueNode {
+
+    private static final Logger LOGGER = LogUtil.getLogger(ValueNode.class);
+    private static final Map<AttributedCharacterIterator.Attribute, Integer> attributes = Collections.emptyMap();
+
+    abstract Object evaluate(final ParserContext context);
+
+    /*
+     * Adds the keys of all properties referenced by this node.
+     */
+    void collectReferences(final Collection<String> references) {}
+
+    static void collectReferences(final ValueNode[] nodes, final Collection<String> references) {
+        for (ValueNode node : nodes) {
+            node.collectReferences(references);
+        }
+    }
+
+    static void warning(final String message) {
+        LOGGER.warning(message);
+    }
+
+    static void error(final String key, final String value, final String message) {
+        LOGGER.severe("Error while parsing '" + key + "' = '" + value + "'. " + message);
+    }
+
+    static Object lookup(final String key, final ParserContext context) {
+        Object obj = unwrap(context.accumulator.get(key));
+        if (obj == null) obj = unwrap(context.defaults.get(key));
+        return obj;
+    }
+
+    private static Object unwrap(final Object value) {
+        Object obj = value;
+        while (obj instanceof ParseResult) {
+            obj = ((ParseResult) obj).result;
+        }
+        return obj;
+    }
+
+    static <T> T cast(final Object value, final Class<T> type, final ValueNode parent) {
+        T casted = Types.safeCast(value, type);
+        if (casted == null) {
+            LOGGER.warning("Value " + value + " is not of type " + type + ". Encountered while parsing " + parent);
+        }
+        return casted;
+    }
+
+    static <T> List<T> evaluateAll(final ValueNode[] nodes, final Class<T> type, final ValueNode parent,
+            final ParserContext context) {
+        List<T> values = new ArrayList<>(nodes.length);
+        for (ValueNode node : nodes) {
+            T value = cast(node.evaluate(context), type, parent);
+            if (value != null) values.add(value);
+        }
+        return values;
+    }
+
+    /**
+     * Node which keeps track of the property it originates from for diagnostic messages.
+     */
+    abstract static class SourceNode extends ValueNode {
+        final String key;
+        final String value;
+
+        SourceNode(final String key, final String value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        void error(final String message) {
+            error(key, value, message);
+        }
+
+        @Override
+        public String toString() {
+            return "'" + key + "' = '" + value + "'";
+        }
+    }
+
+    static final class NullNode extends ValueNode {
+        static final NullNode INSTANCE = new NullNode();
+
+        @Override
+        Object evaluate(final ParserContext context) {
+            return null;
+        }
+    }
+
+    static final class ConstantNode extends ValueNode {
+        final Object constant;
+
+        ConstantNode(final Object constant) {
+            this.constant = constant;
+        }
+
+        @Override
+        Object evaluate(final ParserContext context) {
+            return constant;
+        }
+    }
+
+    /*
+     * Value which couldn't be interpreted otherwise. Any unresolved references will be reported if
+     * evaluation ends up here.
+     */
+    static final class TextNode extends ValueNode {
+        final String text;
+
+        TextNode(final String text) {
+            this.text = text;
+        }
+
+        @Override
+        Object evaluate(final ParserContext context) {
+            return text;
+        }
+    }
+
+    static final class ErrorNode extends SourceNode {
+        private final String message;
+
+        ErrorNode(final String key, final String value, final String message) {
+            super(key, value);
+            this.message = message;
+        }
+
+        @Override
+        Object evaluate(final ParserContext context) {
+            error(message);
+            return null;
+        }
+    }
+
+    static final class FallbackNode extends ValueNode {
+        final String key;
+        final ValueNode fallback;
+
+        FallbackNode(final String key, final ValueNode fallback) {
+            this.key = key;
+            this.fallback = fallback;
+        }
+
+        @Override
+        Object evaluate(final ParserContext context) {
+            Object obj = lookup(key, context);
+            return obj != null ? obj : fallback.evaluate(context);
+        }
+
+        @Override
+        void collectReferences(final Collection<String> references) {
+            fallback.collectReferences(references);
+        }
+    }
+
+    static final class ReferenceNode extends ValueNode {
+        final String referenceKey;
+        final String key;
+        private final ValueNodeBuilder builder;
+        private final int from;
+        private final int to;
+        private ValueNode unresolved;
+
+        ReferenceNode(final String referenceKey, final String key, final ValueNodeBuilder builder, final int from,
+                final int to) {
+            this.referenceKey = referenceKey;
+            this.key = key;
+            this.builder = builder;
+            this.from = from;
+            this.to = to;
+        }
+
+        /*
+         * Most references can be resolved. Hence the interpretation of the value as is only gets built
+         * if it is actually needed.
+         */
+        ValueNode getUnresolved() {
+            if (unresolved == null) unresolved = builder.parseTyped(key, from, to);
+            return unresolved;
+        }
+
+        @Override
+        Object evaluate(final ParserContext context) {
+            Object obj = lookup(referenceKey, context);
+            if (obj != null) return obj;
+            ValueNode unresolved = getUnresolved();
+            if (unresolved instanceof TextNode) {
+                ParserUtil.warning("Could not reference value '" + referenceKey + "' while loading '" + key + "'. "
+                        + "Maybe it's a forward reference.");
+            }
+            return unresolved.evaluate(context);
+        }
+
+        @Override
+        void collectReferences(final Collection<String> references) {
+            references.add(referenceKey);
+            getUnresolved().collectReferences(references);
+        }
+    }
+
+    static final class InsetsNode extends SourceNode {
+        final ValueNode[] values;
+
+        InsetsNode(final String key, final String value, final ValueNode[] values) {
+            super(key, value);
+            this.values = values;
+        }
+
+        @Override
+        Object evaluate(final ParserContext context) {
+            List<Integer> insets = evaluateAll(values, Integer.class, this, context);
+            if (insets.size() != 4) {
+                error("Expected 4 arguments but got " + insets.size());
+                return null;
+            }
+            return new InsetsUIResource(insets.get(0), insets.get(1), insets.get(2), insets.get(3));
+        }
+
+        @Override
+        void collectReferences(final Collection<String> references) {
+            collectReferences(values, references);
+        }
+    }
+
+    static final class DimensionNode extends SourceNode {
+        final ValueNode[] values;
+
+        DimensionNode(final String key, final String value, final ValueNode[] values) {
+            super(key, value);
+            this.values = values;
+        }
+
+        @Override
+        Object evaluate(final ParserContext context) {
+            List<Integer> dimensions = evaluateAll(values, Integer.class, this, context);
+            if (dimensions.size() != 2) {
+                error("Invalid dimension.");
+                return null;
+            }
+            return new DimensionUIResource(dimensions.get(0), dimensions.get(1));
+        }
+
+        @Override
+        void collectReferences(final Collection<String> references) {
+            collectReferences(values, references);
+        }
+    }
+
+    static final class LazyNode extends ValueNode {
+        final String className;
+
+        LazyNode(final String className) {
+            this.className = className;
+        }
+
+        @Override
+        Object evaluate(final ParserContext context) {
+            return new LazyObjectParser.LazyObject(className);
+        }
+    }
+
+    static final class ActiveNode extends ValueNode {
+        final String className;
+
+        ActiveNode(final String className) {
+            this.className = className;
+        }
+
+        @Override
+        Object evaluate(final ParserContext context) {
+            return new ActiveObjectParser.ActiveObject(className);
+        }
+    }
+
+    static final class BaseFontNode extends SourceNode {
+        final ValueNode[] parts;
+
+        BaseFontNode(final String key, final String value, final ValueNode[] parts) {
+            super(key, value);
+            this.parts = parts;
+        }
+
+        @Override
+        Object evaluate(final ParserContext context) {
+            List<Object> values = evaluateAll(parts, Object.class, this, context);
+            if (values.size() != 3 || !(values.get(0) instanceof String)
+                    || !(values.get(1) instanceof Integer) || !(values.get(2) instanceof Integer)) {
+                error("Expected structure FontName-FontStyle-FontStyle");
+                return null;
+            }
+            return FontUtil.createFont((String) values.get(0), (Integer) values.get(1), (Integer) values.get(2));
+        }
+
+        @Override
+        void collectReferences(final Collection<String> references) {
+            collectReferences(parts, references);
+        }
+    }
+
+    static final class FontNode extends SourceNode {
+        static final byte BASE = 0;
+        static final byte STYLE = 1;
+        static final byte SIZE = 2;
+
+        final byte[] operations;
+        final ValueNode[][] arguments;
+
+        FontNode(final String key, final String value, final byte[] operations, final ValueNode[][] arguments) {
+            super(key, value);
+            this.operations = operations;
+            this.arguments = arguments;
+        }
+
+        @Override
+        Object evaluate(final ParserContext context) {
+            Font base = null;
+            int size = -1;
+            int style = -1;
+            for (int i = 0; i < operations.length; i++) {
+                switch (operations[i]) {
+                    case BASE:
+                        if (base != null) ParserUtil.warning("Duplicate Base font declared in " + this);
+                        Font font = cast(arguments[i][0].evaluate(context), Font.class, this);
+                        if (font != null) base = font;
+                        break;
+                    case STYLE:
+                        if (style >= 0) ParserUtil.warning("Duplicate font style declared in " + this);
+                        Integer fontStyle = cast(arguments[i][0].evaluate(context), Integer.class, this);
+                        if (fontStyle != null) style = fontStyle;
+                        break;
+                    case SIZE:
+                        if (size >= 0) ParserUtil.warning("Duplicate font size declared in " + this);
+                        List<Integer> sizes = evaluateAll(arguments[i], Integer.class, this, context);
+                        if (!sizes.isEmpty()) {
+                            size = 0;
+                            for (int s : sizes) {
+                                size += s;
+                            }
+                        }
+                        break;
+                    default:
+                        throw new IllegalStateException("Unknown font operation " + operations[i]);
+                }
+            }
+            if (base == null) base = FontUtil.createFont(null, Font.PLAIN, 12);
+            if (size <= 0) size = base.getSize();
+            if (style < 0) style = base.getStyle();
+
+            // noinspection MagicConstant
+            Font font = base.deriveFont(style, size);
+            return new DarkFontUIResource(font.deriveFont(attributes));
+        }
+
+        @Override
+        void collectReferences(final Collection<String> references) {
+            for (ValueNode[] args : arguments) {
+                collectReferences(args, references);
+            }
+        }
+    }
+
+    static final class IconNode extends ValueNode {
+        static final byte PLAIN = 0;
+        static final byte THEMED = 1;
+        static final byte AWARE = 2;
+        static final byte DUAL = 3;
+        static final byte EMPTY = 4;
+
+        final String path;
+        final int width;
+        final int height;
+        final byte mode;
+
+        IconNode(final String path, final int width, final int height, final byte mode) {
+            this.path = path;
+            this.width = width;
+            this.height = height;
+            this.mode = mode;
+        }
+
+        @Override
+        Object evaluate(final ParserContext context) {
+            switch (mode) {
+                case EMPTY:
+                    return EmptyIcon.create(width, height);
+                case THEMED:
+                    return context.iconResolver.getIcon(path, width, height, true);
+                case AWARE:
+                    return context.iconResolver.getUIAwareIcon(path, width, height);
+                case DUAL:
+                    UIAwareIcon awareIcon = context.iconResolver.getUIAwareIcon(path, width, height);
+                    return awareIcon.getDual();
+                case PLAIN:
+                default:
+                    return context.iconResolver.getIcon(path, width, height);
+            }
+        }
+    }
+
+    static final class StateIconNode extends SourceNode {
+        final ValueNode[] icons;
+
+        StateIconNode(final String key, final String value, final ValueNode[] icons) {
+            super(key, value);
+            this.icons = icons;
+        }
+
+        @Override
+        Object evaluate(final ParserContext context) {
+            return new StateIcon(evaluateAll(icons, Icon.class, this, context));
+        }
+
+        @Override
+        void collectReferences(final Collection<String> references) {
+            collectReferences(icons, references);
+        }
+    }
+
+    static final class ListNode extends SourceNode {
+        final ValueNode[] elements;
+
+        ListNode(final String key, final String value, final ValueNode[] elements) {
+            super(key, value);
+            this.elements = elements;
+        }
+
+        @Override
+        Object evaluate(final ParserContext context) {
+            return evaluateAll(elements, Object.class, this, context);
+        }
+
+        @Override
+        void collectReferences(final Collection<String> references) {
+            collectReferences(elements, references);
+        }
+    }
+
+    static final class MapNode extends SourceNode {
+        final ValueNode[] entries;
+
+        MapNode(final String key, final String value, final ValueNode[] entries) {
+            super(key, value);
+            this.entries = entries;
+        }
+
+        @Override
+        Object evaluate(final ParserContext context) {
+            Map<Object, Object> map = new HashMap<>();
+            for (Pair<?, ?> entry : evaluateAll(entries, Pair.class, this, context)) {
+                if (map.containsKey(entry.getFirst())) {
+                    throw new IllegalStateException("Duplicate key " + entry.getFirst() + " in " + this);
+                }
+                map.put(entry.getFirst(), entry.getSecond());
+            }
+            return map;
+        }
+
+        @Override
+        void collectReferences(final Collection<String> references) {
+            collectReferences(entries, references);
+        }
+    }
+
+    /*
+     * Entry of a map. If the entry doesn't have a value the components only consist of the key.
+     */
+    static final class MapEntryNode extends SourceNode {
+        final ValueNode[] components;
+        final boolean hasValue;
+
+        MapEntryNode(final String key, final String value, final ValueNode[] components, final boolean hasValue) {
+            super(key, value);
+            this.components = components;
+            this.hasValue = hasValue;
+        }
+
+        @Override
+        Object evaluate(final ParserContext context) {
+            if (!hasValue) return new Pair<>(components[0].evaluate(context), Parser.EMPTY_VALUE);
+            List<Object> values = evaluateAll(components, Object.class, this, context);
+            if (values.size() != 2) {
+                error("Expected 2 components");
+                return null;
+            }
+            return new Pair<>(values.get(0), values.get(1));
+        }
+
+        @Override
+        void collectReferences(final Collection<String> references) {
+            collectReferences(components, references);
+        }
+    }
+}
@@ -0,0 +1,397 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.properties.parser;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.github.weisj.darklaf.properties.uiresource.DarkColorUIResource;
+import com.github.weisj.darklaf.util.ColorUtil;
+import com.github.weisj.darklaf.util.PropertyValue;
+
+/**
+ * Builds the syntax tree of a single property value. Sub-values are addressed by their index range
+ * inside the value, hence no intermediate strings are created while tokenizing.
+ * <p>
+ * The structure mirrors the steps of {@link Parser}: Sub-values are interpreted using the same key
+ * as the value containing them.
+ */
+final class ValueNodeBuilder implements Delimiters {
+
+    private static final char EMPTY_CHAR = Character.MIN_VALUE;
+    private static final String FALLBACK_PREFIX = "?:";
+    private static final char REFERENCE_PREFIX = '%';
+
+    private static final String BASE_FONT = "font";
+    private static final String FONT_FROM = "from";
+    private static final String FONT_SIZE = "withSize";
+    private static final String FONT_STYLE = "withStyle";
+    private static final char FONT_DELIMITER = '-';
+
+    private static final char MODIFIER_START = '[';
+    private static final char MODIFIER_END = ']';
+    private static final String DUAL_KEY = "dual";
+    private static final String AWARE_KEY = "aware";
+    private static final String THEMED_KEY = "themed";
+    private static final String ICON_EMPTY = "empty";
+
+    private static final KeyFilteredParser insetParser = new InsetParser();
+    private static final KeyFilteredParser lazyObjectParser = new LazyObjectParser();
+    private static final KeyFilteredParser activeObjectParser = new ActiveObjectParser();
+    private static final KeyFilteredParser fontParser = new FontParser();
+    private static final KeyFilteredParser iconParser = new IconParser();
+    private static final KeyFilteredParser dimensionParser = new DimensionParser();
+
+    private final String value;
+    // End of the region consumed by the last delimited parse.
+    private int position;
+
+    ValueNodeBuilder(final String value) {
+        this.value = value != null ? value : "";
+    }
+
+    ValueNode build(final String key) {
+        return parseValue(key != null ? key : "", 0, value.length());
+    }
+
+    static String stripReferencePrefix(final String key) {
+        return key.length() > 0 && key.charAt(0) == REFERENCE_PREFIX ? key.substring(1) : key;
+    }
+
+    private ValueNode parseValue(final String key, final int from, final int to) {
+        if (to - from == PropertyValue.NULL.length() && value.startsWith(PropertyValue.NULL, from)) {
+            return ValueNode.NullNode.INSTANCE;
+        }
+        if (startsWith(FALLBACK_PREFIX, from, to)) {
+            return new ValueNode.FallbackNode(key, parseValue(key, from + FALLBACK_PREFIX.length(), to));
+        }
+        String strippedKey = stripReferencePrefix(key);
+        if (startsWith(REFERENCE_PREFIX, from, to)) {
+            return new ValueNode.ReferenceNode(value.substring(from + 1, to), strippedKey, this, from, to);
+        }
+        return parseTyped(strippedKey, from, to);
+    }
+
+    ValueNode parseTyped(final String key, final int from, final int to) {
+        if (startsWith(PrimitiveParser.COLOR_PREFIX, from, to)) {
+            Color c = ColorUtil.fromHex(value.substring(from, to), null, true);
+            if (c != null) return new ValueNode.ConstantNode(new DarkColorUIResource(c));
+        }
+        if (startsWith(PrimitiveParser.STRING_DELIMITER, from, to)) {
+            int end = nextDelimiter(from + 1, to, EMPTY_CHAR, PrimitiveParser.STRING_DELIMITER);
+            return new ValueNode.ConstantNode(value.substring(from + 1, end));
+        }
+        Integer integer = parseInteger(from, to);
+        if (integer != null) return new ValueNode.ConstantNode(integer);
+        if (regionEqualsIgnoreCase(PropertyValue.TRUE, from, to)) return new ValueNode.ConstantNode(Boolean.TRUE);
+        if (regionEqualsIgnoreCase(PropertyValue.FALSE, from, to)) return new ValueNode.ConstantNode(Boolean.FALSE);
+
+        if (insetParser.matches(key)) {
+            return new ValueNode.InsetsNode(key, value, parseArguments(key, from, to));
+        } else if (lazyObjectParser.matches(key)) {
+            return new ValueNode.LazyNode(value.substring(from, to));
+        } else if (activeObjectParser.matches(key)) {
+            return new ValueNode.ActiveNode(value.substring(from, to));
+        } else if (fontParser.matches(key)) {
+            return parseFont(key, from, to);
+        } else if (iconParser.matches(key)) {
+            return parseIcon(key, from, to);
+        } else if (dimensionParser.matches(key)) {
+            return new ValueNode.DimensionNode(key, value, parseArguments(key, from, to));
+        }
+
+        if (startsWith(LIST_START, from, to)) {
+            return new ValueNode.ListNode(key, value, parseDelimited(key, from + 1, to, LIST_SEPARATOR, LIST_END));
+        }
+        if (startsWith(MAP_START, from, to) && endsWith(MAP_END, from, to)) {
+            return new ValueNode.MapNode(key, value, parseMapEntries(key, from + 1, to));
+        }
+        return new ValueNode.TextNode(value.substring(from, to));
+    }
+
+    private ValueNode[] parseArguments(final String key, final int from, final int to) {
+        if (nextDelimiter(from, to, ARG_SEPARATOR, EMPTY_CHAR) == to) {
+            /*
+             * A single argument would be interpreted the same way as the whole value, which can't
+             * succeed at this point.
+             */
+            return new ValueNode[] {new ValueNode.TextNode(value.substring(from, to))};
+        }
+        return parseDelimited(key, from, to, ARG_SEPARATOR, EMPTY_CHAR);
+    }
+
+    /*
+     * Parses the values separated by the delimiter until the closing delimiter is encountered. The end of
+     * the consumed region is available through position afterwards.
+     */
+    private ValueNode[] parseDelimited(final String key, final int from, final int to, final char delimiter,
+            final char closingDelimiter) {
+        List<ValueNode> nodes = new ArrayList<>();
+        int start = from;
+        while (true) {
+            int end = nextDelimiter(start, to, delimiter, closingDelimiter);
+            nodes.add(parseValue(key, start, end));
+            if (end == to) {
+                position = to;
+                break;
+            } else if (value.charAt(end) == closingDelimiter) {
+                position = end + 1;
+                break;
+            }
+            start = end + 1;
+        }
+        return nodes.toArray(new ValueNode[0]);
+    }
+
+    private ValueNode[] parseMapEntries(final String key, final int from, final int to) {
+        List<ValueNode> nodes = new ArrayList<>();
+        int start = from;
+        while (true) {
+            int end = nextDelimiter(start, to, MAP_SEPARATOR, MAP_END);
+            int pairSeparator = value.indexOf(PAIR_SEPARATOR, start);
+            if (pairSeparator >= 0 && pairSeparator < end) {
+                nodes.add(new ValueNode.MapEntryNode(key, value,
+                        parseDelimited(key, start, end, PAIR_SEPARATOR, EMPTY_CHAR), true));
+            } else {
+                nodes.add(new ValueNode.MapEntryNode(key, value,
+                        new ValueNode[] {parseValue(key, start, end)}, false));
+            }
+            if (end == to || value.charAt(end) == MAP_END) break;
+            start = end + 1;
+        }
+        return nodes.toArray(new ValueNode[0]);
+    }
+
+    private ValueNode parseFont(final String key, final int from, final int to) {
+        List<ValueNode[]> arguments = new ArrayList<>();
+        byte[] operations = new byte[4];
+        int pos = from;
+        while (pos < to) {
+            byte operation;
+            ValueNode[] args;
+            if (startsWith(BASE_FONT, pos, to)) {
+                int argStart = argumentStart(pos + BASE_FONT.length(), to);
+                int end = nextDelimiter(argStart, to, EMPTY_CHAR, ARG_END);
+                ValueNode[] parts = parseDelimited("", argStart, end, FONT_DELIMITER, EMPTY_CHAR);
+                operation = ValueNode.FontNode.BASE;
+                args = new ValueNode[] {new ValueNode.BaseFontNode(key, value, parts)};
+                pos = end < to ? end + 1 : to;
+            } else if (startsWith(FONT_FROM, pos, to)) {
+                int argStart = argumentStart(pos + FONT_FROM.length(), to);
+                int end = nextDelimiter(argStart, to, EMPTY_CHAR, ARG_END);
+                operation = ValueNode.FontNode.BASE;
+                args = new ValueNode[] {parseValue(key, argStart, end)};
+                pos = end < to ? end + 1 : to;
+            } else if (startsWith(FONT_STYLE, pos, to)) {
+                int argStart = argumentStart(pos + FONT_STYLE.length(), to);
+                int end = nextDelimiter(argStart, to, EMPTY_CHAR, ARG_END);
+                operation = ValueNode.FontNode.STYLE;
+                args = new ValueNode[] {parseValue(key, argStart, end)};
+                pos = end < to ? end + 1 : to;
+            } else if (startsWith(FONT_SIZE, pos, to)) {
+                int argStart = argumentStart(pos + FONT_SIZE.length(), to);
+                operation = ValueNode.FontNode.SIZE;
+                args = parseDelimited(key, argStart, to, ARG_SEPARATOR, ARG_END);
+                pos = position;
+            } else {
+                return new ValueNode.ErrorNode(key, value, "Unexpected token while parsing font");
+            }
+            if (arguments.size() == operations.length) {
+                byte[] ops = new byte[2 * operations.length];
+                System.arraycopy(operations, 0, ops, 0, operations.length);
+                operations = ops;
+            }
+            operations[arguments.size()] = operation;
+            arguments.add(args);
+        }
+        byte[] ops = new byte[arguments.size()];
+        System.arraycopy(operations, 0, ops, 0, ops.length);
+        return new ValueNode.FontNode(key, value, ops, arguments.toArray(new ValueNode[0][]));
+    }
+
+    private int argumentStart(final int from, final int to) {
+        if (startsWith(ARG_START, from, to)) return from + 1;
+        ValueNode.warning("Expected '" + ARG_START + "' while parsing " + value);
+        return from;
+    }
+
+    private ValueNode parseIcon(final String key, final int from, final int to) {
+        if (startsWith(LIST_START, from, to) && endsWith(LIST_END, from, to)) {
+            return new ValueNode.StateIconNode(key, value, parseDelimited(key, from + 1, to, LIST_SEPARATOR, LIST_END));
+        }
+        int end = to;
+        int width = -1;
+        int height = -1;
+        if (endsWith(ARG_END, from, end)) {
+            List<String> args = splitBackwards(from, end, ARG_START);
+            end = position;
+            List<Integer> dimensions = new ArrayList<>(2);
+            for (String arg : args) {
+                try {
+                    dimensions.add(Integer.parseInt(arg));
+                } catch (final NumberFormatException e) {
+                    ValueNode.warning("Value " + arg + " is not of type " + Integer.class
+                            + ". Encountered while parsing '" + value + "'");
+                }
+            }
+            if (dimensions.size() != 2) return new ValueNode.ErrorNode(key, value, "Invalid dimension.");
+            width = dimensions.get(0);
+            height = dimensions.get(1);
+        }
+        List<String> modifiers;
+        if (endsWith(MODIFIER_END, from, end)) {
+            modifiers = splitBackwards(from, end, MODIFIER_START);
+            end = position;
+        } else {
+            modifiers = Collections.emptyList();
+        }
+        boolean dual = modifiers.contains(DUAL_KEY);
+        boolean aware = modifiers.contains(AWARE_KEY);
+        boolean themed = modifiers.contains(THEMED_KEY);
+        if (aware && themed) {
+            return new ValueNode.ErrorNode(key, value,
+                    "Modifiers " + AWARE_KEY + " and " + THEMED_KEY + " are mutually exclusive.");
+        }
+
+        String path = value.substring(from, end);
+        byte mode;
+        if (ICON_EMPTY.equals(path)) {
+            mode = ValueNode.IconNode.EMPTY;
+        } else if (themed) {
+            mode = ValueNode.IconNode.THEMED;
+        } else if (dual) {
+            mode = ValueNode.IconNode.DUAL;
+        } else if (aware) {
+            mode = ValueNode.IconNode.AWARE;
+        } else {
+            mode = ValueNode.IconNode.PLAIN;
+        }
+        return new ValueNode.IconNode(path, width, height, mode);
+    }
+
+    /*
+     * Splits the arguments enclosed by the opening delimiter and the last character of the region. The
+     * start of the enclosed region is available through position afterwards.
+     */
+    private List<String> splitBackwards(final int from, final int to, final char openingDelimiter) {
+        List<String> values = new ArrayList<>();
+        int last = to - 1;
+        int openDelimiters = 0;
+        int i = last - 1;
+        for (; i >= from; i--) {
+            char c = value.charAt(i);
+            if (openDelimiters == 0) {
+                if (c == openingDelimiter) break;
+                if (c == ARG_SEPARATOR) {
+                    values.add(value.substring(i + 1, last));
+                    last = i;
+                }
+            }
+            if (isOpenDelimiter(c)) openDelimiters++;
+            if (isClosingDelimiter(c)) openDelimiters--;
+        }
+        if (i >= from) {
+            values.add(value.substring(i + 1, last));
+            position = i;
+        } else {
+            values.add(value.substring(from, last));
+            position = from;
+        }
+        Collections.reverse(values);
+        return values;
+    }
+
+    /*
+     * Returns the index of the first delimiter or closing delimiter which isn't nested inside of
+     * brackets. If there is none the end of the region is returned.
+     */
+    private int nextDelimiter(final int from, final int to, final char delimiter, final char closingDelimiter) {
+        int openDelimiters = 0;
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (openDelimiters == 0) {
+                if (closingDelimiter != EMPTY_CHAR && c == closingDelimiter) return i;
+                if (delimiter != EMPTY_CHAR && c == delimiter) return i;
+            }
+            if (isOpenDelimiter(c)) openDelimiters++;
+            if (isClosingDelimiter(c)) openDelimiters--;
+        }
+        return to;
+    }
+
+    /*
+     * Equivalent to Integer.parseInt on the given region, without creating the substring.
+     */
+    private Integer parseInteger(final int from, final int to) {
+        if (from >= to) return null;
+        int i = from;
+        boolean negative = false;
+        int limit = -Integer.MAX_VALUE;
+        char first = value.charAt(i);
+        if (first < '0') {
+            if (first == '-') {
+                negative = true;
+                limit = Integer.MIN_VALUE;
+            } else if (first != '+') {
+                return null;
+            }
+            if (to - from == 1) return null;
+            i++;
+        }
+        int multmin = limit / 10;
+        int result = 0;
+        while (i < to) {
+            int digit = Character.digit(value.charAt(i++), 10);
+            if (digit < 0 || result < multmin) return null;
+            result *= 10;
+            if (result < limit + digit) return null;
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    private boolean regionEqualsIgnoreCase(final String s, final int from, final int to) {
+        return to - from == s.length() && value.regionMatches(true, from, s, 0, s.length());
+    }
+
+    private boolean startsWith(final String prefix, final int from, final int to) {
+        return to - from >= prefix.length() && value.startsWith(prefix, from);
+    }
+
+    private boolean startsWith(final char prefix, final int from, final int to) {
+        return from < to && value.charAt(from) == prefix;
+    }
+
+    private boolean endsWith(final char suffix, final int from, final int to) {
+        return from < to && value.charAt(to - 1) == suffix;
+    }
+
+    private static boolean isOpenDelimiter(final char c) {
+        return c == LIST_START || c == MAP_START || c == ARG_START;
+    }
+
+    private static boolean isClosingDelimiter(final char c) {
+        return c == LIST_END || c == MAP_END || c == ARG_END;
+    }
+}
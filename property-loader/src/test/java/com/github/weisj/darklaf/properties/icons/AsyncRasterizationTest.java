@@ -0,0 +1,152 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.properties.icons;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.parallel.ResourceLock;
+
+@Timeout(value = 20)
+@ResourceLock(value = "IconLoader")
+class AsyncRasterizationTest {
+
+    @BeforeEach
+    void setup() {
+        IconLoader.get(AsyncRasterizationTest.class).clearCache();
+    }
+
+    @AfterEach
+    void reset() {
+        IconLoader.setAsyncRasterizationEnabled(false);
+    }
+
+    @Test
+    void testIconIsRasterizedInBackground() throws InterruptedException, InvocationTargetException {
+        IconLoader loader = IconLoader.get(AsyncRasterizationTest.class);
+        BufferedImage expected = paint(loader.getIcon("svg_icon.svg", 16, 16), null);
+
+        loader.clearCache();
+        IconLoader.setAsyncRasterizationEnabled(true);
+        DarkSVGIcon icon = (DarkSVGIcon) loader.getIcon("svg_icon.svg", 16, 16);
+        JLabel label = new JLabel();
+
+        SwingUtilities.invokeAndWait(() -> {
+            BufferedImage placeholder = paint(icon, label);
+            Assertions.assertTrue(icon.isRasterizationPending());
+            assertTransparent(placeholder);
+        });
+        while (icon.isRasterizationPending()) {
+            SwingUtilities.invokeAndWait(() -> {
+            });
+        }
+        Assertions.assertNotNull(icon.getCachedImage());
+        BufferedImage[] actual = new BufferedImage[1];
+        SwingUtilities.invokeAndWait(() -> actual[0] = paint(icon, label));
+        Assertions.assertFalse(icon.isRasterizationPending());
+        assertSameImage(expected, actual[0]);
+    }
+
+    @Test
+    void testIconsWithoutComponentAreRasterizedImmediately() {
+        IconLoader.setAsyncRasterizationEnabled(true);
+        DarkSVGIcon icon = (DarkSVGIcon) IconLoader.get(AsyncRasterizationTest.class).getIcon("svg_icon.svg", 16, 16);
+        paint(icon, null);
+        Assertions.assertFalse(icon.isRasterizationPending());
+        Assertions.assertNotNull(icon.getCachedImage());
+    }
+
+    @Test
+    void testPaintingOnlyLocksDuringBackgroundWork() throws InterruptedException {
+        DarkSVGIcon icon = (DarkSVGIcon) IconLoader.get(AsyncRasterizationTest.class).getIcon("svg_icon.svg", 16, 16);
+        paint(icon, null);
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread lockHolder = new Thread(() -> IconRasterizer.runInBackground(() -> {
+            synchronized (IconRasterizer.LOCK) {
+                locked.countDown();
+                try {
+                    release.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }));
+        lockHolder.start();
+        locked.await();
+        CountDownLatch painted = new CountDownLatch(1);
+        new Thread(() -> {
+            paint(icon, null);
+            painted.countDown();
+        }).start();
+        Assertions.assertFalse(painted.await(200, TimeUnit.MILLISECONDS));
+        release.countDown();
+        Assertions.assertTrue(painted.await(5, TimeUnit.SECONDS));
+        lockHolder.join();
+
+        // Without background work painting doesn't wait for the lock.
+        CountDownLatch paintedUnguarded = new CountDownLatch(1);
+        synchronized (IconRasterizer.LOCK) {
+            new Thread(() -> {
+                paint(icon, null);
+                paintedUnguarded.countDown();
+            }).start();
+            Assertions.assertTrue(paintedUnguarded.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private void assertTransparent(final BufferedImage img) {
+        for (int x = 0; x < img.getWidth(); x++) {
+            for (int y = 0; y < img.getHeight(); y++) {
+                Assertions.assertEquals(0, img.getRGB(x, y) >>> 24, "Pixel (" + x + "," + y + ")");
+            }
+        }
+    }
+
+    private void assertSameImage(final BufferedImage expected, final BufferedImage actual) {
+        for (int x = 0; x < expected.getWidth(); x++) {
+            for (int y = 0; y < expected.getHeight(); y++) {
+                Assertions.assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "Pixel (" + x + "," + y + ")");
+            }
+        }
+    }
+
+    private BufferedImage paint(final Icon icon, final Component c) {
+        BufferedImage img = new BufferedImage(icon.getIconWidth(), icon.getIconHeight(),
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = img.createGraphics();
+        icon.paintIcon(c, g, 0, 0);
+        g.dispose();
+        return img;
+    }
+}
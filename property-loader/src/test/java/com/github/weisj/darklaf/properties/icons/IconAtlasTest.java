@@ -0,0 +1,168 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.properties.icons;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+
+@ResourceLock(value = "IconLoader")
+class IconAtlasTest {
+
+    private final Object owner = new Object();
+
+    @BeforeEach
+    void setup() {
+        IconLoader.get(IconAtlasTest.class).clearCache();
+        IconAtlas.getInstance().clear();
+    }
+
+    @AfterEach
+    void reset() {
+        IconLoader.setIconAtlasEnabled(false);
+    }
+
+    @Test
+    void testAtlasPaintsSameAsImage() {
+        IconLoader loader = IconLoader.get(IconAtlasTest.class);
+        BufferedImage expected = paint(loader.getIcon("svg_icon.svg", 16, 16));
+
+        loader.clearCache();
+        IconLoader.setIconAtlasEnabled(true);
+        DarkSVGIcon icon = (DarkSVGIcon) loader.getIcon("svg_icon.svg", 16, 16);
+        BufferedImage actual = paint(icon);
+        Assertions.assertNull(icon.getCachedImage());
+        Assertions.assertEquals(1, IconAtlas.getInstance().getPageCount());
+        for (int x = 0; x < expected.getWidth(); x++) {
+            for (int y = 0; y < expected.getHeight(); y++) {
+                Assertions.assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "Pixel (" + x + "," + y + ")");
+            }
+        }
+    }
+
+    @Test
+    void testDerivedIconsSharePage() {
+        IconLoader.setIconAtlasEnabled(true);
+        DarkSVGIcon icon = (DarkSVGIcon) IconLoader.get(IconAtlasTest.class).getIcon("svg_icon.svg", 16, 16);
+        for (int i = 8; i < 32; i++) {
+            paint(icon.derive(i, i));
+        }
+        Assertions.assertEquals(1, IconAtlas.getInstance().getPageCount());
+    }
+
+    @Test
+    void testLargeIconsAreNotPacked() {
+        IconLoader.setIconAtlasEnabled(true);
+        int size = IconAtlas.MAX_REGION_SIZE + 1;
+        DarkSVGIcon icon = (DarkSVGIcon) IconLoader.get(IconAtlasTest.class).getIcon("svg_icon.svg", size, size);
+        paint(icon);
+        Assertions.assertNotNull(icon.getCachedImage());
+        Assertions.assertEquals(0, IconAtlas.getInstance().getPageCount());
+    }
+
+    @Test
+    void testRegionsAreReused() {
+        IconAtlas atlas = IconAtlas.getInstance();
+        Dimension size = new Dimension(16, 16);
+        IconAtlas.Region region = atlas.allocate(owner, null, 1, 1, size);
+        Assertions.assertTrue(region.isValid());
+        Assertions.assertSame(region, atlas.allocate(owner, region, 1, 1, size));
+
+        IconAtlas.Region other = atlas.allocate(new Object(), null, 1, 1, size);
+        atlas.release(region);
+        Assertions.assertFalse(region.isValid());
+        Assertions.assertSame(region, atlas.allocate(owner, null, 1, 1, size));
+        Assertions.assertEquals(1, atlas.getPageCount());
+
+        atlas.release(region);
+        atlas.release(other);
+        Assertions.assertEquals(0, atlas.getPageCount());
+    }
+
+    @Test
+    void testPagesAreSeparatedByScale() {
+        IconAtlas atlas = IconAtlas.getInstance();
+        Dimension size = new Dimension(16, 16);
+        atlas.allocate(owner, null, 1, 1, size);
+        atlas.allocate(owner, null, 2, 2, size);
+        Assertions.assertEquals(2, atlas.getPageCount());
+    }
+
+    @Test
+    void testFullPageAllocatesNewPage() {
+        IconAtlas atlas = IconAtlas.getInstance();
+        Dimension size = new Dimension(IconAtlas.MAX_REGION_SIZE, IconAtlas.MAX_REGION_SIZE);
+        int perRow = IconAtlas.PAGE_SIZE / (IconAtlas.MAX_REGION_SIZE + 1);
+        for (int i = 0; i < perRow * perRow; i++) {
+            atlas.allocate(owner, null, 1, 1, size);
+        }
+        Assertions.assertEquals(1, atlas.getPageCount());
+        atlas.allocate(owner, null, 1, 1, size);
+        Assertions.assertEquals(2, atlas.getPageCount());
+    }
+
+    @Test
+    void testPageStartsSmall() {
+        IconAtlas atlas = IconAtlas.getInstance();
+        atlas.allocate(owner, null, 1, 1, new Dimension(16, 16));
+        Assertions.assertEquals((long) IconAtlas.INITIAL_PAGE_SIZE * IconAtlas.INITIAL_PAGE_SIZE,
+                atlas.getPixelCount());
+    }
+
+    @Test
+    void testGrowingPageKeepsContent() {
+        IconAtlas atlas = IconAtlas.getInstance();
+        Dimension size = new Dimension(16, 16);
+        IconAtlas.Region region = atlas.allocate(owner, null, 1, 1, size);
+        atlas.paint(region, g -> {
+            g.setColor(Color.RED);
+            g.fillRect(0, 0, size.width, size.height);
+        });
+        int perRow = IconAtlas.INITIAL_PAGE_SIZE / (size.width + 1);
+        for (int i = 0; i < perRow * perRow; i++) {
+            atlas.allocate(owner, null, 1, 1, size);
+        }
+        Assertions.assertEquals(1, atlas.getPageCount());
+        long initialPixels = (long) IconAtlas.INITIAL_PAGE_SIZE * IconAtlas.INITIAL_PAGE_SIZE;
+        Assertions.assertTrue(atlas.getPixelCount() > initialPixels);
+
+        BufferedImage img = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = img.createGraphics();
+        region.draw(g, null);
+        g.dispose();
+        Assertions.assertEquals(Color.RED.getRGB(), img.getRGB(size.width / 2, size.height / 2));
+    }
+
+    private BufferedImage paint(final javax.swing.Icon icon) {
+        BufferedImage img = new BufferedImage(icon.getIconWidth(), icon.getIconHeight(),
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = img.createGraphics();
+        icon.paintIcon(null, g, 0, 0);
+        g.dispose();
+        return img;
+    }
+}
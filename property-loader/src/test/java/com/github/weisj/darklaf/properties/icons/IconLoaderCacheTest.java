@@ -21,6 +21,8 @@
  */
 package com.github.weisj.darklaf.properties.icons;
 
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.function.Supplier;
@@ -34,6 +36,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
 import org.junit.jupiter.api.parallel.ResourceLock;
 
+import com.github.weisj.darklaf.util.cache.CachePolicy;
+
 
 @Timeout(value = 40)
 @ResourceLock(value = "IconLoader")
@@ -54,6 +58,29 @@ class IconLoaderCacheTest {
         Assertions.assertNotSame(icon1, icon2);
     }
 
+    @Test
+    void testPaintingUpdatesCacheWeight() {
+        IconLoader loader = IconLoader.get(IconLoaderCacheTest.class);
+        CachePolicy cachePolicy = loader.getCachePolicy();
+        try {
+            loader.setCachePolicy(CachePolicy.leastRecentlyUsed(Long.MAX_VALUE, false));
+            // Icons are usually resolved long before they are painted for the first time.
+            Icon svgIcon = loader.getIcon("svg_icon.svg", 16, 16);
+            Icon imageIcon = loader.getIcon("image_icon.png", 16, 16);
+            long weight = loader.getCacheStatistics().getWeight();
+
+            BufferedImage image = new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
+            Graphics g = image.getGraphics();
+            svgIcon.paintIcon(null, g, 0, 0);
+            imageIcon.paintIcon(null, g, 0, 0);
+            g.dispose();
+            // The svg icon may be rasterized at a larger scale.
+            Assertions.assertTrue(loader.getCacheStatistics().getWeight() >= weight + 2 * 4 * 16 * 16);
+        } finally {
+            loader.setCachePolicy(cachePolicy);
+        }
+    }
+
     @Test
     @Disabled("Flaky")
     void cacheReleasesImageIcon() {
@@ -0,0 +1,122 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.properties.icons;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.net.URI;
+import java.net.URISyntaxException;
+
+import javax.swing.*;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+
+@ResourceLock(value = "IconLoader")
+class ThemedIconPatchTest {
+
+    private static final CountingDefaults CONTEXT = new CountingDefaults();
+
+    @BeforeEach
+    void setup() {
+        CONTEXT.put("themedIcon.color", Color.RED);
+        IconLoader.updateThemeStatus(new Object());
+        CONTEXT.lookups = 0;
+    }
+
+    @Test
+    void testIconsSharingDocumentArePatchedOnce() throws URISyntaxException {
+        TestIcon icon = new TestIcon(16);
+        TestIcon other = new TestIcon(24);
+        TestIcon derived = icon.derive(32, 32);
+
+        Assertions.assertEquals(Color.RED.getRGB(), paint(icon).getRGB(8, 8));
+        int lookups = CONTEXT.lookups;
+        Assertions.assertTrue(lookups > 0);
+        Assertions.assertEquals(Color.RED.getRGB(), paint(other).getRGB(8, 8));
+        Assertions.assertEquals(Color.RED.getRGB(), paint(derived).getRGB(8, 8));
+        Assertions.assertEquals(lookups, CONTEXT.lookups);
+
+        CONTEXT.put("themedIcon.color", Color.GREEN);
+        IconLoader.updateThemeStatus(new Object());
+        Assertions.assertEquals(Color.GREEN.getRGB(), paint(other).getRGB(8, 8));
+        Assertions.assertEquals(Color.GREEN.getRGB(), paint(icon).getRGB(8, 8));
+        Assertions.assertEquals(2 * lookups, CONTEXT.lookups);
+    }
+
+    @Test
+    void testPrepareThemedIcons() throws URISyntaxException {
+        TestIcon icon = new TestIcon(16);
+        TestIcon unloaded = new TestIcon(16);
+        paint(icon);
+
+        CONTEXT.put("themedIcon.color", Color.GREEN);
+        IconLoader.updateThemeStatus(new Object());
+        IconLoader.prepareThemedIcons();
+        Assertions.assertFalse(icon.ensureTheme(true));
+        Assertions.assertFalse(unloaded.isSVGLoaded());
+        BufferedImage image = (BufferedImage) icon.getCachedImage();
+        Assertions.assertEquals(Color.GREEN.getRGB(), image.getRGB(8, 8));
+    }
+
+    private BufferedImage paint(final Icon icon) {
+        BufferedImage img = new BufferedImage(icon.getIconWidth(), icon.getIconHeight(),
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = img.createGraphics();
+        icon.paintIcon(null, g, 0, 0);
+        g.dispose();
+        return img;
+    }
+
+    private static class TestIcon extends ThemedSVGIcon {
+
+        private TestIcon(final int size) throws URISyntaxException {
+            super(ThemedIconPatchTest.class.getResource("themed_icon.svg").toURI(), size, size);
+        }
+
+        private TestIcon(final int size, final TestIcon icon) {
+            super(size, size, icon);
+        }
+
+        @Override
+        public TestIcon derive(final int width, final int height) {
+            return new TestIcon(width, this);
+        }
+
+        @Override
+        protected UIDefaults getContextDefaults() {
+            return CONTEXT;
+        }
+    }
+
+    private static class CountingDefaults extends UIDefaults {
+        private int lookups;
+
+        @Override
+        public Object get(final Object key) {
+            lookups++;
+            return super.get(key);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.properties.parser;
+
+import java.awt.Insets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.UIDefaults;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.github.weisj.darklaf.properties.PropertyLoader;
+import com.github.weisj.darklaf.properties.icons.IconLoader;
+
+class DependencyGraphTest {
+
+    private final Map<Object, Object> properties = new LinkedHashMap<>();
+
+    private DependencyGraph createGraph() {
+        List<String> keys = Arrays.asList(properties.keySet().toArray(new String[0]));
+        return new DependencyGraph(properties, keys);
+    }
+
+    private UIDefaults evaluate(final DependencyGraph graph, final List<String> keys, final UIDefaults defaults) {
+        PropertyLoader.putProperties(graph, keys, defaults, defaults, IconLoader.get(DependencyGraphTest.class));
+        return defaults;
+    }
+
+    @Test
+    void testForwardReferences() {
+        properties.put("a.insets", "%b,%c,%c,%b");
+        properties.put("b", "%c");
+        properties.put("%c", "3");
+        properties.put("d", "[%a.insets,%b]");
+
+        DependencyGraph graph = createGraph();
+        List<String> order = graph.getEvaluationOrder();
+        Assertions.assertTrue(order.indexOf("%c") < order.indexOf("b"));
+        Assertions.assertTrue(order.indexOf("b") < order.indexOf("a.insets"));
+        Assertions.assertTrue(order.indexOf("a.insets") < order.indexOf("d"));
+        Assertions.assertTrue(graph.getCyclicKeys().isEmpty());
+
+        UIDefaults defaults = evaluate(graph, order, new UIDefaults());
+        Insets insets = new Insets(3, 3, 3, 3);
+        Assertions.assertEquals(3, defaults.get("c"));
+        Assertions.assertEquals(insets, defaults.get("a.insets"));
+        Assertions.assertEquals(Arrays.asList(insets, 3), defaults.get("d"));
+    }
+
+    @Test
+    void testSelfReference() {
+        properties.put("a", "%a");
+        properties.put("b", "%a");
+
+        DependencyGraph graph = createGraph();
+        Assertions.assertEquals(Arrays.asList("a", "b"), graph.getEvaluationOrder());
+        Assertions.assertTrue(graph.getCyclicKeys().isEmpty());
+
+        UIDefaults defaults = new UIDefaults();
+        defaults.put("a", 1);
+        evaluate(graph, graph.getEvaluationOrder(), defaults);
+        Assertions.assertEquals(1, defaults.get("b"));
+    }
+
+    @Test
+    void testCycles() {
+        properties.put("a", "%b");
+        properties.put("b", "%a");
+        properties.put("c", "%b");
+        properties.put("d", "%e");
+        properties.put("e", "1");
+
+        DependencyGraph graph = createGraph();
+        Assertions.assertEquals(new HashSet<>(Arrays.asList("a", "b", "c")), graph.getCyclicKeys());
+        Assertions.assertEquals(Arrays.asList("e", "d", "a", "b", "c"), graph.getEvaluationOrder());
+    }
+
+    @Test
+    void testAffectedKeys() {
+        properties.put("a", "%external");
+        properties.put("b", "%a");
+        properties.put("c", "[%b,%d]");
+        properties.put("d", "1");
+        properties.put("e", "%other");
+
+        DependencyGraph graph = createGraph();
+        Assertions.assertEquals(Arrays.asList("a", "b", "c"),
+                graph.getAffectedKeys(Collections.singleton("external")));
+        Assertions.assertEquals(Collections.singletonList("c"), graph.getAffectedKeys(Collections.singleton("d")));
+
+        UIDefaults defaults = new UIDefaults();
+        defaults.put("external", 1);
+        evaluate(graph, graph.getEvaluationOrder(), defaults);
+        Assertions.assertEquals(Arrays.asList(1, 1), defaults.get("c"));
+
+        defaults.put("external", 2);
+        evaluate(graph, graph.getAffectedKeys(Collections.singleton("external")), defaults);
+        Assertions.assertEquals(2, defaults.get("b"));
+        Assertions.assertEquals(Arrays.asList(2, 1), defaults.get("c"));
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.properties.parser;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.swing.Icon;
+import javax.swing.UIDefaults;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.weisj.darklaf.properties.icons.IconLoader;
+import com.github.weisj.darklaf.properties.icons.StateIcon;
+
+class SinglePassParserTest {
+
+    private static final String[][] PROPERTIES = {
+            {"key", "Hello World"}, {"key", "null"}, {"key", ""}, {"key", "tRuE"}, {"key", "FALSE"},
+            {"key", "-42"}, {"key", "+17"}, {"key", "2147483648"}, {"key", "-"}, {"key", "#3c3f41"},
+            {"key", "#zzz"}, {"key", "'%quoted (string)'"}, {"key", "'unterminated"},
+            {"%key", "value"}, {"%key", "null"}, {"key", "%key.int"}, {"key", "%missing"},
+            {"key.int", "?:5"}, {"key.missing", "?:5"}, {"key.missing", "?:null"}, {"%key.int", "?:%key.color"},
+            {"key.missing", "?:?:%missing"},
+            {"test.insets", "1,2,3,4"}, {"testInsets", "1,%key.int,3,%key.int"}, {"test.margins", "1,2,3"},
+            {"test.size", "12,%key.int"}, {"testSize", "12"},
+            {"test.border", "java.lang.Object"}, {"testRenderer", "%missing"},
+            {"test.component", "java.lang.Object"},
+            {"test.font", "font(Dialog-1-12)"}, {"test.font", "from(%key.font)withSize(+2)withStyle(1)"},
+            {"test.font", "withSize(%key.int,-1)"}, {"test.font", "font(Dialog-bold-12)"}, {"test.font", ""},
+            {"test.font", "from(%key.font)unexpected"}, {"test.font", "withStyle(x)"},
+            {"test.icon", "svg_icon.svg"}, {"test.icon", "svg_icon.svg(16,16)"},
+            {"testIcon", "svg_icon.svg[themed](8,8)"}, {"testIcon", "svg_icon.svg[aware]"},
+            {"testIcon", "svg_icon.svg[dual](16,16)"}, {"testIcon", "svg_icon.svg[aware,themed]"},
+            {"testIcon", "empty(3,4)"}, {"testIcon", "svg_icon.svg(16)"}, {"testIcon", "svg_icon.svg(a,b)"},
+            {"testImage", "%key.icon"},
+            {"testIcon", "[svg_icon.svg,image_icon.png,svg_icon.svg,image_icon.png,svg_icon.svg,svg_icon.svg]"},
+            {"listKey", "[Test,false,15,%key.int]"}, {"listKey", "[1,2,[3,[4,5],6,7],8,[9],10]"},
+            {"listKey", "[]"}, {"listKey", "[a,null,(b,c)]suffix"}, {"listKey", "[a,%missing"},
+            {"mapKey", "{key1:1,key2:false,3:value3,key4:[1,2,3]}"}, {"mapKey", "{a,b:%key.int,c:{d:e}}"},
+            {"mapKey", "{a:b:c,d}"}, {"mapKey", "{a"}};
+
+    private final ParserContext context = new ParserContext(
+            new UIDefaults(), new UIDefaults(),
+            IconLoader.get(IconLoader.class));
+
+    @BeforeEach
+    void setup() {
+        context.defaults.clear();
+        context.accumulator.clear();
+        context.accumulator.put("key.int", 7);
+        context.accumulator.put("key.font", Parser.parse(new ParseResult("key.font", "font(Dialog-0-13)"), context)
+                .result);
+        context.defaults.put("key.color", Parser.parse(new ParseResult("key.color", "#ff0000"), context).result);
+        context.defaults.put("key.icon", Parser.parse(new ParseResult("key.icon", "svg_icon.svg"), context).result);
+    }
+
+    @Test
+    void testSameResultAsParser() {
+        SinglePassParser singlePassParser = new SinglePassParser(context);
+        for (String[] property : PROPERTIES) {
+            ParseResult expected = Parser.parse(new ParseResult(property[0], property[1]), context);
+            ParseResult actual = singlePassParser.parse(new ParseResult(property[0], property[1]));
+            String description = "Parsing '" + property[0] + "' = '" + property[1] + "'";
+            Assertions.assertEquals(expected.finished, actual.finished, description);
+            Assertions.assertEquals(expected.key, actual.key, description);
+            Assertions.assertEquals(describe(expected.result), describe(actual.result), description);
+        }
+    }
+
+    private String describe(final Object value) {
+        if (value == null) return "null";
+        if (value instanceof StateIcon) {
+            return describe(((StateIcon) value).getIcons());
+        } else if (value instanceof Object[]) {
+            return describe(Arrays.asList((Object[]) value));
+        } else if (value instanceof Icon) {
+            // Icons are loaded lazily. Hence only the type can be compared.
+            return value.getClass().getName();
+        } else if (value instanceof LazyObjectParser.LazyObject) {
+            return "Lazy[" + ((LazyObjectParser.LazyObject) value).getClassName() + "]";
+        } else if (value instanceof ActiveObjectParser.ActiveObject) {
+            return "Active[" + ((ActiveObjectParser.ActiveObject) value).getClassName() + "]";
+        } else if (value instanceof List) {
+            return ((List<?>) value).stream().map(this::describe).collect(Collectors.joining(",", "[", "]"));
+        } else if (value instanceof Map) {
+            return ((Map<?, ?>) value).entrySet().stream()
+                    .map(e -> describe(e.getKey()) + ":" + describe(e.getValue()))
+                    .sorted().collect(Collectors.joining(",", "{", "}"));
+        } else if (value == Parser.EMPTY_VALUE) {
+            return "EMPTY_VALUE";
+        }
+        return value.getClass().getName() + ":" + value;
+    }
+}
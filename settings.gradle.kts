@@ -12,6 +12,7 @@ pluginManagement {
         idv("com.github.vlsi.stage-vote-release", "com.github.vlsi.vlsi-release-plugins")
         idv("org.ajoberstar.grgit")
         idv("net.ltgt.errorprone")
+        idv("me.champeau.jmh")
     }
 }
 rootProject.name = "darklaf"
@@ -28,7 +29,8 @@ include(
     "utils",
     "platform-base",
     "windows",
-    "macos"
+    "macos",
+    "benchmarks"
 )
 
 for (p in rootProject.children) {
@@ -276,6 +276,7 @@ public abstract class Theme implements Comparable<Theme>, Serializable {
      */
     protected final Properties loadWithClass(final String name, final Class<?> loaderClass) {
         final Properties properties = new Properties();
+        PropertyLoader.notifyResourceLoaded(loaderClass, name);
         try (InputStream stream = loaderClass.getResourceAsStream(name)) {
             if (stream == null) {
                 LOGGER.log(Level.SEVERE, "Could not load " + name + ". File not found");
@@ -0,0 +1,283 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.util;
+
+import java.util.Arrays;
+
+/**
+ * Heights of a sequence of rows supporting the conversion between row indices and positions in
+ * logarithmic time.
+ * <p>
+ * The height of a row may be unknown, in which case the row is assumed to have the estimated height.
+ * This allows layouts to only measure the rows which are actually displayed. The heights of the rows
+ * are kept in two fenwick trees, one summing the known heights and one counting the rows with a known
+ * height. Hence changing the estimated height doesn't require any updates.
+ * <p>
+ * Changing the height of a single row takes logarithmic time. Inserting or removing rows takes linear
+ * time, except for rows appended at the end.
+ */
+public final class RowHeightIndex {
+
+    private static final int UNKNOWN = -1;
+
+    private int size;
+    private int[] heights;
+    // One based fenwick trees spanning the capacity of the heights array.
+    private int[] heightTree;
+    private int[] countTree;
+    private int estimatedHeight;
+
+    /**
+     * Creates a new index where the heights of all rows are unknown.
+     *
+     * @param size the number of rows.
+     * @param estimatedHeight the height of rows whose height is unknown.
+     */
+    public RowHeightIndex(final int size, final int estimatedHeight) {
+        if (size < 0) throw new IllegalArgumentException("Negative size " + size);
+        this.size = size;
+        this.estimatedHeight = estimatedHeight;
+        heights = new int[size];
+        heightTree = new int[size + 1];
+        countTree = new int[size + 1];
+        Arrays.fill(heights, UNKNOWN);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getEstimatedHeight() {
+        return estimatedHeight;
+    }
+
+    /**
+     * Sets the height assumed for rows whose height is unknown.
+     *
+     * @param estimatedHeight the estimated height.
+     */
+    public void setEstimatedHeight(final int estimatedHeight) {
+        this.estimatedHeight = estimatedHeight;
+    }
+
+    /**
+     * Returns whether the height of the row is known.
+     *
+     * @param row the row.
+     * @return true if the height has been set.
+     */
+    public boolean isMeasured(final int row) {
+        checkRow(row);
+        return heights[row] != UNKNOWN;
+    }
+
+    /**
+     * Returns the number of rows whose height is known.
+     *
+     * @return the number of measured rows.
+     */
+    public int getMeasuredCount() {
+        return prefixSum(countTree, size);
+    }
+
+    /**
+     * Returns the height of the row, which is the estimated height if the height isn't known.
+     *
+     * @param row the row.
+     * @return the height of the row.
+     */
+    public int getHeight(final int row) {
+        checkRow(row);
+        int height = heights[row];
+        return height != UNKNOWN ? height : estimatedHeight;
+    }
+
+    /**
+     * Sets the height of the row.
+     *
+     * @param row the row.
+     * @param height the height.
+     */
+    public void setHeight(final int row, final int height) {
+        checkRow(row);
+        if (height < 0) throw new IllegalArgumentException("Negative height " + height);
+        int old = heights[row];
+        if (old == height) return;
+        heights[row] = height;
+        if (old == UNKNOWN) {
+            add(heightTree, row + 1, height);
+            add(countTree, row + 1, 1);
+        } else {
+            add(heightTree, row + 1, height - old);
+        }
+    }
+
+    /**
+     * Marks the heights of the rows within the range as unknown.
+     *
+     * @param firstRow the first row (inclusive).
+     * @param lastRow the last row (inclusive).
+     */
+    public void invalidate(final int firstRow, final int lastRow) {
+        if (firstRow > lastRow) return;
+        checkRow(firstRow);
+        checkRow(lastRow);
+        if (lastRow - firstRow + 1 > size / 8) {
+            Arrays.fill(heights, firstRow, lastRow + 1, UNKNOWN);
+            rebuild();
+            return;
+        }
+        for (int row = firstRow; row <= lastRow; row++) {
+            int old = heights[row];
+            if (old == UNKNOWN) continue;
+            heights[row] = UNKNOWN;
+            add(heightTree, row + 1, -old);
+            add(countTree, row + 1, -1);
+        }
+    }
+
+    /**
+     * Inserts rows with unknown height.
+     *
+     * @param index the index of the first inserted row.
+     * @param count the number of rows to insert.
+     */
+    public void insertRows(final int index, final int count) {
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+        if (count <= 0) return;
+        int newSize = size + count;
+        if (newSize > heights.length) {
+            int capacity = Math.max(newSize, heights.length + (heights.length >> 1));
+            heights = Arrays.copyOf(heights, capacity);
+            heightTree = new int[capacity + 1];
+            countTree = new int[capacity + 1];
+        } else if (index == size) {
+            // The trees span the whole capacity. Rows after the last row don't contribute to them, hence
+            // appending rows of unknown height doesn't change the trees.
+            Arrays.fill(heights, size, newSize, UNKNOWN);
+            size = newSize;
+            return;
+        }
+        System.arraycopy(heights, index, heights, index + count, size - index);
+        Arrays.fill(heights, index, index + count, UNKNOWN);
+        size = newSize;
+        rebuild();
+    }
+
+    /**
+     * Removes rows.
+     *
+     * @param index the index of the first removed row.
+     * @param count the number of rows to remove.
+     */
+    public void removeRows(final int index, final int count) {
+        if (count <= 0) return;
+        if (index < 0 || index + count > size) {
+            throw new IndexOutOfBoundsException("Range [" + index + ", " + (index + count) + "), size " + size);
+        }
+        System.arraycopy(heights, index + count, heights, index, size - index - count);
+        size -= count;
+        rebuild();
+    }
+
+    /**
+     * Returns the position of the row i.e. the sum of the heights of all rows before it.
+     *
+     * @param row the row. May be equal to {@link #size()}.
+     * @return the position of the row.
+     */
+    public int getPosition(final int row) {
+        if (row < 0 || row > size) throw new IndexOutOfBoundsException("Row " + row + ", size " + size);
+        return prefixSum(heightTree, row) + (row - prefixSum(countTree, row)) * estimatedHeight;
+    }
+
+    /**
+     * Returns the total height of all rows.
+     *
+     * @return the total height.
+     */
+    public int getTotalHeight() {
+        return getPosition(size);
+    }
+
+    /**
+     * Returns the row containing the given position. Rows of height zero never contain a position.
+     *
+     * @param position the position.
+     * @return the row containing the position, -1 if the position is negative or {@link #size()} if it
+     *         lies after the last row.
+     */
+    public int getRowAt(final int position) {
+        if (position < 0) return -1;
+        int row = 0;
+        int heightSum = 0;
+        int count = 0;
+        for (int step = Integer.highestOneBit(size); step > 0; step >>= 1) {
+            int next = row + step;
+            if (next > size) continue;
+            int nextHeightSum = heightSum + heightTree[next];
+            int nextCount = count + countTree[next];
+            if (nextHeightSum + (next - nextCount) * estimatedHeight <= position) {
+                row = next;
+                heightSum = nextHeightSum;
+                count = nextCount;
+            }
+        }
+        return row;
+    }
+
+    private void rebuild() {
+        Arrays.fill(heightTree, 0);
+        Arrays.fill(countTree, 0);
+        int capacity = heights.length;
+        for (int i = 1; i <= capacity; i++) {
+            int height = i <= size ? heights[i - 1] : UNKNOWN;
+            if (height != UNKNOWN) {
+                heightTree[i] += height;
+                countTree[i] += 1;
+            }
+            int parent = i + (i & -i);
+            if (parent <= capacity) {
+                heightTree[parent] += heightTree[i];
+                countTree[parent] += countTree[i];
+            }
+        }
+    }
+
+    private static void add(final int[] tree, final int index, final int delta) {
+        for (int i = index; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    private static int prefixSum(final int[] tree, final int index) {
+        int sum = 0;
+        for (int i = index; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    private void checkRow(final int row) {
+        if (row < 0 || row >= size) throw new IndexOutOfBoundsException("Row " + row + ", size " + size);
+    }
+}
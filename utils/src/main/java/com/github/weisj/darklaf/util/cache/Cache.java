@@ -0,0 +1,70 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.util.cache;
+
+/**
+ * A cache whose values are notified about the key they are stored under.
+ *
+ * @param <K> the key type.
+ * @param <V> the value type.
+ * @see CachePolicy
+ */
+public interface Cache<K, V extends SoftCache.Cacheable<K>> {
+
+    /**
+     * Returns the value stored for the given key.
+     *
+     * @param key the key.
+     * @return the value or null if there is no value for the key.
+     */
+    V get(final K key);
+
+    /**
+     * Stores the value for the given key. A null value removes the entry.
+     *
+     * @param key the key.
+     * @param value the value.
+     */
+    void put(final K key, final V value);
+
+    /**
+     * Recomputes the weight of the value stored for the given key. Values which allocate memory lazily
+     * e.g. images rasterized on first use should call this once they did. Caches which aren't bounded by
+     * weight ignore this.
+     *
+     * @param key the key.
+     */
+    default void updateWeight(final K key) {}
+
+    void clear();
+
+    int size();
+
+    boolean isEmpty();
+
+    /**
+     * Returns a snapshot of the statistics of this cache.
+     *
+     * @return the statistics.
+     */
+    CacheStatistics getStatistics();
+}
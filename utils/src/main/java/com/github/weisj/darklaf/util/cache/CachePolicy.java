@@ -0,0 +1,87 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.util.cache;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Strategy for creating the caches of a component.
+ *
+ * @see #soft()
+ * @see #leastRecentlyUsed(long, boolean)
+ */
+public interface CachePolicy {
+
+    /**
+     * Creates a new cache.
+     *
+     * @param weigher estimates the memory used by a value in bytes.
+     * @param <K> the key type.
+     * @param <V> the value type.
+     * @return the cache.
+     */
+    <K, V extends SoftCache.Cacheable<K>> Cache<K, V> createCache(final ToLongFunction<? super V> weigher);
+
+    /**
+     * Policy which holds all values as soft references. Values are only released by the garbage
+     * collector.
+     *
+     * @return the policy.
+     */
+    static CachePolicy soft() {
+        return new CachePolicy() {
+            @Override
+            public <K, V extends SoftCache.Cacheable<K>> Cache<K, V> createCache(
+                    final ToLongFunction<? super V> weigher) {
+                return new SoftCache<>();
+            }
+
+            @Override
+            public String toString() {
+                return "CachePolicy.soft()";
+            }
+        };
+    }
+
+    /**
+     * Policy which bounds the memory used by the cache and evicts the least recently used values.
+     *
+     * @param maxBytes the memory budget in bytes.
+     * @param useSoftFallback whether evicted values should be kept as soft references.
+     * @return the policy.
+     * @see LRUCache
+     */
+    static CachePolicy leastRecentlyUsed(final long maxBytes, final boolean useSoftFallback) {
+        return new CachePolicy() {
+            @Override
+            public <K, V extends SoftCache.Cacheable<K>> Cache<K, V> createCache(
+                    final ToLongFunction<? super V> weigher) {
+                return new LRUCache<>(maxBytes, weigher, useSoftFallback);
+            }
+
+            @Override
+            public String toString() {
+                return "CachePolicy.leastRecentlyUsed(" + maxBytes + ", " + useSoftFallback + ")";
+            }
+        };
+    }
+}
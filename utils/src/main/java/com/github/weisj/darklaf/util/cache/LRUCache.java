@@ -0,0 +1,177 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.util.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Cache bounded by the total weight of its entries. If the budget is exceeded the least recently used
+ * entries are evicted. The most recently used entry is never evicted, even if its weight alone exceeds
+ * the budget.
+ * <p>
+ * The weight of an entry is computed when it is inserted and updated whenever it is accessed. Values
+ * which allocate memory lazily e.g. images rasterized on first use are handed the cache through
+ * {@link SoftCache.Cacheable#setCache(Cache)} and report the change using {@link #updateWeight(Object)}.
+ * <p>
+ * If a soft fallback is used evicted values are kept as soft references and can still be returned as
+ * long as they haven't been garbage collected. Values returned from the soft fallback are moved back
+ * into the cache.
+ *
+ * @param <K> the key type.
+ * @param <V> the value type.
+ */
+public class LRUCache<K, V extends SoftCache.Cacheable<K>> implements Cache<K, V> {
+
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final long maxWeight;
+    private final ToLongFunction<? super V> weigher;
+    private final SoftCache<K, V> softFallback;
+
+    private long weight;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxWeight the maximum total weight of the entries.
+     * @param weigher computes the weight of a value.
+     * @param useSoftFallback whether evicted values should be kept as soft references.
+     */
+    public LRUCache(final long maxWeight, final ToLongFunction<? super V> weigher, final boolean useSoftFallback) {
+        if (maxWeight < 0) throw new IllegalArgumentException("Negative maximum weight " + maxWeight);
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.softFallback = useSoftFallback ? new SoftCache<>() : null;
+    }
+
+    @Override
+    public synchronized V get(final K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            hitCount++;
+            reweigh(entry);
+            return entry.value;
+        }
+        V value = softFallback != null ? softFallback.get(key) : null;
+        if (value != null) {
+            hitCount++;
+            put(key, value);
+        } else {
+            missCount++;
+        }
+        return value;
+    }
+
+    @Override
+    public synchronized void updateWeight(final K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null) reweigh(entry);
+    }
+
+    private void reweigh(final Entry<V> entry) {
+        long newWeight = weigher.applyAsLong(entry.value);
+        if (newWeight != entry.weight) {
+            weight += newWeight - entry.weight;
+            entry.weight = newWeight;
+            evict();
+        }
+    }
+
+    @Override
+    public synchronized void put(final K key, final V value) {
+        Entry<V> old;
+        if (value != null) {
+            Entry<V> entry = new Entry<>(value, weigher.applyAsLong(value));
+            old = entries.put(key, entry);
+            weight += entry.weight;
+            value.setCacheKey(key);
+            value.setCache(this);
+        } else {
+            old = entries.remove(key);
+        }
+        if (old != null) weight -= old.weight;
+        if (softFallback != null) softFallback.put(key, null);
+        evict();
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (weight > maxWeight && entries.size() > 1) {
+            Map.Entry<K, Entry<V>> eldest = iterator.next();
+            iterator.remove();
+            weight -= eldest.getValue().weight;
+            evictionCount++;
+            if (softFallback != null) softFallback.put(eldest.getKey(), eldest.getValue().value);
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+        if (softFallback != null) softFallback.clear();
+    }
+
+    /**
+     * Returns the number of entries held strongly by the cache. Values only reachable through the soft
+     * fallback aren't included.
+     *
+     * @return the size of the cache.
+     */
+    @Override
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    @Override
+    public synchronized CacheStatistics getStatistics() {
+        return new CacheStatistics(hitCount, missCount, evictionCount, entries.size(), weight);
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private long weight;
+
+        private Entry(final V value, final long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
@@ -26,21 +26,40 @@ import java.lang.ref.SoftReference;
 import java.util.Map;
 import java.util.WeakHashMap;
 
-public class SoftCache<K, V extends SoftCache.Cacheable<K>> {
+/**
+ * Cache holding its values as soft references. Entries are removed once the value has been garbage
+ * collected or the key isn't referenced anymore. Values keep their key alive through
+ * {@link Cacheable#setCacheKey(Object)}.
+ *
+ * @param <K> the key type.
+ * @param <V> the value type.
+ */
+public class SoftCache<K, V extends SoftCache.Cacheable<K>> implements Cache<K, V> {
 
     private final Map<K, SoftReference<V>> cache = new WeakHashMap<>();
 
-    public V get(final K key) {
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    @Override
+    public synchronized V get(final K key) {
         Reference<V> reference = cache.get(key);
-        if (reference == null) return null;
-        V value = reference.get();
+        V value = reference != null ? reference.get() : null;
         if (value == null) {
-            cache.remove(key);
+            missCount++;
+            if (reference != null) {
+                cache.remove(key);
+                evictionCount++;
+            }
+        } else {
+            hitCount++;
         }
         return value;
     }
 
-    public void put(final K key, final V value) {
+    @Override
+    public synchronized void put(final K key, final V value) {
         if (value != null) {
             cache.put(key, new SoftReference<>(value));
             value.setCacheKey(key);
@@ -49,19 +68,35 @@ public class SoftCache<K, V extends SoftCache.Cacheable<K>> {
         }
     }
 
-    public void clear() {
+    @Override
+    public synchronized void clear() {
         cache.clear();
     }
 
-    public int size() {
+    @Override
+    public synchronized int size() {
         return cache.size();
     }
 
-    public boolean isEmpty() {
+    @Override
+    public synchronized boolean isEmpty() {
         return cache.isEmpty();
     }
 
+    @Override
+    public synchronized CacheStatistics getStatistics() {
+        return new CacheStatistics(hitCount, missCount, evictionCount, cache.size(), 0);
+    }
+
     public interface Cacheable<K> {
         void setCacheKey(final K key);
+
+        /**
+         * Sets the cache the value is stored in, which should be notified through
+         * {@link Cache#updateWeight(Object)} if the value allocates memory lazily.
+         *
+         * @param cache the cache.
+         */
+        default void setCache(final Cache<K, ?> cache) {}
     }
 }
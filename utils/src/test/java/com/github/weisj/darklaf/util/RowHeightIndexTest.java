@@ -0,0 +1,135 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class RowHeightIndexTest {
+
+    private static final int UNKNOWN = -1;
+
+    @Test
+    void testEstimatedHeights() {
+        RowHeightIndex index = new RowHeightIndex(10, 5);
+        Assertions.assertEquals(50, index.getTotalHeight());
+        Assertions.assertEquals(3, index.getRowAt(17));
+
+        index.setHeight(1, 20);
+        Assertions.assertEquals(1, index.getMeasuredCount());
+        Assertions.assertEquals(25, index.getPosition(2));
+        Assertions.assertEquals(1, index.getRowAt(24));
+        Assertions.assertEquals(2, index.getRowAt(25));
+
+        index.setEstimatedHeight(10);
+        Assertions.assertEquals(110, index.getTotalHeight());
+        Assertions.assertEquals(9, index.getRowAt(109));
+        Assertions.assertEquals(10, index.getRowAt(110));
+        Assertions.assertEquals(-1, index.getRowAt(-1));
+    }
+
+    @Test
+    void testZeroHeightRowsContainNoPosition() {
+        RowHeightIndex index = new RowHeightIndex(3, 0);
+        index.setHeight(0, 5);
+        index.setHeight(2, 5);
+        Assertions.assertEquals(0, index.getRowAt(4));
+        Assertions.assertEquals(2, index.getRowAt(5));
+    }
+
+    @Test
+    void testMatchesLinearScan() {
+        Random random = new Random(42);
+        int estimate = 7;
+        List<Integer> heights = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            heights.add(UNKNOWN);
+        }
+        RowHeightIndex index = new RowHeightIndex(heights.size(), estimate);
+        for (int step = 0; step < 2000; step++) {
+            int size = heights.size();
+            switch (random.nextInt(5)) {
+                case 0:
+                case 1:
+                    if (size > 0) {
+                        int row = random.nextInt(size);
+                        int height = random.nextInt(30);
+                        heights.set(row, height);
+                        index.setHeight(row, height);
+                    }
+                    break;
+                case 2: {
+                    int at = random.nextInt(4) == 0 ? size : random.nextInt(size + 1);
+                    int count = 1 + random.nextInt(20);
+                    for (int i = 0; i < count; i++) {
+                        heights.add(at, UNKNOWN);
+                    }
+                    index.insertRows(at, count);
+                    break;
+                }
+                case 3:
+                    if (size > 0) {
+                        int at = random.nextInt(size);
+                        int count = 1 + random.nextInt(Math.min(10, size - at));
+                        heights.subList(at, at + count).clear();
+                        index.removeRows(at, count);
+                    }
+                    break;
+                default:
+                    if (size > 0) {
+                        int first = random.nextInt(size);
+                        int last = first + random.nextInt(size - first);
+                        for (int i = first; i <= last; i++) {
+                            heights.set(i, UNKNOWN);
+                        }
+                        index.invalidate(first, last);
+                    }
+                    break;
+            }
+            assertMatches(heights, estimate, index);
+        }
+    }
+
+    private void assertMatches(final List<Integer> heights, final int estimate, final RowHeightIndex index) {
+        Assertions.assertEquals(heights.size(), index.size());
+        int position = 0;
+        int measured = 0;
+        for (int row = 0; row < heights.size(); row++) {
+            int height = heights.get(row) != UNKNOWN ? heights.get(row) : estimate;
+            if (heights.get(row) != UNKNOWN) measured++;
+            Assertions.assertEquals(height, index.getHeight(row));
+            Assertions.assertEquals(position, index.getPosition(row));
+            if (height > 0) {
+                Assertions.assertEquals(row, index.getRowAt(position));
+                Assertions.assertEquals(row, index.getRowAt(position + height - 1));
+            }
+            position += height;
+        }
+        Assertions.assertEquals(position, index.getTotalHeight());
+        Assertions.assertEquals(heights.size(), index.getRowAt(position));
+        Assertions.assertEquals(measured, index.getMeasuredCount());
+    }
+}
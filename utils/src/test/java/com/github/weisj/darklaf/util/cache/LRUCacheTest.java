@@ -0,0 +1,137 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.weisj.darklaf.util.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class LRUCacheTest {
+
+    @Test
+    void testLeastRecentlyUsedIsEvicted() {
+        LRUCache<String, TestValue> cache = new LRUCache<>(30, v -> v.weight, false);
+        TestValue a = new TestValue(10);
+        TestValue b = new TestValue(10);
+        TestValue c = new TestValue(10);
+        cache.put("a", a);
+        cache.put("b", b);
+        cache.put("c", c);
+        Assertions.assertEquals(30, cache.getWeight());
+        Assertions.assertEquals("a", a.key);
+
+        Assertions.assertSame(a, cache.get("a"));
+        cache.put("d", new TestValue(10));
+        Assertions.assertNull(cache.get("b"));
+        Assertions.assertSame(a, cache.get("a"));
+        Assertions.assertSame(c, cache.get("c"));
+
+        CacheStatistics statistics = cache.getStatistics();
+        Assertions.assertEquals(3, statistics.getHitCount());
+        Assertions.assertEquals(1, statistics.getMissCount());
+        Assertions.assertEquals(1, statistics.getEvictionCount());
+        Assertions.assertEquals(3, statistics.getSize());
+        Assertions.assertEquals(30, statistics.getWeight());
+    }
+
+    @Test
+    void testWeightIsUpdatedOnAccess() {
+        LRUCache<String, TestValue> cache = new LRUCache<>(30, v -> v.weight, false);
+        TestValue a = new TestValue(10);
+        cache.put("a", a);
+        cache.put("b", new TestValue(10));
+        a.weight = 25;
+        Assertions.assertSame(a, cache.get("a"));
+        Assertions.assertNull(cache.get("b"));
+        Assertions.assertEquals(25, cache.getWeight());
+
+        // The most recently used entry is kept even if it exceeds the budget on its own.
+        a.weight = 40;
+        Assertions.assertSame(a, cache.get("a"));
+        Assertions.assertEquals(1, cache.size());
+        Assertions.assertEquals(40, cache.getWeight());
+    }
+
+    @Test
+    void testWeightUpdateIsReported() {
+        LRUCache<String, TestValue> cache = new LRUCache<>(30, v -> v.weight, false);
+        TestValue a = new TestValue(10);
+        cache.put("a", a);
+        cache.put("b", new TestValue(10));
+        Assertions.assertSame(cache, a.cache);
+        a.weight = 25;
+        a.cache.updateWeight("a");
+        Assertions.assertEquals(25, cache.getWeight());
+        Assertions.assertEquals(1, cache.getStatistics().getEvictionCount());
+        Assertions.assertNull(cache.get("b"));
+    }
+
+    @Test
+    void testReplaceAndRemove() {
+        LRUCache<String, TestValue> cache = new LRUCache<>(100, v -> v.weight, false);
+        cache.put("a", new TestValue(10));
+        cache.put("a", new TestValue(20));
+        Assertions.assertEquals(20, cache.getWeight());
+        cache.put("a", null);
+        Assertions.assertTrue(cache.isEmpty());
+        Assertions.assertEquals(0, cache.getWeight());
+        Assertions.assertEquals(0, cache.getStatistics().getEvictionCount());
+    }
+
+    @Test
+    void testSoftFallback() {
+        LRUCache<String, TestValue> cache = new LRUCache<>(10, v -> v.weight, true);
+        TestValue a = new TestValue(10);
+        cache.put("a", a);
+        cache.put("b", new TestValue(10));
+        Assertions.assertEquals(1, cache.size());
+        // The evicted value is still strongly referenced, hence it can't have been collected.
+        Assertions.assertSame(a, cache.get("a"));
+        Assertions.assertEquals(1, cache.getStatistics().getHitCount());
+        // The value has been moved back into the cache, evicting the other value.
+        Assertions.assertEquals(1, cache.size());
+        Assertions.assertEquals(10, cache.getWeight());
+        Assertions.assertEquals(2, cache.getStatistics().getEvictionCount());
+
+        cache.clear();
+        Assertions.assertNull(cache.get("a"));
+    }
+
+    private static class TestValue implements SoftCache.Cacheable<String> {
+        private long weight;
+        private String key;
+        private Cache<String, ?> cache;
+
+        private TestValue(final long weight) {
+            this.weight = weight;
+        }
+
+        @Override
+        public void setCacheKey(final String key) {
+            this.key = key;
+        }
+
+        @Override
+        public void setCache(final Cache<String, ?> cache) {
+            this.cache = cache;
+        }
+    }
+}